@@ -0,0 +1,141 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark state shared across the different benchmark classes, each nested
+ * class holds the ascending sequence {@code 0, 1, ..., size - 1} stored in an
+ * array of the relevant element type.
+ *
+ * @author t
+ */
+public final class Data
+{
+    private Data()
+    {
+    }
+
+    /**
+     * Finds the length of the longest prefix of a sequence whose elements
+     * satisfy a predicate with a short circuiting search. The stream
+     * baselines use this in place of takeWhile and dropWhile which Java 8
+     * streams lack.
+     *
+     * @param size  The length of the sequence.
+     * @param holds Whether the predicate holds for the element at an index.
+     * @return The length of the prefix.
+     */
+    static int prefixLength(int size, IntPredicate holds)
+    {
+        return IntStream.range(0, size).filter(holds.negate()).findFirst()
+                .orElse(size);
+    }
+
+    @State(Scope.Benchmark)
+    public static class OfObject
+    {
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        public Integer[] array;
+
+        @Setup
+        public void setup()
+        {
+            array = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = i;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OfInt
+    {
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        public int[] array;
+
+        @Setup
+        public void setup()
+        {
+            array = new int[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = i;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OfLong
+    {
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        public long[] array;
+
+        @Setup
+        public void setup()
+        {
+            array = new long[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = i;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OfDouble
+    {
+        @Param({"10", "1000", "100000", "10000000"})
+        public int size;
+
+        public double[] array;
+
+        @Setup
+        public void setup()
+        {
+            array = new double[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = i;
+            }
+        }
+    }
+
+    /**
+     * The same sequence as {@link OfInt} dealt round robin into a fixed number
+     * of partitions, each of which is therefore sorted.
+     */
+    @State(Scope.Benchmark)
+    public static class SortedIntPartitions
+    {
+        public static final int COUNT = 32;
+
+        @Param({"1000", "100000", "10000000"})
+        public int size;
+
+        public int[][] partitions;
+
+        @Setup
+        public void setup()
+        {
+            partitions = new int[COUNT][];
+            for (int p = 0; p < COUNT; p++) {
+                partitions[p] = new int[(size - p + COUNT - 1) / COUNT];
+            }
+            for (int i = 0; i < size; i++) {
+                partitions[i % COUNT][i / COUNT] = i;
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.utils.DoubleTup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Compares each of the primitive double iterator adapters against the
+ * equivalent sequential {@link DoubleStream} code.
+ *
+ * @author t
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoubleAdapterBenchmark
+{
+    @Benchmark
+    public void mapIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).map(x -> x + 1), bh);
+    }
+
+    @Benchmark
+    public void mapStream(Data.OfDouble data, Blackhole bh)
+    {
+        Arrays.stream(data.array).map(x -> x + 1).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mapToLongIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).mapToLong(x -> (long) x + 1L), bh);
+    }
+
+    @Benchmark
+    public void mapToLongStream(Data.OfDouble data, Blackhole bh)
+    {
+        Arrays.stream(data.array).mapToLong(x -> (long) x + 1L)
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mapToObjIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).mapToObj(Double::toString), bh);
+    }
+
+    @Benchmark
+    public void mapToObjStream(Data.OfDouble data, Blackhole bh)
+    {
+        Arrays.stream(data.array).mapToObj(Double::toString)
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void filterIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).filter(x -> x % 3 == 0), bh);
+    }
+
+    @Benchmark
+    public void filterStream(Data.OfDouble data, Blackhole bh)
+    {
+        Arrays.stream(data.array).filter(x -> x % 3 == 0).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void zipIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).zip(Iter.doubles(data.array)), bh);
+    }
+
+    @Benchmark
+    public void zipStream(Data.OfDouble data, Blackhole bh)
+    {
+        double[] xs = data.array;
+        IntStream.range(0, xs.length)
+                .mapToObj(i -> DoubleTup.of(xs[i], xs[i]))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void zipWithIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array)
+                .zipWith(Iter.doubles(data.array), (a, b) -> a * b), bh);
+    }
+
+    @Benchmark
+    public void zipWithStream(Data.OfDouble data, Blackhole bh)
+    {
+        double[] xs = data.array;
+        IntStream.range(0, xs.length).mapToDouble(i -> xs[i] * xs[i])
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void sliceIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).slice(i -> 2 * i), bh);
+    }
+
+    @Benchmark
+    public void sliceStream(Data.OfDouble data, Blackhole bh)
+    {
+        double[] xs = data.array;
+        IntStream.range(0, (xs.length + 1) / 2).mapToDouble(i -> xs[2 * i])
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void scanIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).scan(0, (acc, x) -> acc + x), bh);
+    }
+
+    @Benchmark
+    public void scanStream(Data.OfDouble data, Blackhole bh)
+    {
+        // Streams have no scan operation, use a stateful map instead
+        double[] acc = {0};
+        DoubleStream.concat(DoubleStream.of(0),
+                Arrays.stream(data.array).map(x -> acc[0] += x))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void chainIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).chain(Iter.doubles(data.array)), bh);
+    }
+
+    @Benchmark
+    public void chainStream(Data.OfDouble data, Blackhole bh)
+    {
+        DoubleStream
+                .concat(Arrays.stream(data.array), Arrays.stream(data.array))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void takeIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).take(data.size / 2), bh);
+    }
+
+    @Benchmark
+    public void takeStream(Data.OfDouble data, Blackhole bh)
+    {
+        Arrays.stream(data.array).limit(data.size / 2).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).skip(data.size / 2), bh);
+    }
+
+    @Benchmark
+    public void skipStream(Data.OfDouble data, Blackhole bh)
+    {
+        Arrays.stream(data.array).skip(data.size / 2).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void takeWhileIter(Data.OfDouble data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        Drain.all(Iter.doubles(data.array).takeWhile(x -> x < half), bh);
+    }
+
+    @Benchmark
+    public void takeWhileStream(Data.OfDouble data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        int prefix = Data.prefixLength(data.size, i -> data.array[i] < half);
+        Arrays.stream(data.array).limit(prefix).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipWhileIter(Data.OfDouble data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        Drain.all(Iter.doubles(data.array).skipWhile(x -> x < half), bh);
+    }
+
+    @Benchmark
+    public void skipWhileStream(Data.OfDouble data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        int prefix = Data.prefixLength(data.size, i -> data.array[i] < half);
+        Arrays.stream(data.array).skip(prefix).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void rollingMeanIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).rollingMean(32), bh);
+    }
+
+    @Benchmark
+    public void rollingMeanOfWindowsIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).windows(32, 1)
+                .mapToDouble(w -> w.iter().sum() / 32), bh);
+    }
+
+    @Benchmark
+    public void rollingMaxIter(Data.OfDouble data, Blackhole bh)
+    {
+        Drain.all(Iter.doubles(data.array).rollingMax(32), bh);
+    }
+}
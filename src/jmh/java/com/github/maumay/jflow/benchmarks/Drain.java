@@ -0,0 +1,50 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+/**
+ * Pulls every element out of an iterator and into a blackhole, this is the
+ * iterator analogue of calling {@code forEach(bh::consume)} on a stream.
+ *
+ * @author t
+ */
+final class Drain
+{
+    private Drain()
+    {
+    }
+
+    static void all(Iterator<?> source, Blackhole bh)
+    {
+        while (source.hasNext()) {
+            bh.consume(source.next());
+        }
+    }
+
+    static void all(PrimitiveIterator.OfInt source, Blackhole bh)
+    {
+        while (source.hasNext()) {
+            bh.consume(source.nextInt());
+        }
+    }
+
+    static void all(PrimitiveIterator.OfLong source, Blackhole bh)
+    {
+        while (source.hasNext()) {
+            bh.consume(source.nextLong());
+        }
+    }
+
+    static void all(PrimitiveIterator.OfDouble source, Blackhole bh)
+    {
+        while (source.hasNext()) {
+            bh.consume(source.nextDouble());
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.utils.IntTup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares each of the primitive int iterator adapters against the equivalent
+ * sequential {@link IntStream} code.
+ *
+ * @author t
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntAdapterBenchmark
+{
+    @Benchmark
+    public void mapIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).map(x -> x + 1), bh);
+    }
+
+    @Benchmark
+    public void mapStream(Data.OfInt data, Blackhole bh)
+    {
+        Arrays.stream(data.array).map(x -> x + 1).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mapToLongIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).mapToLong(x -> x + 1L), bh);
+    }
+
+    @Benchmark
+    public void mapToLongStream(Data.OfInt data, Blackhole bh)
+    {
+        Arrays.stream(data.array).mapToLong(x -> x + 1L).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mapToObjIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).mapToObj(Integer::toString), bh);
+    }
+
+    @Benchmark
+    public void mapToObjStream(Data.OfInt data, Blackhole bh)
+    {
+        Arrays.stream(data.array).mapToObj(Integer::toString)
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void filterIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).filter(x -> x % 3 == 0), bh);
+    }
+
+    @Benchmark
+    public void filterStream(Data.OfInt data, Blackhole bh)
+    {
+        Arrays.stream(data.array).filter(x -> x % 3 == 0).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void distinctIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).map(x -> x / 2).distinct(), bh);
+    }
+
+    @Benchmark
+    public void distinctApproxIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).map(x -> x / 2)
+                .distinctApprox(data.size / 2 + 1, 0.01), bh);
+    }
+
+    @Benchmark
+    public void distinctStream(Data.OfInt data, Blackhole bh)
+    {
+        Arrays.stream(data.array).map(x -> x / 2).distinct()
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mapFilterChainIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).map(x -> x + 1).map(x -> 3 * x)
+                .filter(x -> x % 2 == 0).filter(x -> x % 5 != 0), bh);
+    }
+
+    @Benchmark
+    public void mapFilterChainStream(Data.OfInt data, Blackhole bh)
+    {
+        Arrays.stream(data.array).map(x -> x + 1).map(x -> 3 * x)
+                .filter(x -> x % 2 == 0).filter(x -> x % 5 != 0)
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void zipIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).zip(Iter.ints(data.array)), bh);
+    }
+
+    @Benchmark
+    public void zipStream(Data.OfInt data, Blackhole bh)
+    {
+        int[] xs = data.array;
+        IntStream.range(0, xs.length).mapToObj(i -> IntTup.of(xs[i], xs[i]))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void sliceIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).slice(i -> 2 * i), bh);
+    }
+
+    @Benchmark
+    public void sliceStream(Data.OfInt data, Blackhole bh)
+    {
+        int[] xs = data.array;
+        IntStream.range(0, (xs.length + 1) / 2).map(i -> xs[2 * i])
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void chainIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).chain(Iter.ints(data.array)), bh);
+    }
+
+    @Benchmark
+    public void chainStream(Data.OfInt data, Blackhole bh)
+    {
+        IntStream.concat(Arrays.stream(data.array), Arrays.stream(data.array))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void takeIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).take(data.size / 2), bh);
+    }
+
+    @Benchmark
+    public void takeStream(Data.OfInt data, Blackhole bh)
+    {
+        Arrays.stream(data.array).limit(data.size / 2).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipIter(Data.OfInt data, Blackhole bh)
+    {
+        Drain.all(Iter.ints(data.array).skip(data.size / 2), bh);
+    }
+
+    @Benchmark
+    public void skipStream(Data.OfInt data, Blackhole bh)
+    {
+        Arrays.stream(data.array).skip(data.size / 2).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipTakeIter(Data.OfInt data, Blackhole bh)
+    {
+        int quarter = data.size / 4;
+        Drain.all(Iter.ints(data.array).skip(quarter).take(2 * quarter), bh);
+    }
+
+    @Benchmark
+    public void skipTakeStream(Data.OfInt data, Blackhole bh)
+    {
+        int quarter = data.size / 4;
+        Arrays.stream(data.array).skip(quarter).limit(2 * quarter)
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void takeWhileIter(Data.OfInt data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        Drain.all(Iter.ints(data.array).takeWhile(x -> x < half), bh);
+    }
+
+    @Benchmark
+    public void takeWhileStream(Data.OfInt data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        int prefix = Data.prefixLength(data.size, i -> data.array[i] < half);
+        Arrays.stream(data.array).limit(prefix).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipWhileIter(Data.OfInt data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        Drain.all(Iter.ints(data.array).skipWhile(x -> x < half), bh);
+    }
+
+    @Benchmark
+    public void skipWhileStream(Data.OfInt data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        int prefix = Data.prefixLength(data.size, i -> data.array[i] < half);
+        Arrays.stream(data.array).skip(prefix).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mergeSortedIter(Data.SortedIntPartitions data, Blackhole bh)
+    {
+        IntIterator[] sources = new IntIterator[data.partitions.length];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = Iter.ints(data.partitions[i]);
+        }
+        Drain.all(Iter.mergeSortedInts(sources), bh);
+    }
+
+    @Benchmark
+    public void mergeSortedStream(Data.SortedIntPartitions data, Blackhole bh)
+    {
+        Arrays.stream(data.partitions).flatMapToInt(Arrays::stream).sorted()
+                .forEach(bh::consume);
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.utils.LongTup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Compares each of the primitive long iterator adapters against the equivalent
+ * sequential {@link LongStream} code.
+ *
+ * @author t
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongAdapterBenchmark
+{
+    @Benchmark
+    public void mapIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).map(x -> x + 1), bh);
+    }
+
+    @Benchmark
+    public void mapStream(Data.OfLong data, Blackhole bh)
+    {
+        Arrays.stream(data.array).map(x -> x + 1).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mapToDoubleIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).mapToDouble(x -> x + 1.0), bh);
+    }
+
+    @Benchmark
+    public void mapToDoubleStream(Data.OfLong data, Blackhole bh)
+    {
+        Arrays.stream(data.array).mapToDouble(x -> x + 1.0)
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void mapToObjIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).mapToObj(Long::toString), bh);
+    }
+
+    @Benchmark
+    public void mapToObjStream(Data.OfLong data, Blackhole bh)
+    {
+        Arrays.stream(data.array).mapToObj(Long::toString)
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void filterIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).filter(x -> x % 3 == 0), bh);
+    }
+
+    @Benchmark
+    public void filterStream(Data.OfLong data, Blackhole bh)
+    {
+        Arrays.stream(data.array).filter(x -> x % 3 == 0).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void zipIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).zip(Iter.longs(data.array)), bh);
+    }
+
+    @Benchmark
+    public void zipStream(Data.OfLong data, Blackhole bh)
+    {
+        long[] xs = data.array;
+        IntStream.range(0, xs.length)
+                .mapToObj(i -> LongTup.of(xs[i], xs[i]))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void sliceIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).slice(i -> 2 * i), bh);
+    }
+
+    @Benchmark
+    public void sliceStream(Data.OfLong data, Blackhole bh)
+    {
+        long[] xs = data.array;
+        IntStream.range(0, (xs.length + 1) / 2).mapToLong(i -> xs[2 * i])
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void chainIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).chain(Iter.longs(data.array)), bh);
+    }
+
+    @Benchmark
+    public void chainStream(Data.OfLong data, Blackhole bh)
+    {
+        LongStream
+                .concat(Arrays.stream(data.array), Arrays.stream(data.array))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void takeIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).take(data.size / 2), bh);
+    }
+
+    @Benchmark
+    public void takeStream(Data.OfLong data, Blackhole bh)
+    {
+        Arrays.stream(data.array).limit(data.size / 2).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipIter(Data.OfLong data, Blackhole bh)
+    {
+        Drain.all(Iter.longs(data.array).skip(data.size / 2), bh);
+    }
+
+    @Benchmark
+    public void skipStream(Data.OfLong data, Blackhole bh)
+    {
+        Arrays.stream(data.array).skip(data.size / 2).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void takeWhileIter(Data.OfLong data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        Drain.all(Iter.longs(data.array).takeWhile(x -> x < half), bh);
+    }
+
+    @Benchmark
+    public void takeWhileStream(Data.OfLong data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        int prefix = Data.prefixLength(data.size, i -> data.array[i] < half);
+        Arrays.stream(data.array).limit(prefix).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipWhileIter(Data.OfLong data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        Drain.all(Iter.longs(data.array).skipWhile(x -> x < half), bh);
+    }
+
+    @Benchmark
+    public void skipWhileStream(Data.OfLong data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        int prefix = Data.prefixLength(data.size, i -> data.array[i] < half);
+        Arrays.stream(data.array).skip(prefix).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void sortedExternalIter(Data.OfLong data, Blackhole bh)
+    {
+        // A budget of an eighth of the input spills eight runs to disk.
+        int budget = Math.max(1, data.size / 8);
+        Drain.all(Iter.longs(data.array).map(x -> -x).sortedExternal(budget),
+                bh);
+    }
+
+    @Benchmark
+    public void sortedStream(Data.OfLong data, Blackhole bh)
+    {
+        Arrays.stream(data.array).map(x -> -x).sorted().forEach(bh::consume);
+    }
+}
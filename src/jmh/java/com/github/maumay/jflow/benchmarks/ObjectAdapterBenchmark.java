@@ -0,0 +1,283 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.utils.Tup;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Compares each of the object iterator adapters against the equivalent
+ * sequential stream code. Every pair of benchmarks traverses the same elements
+ * and pushes them into a blackhole so only the adaption overhead differs.
+ *
+ * @author t
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectAdapterBenchmark
+{
+    @Benchmark
+    public void mapIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).map(x -> x + 1), bh);
+    }
+
+    @Benchmark
+    public void mapStream(Data.OfObject data, Blackhole bh)
+    {
+        Arrays.stream(data.array).map(x -> x + 1).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void filterIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).filter(x -> x % 3 == 0), bh);
+    }
+
+    @Benchmark
+    public void filterStream(Data.OfObject data, Blackhole bh)
+    {
+        Arrays.stream(data.array).filter(x -> x % 3 == 0).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void flatMapIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).flatMap(x -> Iter.args(x, x)), bh);
+    }
+
+    @Benchmark
+    public void flatMapStream(Data.OfObject data, Blackhole bh)
+    {
+        Arrays.stream(data.array).flatMap(x -> Stream.of(x, x))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void flatMapToIntIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).flatMapToInt(x -> Iter.ints(x, x)),
+                bh);
+    }
+
+    @Benchmark
+    public void flatMapToIntStream(Data.OfObject data, Blackhole bh)
+    {
+        Arrays.stream(data.array).flatMapToInt(x -> IntStream.of(x, x))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void chunksIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).chunks(64), bh);
+    }
+
+    @Benchmark
+    public void chunksIntoIter(Data.OfObject data, Blackhole bh)
+    {
+        Integer[] buffer = new Integer[64];
+        Drain.all(Iter.args(data.array).chunksInto(buffer), bh);
+    }
+
+    @Benchmark
+    public void zipIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).zip(Iter.args(data.array)), bh);
+    }
+
+    @Benchmark
+    public void zipStream(Data.OfObject data, Blackhole bh)
+    {
+        Integer[] xs = data.array;
+        IntStream.range(0, xs.length).mapToObj(i -> Tup.of(xs[i], xs[i]))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void enumerateIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).enumerate(), bh);
+    }
+
+    @Benchmark
+    public void enumerateIntoIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).enumerateInto((i, x) -> i + x), bh);
+    }
+
+    @Benchmark
+    public void sliceIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).slice(i -> 2 * i), bh);
+    }
+
+    @Benchmark
+    public void sliceStream(Data.OfObject data, Blackhole bh)
+    {
+        Integer[] xs = data.array;
+        IntStream.range(0, (xs.length + 1) / 2).mapToObj(i -> xs[2 * i])
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void scanIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).scan(0, (acc, x) -> acc + x), bh);
+    }
+
+    @Benchmark
+    public void scanStream(Data.OfObject data, Blackhole bh)
+    {
+        // Streams have no scan operation, use a stateful map instead
+        int[] acc = {0};
+        Stream.concat(Stream.of(0),
+                Arrays.stream(data.array).map(x -> acc[0] += x))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void chainIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).chain(Iter.args(data.array)), bh);
+    }
+
+    @Benchmark
+    public void chainStream(Data.OfObject data, Blackhole bh)
+    {
+        Stream.concat(Arrays.stream(data.array), Arrays.stream(data.array))
+                .forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void takeIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).take(data.size / 2), bh);
+    }
+
+    @Benchmark
+    public void takeStream(Data.OfObject data, Blackhole bh)
+    {
+        Arrays.stream(data.array).limit(data.size / 2).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).skip(data.size / 2), bh);
+    }
+
+    @Benchmark
+    public void skipStream(Data.OfObject data, Blackhole bh)
+    {
+        Arrays.stream(data.array).skip(data.size / 2).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void pageIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).map(x -> x + 1).skip(data.size / 2)
+                .take(100), bh);
+    }
+
+    @Benchmark
+    public void pageStream(Data.OfObject data, Blackhole bh)
+    {
+        Arrays.stream(data.array).map(x -> x + 1).skip(data.size / 2)
+                .limit(100).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void takeWhileIter(Data.OfObject data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        Drain.all(Iter.args(data.array).takeWhile(x -> x < half), bh);
+    }
+
+    @Benchmark
+    public void takeWhileStream(Data.OfObject data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        int prefix = Data.prefixLength(data.size, i -> data.array[i] < half);
+        Arrays.stream(data.array).limit(prefix).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void skipWhileIter(Data.OfObject data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        Drain.all(Iter.args(data.array).skipWhile(x -> x < half), bh);
+    }
+
+    @Benchmark
+    public void skipWhileStream(Data.OfObject data, Blackhole bh)
+    {
+        int half = data.size / 2;
+        int prefix = Data.prefixLength(data.size, i -> data.array[i] < half);
+        Arrays.stream(data.array).skip(prefix).forEach(bh::consume);
+    }
+
+    /**
+     * Joins every element to a table a twentieth of the size, in the manner of
+     * enriching events from a dimension table.
+     */
+    @Benchmark
+    public void hashJoinIter(Data.OfObject data, Blackhole bh)
+    {
+        int dimension = data.size / 20 + 1;
+        Drain.all(Iter.args(data.array).hashJoin(
+                Iter.args(data.array).take(dimension), x -> x % dimension,
+                y -> y, Integer::sum), bh);
+    }
+
+    @Benchmark
+    public void hashJoinStream(Data.OfObject data, Blackhole bh)
+    {
+        int dimension = data.size / 20 + 1;
+        Map<Integer, List<Integer>> table = Arrays.stream(data.array)
+                .limit(dimension).collect(Collectors.groupingBy(y -> y));
+        Arrays.stream(data.array)
+                .flatMap(x -> table.getOrDefault(x % dimension,
+                        Collections.emptyList()).stream().map(y -> x + y))
+                .forEach(bh::consume);
+    }
+
+    private static Integer work(Integer x)
+    {
+        Blackhole.consumeCPU(100);
+        return x;
+    }
+
+    /**
+     * Splits equal amounts of work either side of a prefetch so that it runs
+     * on two threads, compare with {@link #prefetchBaseline}.
+     */
+    @Benchmark
+    public void prefetchIter(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).map(ObjectAdapterBenchmark::work)
+                .prefetch(1024).map(ObjectAdapterBenchmark::work), bh);
+    }
+
+    @Benchmark
+    public void prefetchBaseline(Data.OfObject data, Blackhole bh)
+    {
+        Drain.all(Iter.args(data.array).map(ObjectAdapterBenchmark::work)
+                .map(ObjectAdapterBenchmark::work), bh);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.vec.PersistentVec;
+import com.github.maumay.jflow.vec.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building and updating the array backed vector one element at a
+ * time against the persistent vector.
+ *
+ * @author t
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistentVecBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class Vectors
+    {
+        // Incremental building of the array backed vector is quadratic so the
+        // sizes are kept smaller than in the other benchmarks.
+        @Param({"10", "1000", "10000"})
+        public int size;
+
+        public Vec<Integer> array;
+        public PersistentVec<Integer> persistent;
+
+        @Setup
+        public void setup()
+        {
+            array = Iter.until(size).boxed().toVec();
+            persistent = array.iter().toPersistentVec();
+        }
+    }
+
+    @Benchmark
+    public Vec<Integer> appendArrayVec(Vectors data)
+    {
+        Vec<Integer> result = Vec.empty();
+        for (int i = 0; i < data.size; i++) {
+            result = result.append(i);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Vec<Integer> appendPersistentVec(Vectors data)
+    {
+        PersistentVec<Integer> result = PersistentVec.empty();
+        for (int i = 0; i < data.size; i++) {
+            result = result.append(i);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public PersistentVec<Integer> setPersistentVec(Vectors data)
+    {
+        PersistentVec<Integer> result = data.persistent;
+        for (int i = 0; i < data.size; i++) {
+            result = result.set(i, -i);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long getArrayVec(Vectors data)
+    {
+        long sum = 0;
+        for (int i = 0; i < data.size; i++) {
+            sum += data.array.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long getPersistentVec(Vectors data)
+    {
+        long sum = 0;
+        for (int i = 0; i < data.size; i++) {
+            sum += data.persistent.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateArrayVec(Vectors data)
+    {
+        return data.array.iter().mapToLong(x -> x).fold(0L, Long::sum);
+    }
+
+    @Benchmark
+    public long iteratePersistentVec(Vectors data)
+    {
+        return data.persistent.iter().mapToLong(x -> x).fold(0L, Long::sum);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.Pipeline;
+import com.github.maumay.jflow.vec.Vec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures short pipelines over very small vectors where the cost of building
+ * each stage and tracking sizes dominates the work done per element.
+ *
+ * @author t
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmallVecPipelineBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class Vectors
+    {
+        public Vec<Integer> vec;
+        public List<Integer> list;
+        public Pipeline<Integer, String> pipeline, compiled;
+
+        @Setup
+        public void setup()
+        {
+            vec = Iter.until(10).boxed().toVec();
+            list = vec.toList();
+            pipeline = Pipeline.<Integer> identity().filter(x -> x > 0)
+                    .map(x -> x * 3).filter(x -> x % 2 == 1).take(4)
+                    .map(Object::toString);
+            compiled = pipeline.compile();
+        }
+    }
+
+    @Benchmark
+    public Vec<Integer> mapFilterIter(Vectors data)
+    {
+        return data.vec.iter().map(x -> x + 1).filter(x -> x % 2 == 0)
+                .toVec();
+    }
+
+    @Benchmark
+    public List<Integer> mapFilterStream(Vectors data)
+    {
+        return data.list.stream().map(x -> x + 1).filter(x -> x % 2 == 0)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void nextLoopIter(Vectors data, Blackhole bh)
+    {
+        Drain.all(data.vec.iter().map(x -> x + 1).take(8), bh);
+    }
+
+    @Benchmark
+    public void nextLoopStream(Vectors data, Blackhole bh)
+    {
+        Drain.all(data.list.stream().map(x -> x + 1).limit(8).iterator(), bh);
+    }
+
+    @Benchmark
+    public long countIter(Vectors data)
+    {
+        return data.vec.iter().skip(2).filter(x -> x > 4).count();
+    }
+
+    @Benchmark
+    public long countStream(Vectors data)
+    {
+        return data.list.stream().skip(2).filter(x -> x > 4).count();
+    }
+
+    @Benchmark
+    public Vec<String> fiveStageAdapters(Vectors data)
+    {
+        return data.vec.iter().filter(x -> x > 0).map(x -> x * 3)
+                .filter(x -> x % 2 == 1).take(4).map(Object::toString)
+                .toVec();
+    }
+
+    @Benchmark
+    public Vec<String> fiveStagePipeline(Vectors data)
+    {
+        return data.pipeline.apply(data.vec);
+    }
+
+    @Benchmark
+    public Vec<String> fiveStageCompiledPipeline(Vectors data)
+    {
+        return data.compiled.apply(data.vec);
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.benchmarks;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.collector.IterCollect;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the iterator consumption methods against the equivalent sequential
+ * stream terminal operations.
+ *
+ * @author t
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerminalBenchmark
+{
+    @Benchmark
+    public Object toVecIter(Data.OfObject data)
+    {
+        return Iter.args(data.array).map(x -> x + 1).toVec();
+    }
+
+    @Benchmark
+    public Object toVecStream(Data.OfObject data)
+    {
+        return Arrays.stream(data.array).map(x -> x + 1).toArray();
+    }
+
+    @Benchmark
+    public Object filteredToVecIter(Data.OfObject data)
+    {
+        return Iter.args(data.array).filter(x -> x % 3 == 0).toVec();
+    }
+
+    @Benchmark
+    public Object filteredToVecStream(Data.OfObject data)
+    {
+        return Arrays.stream(data.array).filter(x -> x % 3 == 0).toArray();
+    }
+
+    @Benchmark
+    public List<Integer> toListIter(Data.OfObject data)
+    {
+        return Iter.args(data.array).map(x -> x + 1).toList();
+    }
+
+    @Benchmark
+    public List<Integer> toListStream(Data.OfObject data)
+    {
+        return Arrays.stream(data.array).map(x -> x + 1)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Integer foldIter(Data.OfObject data)
+    {
+        return Iter.args(data.array).fold(0, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public Integer foldStream(Data.OfObject data)
+    {
+        return Arrays.stream(data.array).reduce(0, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public Object minIter(Data.OfObject data)
+    {
+        return Iter.args(data.array).minOp(Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public Object minStream(Data.OfObject data)
+    {
+        return Arrays.stream(data.array).min(Comparator.naturalOrder());
+    }
+
+    @Benchmark
+    public long countIter(Data.OfObject data)
+    {
+        return Iter.args(data.array).filter(x -> x % 3 == 0).count();
+    }
+
+    @Benchmark
+    public long countStream(Data.OfObject data)
+    {
+        return Arrays.stream(data.array).filter(x -> x % 3 == 0).count();
+    }
+
+    @Benchmark
+    public Object intToVecIter(Data.OfInt data)
+    {
+        return Iter.ints(data.array).map(x -> x + 1).toVec();
+    }
+
+    @Benchmark
+    public Object intToVecStream(Data.OfInt data)
+    {
+        return Arrays.stream(data.array).map(x -> x + 1).toArray();
+    }
+
+    @Benchmark
+    public long intFoldIter(Data.OfInt data)
+    {
+        return Iter.ints(data.array).fold(0, (acc, x) -> acc + x);
+    }
+
+    @Benchmark
+    public long intFoldStream(Data.OfInt data)
+    {
+        return Arrays.stream(data.array).sum();
+    }
+
+    @Benchmark
+    public Object intMinIter(Data.OfInt data)
+    {
+        return Iter.ints(data.array).minOp();
+    }
+
+    @Benchmark
+    public Object intMinStream(Data.OfInt data)
+    {
+        return Arrays.stream(data.array).min();
+    }
+
+    @Benchmark
+    public double doubleSumIter(Data.OfDouble data)
+    {
+        return Iter.doubles(data.array).sum();
+    }
+
+    @Benchmark
+    public double doubleSumStream(Data.OfDouble data)
+    {
+        return Arrays.stream(data.array).sum();
+    }
+
+    @Benchmark
+    public double doubleAverageIter(Data.OfDouble data)
+    {
+        return Iter.doubles(data.array).collect(IterCollect.average());
+    }
+
+    @Benchmark
+    public double doubleAverageStream(Data.OfDouble data)
+    {
+        return Arrays.stream(data.array).average().getAsDouble();
+    }
+
+    @Benchmark
+    public Object intHistogramIter(Data.OfInt data)
+    {
+        return Iter.ints(data.array).map(x -> x % 1000)
+                .collect(IterCollect.histogram());
+    }
+
+    @Benchmark
+    public Object intHistogramStream(Data.OfInt data)
+    {
+        return Arrays.stream(data.array).map(x -> x % 1000).boxed()
+                .collect(Collectors.groupingBy(x -> x, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Object countByIntIter(Data.OfObject data)
+    {
+        return Iter.args(data.array)
+                .collect(IterCollect.countByInt(x -> x % 1000));
+    }
+
+    @Benchmark
+    public Object countByIntStream(Data.OfObject data)
+    {
+        return Arrays.stream(data.array).collect(
+                Collectors.groupingBy(x -> x % 1000, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Object summaryIter(Data.OfDouble data)
+    {
+        return Iter.doubles(data.array)
+                .collect(IterCollect.summarizeDoubles());
+    }
+
+    @Benchmark
+    public Object summaryStream(Data.OfDouble data)
+    {
+        return Arrays.stream(data.array).summaryStatistics();
+    }
+
+    @Benchmark
+    public Object topKIter(Data.OfDouble data)
+    {
+        return Iter.doubles(data.array).topK(100);
+    }
+
+    @Benchmark
+    public Object topKStream(Data.OfDouble data)
+    {
+        return Arrays.stream(data.array).boxed()
+                .sorted(Comparator.reverseOrder()).limit(100)
+                .mapToDouble(x -> x).toArray();
+    }
+}
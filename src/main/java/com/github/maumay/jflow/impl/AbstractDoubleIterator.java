@@ -2,12 +2,15 @@ package com.github.maumay.jflow.impl;
 
 import com.github.maumay.jflow.iterator.DoubleIterator;
 import com.github.maumay.jflow.iterator.IteratorSlicer;
+import com.github.maumay.jflow.iterator.PrefetchIterator;
 import com.github.maumay.jflow.iterator.collector.DoubleIteratorCollector;
 import com.github.maumay.jflow.utils.DoubleTup;
 import com.github.maumay.jflow.utils.Option;
+import com.github.maumay.jflow.vec.DoubleVec;
 
 import java.util.NoSuchElementException;
 import java.util.OptionalDouble;
+import java.util.PrimitiveIterator;
 import java.util.function.*;
 
 /**
@@ -31,7 +34,7 @@ public abstract class AbstractDoubleIterator extends AbstractIterator
     public final double nextDouble()
     {
         if (hasOwnership()) {
-            getSize().decrement();
+            decrementSize();
             return nextDoubleImpl();
         } else {
             throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
@@ -43,7 +46,7 @@ public abstract class AbstractDoubleIterator extends AbstractIterator
     {
         if (hasOwnership()) {
             if (hasNext()) {
-                getSize().decrement();
+                decrementSize();
                 return Option.of(nextDoubleImpl());
             } else {
                 return Option.emptyDouble();
@@ -57,9 +60,7 @@ public abstract class AbstractDoubleIterator extends AbstractIterator
     public void forEach(DoubleConsumer action)
     {
         relinquishOwnership();
-        while (hasNext()) {
-            action.accept(nextDoubleImpl());
-        }
+        forEachRemainingImpl(action);
     }
 
     @Override
@@ -80,6 +81,21 @@ public abstract class AbstractDoubleIterator extends AbstractIterator
      */
     public abstract double nextDoubleImpl();
 
+    /**
+     * Implementation logic for internal iteration, passes each remaining element
+     * traversed by this iterator to the given action in turn. This method does
+     * not check the ownership flag, see {@link
+     * AbstractRichIterator#forEachRemainingImpl(java.util.function.Consumer)}.
+     *
+     * @param action The action to apply to each remaining element.
+     */
+    public void forEachRemainingImpl(DoubleConsumer action)
+    {
+        while (hasNext()) {
+            action.accept(nextDoubleImpl());
+        }
+    }
+
     // DoubleIterator API
     @Override
     public AbstractDoubleIterator slice(IteratorSlicer indexMapping)
@@ -111,12 +127,74 @@ public abstract class AbstractDoubleIterator extends AbstractIterator
         return new MapToIntAdapter.FromDouble(this, f);
     }
 
+    @Override
+    public AbstractDoubleIterator flatMap(
+            DoubleFunction<? extends PrimitiveIterator.OfDouble> f)
+    {
+        return new FlatmapToDoubleAdapter.FromDouble(this, f);
+    }
+
+    @Override
+    public AbstractRichIterator<DoubleVec> chunks(int n)
+    {
+        return new ChunkAdapter.OfDouble(this, n);
+    }
+
+    @Override
+    public AbstractIntIterator chunksInto(double[] buffer)
+    {
+        return new ChunkAdapter.IntoDoubleBuffer(this, buffer);
+    }
+
+    @Override
+    public AbstractRichIterator<DoubleVec> windows(int size, int step)
+    {
+        return new WindowAdapter.OfDouble(this, size, step);
+    }
+
+    @Override
+    public AbstractDoubleIterator rollingSum(int window)
+    {
+        return new RollingAdapter.Sum(this, window);
+    }
+
+    @Override
+    public AbstractDoubleIterator rollingMean(int window)
+    {
+        return new RollingAdapter.Mean(this, window);
+    }
+
+    @Override
+    public AbstractDoubleIterator rollingVariance(int window)
+    {
+        return new RollingAdapter.Variance(this, window);
+    }
+
+    @Override
+    public AbstractDoubleIterator rollingMin(int window)
+    {
+        return new RollingAdapter.Min(this, window);
+    }
+
+    @Override
+    public AbstractDoubleIterator rollingMax(int window)
+    {
+        return new RollingAdapter.Max(this, window);
+    }
+
     @Override
     public AbstractRichIterator<DoubleTup> zip(OfDouble other)
     {
         return new ZipAdapter.OfDoubles(this, IteratorWrapper.wrap(other));
     }
 
+    @Override
+    public AbstractDoubleIterator zipWith(OfDouble other, DoubleBinaryOperator combiner)
+    {
+        return new ZipWithAdapter.OfDouble(this, IteratorWrapper.wrap(other),
+                combiner);
+    }
+
     @Override
     public AbstractRichIterator<DoubleTup> enumerate()
     {
@@ -154,6 +232,27 @@ public abstract class AbstractDoubleIterator extends AbstractIterator
         return new FilterAdapter.OfDouble(this, predicate);
     }
 
+    @Override
+    public AbstractDoubleIterator distinct()
+    {
+        PrimitiveHashSets.OfLong seen = new PrimitiveHashSets.OfLong();
+        return filter(x -> seen.add(Double.doubleToLongBits(x)));
+    }
+
+    @Override
+    public AbstractDoubleIterator distinctApprox(int expectedCount,
+            double falsePositiveRate)
+    {
+        BloomFilter seen = new BloomFilter(expectedCount, falsePositiveRate);
+        return filter(x -> seen.add(Double.doubleToLongBits(x)));
+    }
+
+    @Override
+    public PrefetchIterator.OfDouble prefetch(int bufferSize)
+    {
+        return new PrefetchAdapter.OfDouble(this, bufferSize);
+    }
+
     @Override
     public AbstractDoubleIterator chain(OfDouble other)
     {
@@ -211,6 +310,18 @@ public abstract class AbstractDoubleIterator extends AbstractIterator
         return DoubleMinMaxConsumption.findMax(this);
     }
 
+    @Override
+    public DoubleVecImpl topK(int k)
+    {
+        return TopK.select(this, k, true);
+    }
+
+    @Override
+    public DoubleVecImpl bottomK(int k)
+    {
+        return TopK.select(this, k, false);
+    }
+
     @Override
     public boolean areAllEqual()
     {
@@ -276,7 +387,10 @@ public abstract class AbstractDoubleIterator extends AbstractIterator
     {
         if (hasOwnership()) {
             R result = collector.collect(this);
-            relinquishOwnership();
+            // Collectors consuming the internal traversal take ownership.
+            if (hasOwnership()) {
+                relinquishOwnership();
+            }
             return result;
         } else {
             throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
@@ -2,11 +2,15 @@ package com.github.maumay.jflow.impl;
 
 import com.github.maumay.jflow.iterator.IntIterator;
 import com.github.maumay.jflow.iterator.IteratorSlicer;
+import com.github.maumay.jflow.iterator.PrefetchIterator;
+import com.github.maumay.jflow.iterator.collector.IntIteratorCollector;
 import com.github.maumay.jflow.utils.IntTup;
 import com.github.maumay.jflow.utils.Option;
+import com.github.maumay.jflow.vec.IntVec;
 
 import java.util.NoSuchElementException;
 import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
 import java.util.function.*;
 
 /**
@@ -30,7 +34,7 @@ public abstract class AbstractIntIterator extends AbstractIterator implements
     public final int nextInt()
     {
         if (hasOwnership()) {
-            getSize().decrement();
+            decrementSize();
             return nextIntImpl();
         } else {
             throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
@@ -42,7 +46,7 @@ public abstract class AbstractIntIterator extends AbstractIterator implements
     {
         if (hasOwnership()) {
             if (hasNext()) {
-                getSize().decrement();
+                decrementSize();
                 return Option.of(nextIntImpl());
             } else {
                 return Option.emptyInt();
@@ -56,9 +60,7 @@ public abstract class AbstractIntIterator extends AbstractIterator implements
     public void forEach(IntConsumer action)
     {
         relinquishOwnership();
-        while (hasNext()) {
-            action.accept(nextIntImpl());
-        }
+        forEachRemainingImpl(action);
     }
 
     @Override
@@ -79,6 +81,21 @@ public abstract class AbstractIntIterator extends AbstractIterator implements
      */
     public abstract int nextIntImpl();
 
+    /**
+     * Implementation logic for internal iteration, passes each remaining element
+     * traversed by this iterator to the given action in turn. This method does
+     * not check the ownership flag, see {@link
+     * AbstractRichIterator#forEachRemainingImpl(java.util.function.Consumer)}.
+     *
+     * @param action The action to apply to each remaining element.
+     */
+    public void forEachRemainingImpl(IntConsumer action)
+    {
+        while (hasNext()) {
+            action.accept(nextIntImpl());
+        }
+    }
+
     // IntIterator API
     @Override
     public AbstractIntIterator slice(IteratorSlicer sliceMap)
@@ -110,12 +127,44 @@ public abstract class AbstractIntIterator extends AbstractIterator implements
         return new MapToLongAdapter.FromInt(this, f);
     }
 
+    @Override
+    public AbstractIntIterator flatMap(
+            IntFunction<? extends PrimitiveIterator.OfInt> f)
+    {
+        return new FlatmapToIntAdapter.FromInt(this, f);
+    }
+
+    @Override
+    public AbstractRichIterator<IntVec> chunks(int n)
+    {
+        return new ChunkAdapter.OfInt(this, n);
+    }
+
+    @Override
+    public AbstractIntIterator chunksInto(int[] buffer)
+    {
+        return new ChunkAdapter.IntoIntBuffer(this, buffer);
+    }
+
+    @Override
+    public AbstractRichIterator<IntVec> windows(int size, int step)
+    {
+        return new WindowAdapter.OfInt(this, size, step);
+    }
+
     @Override
     public AbstractRichIterator<IntTup> zip(OfInt other)
     {
         return new ZipAdapter.OfInts(this, IteratorWrapper.wrap(other));
     }
 
+    @Override
+    public AbstractIntIterator zipWith(OfInt other, IntBinaryOperator combiner)
+    {
+        return new ZipWithAdapter.OfInt(this, IteratorWrapper.wrap(other),
+                combiner);
+    }
+
     @Override
     public AbstractRichIterator<IntTup> enumerate()
     {
@@ -152,6 +201,26 @@ public abstract class AbstractIntIterator extends AbstractIterator implements
         return new FilterAdapter.OfInt(this, predicate);
     }
 
+    @Override
+    public AbstractIntIterator distinct()
+    {
+        return filter(new PrimitiveHashSets.OfInt()::add);
+    }
+
+    @Override
+    public AbstractIntIterator distinctApprox(int expectedCount,
+            double falsePositiveRate)
+    {
+        BloomFilter seen = new BloomFilter(expectedCount, falsePositiveRate);
+        return filter(seen::add);
+    }
+
+    @Override
+    public PrefetchIterator.OfInt prefetch(int bufferSize)
+    {
+        return new PrefetchAdapter.OfInt(this, bufferSize);
+    }
+
     @Override
     public AbstractIntIterator chain(OfInt other)
     {
@@ -208,6 +277,18 @@ public abstract class AbstractIntIterator extends AbstractIterator implements
         return IntMinMaxConsumption.findMax(this);
     }
 
+    @Override
+    public IntVecImpl topK(int k)
+    {
+        return TopK.select(this, k, true);
+    }
+
+    @Override
+    public IntVecImpl bottomK(int k)
+    {
+        return TopK.select(this, k, false);
+    }
+
     @Override
     public <C extends Comparable<C>> OptionalInt maxByKey(IntFunction<C> key)
     {
@@ -262,6 +343,21 @@ public abstract class AbstractIntIterator extends AbstractIterator implements
         return ArrayAccumulators.consume(this);
     }
 
+    @Override
+    public <R> R collect(IntIteratorCollector<R> collector)
+    {
+        if (hasOwnership()) {
+            R result = collector.collect(this);
+            // Collectors consuming the internal traversal take ownership.
+            if (hasOwnership()) {
+                relinquishOwnership();
+            }
+            return result;
+        } else {
+            throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
+        }
+    }
+
     @Override
     public IntVecImpl toVec()
     {
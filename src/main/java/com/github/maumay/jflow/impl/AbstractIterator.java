@@ -14,9 +14,19 @@ public abstract class AbstractIterator
     protected static final String OWNERSHIP_ERR_MSG = "Ownership has been reliquished!";
 
     /**
-     * The sizing information for this iterator
+     * The sizing information for this iterator at the point it was last
+     * brought up to date. Sizes are immutable so they can be shared between
+     * the stages of a pipeline without copying.
      */
-    private final AbstractIteratorSize size;
+    private AbstractIteratorSize size;
+
+    /**
+     * The number of elements consumed through {@link #forward()} (and the next
+     * methods of subclasses) which have not yet been subtracted from the size.
+     * The subtraction is deferred until the size is requested so the per
+     * element cost is a primitive increment.
+     */
+    private long consumed;
 
     /**
      * Flag indicating whether this iterator has ownership over its {@link #next()}
@@ -38,9 +48,22 @@ public abstract class AbstractIterator
      */
     public final AbstractIteratorSize getSize()
     {
+        if (consumed > 0) {
+            size = size.subtract((int) Math.min(consumed, Integer.MAX_VALUE));
+            consumed = 0;
+        }
         return size;
     }
 
+    /**
+     * Records that a single element has been consumed by the owner of this
+     * iterator.
+     */
+    final void decrementSize()
+    {
+        consumed++;
+    }
+
     /**
      * Retrieve flag indicating whether this iterator still possesses ownership of
      * its skip and next methods.
@@ -72,7 +95,7 @@ public abstract class AbstractIterator
     public final void forward()
     {
         if (hasOwnership()) {
-            getSize().decrement();
+            decrementSize();
             forwardImpl();
         } else {
             throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
@@ -86,6 +109,27 @@ public abstract class AbstractIterator
      */
     public abstract void forwardImpl();
 
+    /**
+     * Advances this iterator past at most the given number of elements,
+     * stopping early if it runs out. Like {@link #forwardImpl()} it does not
+     * check for ownership or update the size. The default implementation
+     * forwards one element at a time, sources supporting random access (and
+     * adapters which preserve the position of each element) override it to
+     * jump directly to the target index.
+     *
+     * @param n The maximum number of elements to skip, must be non-negative.
+     * @return The number of elements which were actually skipped.
+     */
+    public int skipImpl(int n)
+    {
+        int count = 0;
+        while (count < n && hasNext()) {
+            forwardImpl();
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Checks if this iterator still has more elements to traverse.
      *
@@ -41,6 +41,22 @@ public class AbstractIteratorAdapter
             source.relinquishOwnership();
         }
 
+        /**
+         * Creates an adapter which takes the place of another adapter of the
+         * same source, this is used to fuse adjacent adapters into one. The
+         * replaced adapter loses its ownership and this adapter adopts its
+         * source, which has already been locked.
+         *
+         * @param replaced The adapter whose source this adapter will consume.
+         * @param size     The size of this adapter.
+         */
+        protected OfObject(OfObject<S, ?> replaced, AbstractIteratorSize size)
+        {
+            super(size);
+            replaced.relinquishOwnership();
+            this.source = replaced.source;
+        }
+
         protected final S getSource()
         {
             return source;
@@ -72,6 +88,23 @@ public class AbstractIteratorAdapter
             source.relinquishOwnership();
         }
 
+        /**
+         * Creates an adapter which takes the place of another adapter of the
+         * same source, this is used to fuse adjacent adapters into one. The
+         * replaced adapter loses its ownership and this adapter adopts its
+         * source, which has already been locked.
+         *
+         * @param replaced The adapter whose source this adapter will consume.
+         * @param size     The size of this adapter.
+         */
+        protected OfInt(AbstractIteratorAdapter.OfInt<S> replaced,
+                AbstractIteratorSize size)
+        {
+            super(size);
+            replaced.relinquishOwnership();
+            this.source = replaced.source;
+        }
+
         protected final S getSource()
         {
             return source;
@@ -103,6 +136,23 @@ public class AbstractIteratorAdapter
             source.relinquishOwnership();
         }
 
+        /**
+         * Creates an adapter which takes the place of another adapter of the
+         * same source, this is used to fuse adjacent adapters into one. The
+         * replaced adapter loses its ownership and this adapter adopts its
+         * source, which has already been locked.
+         *
+         * @param replaced The adapter whose source this adapter will consume.
+         * @param size     The size of this adapter.
+         */
+        protected OfLong(AbstractIteratorAdapter.OfLong<S> replaced,
+                AbstractIteratorSize size)
+        {
+            super(size);
+            replaced.relinquishOwnership();
+            this.source = replaced.source;
+        }
+
         protected final S getSource()
         {
             return source;
@@ -134,6 +184,23 @@ public class AbstractIteratorAdapter
             source.relinquishOwnership();
         }
 
+        /**
+         * Creates an adapter which takes the place of another adapter of the
+         * same source, this is used to fuse adjacent adapters into one. The
+         * replaced adapter loses its ownership and this adapter adopts its
+         * source, which has already been locked.
+         *
+         * @param replaced The adapter whose source this adapter will consume.
+         * @param size     The size of this adapter.
+         */
+        protected OfDouble(AbstractIteratorAdapter.OfDouble<S> replaced,
+                AbstractIteratorSize size)
+        {
+            super(size);
+            replaced.relinquishOwnership();
+            this.source = replaced.source;
+        }
+
         protected final S getSource()
         {
             return source;
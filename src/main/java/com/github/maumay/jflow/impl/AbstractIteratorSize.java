@@ -5,6 +5,8 @@ package com.github.maumay.jflow.impl;
 
 /**
  * Abstract superclass of all four implementations of possible iterator sizes.
+ * Sizes are immutable, every operation on a size returns a new instance or
+ * this one if the result is unchanged.
  *
  * @author thomasb
  */
@@ -78,6 +80,20 @@ public abstract class AbstractIteratorSize
         return timesImpl(IteratorSizes.requireNonNegative(value));
     }
 
+    /**
+     * Divides this size by a positive number, rounding up. This is the number
+     * of consecutive chunks of the given length (the last possibly being
+     * shorter) which a sequence of this size splits into. Throws an exception
+     * if the parameter is not positive.
+     *
+     * @param value A positive number.
+     * @return The quotient of this size and the given number rounded up.
+     */
+    public final AbstractIteratorSize divide(int value)
+    {
+        return divideImpl(IteratorSizes.requirePositive(value));
+    }
+
     /**
      * Computes a size which represents a size ranging from 0 to this size.
      *
@@ -86,9 +102,10 @@ public abstract class AbstractIteratorSize
     public abstract AbstractIteratorSize dropLowerBound();
 
     /**
-     * Creates a copy of this size.
+     * Creates a copy of this size, as sizes are immutable implementations may
+     * simply return themselves.
      *
-     * @return A copy of this size.
+     * @return A size equal to this size.
      */
     public abstract AbstractIteratorSize copy();
 
@@ -112,8 +129,5 @@ public abstract class AbstractIteratorSize
 
     abstract AbstractIteratorSize timesImpl(int value);
 
-    /**
-     * Mutate this size in place by subtracting one from it.
-     */
-    abstract void decrement();
+    abstract AbstractIteratorSize divideImpl(int value);
 }
@@ -3,13 +3,18 @@
  */
 package com.github.maumay.jflow.impl;
 
+import com.github.maumay.jflow.iterator.ExternalSortIterator;
 import com.github.maumay.jflow.iterator.IteratorSlicer;
 import com.github.maumay.jflow.iterator.LongIterator;
+import com.github.maumay.jflow.iterator.PrefetchIterator;
+import com.github.maumay.jflow.iterator.collector.LongIteratorCollector;
 import com.github.maumay.jflow.utils.LongTup;
 import com.github.maumay.jflow.utils.Option;
+import com.github.maumay.jflow.vec.LongVec;
 
 import java.util.NoSuchElementException;
 import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
 import java.util.function.*;
 
 /**
@@ -33,7 +38,7 @@ public abstract class AbstractLongIterator extends AbstractIterator
     public final long nextLong()
     {
         if (hasOwnership()) {
-            getSize().decrement();
+            decrementSize();
             return nextLongImpl();
         } else {
             throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
@@ -45,7 +50,7 @@ public abstract class AbstractLongIterator extends AbstractIterator
     {
         if (hasOwnership()) {
             if (hasNext()) {
-                getSize().decrement();
+                decrementSize();
                 return Option.of(nextLongImpl());
             } else {
                 return Option.emptyLong();
@@ -59,9 +64,7 @@ public abstract class AbstractLongIterator extends AbstractIterator
     public void forEach(LongConsumer action)
     {
         relinquishOwnership();
-        while (hasNext()) {
-            action.accept(nextLongImpl());
-        }
+        forEachRemainingImpl(action);
     }
 
     @Override
@@ -82,6 +85,21 @@ public abstract class AbstractLongIterator extends AbstractIterator
      */
     public abstract long nextLongImpl();
 
+    /**
+     * Implementation logic for internal iteration, passes each remaining element
+     * traversed by this iterator to the given action in turn. This method does
+     * not check the ownership flag, see {@link
+     * AbstractRichIterator#forEachRemainingImpl(java.util.function.Consumer)}.
+     *
+     * @param action The action to apply to each remaining element.
+     */
+    public void forEachRemainingImpl(LongConsumer action)
+    {
+        while (hasNext()) {
+            action.accept(nextLongImpl());
+        }
+    }
+
     // LongIterator API
     @Override
     public AbstractLongIterator slice(IteratorSlicer indexMapping)
@@ -113,12 +131,44 @@ public abstract class AbstractLongIterator extends AbstractIterator
         return new MapToIntAdapter.FromLong(this, f);
     }
 
+    @Override
+    public AbstractLongIterator flatMap(
+            LongFunction<? extends PrimitiveIterator.OfLong> f)
+    {
+        return new FlatmapToLongAdapter.FromLong(this, f);
+    }
+
+    @Override
+    public AbstractRichIterator<LongVec> chunks(int n)
+    {
+        return new ChunkAdapter.OfLong(this, n);
+    }
+
+    @Override
+    public AbstractIntIterator chunksInto(long[] buffer)
+    {
+        return new ChunkAdapter.IntoLongBuffer(this, buffer);
+    }
+
+    @Override
+    public AbstractRichIterator<LongVec> windows(int size, int step)
+    {
+        return new WindowAdapter.OfLong(this, size, step);
+    }
+
     @Override
     public AbstractRichIterator<LongTup> zip(OfLong other)
     {
         return new ZipAdapter.OfLongs(this, IteratorWrapper.wrap(other));
     }
 
+    @Override
+    public AbstractLongIterator zipWith(OfLong other, LongBinaryOperator combiner)
+    {
+        return new ZipWithAdapter.OfLong(this, IteratorWrapper.wrap(other),
+                combiner);
+    }
+
     @Override
     public AbstractRichIterator<LongTup> enumerate()
     {
@@ -155,6 +205,32 @@ public abstract class AbstractLongIterator extends AbstractIterator
         return new FilterAdapter.OfLong(this, predicate);
     }
 
+    @Override
+    public AbstractLongIterator distinct()
+    {
+        return filter(new PrimitiveHashSets.OfLong()::add);
+    }
+
+    @Override
+    public AbstractLongIterator distinctApprox(int expectedCount,
+            double falsePositiveRate)
+    {
+        BloomFilter seen = new BloomFilter(expectedCount, falsePositiveRate);
+        return filter(seen::add);
+    }
+
+    @Override
+    public ExternalSortIterator.OfLong sortedExternal(int memoryBudget)
+    {
+        return new ExternalSortAdapter.OfLong(this, memoryBudget);
+    }
+
+    @Override
+    public PrefetchIterator.OfLong prefetch(int bufferSize)
+    {
+        return new PrefetchAdapter.OfLong(this, bufferSize);
+    }
+
     @Override
     public AbstractLongIterator chain(OfLong other)
     {
@@ -205,6 +281,18 @@ public abstract class AbstractLongIterator extends AbstractIterator
         return LongMinMaxConsumption.findMax(this);
     }
 
+    @Override
+    public LongVecImpl topK(int k)
+    {
+        return TopK.select(this, k, true);
+    }
+
+    @Override
+    public LongVecImpl bottomK(int k)
+    {
+        return TopK.select(this, k, false);
+    }
+
     @Override
     public boolean all(LongPredicate predicate)
     {
@@ -253,6 +341,21 @@ public abstract class AbstractLongIterator extends AbstractIterator
         return ArrayAccumulators.consume(this);
     }
 
+    @Override
+    public <R> R collect(LongIteratorCollector<R> collector)
+    {
+        if (hasOwnership()) {
+            R result = collector.collect(this);
+            // Collectors consuming the internal traversal take ownership.
+            if (hasOwnership()) {
+                relinquishOwnership();
+            }
+            return result;
+        } else {
+            throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
+        }
+    }
+
     @Override
     public LongVecImpl toVec()
     {
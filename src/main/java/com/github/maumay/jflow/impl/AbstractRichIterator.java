@@ -4,7 +4,12 @@
 package com.github.maumay.jflow.impl;
 
 import com.github.maumay.jflow.iterable.RichIterable;
+import com.github.maumay.jflow.iterator.ElementCodec;
+import com.github.maumay.jflow.iterator.ExternalSortIterator;
+import com.github.maumay.jflow.iterator.IntObjConsumer;
+import com.github.maumay.jflow.iterator.IntObjFunction;
 import com.github.maumay.jflow.iterator.IteratorSlicer;
+import com.github.maumay.jflow.iterator.PrefetchIterator;
 import com.github.maumay.jflow.iterator.RichIterator;
 import com.github.maumay.jflow.iterator.collector.IteratorCollector;
 import com.github.maumay.jflow.utils.Option;
@@ -37,7 +42,7 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
     public final E next()
     {
         if (hasOwnership()) {
-            getSize().decrement();
+            decrementSize();
             return nextImpl();
         } else {
             throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
@@ -49,7 +54,7 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
     {
         if (hasOwnership()) {
             if (hasNext()) {
-                getSize().decrement();
+                decrementSize();
                 return Option.of(nextImpl());
             } else {
                 return Option.empty();
@@ -63,9 +68,7 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
     public final void forEach(Consumer<? super E> action)
     {
         relinquishOwnership();
-        while (hasNext()) {
-            action.accept(nextImpl());
-        }
+        forEachRemainingImpl(action);
     }
 
     @Override
@@ -86,6 +89,25 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
      */
     public abstract E nextImpl();
 
+    /**
+     * Implementation logic for internal iteration, passes each remaining element
+     * traversed by this iterator to the given action in turn. Like
+     * {@link #nextImpl()} this method does not check the ownership flag, the
+     * consuming methods call it once ownership has been relinquished. The
+     * default implementation simply pulls elements through {@link #hasNext()}
+     * and {@link #nextImpl()}, sources and stateless adapters override it with a
+     * single loop so that a pipeline terminating in a consuming method avoids the
+     * per element overhead of the pull based protocol.
+     *
+     * @param action The action to apply to each remaining element.
+     */
+    public void forEachRemainingImpl(Consumer<? super E> action)
+    {
+        while (hasNext()) {
+            action.accept(nextImpl());
+        }
+    }
+
     // EnhancedIterator API
     @Override
     public <R> AbstractRichIterator<R> map(Function<? super E, ? extends R> fn)
@@ -118,12 +140,95 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
         return new FlatmapAdapter<>(this, fn);
     }
 
+    @Override
+    public AbstractIntIterator flatMapToInt(
+            Function<? super E, ? extends PrimitiveIterator.OfInt> fn)
+    {
+        return new FlatmapToIntAdapter.FromObject<>(this, fn);
+    }
+
+    @Override
+    public AbstractLongIterator flatMapToLong(
+            Function<? super E, ? extends PrimitiveIterator.OfLong> fn)
+    {
+        return new FlatmapToLongAdapter.FromObject<>(this, fn);
+    }
+
+    @Override
+    public AbstractDoubleIterator flatMapToDouble(
+            Function<? super E, ? extends PrimitiveIterator.OfDouble> fn)
+    {
+        return new FlatmapToDoubleAdapter.FromObject<>(this, fn);
+    }
+
+    @Override
+    public AbstractRichIterator<Vec<E>> chunks(int n)
+    {
+        return new ChunkAdapter.OfObject<>(this, n);
+    }
+
+    @Override
+    public AbstractIntIterator chunksInto(E[] buffer)
+    {
+        return new ChunkAdapter.IntoObjectBuffer<>(this, buffer);
+    }
+
     @Override
     public <R> AbstractRichIterator<Tup<E, R>> zip(Iterator<? extends R> other)
     {
         return new ZipAdapter.OfObjects<>(this, IteratorWrapper.wrap(other));
     }
 
+    @Override
+    public <R, T> AbstractRichIterator<T> zipWith(Iterator<? extends R> other,
+            BiFunction<? super E, ? super R, ? extends T> combiner)
+    {
+        return new ZipWithAdapter.OfObject<>(this, IteratorWrapper.wrap(other),
+                combiner);
+    }
+
+    @Override
+    public <R, T> AbstractRichIterator<T> hashJoin(Iterator<? extends R> other,
+            Function<? super E, ?> leftKey, Function<? super R, ?> rightKey,
+            BiFunction<? super E, ? super R, ? extends T> combiner)
+    {
+        return new HashJoinAdapter.OfObject<>(this, IteratorWrapper.wrap(other),
+                leftKey, rightKey, combiner);
+    }
+
+    @Override
+    public <R, T> AbstractRichIterator<T> hashJoinByLong(
+            Iterator<? extends R> other, ToLongFunction<? super E> leftKey,
+            ToLongFunction<? super R> rightKey,
+            BiFunction<? super E, ? super R, ? extends T> combiner)
+    {
+        return new HashJoinAdapter.ByLong<>(this, IteratorWrapper.wrap(other),
+                leftKey, rightKey, combiner);
+    }
+
+    @Override
+    public <R, K, T> AbstractRichIterator<T> mergeJoin(
+            Iterator<? extends R> other,
+            Function<? super E, ? extends K> leftKey,
+            Function<? super R, ? extends K> rightKey,
+            Comparator<? super K> keyOrder,
+            BiFunction<? super E, ? super R, ? extends T> combiner)
+    {
+        return new MergeJoinAdapter.OfObject<>(this,
+                IteratorWrapper.wrap(other), leftKey, rightKey, keyOrder,
+                combiner);
+    }
+
+    @Override
+    public <R, T> AbstractRichIterator<T> mergeJoinByLong(
+            Iterator<? extends R> other, ToLongFunction<? super E> leftKey,
+            ToLongFunction<? super R> rightKey,
+            BiFunction<? super E, ? super R, ? extends T> combiner)
+    {
+        return new MergeJoinAdapter.ByLong<>(this, IteratorWrapper.wrap(other),
+                leftKey, rightKey, combiner);
+    }
+
     @Override
     public AbstractRichIterator<E> interleave(Iterator<? extends E> other)
     {
@@ -137,6 +242,20 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
                 this);
     }
 
+    @Override
+    public <R> AbstractRichIterator<R> enumerateInto(
+            IntObjFunction<? super E, ? extends R> fn)
+    {
+        return new EnumerateAdapter.OfObject<>(this, fn);
+    }
+
+    @Override
+    public final void forEachIndexed(IntObjConsumer<? super E> action)
+    {
+        relinquishOwnership();
+        forEachRemainingImpl(new EnumerateAdapter.IndexedConsumer<>(action));
+    }
+
     @Override
     public AbstractRichIterator<E> slice(IteratorSlicer fn)
     {
@@ -173,6 +292,43 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
         return new FilterAdapter.OfObject<>(this, fn);
     }
 
+    @Override
+    public AbstractRichIterator<E> distinct()
+    {
+        return filter(new HashSet<E>()::add);
+    }
+
+    @Override
+    public AbstractRichIterator<E> distinctBy(Function<? super E, ?> key)
+    {
+        Objects.requireNonNull(key);
+        Set<Object> seen = new HashSet<>();
+        return filter(x -> seen.add(key.apply(x)));
+    }
+
+    @Override
+    public AbstractRichIterator<E> distinctApprox(int expectedCount,
+            double falsePositiveRate)
+    {
+        BloomFilter seen = new BloomFilter(expectedCount, falsePositiveRate);
+        return filter(x -> seen.add(Objects.hashCode(x)));
+    }
+
+    @Override
+    public ExternalSortIterator.OfObject<E> sortedExternal(
+            Comparator<? super E> order, ElementCodec<E> codec,
+            int memoryBudget)
+    {
+        return new ExternalSortAdapter.OfObject<>(this, order, codec,
+                memoryBudget);
+    }
+
+    @Override
+    public PrefetchIterator.OfObject<E> prefetch(int bufferSize)
+    {
+        return new PrefetchAdapter.OfObject<>(this, bufferSize);
+    }
+
     @Override
     public AbstractRichIterator<E> filterNot(Predicate<? super E> fn)
     {
@@ -232,7 +388,10 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
     {
         if (hasOwnership()) {
             R result = collector.collect(this);
-            relinquishOwnership();
+            // Collectors consuming the internal traversal take ownership.
+            if (hasOwnership()) {
+                relinquishOwnership();
+            }
             return result;
         } else {
             throw new IteratorOwnershipException(OWNERSHIP_ERR_MSG);
@@ -323,6 +482,12 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
         return new VecImpl<>(ArrayAccumulators.consume(this));
     }
 
+    @Override
+    public PersistentVecImpl<E> toPersistentVec()
+    {
+        return PersistentVecImpl.fromArray(ArrayAccumulators.consume(this));
+    }
+
     @Override
     public <R> AbstractRichIterator<Tup<E, R>> zip(List<? extends R> other)
     {
@@ -347,9 +512,18 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
     {
         relinquishOwnership();
         C coll = collectionFactory.get();
-        while (hasNext()) {
-            coll.add(nextImpl());
-        }
+        forEachRemainingImpl(coll::add);
+        return coll;
+    }
+
+    @Override
+    public <C extends Collection<E>> C toSized(
+            IntFunction<C> collectionFactory)
+    {
+        relinquishOwnership();
+        C coll = collectionFactory
+                .apply(IteratorSizes.expectedCount(getSize()));
+        forEachRemainingImpl(coll::add);
         return coll;
     }
 
@@ -358,16 +532,16 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
             Function<? super E, ? extends V> valueMapper)
     {
         relinquishOwnership();
-        Map<K, V> collected = new HashMap<>();
-        while (hasNext()) {
-            E next = nextImpl();
+        Map<K, V> collected = new HashMap<>(IteratorSizes
+                .hashCapacity(IteratorSizes.expectedCount(getSize())));
+        forEachRemainingImpl(next -> {
             K key = keyMapper.apply(next);
             if (collected.containsKey(key)) {
                 throw new IllegalStateException();
             } else {
                 collected.put(key, valueMapper.apply(next));
             }
-        }
+        });
         return collected;
     }
 
@@ -375,15 +549,15 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
     public <V> Map<E, V> associate(Function<? super E, ? extends V> valueMapper)
     {
         relinquishOwnership();
-        Map<E, V> collected = new HashMap<>();
-        while (hasNext()) {
-            E key = nextImpl();
+        Map<E, V> collected = new HashMap<>(IteratorSizes
+                .hashCapacity(IteratorSizes.expectedCount(getSize())));
+        forEachRemainingImpl(key -> {
             if (collected.containsKey(key)) {
                 throw new IllegalStateException();
             } else {
                 collected.put(key, valueMapper.apply(key));
             }
-        }
+        });
         return collected;
     }
 
@@ -393,12 +567,11 @@ public abstract class AbstractRichIterator<E> extends AbstractIterator
     {
         relinquishOwnership();
         Map<K, List<E>> collected = new HashMap<>();
-        while (hasNext()) {
-            E next = nextImpl();
+        forEachRemainingImpl(next -> {
             K key = classifier.apply(next);
             collected.putIfAbsent(key, new ArrayList<>());
             collected.get(key).add(next);
-        }
+        });
         return collected;
     }
 
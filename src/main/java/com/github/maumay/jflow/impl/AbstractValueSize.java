@@ -9,7 +9,7 @@ package com.github.maumay.jflow.impl;
  */
 public abstract class AbstractValueSize extends AbstractIteratorSize
 {
-    private int value;
+    private final int value;
 
     protected AbstractValueSize(SizeType type, int value)
     {
@@ -22,12 +22,6 @@ public abstract class AbstractValueSize extends AbstractIteratorSize
         return value;
     }
 
-    @Override
-    void decrement()
-    {
-        value = Math.max(0, value - 1);
-    }
-
     @Override
     public String toString()
     {
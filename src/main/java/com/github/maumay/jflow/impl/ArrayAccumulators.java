@@ -6,9 +6,19 @@ package com.github.maumay.jflow.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * Used for building primitive arrays when we have an unknown amount of entries.
+ * The accumulators store the elements in a list of segments which grow
+ * geometrically (up to {@link #MAX_ARRAY_SIZE}) so existing elements are never
+ * copied while accumulating, the segments are compacted into a single array
+ * exactly once at the end. An accumulator may be given an upper bound on the
+ * number of elements it will receive, in which case it never allocates more
+ * space than that bound.
  *
  * @author t
  */
@@ -18,6 +28,7 @@ public final class ArrayAccumulators
     static final int INITIAL_ACCUMULATION_CAPACITY = 10;
     static final int MAX_ARRAY_SIZE = 1 << 16;
     static final int GROWTH_FACTOR = 2;
+    static final int UNBOUNDED = Integer.MAX_VALUE;
 
     @SuppressWarnings("unchecked")
     static <E> E[] consume(AbstractRichIterator<? extends E> src)
@@ -26,35 +37,19 @@ public final class ArrayAccumulators
         switch (src.getSize().getType()) {
             case EXACT: {
                 int size = ((KnownSize) src.getSize()).getValue();
-                Object[] dest = new Object[size];
-                for (int i = 0; i < size; i++) {
-                    dest[i] = src.nextImpl();
-                }
-                return (E[]) dest;
+                ObjectFiller filler = new ObjectFiller(new Object[size]);
+                src.forEachRemainingImpl(filler);
+                return (E[]) filler.dest;
             }
             case BOUNDED: {
                 int upper = ((BoundedSize) src.getSize()).upper();
-                if (upper < MAX_ARRAY_SIZE) {
-                    Object[] tmp = new Object[upper];
-                    int counter = 0;
-                    while (src.hasNext()) {
-                        tmp[counter++] = src.nextImpl();
-                    }
-                    if (counter == upper) {
-                        return (E[]) tmp;
-                    } else {
-                        Object[] dest = new Object[counter];
-                        System.arraycopy(tmp, 0, dest, 0, counter);
-                        return (E[]) dest;
-                    }
-                }
-                // Fall through if upper bound is too large.
+                OfObject<E> accumulator = createObjectAccumulator(upper);
+                src.forEachRemainingImpl(accumulator::add);
+                return accumulator.compress();
             }
             case LOWER_BOUND: {
                 OfObject<E> accumulator = createObjectAccumulator();
-                while (src.hasNext()) {
-                    accumulator.add(src.nextImpl());
-                }
+                src.forEachRemainingImpl(accumulator::add);
                 return accumulator.compress();
             }
             case INFINITE:
@@ -70,35 +65,19 @@ public final class ArrayAccumulators
         switch (src.getSize().getType()) {
             case EXACT: {
                 int size = ((KnownSize) src.getSize()).getValue();
-                int[] dest = new int[size];
-                for (int i = 0; i < size; i++) {
-                    dest[i] = src.nextIntImpl();
-                }
-                return dest;
+                IntFiller filler = new IntFiller(new int[size]);
+                src.forEachRemainingImpl(filler);
+                return filler.dest;
             }
             case BOUNDED: {
                 int upper = ((BoundedSize) src.getSize()).upper();
-                if (upper < MAX_ARRAY_SIZE) {
-                    int[] tmp = new int[upper];
-                    int counter = 0;
-                    while (src.hasNext()) {
-                        tmp[counter++] = src.nextIntImpl();
-                    }
-                    if (counter == upper) {
-                        return tmp;
-                    } else {
-                        int[] dest = new int[counter];
-                        System.arraycopy(tmp, 0, dest, 0, counter);
-                        return dest;
-                    }
-                }
-                // Fall through if upper bound is too large.
+                OfInt accumulator = createIntAccumulator(upper);
+                src.forEachRemainingImpl(accumulator::add);
+                return accumulator.compress();
             }
             case LOWER_BOUND: {
                 OfInt accumulator = createIntAccumulator();
-                while (src.hasNext()) {
-                    accumulator.add(src.nextIntImpl());
-                }
+                src.forEachRemainingImpl(accumulator::add);
                 return accumulator.compress();
             }
             case INFINITE:
@@ -114,35 +93,19 @@ public final class ArrayAccumulators
         switch (src.getSize().getType()) {
             case EXACT: {
                 int size = ((KnownSize) src.getSize()).getValue();
-                long[] dest = new long[size];
-                for (int i = 0; i < size; i++) {
-                    dest[i] = src.nextLongImpl();
-                }
-                return dest;
+                LongFiller filler = new LongFiller(new long[size]);
+                src.forEachRemainingImpl(filler);
+                return filler.dest;
             }
             case BOUNDED: {
                 int upper = ((BoundedSize) src.getSize()).upper();
-                if (upper < MAX_ARRAY_SIZE) {
-                    long[] tmp = new long[upper];
-                    int counter = 0;
-                    while (src.hasNext()) {
-                        tmp[counter++] = src.nextLongImpl();
-                    }
-                    if (counter == upper) {
-                        return tmp;
-                    } else {
-                        long[] dest = new long[counter];
-                        System.arraycopy(tmp, 0, dest, 0, counter);
-                        return dest;
-                    }
-                }
-                // Fall through if upper bound is too large.
+                OfLong accumulator = createLongAccumulator(upper);
+                src.forEachRemainingImpl(accumulator::add);
+                return accumulator.compress();
             }
             case LOWER_BOUND: {
                 OfLong accumulator = createLongAccumulator();
-                while (src.hasNext()) {
-                    accumulator.add(src.nextLongImpl());
-                }
+                src.forEachRemainingImpl(accumulator::add);
                 return accumulator.compress();
             }
             case INFINITE:
@@ -158,35 +121,19 @@ public final class ArrayAccumulators
         switch (src.getSize().getType()) {
             case EXACT: {
                 int size = ((KnownSize) src.getSize()).getValue();
-                double[] dest = new double[size];
-                for (int i = 0; i < size; i++) {
-                    dest[i] = src.nextDoubleImpl();
-                }
-                return dest;
+                DoubleFiller filler = new DoubleFiller(new double[size]);
+                src.forEachRemainingImpl(filler);
+                return filler.dest;
             }
             case BOUNDED: {
                 int upper = ((BoundedSize) src.getSize()).upper();
-                if (upper < MAX_ARRAY_SIZE) {
-                    double[] tmp = new double[upper];
-                    int counter = 0;
-                    while (src.hasNext()) {
-                        tmp[counter++] = src.nextDoubleImpl();
-                    }
-                    if (counter == upper) {
-                        return tmp;
-                    } else {
-                        double[] dest = new double[counter];
-                        System.arraycopy(tmp, 0, dest, 0, counter);
-                        return dest;
-                    }
-                }
-                // Fall through if upper bound is too large.
+                OfDouble accumulator = createDoubleAccumulator(upper);
+                src.forEachRemainingImpl(accumulator::add);
+                return accumulator.compress();
             }
             case LOWER_BOUND: {
                 OfDouble accumulator = createDoubleAccumulator();
-                while (src.hasNext()) {
-                    accumulator.add(src.nextDoubleImpl());
-                }
+                src.forEachRemainingImpl(accumulator::add);
                 return accumulator.compress();
             }
             case INFINITE:
@@ -196,64 +143,185 @@ public final class ArrayAccumulators
         }
     }
 
+    /**
+     * Writes the elements pushed to it into consecutive positions of an array
+     * whose length is at least the number of elements.
+     */
+    private static final class ObjectFiller implements Consumer<Object>
+    {
+        private final Object[] dest;
+        private int index = 0;
+
+        ObjectFiller(Object[] dest)
+        {
+            this.dest = dest;
+        }
+
+        @Override
+        public void accept(Object element)
+        {
+            dest[index++] = element;
+        }
+    }
+
+    private static final class IntFiller implements IntConsumer
+    {
+        private final int[] dest;
+        private int index = 0;
+
+        IntFiller(int[] dest)
+        {
+            this.dest = dest;
+        }
+
+        @Override
+        public void accept(int element)
+        {
+            dest[index++] = element;
+        }
+    }
+
+    private static final class LongFiller implements LongConsumer
+    {
+        private final long[] dest;
+        private int index = 0;
+
+        LongFiller(long[] dest)
+        {
+            this.dest = dest;
+        }
+
+        @Override
+        public void accept(long element)
+        {
+            dest[index++] = element;
+        }
+    }
+
+    private static final class DoubleFiller implements DoubleConsumer
+    {
+        private final double[] dest;
+        private int index = 0;
+
+        DoubleFiller(double[] dest)
+        {
+            this.dest = dest;
+        }
+
+        @Override
+        public void accept(double element)
+        {
+            dest[index++] = element;
+        }
+    }
+
     public static <E> OfObject<E> createObjectAccumulator()
     {
-        return new OfObject<>();
+        return new OfObject<>(UNBOUNDED);
+    }
+
+    public static <E> OfObject<E> createObjectAccumulator(int bound)
+    {
+        return new OfObject<>(bound);
     }
 
     public static OfInt createIntAccumulator()
     {
-        return new OfInt();
+        return new OfInt(UNBOUNDED);
+    }
+
+    public static OfInt createIntAccumulator(int bound)
+    {
+        return new OfInt(bound);
     }
 
     public static OfDouble createDoubleAccumulator()
     {
-        return new OfDouble();
+        return new OfDouble(UNBOUNDED);
+    }
+
+    public static OfDouble createDoubleAccumulator(int bound)
+    {
+        return new OfDouble(bound);
     }
 
     public static OfLong createLongAccumulator()
     {
-        return new OfLong();
+        return new OfLong(UNBOUNDED);
+    }
+
+    public static OfLong createLongAccumulator(int bound)
+    {
+        return new OfLong(bound);
+    }
+
+    /**
+     * Computes the length of the first segment of an accumulator, if the bound
+     * is small enough we allocate all the space we could need up front.
+     */
+    private static int initialSegmentLength(int bound)
+    {
+        if (bound < 0) {
+            throw new IllegalArgumentException();
+        }
+        return bound <= MAX_ARRAY_SIZE ? bound : INITIAL_ARRAY_SIZE;
+    }
+
+    /**
+     * Computes the length of the next segment of an accumulator, growing
+     * geometrically but never exceeding the space left under the bound.
+     */
+    private static int nextSegmentLength(int bound, int filled,
+            int previousLength)
+    {
+        int next = Math.min(MAX_ARRAY_SIZE,
+                Math.max(INITIAL_ARRAY_SIZE, GROWTH_FACTOR * previousLength));
+        int remaining = bound - filled;
+        // If the bound was wrong keep growing as if it were absent.
+        return remaining > 0 ? Math.min(next, remaining) : next;
     }
 
     public static class OfObject<E>
     {
         private final List<Object[]> arrays;
+        private final int bound;
+        private Object[] current;
         private int runningIndex;
+        private int filled;
 
-        OfObject()
+        OfObject(int bound)
         {
-            arrays = new ArrayList<>(INITIAL_ACCUMULATION_CAPACITY);
-            arrays.add(new Object[INITIAL_ARRAY_SIZE]);
-            runningIndex = 0;
+            this.bound = bound;
+            this.arrays = new ArrayList<>(INITIAL_ACCUMULATION_CAPACITY);
+            this.current = new Object[initialSegmentLength(bound)];
+            this.arrays.add(current);
+            this.runningIndex = 0;
+            this.filled = 0;
         }
 
         public void add(E element)
         {
-            Object[] currentStore = arrays.get(arrays.size() - 1);
-            currentStore[runningIndex] = element;
-            runningIndex = (runningIndex + 1) % currentStore.length;
-            if (runningIndex == 0) {
-                addNewArray(currentStore.length);
+            if (runningIndex == current.length) {
+                addNewArray();
             }
+            current[runningIndex++] = element;
         }
 
-        private void addNewArray(int previousLength)
+        private void addNewArray()
         {
-            int newSize = Math
-                    .min(MAX_ARRAY_SIZE, GROWTH_FACTOR * previousLength);
-            arrays.add(new Object[newSize]);
+            filled += current.length;
+            current = new Object[nextSegmentLength(bound, filled, current.length)];
+            arrays.add(current);
+            runningIndex = 0;
         }
 
         @SuppressWarnings("unchecked")
         public E[] compress()
         {
-            int total = 0;
-            for (int i = 0; i < arrays.size() - 1; i++) {
-                total += arrays.get(i).length;
+            if (arrays.size() == 1 && runningIndex == current.length) {
+                return (E[]) current;
             }
-
-            Object[] result = new Object[runningIndex + total];
+            Object[] result = new Object[filled + runningIndex];
             int indexTracker = 0;
 
             // Copy the full arrays
@@ -262,61 +330,73 @@ public final class ArrayAccumulators
                 System.arraycopy(array, 0, result, indexTracker, array.length);
                 indexTracker += array.length;
             }
-            // copy the last array which is only partially full.
-            System.arraycopy(arrays.get(arrays.size() - 1), 0, result,
-                    indexTracker, runningIndex);
+            // copy the last array which may be only partially full.
+            System.arraycopy(current, 0, result, indexTracker, runningIndex);
             return (E[]) result;
         }
 
-        @SuppressWarnings("unchecked")
         public void add(ArrayAccumulators.OfObject<E> other)
         {
-            Object[] otherLast = other.arrays.remove(other.arrays.size() - 1);
-            Object[] thisLast = arrays.remove(arrays.size() - 1);
-            arrays.add(Arrays.copyOf(thisLast, runningIndex));
-            arrays.addAll(other.arrays);
-            runningIndex = 0;
-            addNewArray(thisLast.length);
-            for (int i = 0; i < other.runningIndex; i++) {
-                add((E) otherLast[i]);
+            // The full segments of the other accumulator are never written to
+            // again so can be shared, its partial last segment is copied.
+            arrays.set(arrays.size() - 1, trim(current, runningIndex));
+            filled += runningIndex;
+            for (int i = 0; i < other.arrays.size() - 1; i++) {
+                Object[] array = other.arrays.get(i);
+                arrays.add(array);
+                filled += array.length;
             }
-            // Make sure the other is left in it's correct state
-            other.arrays.add(otherLast);
+            current = Arrays.copyOf(other.current, other.runningIndex);
+            arrays.add(current);
+            runningIndex = current.length;
+        }
+
+        private static Object[] trim(Object[] array, int length)
+        {
+            return length == array.length ? array : Arrays.copyOf(array, length);
         }
     }
 
     public static class OfInt
     {
-        private final List<int[]> arrays = new ArrayList<>(
-                INITIAL_ACCUMULATION_CAPACITY);
-        private int runningIndex = 0;
+        private final List<int[]> arrays;
+        private final int bound;
+        private int[] current;
+        private int runningIndex;
+        private int filled;
 
-        OfInt()
+        OfInt(int bound)
         {
-            arrays.add(new int[INITIAL_ARRAY_SIZE]);
+            this.bound = bound;
+            this.arrays = new ArrayList<>(INITIAL_ACCUMULATION_CAPACITY);
+            this.current = new int[initialSegmentLength(bound)];
+            this.arrays.add(current);
+            this.runningIndex = 0;
+            this.filled = 0;
         }
 
         public void add(int n)
         {
-            int[] currentStore = arrays.get(arrays.size() - 1);
-            currentStore[runningIndex] = n;
-            runningIndex = (runningIndex + 1) % currentStore.length;
-
-            if (runningIndex == 0) {
-                int newSize = Math.min(MAX_ARRAY_SIZE,
-                        GROWTH_FACTOR * currentStore.length);
-                arrays.add(new int[newSize]);
+            if (runningIndex == current.length) {
+                addNewArray();
             }
+            current[runningIndex++] = n;
+        }
+
+        private void addNewArray()
+        {
+            filled += current.length;
+            current = new int[nextSegmentLength(bound, filled, current.length)];
+            arrays.add(current);
+            runningIndex = 0;
         }
 
         public int[] compress()
         {
-            int total = 0;
-            for (int i = 0; i < arrays.size() - 1; i++) {
-                total += arrays.get(i).length;
+            if (arrays.size() == 1 && runningIndex == current.length) {
+                return current;
             }
-
-            int[] result = new int[runningIndex + total];
+            int[] result = new int[filled + runningIndex];
             int indexTracker = 0;
 
             // Copy the full arrays
@@ -325,45 +405,52 @@ public final class ArrayAccumulators
                 System.arraycopy(array, 0, result, indexTracker, array.length);
                 indexTracker += array.length;
             }
-            // copy the last array which is only partially full.
-            System.arraycopy(arrays.get(arrays.size() - 1), 0, result,
-                    indexTracker, runningIndex);
+            // copy the last array which may be only partially full.
+            System.arraycopy(current, 0, result, indexTracker, runningIndex);
             return result;
         }
     }
 
     public static class OfDouble
     {
-        private final List<double[]> arrays = new ArrayList<>(
-                INITIAL_ACCUMULATION_CAPACITY);
-        private int runningIndex = 0;
+        private final List<double[]> arrays;
+        private final int bound;
+        private double[] current;
+        private int runningIndex;
+        private int filled;
 
-        OfDouble()
+        OfDouble(int bound)
         {
-            arrays.add(new double[INITIAL_ARRAY_SIZE]);
+            this.bound = bound;
+            this.arrays = new ArrayList<>(INITIAL_ACCUMULATION_CAPACITY);
+            this.current = new double[initialSegmentLength(bound)];
+            this.arrays.add(current);
+            this.runningIndex = 0;
+            this.filled = 0;
         }
 
         public void add(double n)
         {
-            double[] currentStore = arrays.get(arrays.size() - 1);
-            currentStore[runningIndex] = n;
-            runningIndex = (runningIndex + 1) % currentStore.length;
-
-            if (runningIndex == 0) {
-                int newSize = Math.min(MAX_ARRAY_SIZE,
-                        GROWTH_FACTOR * currentStore.length);
-                arrays.add(new double[newSize]);
+            if (runningIndex == current.length) {
+                addNewArray();
             }
+            current[runningIndex++] = n;
+        }
+
+        private void addNewArray()
+        {
+            filled += current.length;
+            current = new double[nextSegmentLength(bound, filled, current.length)];
+            arrays.add(current);
+            runningIndex = 0;
         }
 
         public double[] compress()
         {
-            int total = 0;
-            for (int i = 0; i < arrays.size() - 1; i++) {
-                total += arrays.get(i).length;
+            if (arrays.size() == 1 && runningIndex == current.length) {
+                return current;
             }
-
-            double[] result = new double[runningIndex + total];
+            double[] result = new double[filled + runningIndex];
             int indexTracker = 0;
 
             // Copy the full arrays
@@ -372,45 +459,52 @@ public final class ArrayAccumulators
                 System.arraycopy(array, 0, result, indexTracker, array.length);
                 indexTracker += array.length;
             }
-            // copy the last array which is only partially full.
-            System.arraycopy(arrays.get(arrays.size() - 1), 0, result,
-                    indexTracker, runningIndex);
+            // copy the last array which may be only partially full.
+            System.arraycopy(current, 0, result, indexTracker, runningIndex);
             return result;
         }
     }
 
     public static class OfLong
     {
-        private final List<long[]> arrays = new ArrayList<>(
-                INITIAL_ACCUMULATION_CAPACITY);
-        private int runningIndex = 0;
+        private final List<long[]> arrays;
+        private final int bound;
+        private long[] current;
+        private int runningIndex;
+        private int filled;
 
-        OfLong()
+        OfLong(int bound)
         {
-            arrays.add(new long[INITIAL_ARRAY_SIZE]);
+            this.bound = bound;
+            this.arrays = new ArrayList<>(INITIAL_ACCUMULATION_CAPACITY);
+            this.current = new long[initialSegmentLength(bound)];
+            this.arrays.add(current);
+            this.runningIndex = 0;
+            this.filled = 0;
         }
 
         public void add(long n)
         {
-            long[] currentStore = arrays.get(arrays.size() - 1);
-            currentStore[runningIndex] = n;
-            runningIndex = (runningIndex + 1) % currentStore.length;
-
-            if (runningIndex == 0) {
-                int newSize = Math.min(MAX_ARRAY_SIZE,
-                        GROWTH_FACTOR * currentStore.length);
-                arrays.add(new long[newSize]);
+            if (runningIndex == current.length) {
+                addNewArray();
             }
+            current[runningIndex++] = n;
+        }
+
+        private void addNewArray()
+        {
+            filled += current.length;
+            current = new long[nextSegmentLength(bound, filled, current.length)];
+            arrays.add(current);
+            runningIndex = 0;
         }
 
         public long[] compress()
         {
-            int total = 0;
-            for (int i = 0; i < arrays.size() - 1; i++) {
-                total += arrays.get(i).length;
+            if (arrays.size() == 1 && runningIndex == current.length) {
+                return current;
             }
-
-            long[] result = new long[runningIndex + total];
+            long[] result = new long[filled + runningIndex];
             int indexTracker = 0;
 
             // Copy the full arrays
@@ -419,9 +513,8 @@ public final class ArrayAccumulators
                 System.arraycopy(array, 0, result, indexTracker, array.length);
                 indexTracker += array.length;
             }
-            // copy the last array which is only partially full.
-            System.arraycopy(arrays.get(arrays.size() - 1), 0, result,
-                    indexTracker, runningIndex);
+            // copy the last array which may be only partially full.
+            System.arraycopy(current, 0, result, indexTracker, runningIndex);
             return result;
         }
     }
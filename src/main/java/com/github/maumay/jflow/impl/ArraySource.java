@@ -5,6 +5,10 @@ package com.github.maumay.jflow.impl;
 
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * @author thomasb
@@ -16,31 +20,53 @@ public final class ArraySource
     {
     }
 
+    static int requireRange(int length, int start, int end)
+    {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException(String.format(
+                    "Range [%d, %d) out of bounds for length %d", start, end,
+                    length));
+        }
+        return end - start;
+    }
+
     public static class OfObject<E> extends AbstractRichIterator<E>
     {
         private final Object[] data;
-        private int count = 0;
+        private final int end;
+        private int count;
 
         @SafeVarargs
         public OfObject(E... elements)
         {
-            super(new KnownSize(elements.length));
+            this(elements, 0, elements.length);
+        }
+
+        /**
+         * Creates an iterator over the elements of the given array lying in the
+         * half open index range [start, end).
+         */
+        public OfObject(E[] elements, int start, int end)
+        {
+            super(new KnownSize(requireRange(elements.length, start, end)));
             this.data = elements;
+            this.count = start;
+            this.end = end;
         }
 
         @Override
         public boolean hasNext()
         {
-            return count < data.length;
+            return count < end;
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public E nextImpl()
         {
-            try {
+            if (count < end) {
                 return (E) Objects.requireNonNull(data[count++]);
-            } catch (IndexOutOfBoundsException ex) {
+            } else {
                 throw new NoSuchElementException();
             }
         }
@@ -48,39 +74,69 @@ public final class ArraySource
         @Override
         public void forwardImpl()
         {
-            if (count++ >= data.length) {
+            if (count++ >= end) {
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, end - count);
+            count += skipped;
+            return skipped;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            Object[] src = data;
+            int start = count, stop = end;
+            count = stop;
+            for (int i = start; i < stop; i++) {
+                action.accept((E) Objects.requireNonNull(src[i]));
+            }
+        }
     }
 
     public static class OfObjectReversed<E> extends AbstractRichIterator<E>
     {
         private final Object[] data;
-        private int count, size;
+        private final int start;
+        private int cursor;
 
         @SafeVarargs
         public OfObjectReversed(E... elements)
         {
-            super(new KnownSize(elements.length));
+            this(elements, 0, elements.length);
+        }
+
+        /**
+         * Creates an iterator over the elements of the given array lying in the
+         * half open index range [start, end), beginning with the last.
+         */
+        public OfObjectReversed(E[] elements, int start, int end)
+        {
+            super(new KnownSize(requireRange(elements.length, start, end)));
             this.data = elements;
-            this.count = 0;
-            this.size = elements.length;
+            this.start = start;
+            this.cursor = end;
         }
 
         @Override
         public boolean hasNext()
         {
-            return count < data.length;
+            return cursor > start;
         }
 
         @SuppressWarnings("unchecked")
         @Override
         public E nextImpl()
         {
-            try {
-                return (E) Objects.requireNonNull(data[size - 1 - count++]);
-            } catch (IndexOutOfBoundsException ex) {
+            if (cursor > start) {
+                return (E) Objects.requireNonNull(data[--cursor]);
+            } else {
                 throw new NoSuchElementException();
             }
         }
@@ -88,35 +144,67 @@ public final class ArraySource
         @Override
         public void forwardImpl()
         {
-            if (count++ >= data.length) {
+            if (cursor-- <= start) {
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, cursor - start);
+            cursor -= skipped;
+            return skipped;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            Object[] src = data;
+            int from = cursor, stop = start;
+            cursor = stop;
+            for (int i = from - 1; i >= stop; i--) {
+                action.accept((E) Objects.requireNonNull(src[i]));
+            }
+        }
     }
 
     public static class OfLong extends AbstractLongIterator
     {
         private final long[] data;
-        private int count = 0;
+        private final int end;
+        private int count;
 
         public OfLong(long... elements)
         {
-            super(new KnownSize(elements.length));
+            this(elements, 0, elements.length);
+        }
+
+        /**
+         * Creates an iterator over the elements of the given array lying in the
+         * half open index range [start, end).
+         */
+        public OfLong(long[] elements, int start, int end)
+        {
+            super(new KnownSize(requireRange(elements.length, start, end)));
             this.data = elements;
+            this.count = start;
+            this.end = end;
         }
 
         @Override
         public boolean hasNext()
         {
-            return count < data.length;
+            return count < end;
         }
 
         @Override
         public long nextLongImpl()
         {
-            try {
+            if (count < end) {
                 return data[count++];
-            } catch (IndexOutOfBoundsException ex) {
+            } else {
                 throw new NoSuchElementException();
             }
         }
@@ -124,35 +212,66 @@ public final class ArraySource
         @Override
         public void forwardImpl()
         {
-            if (count++ >= data.length) {
+            if (count++ >= end) {
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, end - count);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            long[] src = data;
+            int start = count, stop = end;
+            count = stop;
+            for (int i = start; i < stop; i++) {
+                action.accept(src[i]);
+            }
+        }
     }
 
     public static class OfInt extends AbstractIntIterator
     {
         private final int[] data;
-        private int count = 0;
+        private final int end;
+        private int count;
 
         public OfInt(int... elements)
         {
-            super(new KnownSize(elements.length));
+            this(elements, 0, elements.length);
+        }
+
+        /**
+         * Creates an iterator over the elements of the given array lying in the
+         * half open index range [start, end).
+         */
+        public OfInt(int[] elements, int start, int end)
+        {
+            super(new KnownSize(requireRange(elements.length, start, end)));
             this.data = elements;
+            this.count = start;
+            this.end = end;
         }
 
         @Override
         public boolean hasNext()
         {
-            return count < data.length;
+            return count < end;
         }
 
         @Override
         public int nextIntImpl()
         {
-            try {
+            if (count < end) {
                 return data[count++];
-            } catch (IndexOutOfBoundsException ex) {
+            } else {
                 throw new NoSuchElementException();
             }
         }
@@ -160,35 +279,66 @@ public final class ArraySource
         @Override
         public void forwardImpl()
         {
-            if (count++ >= data.length) {
+            if (count++ >= end) {
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, end - count);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            int[] src = data;
+            int start = count, stop = end;
+            count = stop;
+            for (int i = start; i < stop; i++) {
+                action.accept(src[i]);
+            }
+        }
     }
 
     public static class OfDouble extends AbstractDoubleIterator
     {
         private final double[] data;
-        private int count = 0;
+        private final int end;
+        private int count;
 
         public OfDouble(double... elements)
         {
-            super(new KnownSize(elements.length));
+            this(elements, 0, elements.length);
+        }
+
+        /**
+         * Creates an iterator over the elements of the given array lying in the
+         * half open index range [start, end).
+         */
+        public OfDouble(double[] elements, int start, int end)
+        {
+            super(new KnownSize(requireRange(elements.length, start, end)));
             this.data = elements;
+            this.count = start;
+            this.end = end;
         }
 
         @Override
         public boolean hasNext()
         {
-            return count < data.length;
+            return count < end;
         }
 
         @Override
         public double nextDoubleImpl()
         {
-            try {
+            if (count < end) {
                 return data[count++];
-            } catch (IndexOutOfBoundsException ex) {
+            } else {
                 throw new NoSuchElementException();
             }
         }
@@ -196,37 +346,66 @@ public final class ArraySource
         @Override
         public void forwardImpl()
         {
-            if (count++ >= data.length) {
+            if (count++ >= end) {
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, end - count);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            double[] src = data;
+            int start = count, stop = end;
+            count = stop;
+            for (int i = start; i < stop; i++) {
+                action.accept(src[i]);
+            }
+        }
     }
 
     public static class OfIntReversed extends AbstractIntIterator
     {
         private final int[] data;
-        private int count, size;
+        private final int start;
+        private int cursor;
 
         public OfIntReversed(int... elements)
         {
-            super(new KnownSize(elements.length));
+            this(elements, 0, elements.length);
+        }
+
+        /**
+         * Creates an iterator over the elements of the given array lying in the
+         * half open index range [start, end), beginning with the last.
+         */
+        public OfIntReversed(int[] elements, int start, int end)
+        {
+            super(new KnownSize(requireRange(elements.length, start, end)));
             this.data = elements;
-            this.count = 0;
-            this.size = data.length;
+            this.start = start;
+            this.cursor = end;
         }
 
         @Override
         public boolean hasNext()
         {
-            return count < size;
+            return cursor > start;
         }
 
         @Override
         public int nextIntImpl()
         {
-            try {
-                return data[size - 1 - count++];
-            } catch (IndexOutOfBoundsException ex) {
+            if (cursor > start) {
+                return data[--cursor];
+            } else {
                 throw new NoSuchElementException();
             }
         }
@@ -234,37 +413,66 @@ public final class ArraySource
         @Override
         public void forwardImpl()
         {
-            if (count++ >= size) {
+            if (cursor-- <= start) {
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, cursor - start);
+            cursor -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            int[] src = data;
+            int from = cursor, stop = start;
+            cursor = stop;
+            for (int i = from - 1; i >= stop; i--) {
+                action.accept(src[i]);
+            }
+        }
     }
 
     public static class OfLongReversed extends AbstractLongIterator
     {
         private final long[] data;
-        private int count, size;
+        private final int start;
+        private int cursor;
 
         public OfLongReversed(long... elements)
         {
-            super(new KnownSize(elements.length));
+            this(elements, 0, elements.length);
+        }
+
+        /**
+         * Creates an iterator over the elements of the given array lying in the
+         * half open index range [start, end), beginning with the last.
+         */
+        public OfLongReversed(long[] elements, int start, int end)
+        {
+            super(new KnownSize(requireRange(elements.length, start, end)));
             this.data = elements;
-            this.count = 0;
-            this.size = data.length;
+            this.start = start;
+            this.cursor = end;
         }
 
         @Override
         public boolean hasNext()
         {
-            return count < size;
+            return cursor > start;
         }
 
         @Override
         public long nextLongImpl()
         {
-            try {
-                return data[size - 1 - count++];
-            } catch (IndexOutOfBoundsException ex) {
+            if (cursor > start) {
+                return data[--cursor];
+            } else {
                 throw new NoSuchElementException();
             }
         }
@@ -272,37 +480,66 @@ public final class ArraySource
         @Override
         public void forwardImpl()
         {
-            if (count++ >= size) {
+            if (cursor-- <= start) {
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, cursor - start);
+            cursor -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            long[] src = data;
+            int from = cursor, stop = start;
+            cursor = stop;
+            for (int i = from - 1; i >= stop; i--) {
+                action.accept(src[i]);
+            }
+        }
     }
 
     public static class OfDoubleReversed extends AbstractDoubleIterator
     {
         private final double[] data;
-        private int count, size;
+        private final int start;
+        private int cursor;
 
         public OfDoubleReversed(double... elements)
         {
-            super(new KnownSize(elements.length));
+            this(elements, 0, elements.length);
+        }
+
+        /**
+         * Creates an iterator over the elements of the given array lying in the
+         * half open index range [start, end), beginning with the last.
+         */
+        public OfDoubleReversed(double[] elements, int start, int end)
+        {
+            super(new KnownSize(requireRange(elements.length, start, end)));
             this.data = elements;
-            this.count = 0;
-            this.size = data.length;
+            this.start = start;
+            this.cursor = end;
         }
 
         @Override
         public boolean hasNext()
         {
-            return count < size;
+            return cursor > start;
         }
 
         @Override
         public double nextDoubleImpl()
         {
-            try {
-                return data[size - 1 - count++];
-            } catch (IndexOutOfBoundsException ex) {
+            if (cursor > start) {
+                return data[--cursor];
+            } else {
                 throw new NoSuchElementException();
             }
         }
@@ -310,9 +547,28 @@ public final class ArraySource
         @Override
         public void forwardImpl()
         {
-            if (count++ >= size) {
+            if (cursor-- <= start) {
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, cursor - start);
+            cursor -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            double[] src = data;
+            int from = cursor, stop = start;
+            cursor = stop;
+            for (int i = from - 1; i >= stop; i--) {
+                action.accept(src[i]);
+            }
+        }
     }
 }
@@ -0,0 +1,85 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.utils.Exceptions;
+
+/**
+ * Insert only Bloom filter over 64 bit hashes backing the approximate distinct
+ * adapters. The bit array is sized for a given number of insertions and false
+ * positive probability, each hash sets a number of bits derived from it by
+ * double hashing. A false positive makes an element appear to have been seen
+ * already, so approximate de-duplication may drop some distinct elements but
+ * never emits a duplicate.
+ *
+ * @author t
+ */
+final class BloomFilter
+{
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions The expected number of distinct elements,
+     *                           must be positive.
+     * @param falsePositiveRate  The acceptable probability that an element
+     *                           is wrongly reported as seen once the
+     *                           expected number have been added, must lie
+     *                           strictly between zero and one.
+     */
+    BloomFilter(int expectedInsertions, double falsePositiveRate)
+    {
+        Exceptions.requireArg(expectedInsertions > 0);
+        Exceptions.requireArg(0 < falsePositiveRate && falsePositiveRate < 1);
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedInsertions
+                * Math.log(falsePositiveRate) / (ln2 * ln2));
+        // Bit indices are computed as longs but the words live in one array.
+        long words = Math.min((optimalBits + 63) >>> 6, Integer.MAX_VALUE - 8);
+        this.bits = new long[(int) Math.max(words, 1)];
+        this.bitCount = 64L * bits.length;
+        this.hashCount = (int) Math.max(1, Math.min(30,
+                Math.round((double) bitCount / expectedInsertions * ln2)));
+    }
+
+    /**
+     * Finalisation step of the 64 bit MurmurHash3, spreads every bit of the
+     * input across the output.
+     */
+    static long mix(long value)
+    {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Adds a value to this filter.
+     *
+     * @param value The value to add, it is hashed by this method.
+     * @return Whether the value was definitely absent, i.e. at least one of
+     *         its bits was not yet set.
+     */
+    boolean add(long value)
+    {
+        long hash = mix(value);
+        long h1 = hash, h2 = (hash >>> 32) | (hash << 32);
+        boolean added = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                added = true;
+            }
+        }
+        return added;
+    }
+}
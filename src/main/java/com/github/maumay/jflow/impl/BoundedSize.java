@@ -13,7 +13,7 @@ import java.util.Objects;
  */
 public final class BoundedSize extends AbstractIteratorSize
 {
-    private int lo, hi;
+    private final int lo, hi;
 
     BoundedSize(int lo, int hi)
     {
@@ -40,13 +40,6 @@ public final class BoundedSize extends AbstractIteratorSize
         return lo;
     }
 
-    @Override
-    void decrement()
-    {
-        lo = Math.max(0, lo - 1);
-        hi--;
-    }
-
     @Override
     AbstractIteratorSize addImpl(int value)
     {
@@ -71,7 +64,7 @@ public final class BoundedSize extends AbstractIteratorSize
     @Override
     public AbstractIteratorSize dropLowerBound()
     {
-        return new BoundedSize(0, hi);
+        return lo == 0 ? this : new BoundedSize(0, hi);
     }
 
     @Override
@@ -97,7 +90,7 @@ public final class BoundedSize extends AbstractIteratorSize
     @Override
     public BoundedSize copy()
     {
-        return new BoundedSize(lo, hi);
+        return this;
     }
 
     @Override
@@ -116,4 +109,12 @@ public final class BoundedSize extends AbstractIteratorSize
             return new KnownSize(0);
         }
     }
+
+    @Override
+    AbstractIteratorSize divideImpl(int value)
+    {
+        return value == 1 ? this
+                : new BoundedSize(IteratorSizes.divideRoundingUp(lo, value),
+                        IteratorSizes.divideRoundingUp(hi, value));
+    }
 }
@@ -0,0 +1,238 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.NoSuchElementException;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Source iterators over a range of elements stored in a sequence of equally
+ * sized nio buffers (chunks). The element with global index {@code i} lives at
+ * position {@code i & mask} of chunk {@code i >>> shift} where the chunk
+ * length is {@code 1 << shift}. Only absolute gets are used so the buffers can
+ * be shared between iterators and threads.
+ *
+ * @author t
+ */
+public final class BufferSource
+{
+    private BufferSource()
+    {
+    }
+
+    public static class OfInt extends AbstractIntIterator
+    {
+        private final IntBuffer[] chunks;
+        private final int shift, mask, end;
+        private int count;
+
+        /**
+         * Creates an iterator over the elements of the given chunks lying in
+         * the half open global index range [start, end).
+         */
+        public OfInt(IntBuffer[] chunks, int shift, int start, int end)
+        {
+            super(new KnownSize(end - start));
+            this.chunks = chunks;
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+            this.count = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return count < end;
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            if (count < end) {
+                int index = count++;
+                return chunks[index >>> shift].get(index & mask);
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (count++ >= end) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, end - count);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            int index = count, stop = end;
+            count = stop;
+            while (index < stop) {
+                IntBuffer chunk = chunks[index >>> shift];
+                int offset = index & mask;
+                int n = Math.min(stop - index, chunk.limit() - offset);
+                for (int i = offset; i < offset + n; i++) {
+                    action.accept(chunk.get(i));
+                }
+                index += n;
+            }
+        }
+    }
+
+    public static class OfLong extends AbstractLongIterator
+    {
+        private final LongBuffer[] chunks;
+        private final int shift, mask, end;
+        private int count;
+
+        /**
+         * Creates an iterator over the elements of the given chunks lying in
+         * the half open global index range [start, end).
+         */
+        public OfLong(LongBuffer[] chunks, int shift, int start, int end)
+        {
+            super(new KnownSize(end - start));
+            this.chunks = chunks;
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+            this.count = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return count < end;
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            if (count < end) {
+                int index = count++;
+                return chunks[index >>> shift].get(index & mask);
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (count++ >= end) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, end - count);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            int index = count, stop = end;
+            count = stop;
+            while (index < stop) {
+                LongBuffer chunk = chunks[index >>> shift];
+                int offset = index & mask;
+                int n = Math.min(stop - index, chunk.limit() - offset);
+                for (int i = offset; i < offset + n; i++) {
+                    action.accept(chunk.get(i));
+                }
+                index += n;
+            }
+        }
+    }
+
+    public static class OfDouble extends AbstractDoubleIterator
+    {
+        private final DoubleBuffer[] chunks;
+        private final int shift, mask, end;
+        private int count;
+
+        /**
+         * Creates an iterator over the elements of the given chunks lying in
+         * the half open global index range [start, end).
+         */
+        public OfDouble(DoubleBuffer[] chunks, int shift, int start, int end)
+        {
+            super(new KnownSize(end - start));
+            this.chunks = chunks;
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+            this.count = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return count < end;
+        }
+
+        @Override
+        public double nextDoubleImpl()
+        {
+            if (count < end) {
+                int index = count++;
+                return chunks[index >>> shift].get(index & mask);
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (count++ >= end) {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, end - count);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            int index = count, stop = end;
+            count = stop;
+            while (index < stop) {
+                DoubleBuffer chunk = chunks[index >>> shift];
+                int offset = index & mask;
+                int n = Math.min(stop - index, chunk.limit() - offset);
+                for (int i = offset; i < offset + n; i++) {
+                    action.accept(chunk.get(i));
+                }
+                index += n;
+            }
+        }
+    }
+}
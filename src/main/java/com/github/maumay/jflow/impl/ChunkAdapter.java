@@ -0,0 +1,519 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+import com.github.maumay.jflow.vec.Vec;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Adapters splitting a source into consecutive chunks of a fixed length, the
+ * last chunk may be shorter. Each chunk is only read from the source when it
+ * is requested. The chunks are either emitted as vectors or written into a
+ * caller supplied buffer in which case the adapter emits the number of
+ * elements written and no allocation takes place per chunk.
+ *
+ * @author t
+ */
+public final class ChunkAdapter
+{
+    /**
+     * The length first allocated for a chunk when the size of the source has
+     * no upper bound.
+     */
+    private static final int INITIAL_LENGTH = 1024;
+
+    private ChunkAdapter()
+    {
+    }
+
+    public static final class OfObject<E> extends
+            AbstractIteratorAdapter.OfObject<AbstractRichIterator<E>, Vec<E>>
+    {
+        private final int chunkSize;
+        /** An upper bound on the elements left in the source, or -1. */
+        private int remaining;
+
+        public OfObject(AbstractRichIterator<E> source, int chunkSize)
+        {
+            super(source.getSize().divide(chunkSize), source);
+            this.chunkSize = chunkSize;
+            this.remaining = upperBound(source);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public Vec<E> nextImpl()
+        {
+            AbstractRichIterator<E> src = getSource();
+            Object[] chunk = new Object[initialLength(remaining, chunkSize)];
+            int count = 0;
+            while (count < chunkSize && src.hasNext()) {
+                if (count == chunk.length) {
+                    chunk = Arrays.copyOf(chunk, grownLength(count, chunkSize));
+                }
+                chunk[count++] = src.nextImpl();
+            }
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining = consumed(remaining, count);
+            return new VecImpl<>(count == chunk.length ? chunk
+                    : Arrays.copyOf(chunk, count));
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            forwardChunk(getSource(), chunkSize);
+            remaining = consumed(remaining, chunkSize);
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = skipChunks(getSource(), chunkSize, n);
+            remaining = consumed(remaining, (long) skipped * chunkSize);
+            return skipped;
+        }
+    }
+
+    public static final class OfInt extends
+            AbstractIteratorAdapter.OfObject<AbstractIntIterator, IntVec>
+    {
+        private final int chunkSize;
+        /** An upper bound on the elements left in the source, or -1. */
+        private int remaining;
+
+        public OfInt(AbstractIntIterator source, int chunkSize)
+        {
+            super(source.getSize().divide(chunkSize), source);
+            this.chunkSize = chunkSize;
+            this.remaining = upperBound(source);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public IntVec nextImpl()
+        {
+            AbstractIntIterator src = getSource();
+            int[] chunk = new int[initialLength(remaining, chunkSize)];
+            int count = 0;
+            while (count < chunkSize && src.hasNext()) {
+                if (count == chunk.length) {
+                    chunk = Arrays.copyOf(chunk, grownLength(count, chunkSize));
+                }
+                chunk[count++] = src.nextIntImpl();
+            }
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining = consumed(remaining, count);
+            return new IntVecImpl(count == chunk.length ? chunk
+                    : Arrays.copyOf(chunk, count));
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            forwardChunk(getSource(), chunkSize);
+            remaining = consumed(remaining, chunkSize);
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = skipChunks(getSource(), chunkSize, n);
+            remaining = consumed(remaining, (long) skipped * chunkSize);
+            return skipped;
+        }
+    }
+
+    public static final class OfLong extends
+            AbstractIteratorAdapter.OfObject<AbstractLongIterator, LongVec>
+    {
+        private final int chunkSize;
+        /** An upper bound on the elements left in the source, or -1. */
+        private int remaining;
+
+        public OfLong(AbstractLongIterator source, int chunkSize)
+        {
+            super(source.getSize().divide(chunkSize), source);
+            this.chunkSize = chunkSize;
+            this.remaining = upperBound(source);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public LongVec nextImpl()
+        {
+            AbstractLongIterator src = getSource();
+            long[] chunk = new long[initialLength(remaining, chunkSize)];
+            int count = 0;
+            while (count < chunkSize && src.hasNext()) {
+                if (count == chunk.length) {
+                    chunk = Arrays.copyOf(chunk, grownLength(count, chunkSize));
+                }
+                chunk[count++] = src.nextLongImpl();
+            }
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining = consumed(remaining, count);
+            return new LongVecImpl(count == chunk.length ? chunk
+                    : Arrays.copyOf(chunk, count));
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            forwardChunk(getSource(), chunkSize);
+            remaining = consumed(remaining, chunkSize);
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = skipChunks(getSource(), chunkSize, n);
+            remaining = consumed(remaining, (long) skipped * chunkSize);
+            return skipped;
+        }
+    }
+
+    public static final class OfDouble extends
+            AbstractIteratorAdapter.OfObject<AbstractDoubleIterator, DoubleVec>
+    {
+        private final int chunkSize;
+        /** An upper bound on the elements left in the source, or -1. */
+        private int remaining;
+
+        public OfDouble(AbstractDoubleIterator source, int chunkSize)
+        {
+            super(source.getSize().divide(chunkSize), source);
+            this.chunkSize = chunkSize;
+            this.remaining = upperBound(source);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public DoubleVec nextImpl()
+        {
+            AbstractDoubleIterator src = getSource();
+            double[] chunk = new double[initialLength(remaining, chunkSize)];
+            int count = 0;
+            while (count < chunkSize && src.hasNext()) {
+                if (count == chunk.length) {
+                    chunk = Arrays.copyOf(chunk, grownLength(count, chunkSize));
+                }
+                chunk[count++] = src.nextDoubleImpl();
+            }
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining = consumed(remaining, count);
+            return new DoubleVecImpl(count == chunk.length ? chunk
+                    : Arrays.copyOf(chunk, count));
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            forwardChunk(getSource(), chunkSize);
+            remaining = consumed(remaining, chunkSize);
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = skipChunks(getSource(), chunkSize, n);
+            remaining = consumed(remaining, (long) skipped * chunkSize);
+            return skipped;
+        }
+    }
+
+    public static final class IntoObjectBuffer<E> extends
+            AbstractIteratorAdapter.OfInt<AbstractRichIterator<E>>
+    {
+        private final E[] buffer;
+
+        public IntoObjectBuffer(AbstractRichIterator<E> source, E[] buffer)
+        {
+            super(source.getSize()
+                    .divide(IteratorSizes.requirePositive(buffer.length)),
+                    source);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            AbstractRichIterator<E> src = getSource();
+            E[] buf = buffer;
+            int count = 0;
+            while (count < buf.length && src.hasNext()) {
+                buf[count++] = src.nextImpl();
+            }
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            return count;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            forwardChunk(getSource(), buffer.length);
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return skipChunks(getSource(), buffer.length, n);
+        }
+    }
+
+    public static final class IntoIntBuffer extends
+            AbstractIteratorAdapter.OfInt<AbstractIntIterator>
+    {
+        private final int[] buffer;
+
+        public IntoIntBuffer(AbstractIntIterator source, int[] buffer)
+        {
+            super(source.getSize()
+                    .divide(IteratorSizes.requirePositive(buffer.length)),
+                    source);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            AbstractIntIterator src = getSource();
+            int[] buf = buffer;
+            int count = 0;
+            while (count < buf.length && src.hasNext()) {
+                buf[count++] = src.nextIntImpl();
+            }
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            return count;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            forwardChunk(getSource(), buffer.length);
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return skipChunks(getSource(), buffer.length, n);
+        }
+    }
+
+    public static final class IntoLongBuffer extends
+            AbstractIteratorAdapter.OfInt<AbstractLongIterator>
+    {
+        private final long[] buffer;
+
+        public IntoLongBuffer(AbstractLongIterator source, long[] buffer)
+        {
+            super(source.getSize()
+                    .divide(IteratorSizes.requirePositive(buffer.length)),
+                    source);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            AbstractLongIterator src = getSource();
+            long[] buf = buffer;
+            int count = 0;
+            while (count < buf.length && src.hasNext()) {
+                buf[count++] = src.nextLongImpl();
+            }
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            return count;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            forwardChunk(getSource(), buffer.length);
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return skipChunks(getSource(), buffer.length, n);
+        }
+    }
+
+    public static final class IntoDoubleBuffer extends
+            AbstractIteratorAdapter.OfInt<AbstractDoubleIterator>
+    {
+        private final double[] buffer;
+
+        public IntoDoubleBuffer(AbstractDoubleIterator source, double[] buffer)
+        {
+            super(source.getSize()
+                    .divide(IteratorSizes.requirePositive(buffer.length)),
+                    source);
+            this.buffer = buffer;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            AbstractDoubleIterator src = getSource();
+            double[] buf = buffer;
+            int count = 0;
+            while (count < buf.length && src.hasNext()) {
+                buf[count++] = src.nextDoubleImpl();
+            }
+            if (count == 0) {
+                throw new NoSuchElementException();
+            }
+            return count;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            forwardChunk(getSource(), buffer.length);
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return skipChunks(getSource(), buffer.length, n);
+        }
+    }
+
+    /**
+     * @return An upper bound on the size of the given source, or -1 if there
+     *         is none. Chunk adapters pull elements without updating the size
+     *         of their source so they keep track of this bound themselves.
+     */
+    private static int upperBound(AbstractIterator source)
+    {
+        AbstractIteratorSize size = source.getSize();
+        switch (size.getType()) {
+            case EXACT:
+                return ((KnownSize) size).getValue();
+            case BOUNDED:
+                return ((BoundedSize) size).upper();
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * @return The upper bound on the elements left in a source once the given
+     *         number of elements have been taken from it.
+     */
+    private static int consumed(int remaining, long count)
+    {
+        return remaining < 0 ? remaining
+                : (int) Math.max(0, remaining - count);
+    }
+
+    /**
+     * @return The length of the array first allocated for a chunk. This is
+     *         the upper bound on the elements left in the source if there is
+     *         one, so a large chunk size does not cost a large allocation for
+     *         a short source, otherwise the chunk starts small and grows as
+     *         elements arrive.
+     */
+    private static int initialLength(int remaining, int chunkSize)
+    {
+        return remaining < 0 ? Math.min(chunkSize, INITIAL_LENGTH)
+                : Math.max(1, Math.min(chunkSize, remaining));
+    }
+
+    private static int grownLength(int length, int chunkSize)
+    {
+        return (int) Math.min(chunkSize, 2L * length);
+    }
+
+    private static void forwardChunk(AbstractIterator source, int chunkSize)
+    {
+        if (source.skipImpl(chunkSize) == 0) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    /**
+     * Skips whole chunks by skipping the corresponding number of elements of
+     * the source in as few steps as possible.
+     */
+    private static int skipChunks(AbstractIterator source, int chunkSize,
+            int n)
+    {
+        int maxChunksPerStep = Integer.MAX_VALUE / chunkSize;
+        int count = 0;
+        while (count < n) {
+            int target = Math.min(n - count, maxChunksPerStep) * chunkSize;
+            int skipped = source.skipImpl(target);
+            count += IteratorSizes.divideRoundingUp(skipped, chunkSize);
+            if (skipped < target) {
+                break;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+
+/**
+ * Defines copies of a class from its own bytecode. Each copy is a distinct
+ * class so the JIT collects a separate type profile for every call site in
+ * it. On Java 15+ the copies are hidden classes defined alongside the
+ * original, they are unloaded once unreachable. Earlier versions fall back to
+ * defining each copy in a class loader of its own.
+ *
+ * @author t
+ */
+final class ClassCloner
+{
+    private static final Method DEFINE_HIDDEN_CLASS;
+    private static final Object NO_CLASS_OPTIONS;
+
+    static
+    {
+        Method define = null;
+        Object options = null;
+        try {
+            // Looked up reflectively as the library is compiled against Java 8.
+            Class<?> optionType = Class.forName(
+                    "java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            options = Array.newInstance(optionType, 0);
+            define = MethodHandles.Lookup.class.getMethod("defineHiddenClass",
+                    byte[].class, boolean.class, options.getClass());
+        } catch (ReflectiveOperationException ex) {
+            define = null;
+            options = null;
+        }
+        DEFINE_HIDDEN_CLASS = define;
+        NO_CLASS_OPTIONS = options;
+    }
+
+    private ClassCloner()
+    {
+    }
+
+    /**
+     * @return Whether copies are defined as hidden classes.
+     */
+    static boolean definesHiddenClasses()
+    {
+        return DEFINE_HIDDEN_CLASS != null;
+    }
+
+    /**
+     * Defines a new copy of the given class, which must be in this package.
+     */
+    static Class<?> copyOf(Class<?> template)
+            throws IOException, ReflectiveOperationException
+    {
+        return copyOf(template, definesHiddenClasses());
+    }
+
+    static Class<?> copyOf(Class<?> template, boolean hidden)
+            throws IOException, ReflectiveOperationException
+    {
+        byte[] bytecode = bytecodeOf(template);
+        if (hidden) {
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS
+                    .invoke(MethodHandles.lookup(), bytecode, true,
+                            NO_CLASS_OPTIONS);
+            return lookup.lookupClass();
+        } else {
+            return new CopyLoader(template.getClassLoader())
+                    .define(template.getName(), bytecode);
+        }
+    }
+
+    private static byte[] bytecodeOf(Class<?> template) throws IOException
+    {
+        String resource = template.getSimpleName() + ".class";
+        try (InputStream in = template.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Cannot find bytecode of " + template);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Class loader holding a single copy, it is consulted before its parent
+     * so the copy refers to itself rather than the original.
+     */
+    private static final class CopyLoader extends ClassLoader
+    {
+        CopyLoader(ClassLoader parent)
+        {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytecode)
+        {
+            return defineClass(name, bytecode, 0, bytecode.length);
+        }
+    }
+}
@@ -5,6 +5,7 @@ package com.github.maumay.jflow.impl;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.function.Consumer;
 
 /**
  * @author thomasb
@@ -40,4 +41,10 @@ public final class CollectionSource<E> extends AbstractRichIterator<E>
     {
         source.next();
     }
+
+    @Override
+    public void forEachRemainingImpl(Consumer<? super E> action)
+    {
+        source.forEachRemaining(action);
+    }
 }
@@ -3,6 +3,11 @@
  */
 package com.github.maumay.jflow.impl;
 
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
 /**
  * @author thomasb
  *
@@ -46,6 +51,13 @@ public final class ConcatenationAdapter
                 getSourceTwo().forwardImpl();
             }
         }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            getSourceOne().forEachRemainingImpl(action);
+            getSourceTwo().forEachRemainingImpl(action);
+        }
     }
 
     public static final class OfInt
@@ -82,6 +94,13 @@ public final class ConcatenationAdapter
                 getSourceTwo().forwardImpl();
             }
         }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            getSourceOne().forEachRemainingImpl(action);
+            getSourceTwo().forEachRemainingImpl(action);
+        }
     }
 
     public static final class OfLong
@@ -118,6 +137,13 @@ public final class ConcatenationAdapter
                 getSourceTwo().forwardImpl();
             }
         }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            getSourceOne().forEachRemainingImpl(action);
+            getSourceTwo().forEachRemainingImpl(action);
+        }
     }
 
     public static final class OfDouble extends
@@ -153,5 +179,12 @@ public final class ConcatenationAdapter
                 getSourceTwo().forwardImpl();
             }
         }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            getSourceOne().forEachRemainingImpl(action);
+            getSourceTwo().forEachRemainingImpl(action);
+        }
     }
 }
@@ -4,6 +4,7 @@
 package com.github.maumay.jflow.impl;
 
 import java.util.OptionalDouble;
+import java.util.function.DoubleConsumer;
 
 /**
  * @author ThomasB
@@ -17,65 +18,60 @@ public class DoubleMinMaxConsumption
     public static OptionalDouble findMinOption(AbstractDoubleIterator source)
     {
         source.relinquishOwnership();
-        boolean found = false;
-        double min = Double.POSITIVE_INFINITY;
-        while (source.hasNext()) {
-            double next = source.nextDoubleImpl();
-            if (!found && !Double.isNaN(next)) {
-                found = true;
-                min = next;
-            } else if (next < min) {
-                min = next;
-            }
-        }
-        return found ? OptionalDouble.of(min) : OptionalDouble.empty();
+        Min min = new Min();
+        source.forEachRemainingImpl(min);
+        return min.found ? OptionalDouble.of(min.min) : OptionalDouble.empty();
     }
 
     public static double findMin(AbstractDoubleIterator source)
     {
-        source.relinquishOwnership();
-        boolean found = false;
-        double min = Double.POSITIVE_INFINITY;
-        while (source.hasNext()) {
-            double next = source.nextDoubleImpl();
-            if (!found && !Double.isNaN(next)) {
-                found = true;
-                min = next;
-            } else if (next < min) {
-                min = next;
-            }
-        }
-        if (found) {
-            return min;
-        } else {
-            throw new IllegalStateException();
-        }
+        return findMinOption(source).orElseThrow(IllegalStateException::new);
     }
 
     public static OptionalDouble findMaxOption(AbstractDoubleIterator source)
     {
         source.relinquishOwnership();
-        boolean found = false;
-        double max = Double.NEGATIVE_INFINITY;
-        while (source.hasNext()) {
-            double next = source.nextDoubleImpl();
+        Max max = new Max();
+        source.forEachRemainingImpl(max);
+        return max.found ? OptionalDouble.of(max.max) : OptionalDouble.empty();
+    }
+
+    public static double findMax(AbstractDoubleIterator source)
+    {
+        return findMaxOption(source).orElseThrow(IllegalStateException::new);
+    }
+
+    /**
+     * Tracks the smallest element pushed to it, ignoring NaN values.
+     */
+    private static final class Min implements DoubleConsumer
+    {
+        private boolean found = false;
+        private double min = Double.POSITIVE_INFINITY;
+
+        @Override
+        public void accept(double next)
+        {
             if (!found && !Double.isNaN(next)) {
                 found = true;
-                max = next;
-            } else if (next > max) {
-                max = next;
+                min = next;
+            } else if (next < min) {
+                min = next;
             }
         }
-        return found ? OptionalDouble.of(max) : OptionalDouble.empty();
     }
 
-    public static double findMax(AbstractDoubleIterator source)
+    /**
+     * Tracks the largest element pushed to it, ignoring NaN values.
+     */
+    private static final class Max implements DoubleConsumer
     {
-        source.relinquishOwnership();
-        boolean found = false;
-        double max = Double.NEGATIVE_INFINITY;
-        while (source.hasNext()) {
-            double next = source.nextDoubleImpl();
+        private boolean found = false;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        @Override
+        public void accept(double next)
+        {
             if (!found && !Double.isNaN(next)) {
                 found = true;
                 max = next;
@@ -83,11 +79,5 @@ public class DoubleMinMaxConsumption
                 max = next;
             }
         }
-        if (found) {
-            return max;
-        } else {
-            throw new IllegalStateException();
-        }
     }
-
 }
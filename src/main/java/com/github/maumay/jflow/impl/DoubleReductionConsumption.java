@@ -5,6 +5,7 @@ package com.github.maumay.jflow.impl;
 
 import java.util.OptionalDouble;
 import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
 
 /**
  * @author ThomasB
@@ -19,40 +20,22 @@ public final class DoubleReductionConsumption
             DoubleBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        boolean reductionUninitialised = true;
-        double reduction = -1L;
-        while (source.hasNext()) {
-            if (reductionUninitialised) {
-                reduction = source.nextDoubleImpl();
-                reductionUninitialised = false;
-            } else {
-                reduction = reducer
-                        .applyAsDouble(reduction, source.nextDoubleImpl());
-            }
+        if (source.hasNext()) {
+            double first = source.nextDoubleImpl();
+            return OptionalDouble.of(foldRemaining(source, first, reducer));
+        } else {
+            return OptionalDouble.empty();
         }
-        return reductionUninitialised ? OptionalDouble.empty() : OptionalDouble
-                .of(reduction);
     }
 
     public static double fold(AbstractDoubleIterator source,
             DoubleBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        boolean reductionUninitialised = true;
-        double reduction = -1L;
-        while (source.hasNext()) {
-            if (reductionUninitialised) {
-                reduction = source.nextDoubleImpl();
-                reductionUninitialised = false;
-            } else {
-                reduction = reducer
-                        .applyAsDouble(reduction, source.nextDoubleImpl());
-            }
-        }
-        if (reductionUninitialised) {
-            throw new IllegalStateException("Attempted fold on empty iterator");
+        if (source.hasNext()) {
+            return foldRemaining(source, source.nextDoubleImpl(), reducer);
         } else {
-            return reduction;
+            throw new IllegalStateException("Attempted fold on empty iterator");
         }
     }
 
@@ -60,12 +43,15 @@ public final class DoubleReductionConsumption
             DoubleBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        double reduction = id;
-        while (source.hasNext()) {
-            reduction = reducer
-                    .applyAsDouble(reduction, source.nextDoubleImpl());
-        }
-        return reduction;
+        return foldRemaining(source, id, reducer);
+    }
+
+    private static double foldRemaining(AbstractDoubleIterator source, double id,
+            DoubleBinaryOperator reducer)
+    {
+        Folder folder = new Folder(id, reducer);
+        source.forEachRemainingImpl(folder);
+        return folder.reduction;
     }
 
     public static long count(AbstractDoubleIterator source)
@@ -73,9 +59,29 @@ public final class DoubleReductionConsumption
         source.relinquishOwnership();
         int count = 0;
         while (source.hasNext()) {
-            source.forwardImpl();
-            count++;
+            count += source.skipImpl(Integer.MAX_VALUE);
         }
         return count;
     }
+
+    /**
+     * Accumulates the elements pushed to it by an iterator.
+     */
+    private static final class Folder implements DoubleConsumer
+    {
+        private final DoubleBinaryOperator reducer;
+        private double reduction;
+
+        Folder(double id, DoubleBinaryOperator reducer)
+        {
+            this.reducer = reducer;
+            this.reduction = id;
+        }
+
+        @Override
+        public void accept(double element)
+        {
+            reduction = reducer.applyAsDouble(reduction, element);
+        }
+    }
 }
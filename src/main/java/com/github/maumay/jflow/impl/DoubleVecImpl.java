@@ -5,9 +5,11 @@ package com.github.maumay.jflow.impl;
 
 import com.github.maumay.jflow.iterator.DoubleIterator;
 import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.ParallelDoubleIterator;
 import com.github.maumay.jflow.vec.DoubleVec;
 
 import java.util.Arrays;
+import java.util.StringJoiner;
 import java.util.stream.DoubleStream;
 
 /**
@@ -19,34 +21,72 @@ final class DoubleVecImpl implements DoubleVec
     private static final DoubleVecImpl EMPTY = new DoubleVecImpl(new double[0]);
 
     private final double[] data;
+    private final int offset, size;
 
     DoubleVecImpl(double[] src)
+    {
+        this(src, 0, src.length);
+    }
+
+    /**
+     * Creates a view of the elements of the given array lying in the index range
+     * [offset, offset + size), the range is assumed to be valid.
+     */
+    DoubleVecImpl(double[] src, int offset, int size)
     {
         this.data = src;
+        this.offset = offset;
+        this.size = size;
     }
 
     @Override
     public DoubleIterator iter()
     {
-        return new ArraySource.OfDouble(data);
+        return new ArraySource.OfDouble(data, offset, offset + size);
     }
 
     @Override
     public DoubleStream stream()
     {
-        return DoubleStream.of(data);
+        return Arrays.stream(data, offset, offset + size);
+    }
+
+    @Override
+    public ParallelDoubleIterator parIter()
+    {
+        return new ParallelIteratorImpl.OfDouble(size,
+                (start, end) -> new ArraySource.OfDouble(data, offset + start,
+                        offset + end));
+    }
+
+    @Override
+    public DoubleVecImpl subVec(int from, int to)
+    {
+        int length = ArraySource.requireRange(size, from, to);
+        return length == size ? this
+                : new DoubleVecImpl(data, offset + from, length);
+    }
+
+    @Override
+    public DoubleVecImpl compact()
+    {
+        return offset == 0 && size == data.length ? this
+                : new DoubleVecImpl(Arrays.copyOfRange(data, offset, offset + size));
     }
 
     @Override
     public double get(int index)
     {
-        return data[index];
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return data[offset + index];
     }
 
     @Override
     public int size()
     {
-        return data.length;
+        return size;
     }
 
     public static DoubleVecImpl empty()
@@ -57,7 +97,7 @@ final class DoubleVecImpl implements DoubleVec
     @Override
     public DoubleIterator iterRev()
     {
-        return Iter.reverseDoubles(data);
+        return new ArraySource.OfDoubleReversed(data, offset, offset + size);
     }
 
     @Override
@@ -76,19 +116,28 @@ final class DoubleVecImpl implements DoubleVec
     @Override
     public int hashCode()
     {
-        return Arrays.hashCode(data);
+        // Agrees with Arrays.hashCode applied to the elements of this vector.
+        int result = 1;
+        for (int i = offset; i < offset + size; i++) {
+            result = 31 * result + Double.hashCode(data[i]);
+        }
+        return result;
     }
 
     @Override
     public String toString()
     {
-        return Arrays.toString(data);
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = offset; i < offset + size; i++) {
+            joiner.add(String.valueOf(data[i]));
+        }
+        return joiner.toString();
     }
 
     @Override
     public DoubleVecImpl sorted()
     {
-        double[] cpy = Arrays.copyOf(data, data.length);
+        double[] cpy = Arrays.copyOfRange(data, offset, offset + size);
         Arrays.sort(cpy);
         return new DoubleVecImpl(cpy);
     }
@@ -0,0 +1,95 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.IntObjConsumer;
+import com.github.maumay.jflow.iterator.IntObjFunction;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Adapter which maps each element of a source iterator together with its
+ * (primitive) index, avoiding the boxed index and tuple created by
+ * enumeration.
+ *
+ * @author t
+ */
+public final class EnumerateAdapter
+{
+    private EnumerateAdapter()
+    {
+    }
+
+    public static final class OfObject<E, R>
+            extends AbstractIteratorAdapter.OfObject<AbstractRichIterator<E>, R>
+    {
+        private final IntObjFunction<? super E, ? extends R> map;
+        private int index;
+
+        public OfObject(AbstractRichIterator<E> source,
+                IntObjFunction<? super E, ? extends R> map)
+        {
+            super(source.getSize().copy(), source);
+            this.map = Objects.requireNonNull(map);
+            this.index = 0;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSource().hasNext();
+        }
+
+        @Override
+        public R nextImpl()
+        {
+            return map.apply(index++, getSource().nextImpl());
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            getSource().forwardImpl();
+            index++;
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = getSource().skipImpl(n);
+            index += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super R> action)
+        {
+            getSource().forEachRemainingImpl(
+                    x -> action.accept(map.apply(index++, x)));
+        }
+    }
+
+    /**
+     * Passes each element it accepts on to an index aware action along with the
+     * number of elements accepted before it.
+     */
+    static final class IndexedConsumer<E> implements Consumer<E>
+    {
+        private final IntObjConsumer<? super E> action;
+        private int index;
+
+        IndexedConsumer(IntObjConsumer<? super E> action)
+        {
+            this.action = Objects.requireNonNull(action);
+            this.index = 0;
+        }
+
+        @Override
+        public void accept(E element)
+        {
+            action.accept(index++, element);
+        }
+    }
+}
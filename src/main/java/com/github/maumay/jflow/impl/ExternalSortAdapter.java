@@ -0,0 +1,612 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.ElementCodec;
+import com.github.maumay.jflow.iterator.ExternalSortIterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Adapters sorting sources which may not fit in memory. The source is cut into
+ * runs of at most a given number of elements, each run is sorted in memory
+ * and written to a temporary file and the runs are then lazily merged back
+ * with a {@link MergeSortedAdapter}. If there are too many runs to merge at
+ * once without exhausting file handles, consecutive groups of runs are first
+ * merged into longer runs. Since runs are only ever merged with their
+ * neighbours, in order, the sort is stable. Nothing is written to disk if the
+ * source fits in a single run. The sort takes place when the first element is
+ * requested, after which the source has been fully consumed. Each temporary
+ * file is deleted once it has been read. The files and readers of a sort are
+ * also tracked so that they are all released if the sort fails or the
+ * adapter is closed before the traversal finishes.
+ *
+ * @author t
+ */
+public final class ExternalSortAdapter
+{
+    /**
+     * The maximum number of runs merged at once.
+     */
+    static final int MAX_FAN_IN = 64;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private ExternalSortAdapter()
+    {
+    }
+
+    private static AbstractIteratorSize sizeOf(AbstractIterator source)
+    {
+        if (source.getSize().isInfinite()) {
+            throw new InfiniteConsumptionException();
+        }
+        return source.getSize().copy();
+    }
+
+    private static int grownLength(int length, int limit)
+    {
+        return (int) Math.min(limit, Math.max(16L, 2L * length));
+    }
+
+    public static final class OfObject<E>
+            extends AbstractIteratorAdapter.OfObject<AbstractRichIterator<E>, E>
+            implements ExternalSortIterator.OfObject<E>
+    {
+        private final Comparator<? super E> order;
+        private final ElementCodec<E> codec;
+        private final int memoryBudget;
+        private final Spill spill = new Spill();
+        private AbstractRichIterator<? extends E> sorted;
+
+        public OfObject(AbstractRichIterator<E> source,
+                Comparator<? super E> order, ElementCodec<E> codec,
+                int memoryBudget)
+        {
+            super(sizeOf(source), source);
+            this.order = Objects.requireNonNull(order);
+            this.codec = Objects.requireNonNull(codec);
+            this.memoryBudget = IteratorSizes.requirePositive(memoryBudget);
+        }
+
+        private AbstractRichIterator<? extends E> sorted()
+        {
+            if (sorted == null) {
+                try {
+                    sorted = sort();
+                } catch (IOException ex) {
+                    throw spill.releaseAfter(new UncheckedIOException(ex));
+                } catch (RuntimeException | Error ex) {
+                    spill.releaseAfter(ex);
+                    throw ex;
+                }
+            }
+            return sorted;
+        }
+
+        @SuppressWarnings("unchecked")
+        private AbstractRichIterator<? extends E> sort() throws IOException
+        {
+            AbstractRichIterator<E> src = getSource();
+            List<Run> runs = new ArrayList<>();
+            Object[] buffer = new Object[0];
+            int count;
+            do {
+                count = 0;
+                while (count < memoryBudget && src.hasNext()) {
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer,
+                                grownLength(count, memoryBudget));
+                    }
+                    buffer[count++] = src.nextImpl();
+                }
+                Arrays.sort(buffer, 0, count, (Comparator<Object>) order);
+                AbstractRichIterator<E> run = new ArraySource.OfObject<>(
+                        (E[]) buffer, 0, count);
+                if (runs.isEmpty() && !src.hasNext()) {
+                    return run;
+                }
+                runs.add(write(run));
+            } while (src.hasNext());
+            while (runs.size() > MAX_FAN_IN) {
+                List<Run> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                    int end = Math.min(runs.size(), i + MAX_FAN_IN);
+                    merged.add(write(merge(runs.subList(i, end))));
+                }
+                runs = merged;
+            }
+            return merge(runs);
+        }
+
+        private Run write(AbstractRichIterator<? extends E> elements)
+                throws IOException
+        {
+            Path file = spill.createFile();
+            long count = 0;
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(
+                            FileChannel.open(file, StandardOpenOption.WRITE)),
+                            BUFFER_BYTES))) {
+                while (elements.hasNext()) {
+                    codec.write(elements.nextImpl(), out);
+                    count++;
+                }
+            }
+            return new Run(file, count);
+        }
+
+        private AbstractRichIterator<E> merge(List<Run> runs)
+                throws IOException
+        {
+            List<AbstractRichIterator<E>> readers = new ArrayList<>();
+            for (Run run : runs) {
+                readers.add(spill.opened(new RunReader<>(run, codec)));
+            }
+            return new MergeSortedAdapter.OfObject<>(order, readers);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return spill.releaseIfExhausted(sorted().hasNext());
+        }
+
+        @Override
+        public E nextImpl()
+        {
+            return sorted().nextImpl();
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            sorted().forwardImpl();
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return sorted().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            sorted().forEachRemainingImpl(action);
+            spill.releaseIfExhausted(false);
+        }
+
+        @Override
+        public void close()
+        {
+            sorted = new EmptyIterator.OfObject<>();
+            spill.close();
+        }
+    }
+
+    public static final class OfLong
+            extends AbstractIteratorAdapter.OfLong<AbstractLongIterator>
+            implements ExternalSortIterator.OfLong
+    {
+        private final int memoryBudget;
+        private final Spill spill = new Spill();
+        private AbstractLongIterator sorted;
+
+        public OfLong(AbstractLongIterator source, int memoryBudget)
+        {
+            super(sizeOf(source), source);
+            this.memoryBudget = IteratorSizes.requirePositive(memoryBudget);
+        }
+
+        private AbstractLongIterator sorted()
+        {
+            if (sorted == null) {
+                try {
+                    sorted = sort();
+                } catch (IOException ex) {
+                    throw spill.releaseAfter(new UncheckedIOException(ex));
+                } catch (RuntimeException | Error ex) {
+                    spill.releaseAfter(ex);
+                    throw ex;
+                }
+            }
+            return sorted;
+        }
+
+        private AbstractLongIterator sort() throws IOException
+        {
+            AbstractLongIterator src = getSource();
+            List<Run> runs = new ArrayList<>();
+            long[] buffer = new long[0];
+            int count;
+            do {
+                count = 0;
+                while (count < memoryBudget && src.hasNext()) {
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer,
+                                grownLength(count, memoryBudget));
+                    }
+                    buffer[count++] = src.nextLongImpl();
+                }
+                Arrays.sort(buffer, 0, count);
+                AbstractLongIterator run = new ArraySource.OfLong(buffer, 0,
+                        count);
+                if (runs.isEmpty() && !src.hasNext()) {
+                    return run;
+                }
+                runs.add(write(run));
+            } while (src.hasNext());
+            while (runs.size() > MAX_FAN_IN) {
+                List<Run> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                    int end = Math.min(runs.size(), i + MAX_FAN_IN);
+                    merged.add(write(merge(runs.subList(i, end))));
+                }
+                runs = merged;
+            }
+            return merge(runs);
+        }
+
+        private Run write(AbstractLongIterator elements) throws IOException
+        {
+            Path file = spill.createFile();
+            long count = 0;
+            ByteBuffer bytes = ByteBuffer.allocate(BUFFER_BYTES);
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.WRITE)) {
+                while (elements.hasNext()) {
+                    if (bytes.remaining() < Long.BYTES) {
+                        drain(bytes, channel);
+                    }
+                    bytes.putLong(elements.nextLongImpl());
+                    count++;
+                }
+                drain(bytes, channel);
+            }
+            return new Run(file, count);
+        }
+
+        private static void drain(ByteBuffer bytes, FileChannel channel)
+                throws IOException
+        {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+
+        private AbstractLongIterator merge(List<Run> runs) throws IOException
+        {
+            AbstractLongIterator[] readers = new AbstractLongIterator[runs
+                    .size()];
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = spill.opened(new LongRunReader(runs.get(i)));
+            }
+            return new MergeSortedAdapter.OfLong(readers);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return spill.releaseIfExhausted(sorted().hasNext());
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            return sorted().nextLongImpl();
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            sorted().forwardImpl();
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return sorted().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            sorted().forEachRemainingImpl(action);
+            spill.releaseIfExhausted(false);
+        }
+
+        @Override
+        public void close()
+        {
+            sorted = EmptyIterator.ofLong();
+            spill.close();
+        }
+    }
+
+    /**
+     * The temporary files of a sort and the readers open on them, so they can
+     * all be released if the sort fails or its traversal is abandoned.
+     */
+    private static final class Spill
+    {
+        private final List<Path> files = new ArrayList<>();
+        private final List<Closeable> readers = new ArrayList<>();
+
+        Path createFile() throws IOException
+        {
+            Path file = Files.createTempFile("jflow-sort-", ".run");
+            files.add(file);
+            return file;
+        }
+
+        <R extends Closeable> R opened(R reader)
+        {
+            readers.add(reader);
+            return reader;
+        }
+
+        /**
+         * Closes every reader and deletes every file which still exists.
+         *
+         * @return The first failure to do so, with any later ones suppressed,
+         *         or null if there were none.
+         */
+        private IOException release()
+        {
+            IOException failure = null;
+            for (Closeable reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException ex) {
+                    failure = combine(failure, ex);
+                }
+            }
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ex) {
+                    failure = combine(failure, ex);
+                }
+            }
+            readers.clear();
+            files.clear();
+            return failure;
+        }
+
+        private static IOException combine(IOException first, IOException next)
+        {
+            if (first == null) {
+                return next;
+            }
+            first.addSuppressed(next);
+            return first;
+        }
+
+        /**
+         * Releases everything after the sort failed.
+         *
+         * @return The given failure, with any failure to release suppressed.
+         */
+        <T extends Throwable> T releaseAfter(T failure)
+        {
+            IOException ex = release();
+            if (ex != null) {
+                failure.addSuppressed(ex);
+            }
+            return failure;
+        }
+
+        /**
+         * Releases everything once the traversal is over, by which point the
+         * readers have already deleted their files.
+         *
+         * @return Whether the traversal continues.
+         */
+        boolean releaseIfExhausted(boolean hasNext)
+        {
+            if (!hasNext && !(files.isEmpty() && readers.isEmpty())) {
+                close();
+            }
+            return hasNext;
+        }
+
+        void close()
+        {
+            IOException ex = release();
+            if (ex != null) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * A sorted run of elements stored in a temporary file.
+     */
+    private static final class Run
+    {
+        final Path file;
+        final long count;
+
+        Run(Path file, long count)
+        {
+            this.file = file;
+            this.count = count;
+        }
+
+        void delete()
+        {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Reads back the elements of a run, the file is closed and deleted once
+     * the last element has been read. Runs may be longer than the maximum
+     * iterator size so only a lower bound is given.
+     */
+    private static final class RunReader<E> extends AbstractRichIterator<E>
+            implements Closeable
+    {
+        private final Run run;
+        private final ElementCodec<E> codec;
+        private final DataInputStream in;
+        private long remaining;
+
+        RunReader(Run run, ElementCodec<E> codec) throws IOException
+        {
+            super(new LowerBound(0));
+            this.run = run;
+            this.codec = codec;
+            this.in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(FileChannel.open(run.file)),
+                    BUFFER_BYTES));
+            this.remaining = run.count;
+            closeIfExhausted();
+        }
+
+        private void closeIfExhausted() throws IOException
+        {
+            if (remaining == 0) {
+                close();
+                run.delete();
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            in.close();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return remaining > 0;
+        }
+
+        @Override
+        public E nextImpl()
+        {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                E next = codec.read(in);
+                remaining--;
+                closeIfExhausted();
+                return next;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextImpl();
+        }
+    }
+
+    /**
+     * Reads back the elements of a run of longs a block at a time, the file
+     * is closed and deleted once the last element has been read.
+     */
+    private static final class LongRunReader extends AbstractLongIterator
+            implements Closeable
+    {
+        private final Run run;
+        private final FileChannel channel;
+        private final ByteBuffer bytes;
+        private long remaining;
+
+        LongRunReader(Run run) throws IOException
+        {
+            super(new LowerBound(0));
+            this.run = run;
+            this.channel = FileChannel.open(run.file);
+            this.bytes = ByteBuffer.allocate(BUFFER_BYTES);
+            this.bytes.flip();
+            this.remaining = run.count;
+            closeIfExhausted();
+        }
+
+        private void closeIfExhausted() throws IOException
+        {
+            if (remaining == 0) {
+                close();
+                run.delete();
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            channel.close();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return remaining > 0;
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                if (bytes.remaining() < Long.BYTES) {
+                    bytes.compact();
+                    while (bytes.position() < Long.BYTES) {
+                        if (channel.read(bytes) < 0) {
+                            throw new IOException("Truncated run " + run.file);
+                        }
+                    }
+                    bytes.flip();
+                }
+                long next = bytes.getLong();
+                remaining--;
+                closeIfExhausted();
+                return next;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextLongImpl();
+        }
+    }
+}
@@ -5,10 +5,7 @@ package com.github.maumay.jflow.impl;
 
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.function.DoublePredicate;
-import java.util.function.IntPredicate;
-import java.util.function.LongPredicate;
-import java.util.function.Predicate;
+import java.util.function.*;
 
 /**
  * @author thomasb
@@ -35,6 +32,17 @@ public final class FilterAdapter
             this.predicate = Objects.requireNonNull(predicate);
         }
 
+        /**
+         * Takes the place of the given adapter, filtering the elements of its
+         * source with the given predicate.
+         */
+        private OfObject(Predicate<? super E> predicate,
+                FilterAdapter.OfObject<E> replaced)
+        {
+            super(replaced, replaced.getSize().dropLowerBound());
+            this.predicate = predicate;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -69,6 +77,34 @@ public final class FilterAdapter
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            if (initialized) {
+                initialized = false;
+                action.accept(cached);
+            }
+            getSource().forEachRemainingImpl(x -> {
+                if (predicate.test(x)) {
+                    action.accept(x);
+                }
+            });
+        }
+
+        @Override
+        public AbstractRichIterator<E> filter(Predicate<? super E> next)
+        {
+            if (initialized) {
+                // An element has already been cached so this adapter must
+                // remain in the chain.
+                return super.filter(next);
+            }
+            Objects.requireNonNull(next);
+            Predicate<? super E> first = predicate;
+            return new FilterAdapter.OfObject<E>(
+                    x -> first.test(x) && next.test(x), this);
+        }
     }
 
     static final class OfInt extends
@@ -85,6 +121,16 @@ public final class FilterAdapter
             this.predicate = Objects.requireNonNull(predicate);
         }
 
+        /**
+         * Takes the place of the given adapter, filtering the elements of its
+         * source with the given predicate.
+         */
+        private OfInt(IntPredicate predicate, FilterAdapter.OfInt replaced)
+        {
+            super(replaced, replaced.getSize().dropLowerBound());
+            this.predicate = predicate;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -119,6 +165,34 @@ public final class FilterAdapter
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            if (initialized) {
+                initialized = false;
+                action.accept(cached);
+            }
+            getSource().forEachRemainingImpl(x -> {
+                if (predicate.test(x)) {
+                    action.accept(x);
+                }
+            });
+        }
+
+        @Override
+        public AbstractIntIterator filter(IntPredicate next)
+        {
+            if (initialized) {
+                // An element has already been cached so this adapter must
+                // remain in the chain.
+                return super.filter(next);
+            }
+            Objects.requireNonNull(next);
+            IntPredicate first = predicate;
+            return new FilterAdapter.OfInt(
+                    x -> first.test(x) && next.test(x), this);
+        }
     }
 
     static final class OfLong extends
@@ -135,6 +209,16 @@ public final class FilterAdapter
             this.predicate = Objects.requireNonNull(predicate);
         }
 
+        /**
+         * Takes the place of the given adapter, filtering the elements of its
+         * source with the given predicate.
+         */
+        private OfLong(LongPredicate predicate, FilterAdapter.OfLong replaced)
+        {
+            super(replaced, replaced.getSize().dropLowerBound());
+            this.predicate = predicate;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -169,6 +253,34 @@ public final class FilterAdapter
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            if (initialized) {
+                initialized = false;
+                action.accept(cached);
+            }
+            getSource().forEachRemainingImpl(x -> {
+                if (predicate.test(x)) {
+                    action.accept(x);
+                }
+            });
+        }
+
+        @Override
+        public AbstractLongIterator filter(LongPredicate next)
+        {
+            if (initialized) {
+                // An element has already been cached so this adapter must
+                // remain in the chain.
+                return super.filter(next);
+            }
+            Objects.requireNonNull(next);
+            LongPredicate first = predicate;
+            return new FilterAdapter.OfLong(
+                    x -> first.test(x) && next.test(x), this);
+        }
     }
 
     static final class OfDouble extends
@@ -186,6 +298,17 @@ public final class FilterAdapter
             this.predicate = Objects.requireNonNull(predicate);
         }
 
+        /**
+         * Takes the place of the given adapter, filtering the elements of its
+         * source with the given predicate.
+         */
+        private OfDouble(DoublePredicate predicate,
+                FilterAdapter.OfDouble replaced)
+        {
+            super(replaced, replaced.getSize().dropLowerBound());
+            this.predicate = predicate;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -220,5 +343,33 @@ public final class FilterAdapter
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            if (initialized) {
+                initialized = false;
+                action.accept(cached);
+            }
+            getSource().forEachRemainingImpl(x -> {
+                if (predicate.test(x)) {
+                    action.accept(x);
+                }
+            });
+        }
+
+        @Override
+        public AbstractDoubleIterator filter(DoublePredicate next)
+        {
+            if (initialized) {
+                // An element has already been cached so this adapter must
+                // remain in the chain.
+                return super.filter(next);
+            }
+            Objects.requireNonNull(next);
+            DoublePredicate first = predicate;
+            return new FilterAdapter.OfDouble(
+                    x -> first.test(x) && next.test(x), this);
+        }
     }
 }
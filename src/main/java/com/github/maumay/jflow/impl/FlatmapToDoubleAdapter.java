@@ -0,0 +1,150 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.Function;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+
+/**
+ * Adapters replacing each element of a source with the elements of a
+ * primitive double iterator, so the results are never boxed. The size of the
+ * result cannot be known in advance but whole inner iterators of known size
+ * are skipped without traversal (which also makes counting cheap).
+ *
+ * @author t
+ */
+public final class FlatmapToDoubleAdapter
+{
+    private FlatmapToDoubleAdapter()
+    {
+    }
+
+    public static final class FromObject<E> extends
+            Flattener<AbstractRichIterator<E>>
+    {
+        private final Function<? super E,
+                ? extends PrimitiveIterator.OfDouble> map;
+
+        public FromObject(AbstractRichIterator<E> source,
+                Function<? super E, ? extends PrimitiveIterator.OfDouble> map)
+        {
+            super(source);
+            this.map = map;
+        }
+
+        @Override
+        PrimitiveIterator.OfDouble nextInner()
+        {
+            return map.apply(getSource().nextImpl());
+        }
+    }
+
+    public static final class FromDouble
+            extends Flattener<AbstractDoubleIterator>
+    {
+        private final DoubleFunction<? extends PrimitiveIterator.OfDouble> map;
+
+        public FromDouble(AbstractDoubleIterator source,
+                DoubleFunction<? extends PrimitiveIterator.OfDouble> map)
+        {
+            super(source);
+            this.map = map;
+        }
+
+        @Override
+        PrimitiveIterator.OfDouble nextInner()
+        {
+            return map.apply(getSource().nextDoubleImpl());
+        }
+    }
+
+    /**
+     * Traversal logic shared by the adapters, which only differ in how the
+     * next inner iterator is obtained from the source.
+     */
+    abstract static class Flattener<S extends AbstractIterator>
+            extends AbstractIteratorAdapter.OfDouble<S>
+    {
+        private PrimitiveIterator.OfDouble current;
+
+        Flattener(S source)
+        {
+            super(new LowerBound(0), source);
+        }
+
+        /**
+         * Consumes the next element of the source.
+         *
+         * @return The image of the element under the mapping function.
+         */
+        abstract PrimitiveIterator.OfDouble nextInner();
+
+        @Override
+        public boolean hasNext()
+        {
+            while ((current == null || !current.hasNext())
+                    && getSource().hasNext()) {
+                current = nextInner();
+            }
+            return current != null && current.hasNext();
+        }
+
+        @Override
+        public double nextDoubleImpl()
+        {
+            if (hasNext()) {
+                return current.nextDouble();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextDoubleImpl();
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int count = 0;
+            while (count < n && hasNext()) {
+                count += skipInner(n - count);
+            }
+            return count;
+        }
+
+        private int skipInner(int n)
+        {
+            if (current instanceof AbstractIterator) {
+                AbstractIterator inner = (AbstractIterator) current;
+                if (inner.hasOwnership()) {
+                    return inner.skipImpl(n);
+                }
+            }
+            int count = 0;
+            while (count < n && current.hasNext()) {
+                current.nextDouble();
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            if (current != null) {
+                current.forEachRemaining(action);
+            }
+            while (getSource().hasNext()) {
+                nextInner().forEachRemaining(action);
+            }
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Adapters replacing each element of a source with the elements of a
+ * primitive int iterator, so the results are never boxed. The size of the
+ * result cannot be known in advance but whole inner iterators of known size
+ * are skipped without traversal (which also makes counting cheap).
+ *
+ * @author t
+ */
+public final class FlatmapToIntAdapter
+{
+    private FlatmapToIntAdapter()
+    {
+    }
+
+    public static final class FromObject<E> extends
+            Flattener<AbstractRichIterator<E>>
+    {
+        private final Function<? super E,
+                ? extends PrimitiveIterator.OfInt> map;
+
+        public FromObject(AbstractRichIterator<E> source,
+                Function<? super E, ? extends PrimitiveIterator.OfInt> map)
+        {
+            super(source);
+            this.map = map;
+        }
+
+        @Override
+        PrimitiveIterator.OfInt nextInner()
+        {
+            return map.apply(getSource().nextImpl());
+        }
+    }
+
+    public static final class FromInt extends Flattener<AbstractIntIterator>
+    {
+        private final IntFunction<? extends PrimitiveIterator.OfInt> map;
+
+        public FromInt(AbstractIntIterator source,
+                IntFunction<? extends PrimitiveIterator.OfInt> map)
+        {
+            super(source);
+            this.map = map;
+        }
+
+        @Override
+        PrimitiveIterator.OfInt nextInner()
+        {
+            return map.apply(getSource().nextIntImpl());
+        }
+    }
+
+    /**
+     * Traversal logic shared by the adapters, which only differ in how the
+     * next inner iterator is obtained from the source.
+     */
+    abstract static class Flattener<S extends AbstractIterator>
+            extends AbstractIteratorAdapter.OfInt<S>
+    {
+        private PrimitiveIterator.OfInt current;
+
+        Flattener(S source)
+        {
+            super(new LowerBound(0), source);
+        }
+
+        /**
+         * Consumes the next element of the source.
+         *
+         * @return The image of the element under the mapping function.
+         */
+        abstract PrimitiveIterator.OfInt nextInner();
+
+        @Override
+        public boolean hasNext()
+        {
+            while ((current == null || !current.hasNext())
+                    && getSource().hasNext()) {
+                current = nextInner();
+            }
+            return current != null && current.hasNext();
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            if (hasNext()) {
+                return current.nextInt();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextIntImpl();
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int count = 0;
+            while (count < n && hasNext()) {
+                count += skipInner(n - count);
+            }
+            return count;
+        }
+
+        private int skipInner(int n)
+        {
+            if (current instanceof AbstractIterator) {
+                AbstractIterator inner = (AbstractIterator) current;
+                if (inner.hasOwnership()) {
+                    return inner.skipImpl(n);
+                }
+            }
+            int count = 0;
+            while (count < n && current.hasNext()) {
+                current.nextInt();
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            if (current != null) {
+                current.forEachRemaining(action);
+            }
+            while (getSource().hasNext()) {
+                nextInner().forEachRemaining(action);
+            }
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Adapters replacing each element of a source with the elements of a
+ * primitive long iterator, so the results are never boxed. The size of the
+ * result cannot be known in advance but whole inner iterators of known size
+ * are skipped without traversal (which also makes counting cheap).
+ *
+ * @author t
+ */
+public final class FlatmapToLongAdapter
+{
+    private FlatmapToLongAdapter()
+    {
+    }
+
+    public static final class FromObject<E> extends
+            Flattener<AbstractRichIterator<E>>
+    {
+        private final Function<? super E,
+                ? extends PrimitiveIterator.OfLong> map;
+
+        public FromObject(AbstractRichIterator<E> source,
+                Function<? super E, ? extends PrimitiveIterator.OfLong> map)
+        {
+            super(source);
+            this.map = map;
+        }
+
+        @Override
+        PrimitiveIterator.OfLong nextInner()
+        {
+            return map.apply(getSource().nextImpl());
+        }
+    }
+
+    public static final class FromLong extends Flattener<AbstractLongIterator>
+    {
+        private final LongFunction<? extends PrimitiveIterator.OfLong> map;
+
+        public FromLong(AbstractLongIterator source,
+                LongFunction<? extends PrimitiveIterator.OfLong> map)
+        {
+            super(source);
+            this.map = map;
+        }
+
+        @Override
+        PrimitiveIterator.OfLong nextInner()
+        {
+            return map.apply(getSource().nextLongImpl());
+        }
+    }
+
+    /**
+     * Traversal logic shared by the adapters, which only differ in how the
+     * next inner iterator is obtained from the source.
+     */
+    abstract static class Flattener<S extends AbstractIterator>
+            extends AbstractIteratorAdapter.OfLong<S>
+    {
+        private PrimitiveIterator.OfLong current;
+
+        Flattener(S source)
+        {
+            super(new LowerBound(0), source);
+        }
+
+        /**
+         * Consumes the next element of the source.
+         *
+         * @return The image of the element under the mapping function.
+         */
+        abstract PrimitiveIterator.OfLong nextInner();
+
+        @Override
+        public boolean hasNext()
+        {
+            while ((current == null || !current.hasNext())
+                    && getSource().hasNext()) {
+                current = nextInner();
+            }
+            return current != null && current.hasNext();
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            if (hasNext()) {
+                return current.nextLong();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextLongImpl();
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int count = 0;
+            while (count < n && hasNext()) {
+                count += skipInner(n - count);
+            }
+            return count;
+        }
+
+        private int skipInner(int n)
+        {
+            if (current instanceof AbstractIterator) {
+                AbstractIterator inner = (AbstractIterator) current;
+                if (inner.hasOwnership()) {
+                    return inner.skipImpl(n);
+                }
+            }
+            int count = 0;
+            while (count < n && current.hasNext()) {
+                current.nextLong();
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            if (current != null) {
+                current.forEachRemaining(action);
+            }
+            while (getSource().hasNext()) {
+                nextInner().forEachRemaining(action);
+            }
+            current = null;
+        }
+    }
+}
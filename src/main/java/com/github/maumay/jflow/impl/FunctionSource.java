@@ -19,6 +19,16 @@ public final class FunctionSource
     {
     }
 
+    /**
+     * @return The index reached by skipping elements from the given index.
+     *         Skips over an infinite source stop at the largest index rather
+     *         than wrapping around to negative ones.
+     */
+    private static int advance(int count, int skipped)
+    {
+        return (int) Math.min((long) count + skipped, Integer.MAX_VALUE);
+    }
+
     public static class OfObject<E> extends AbstractRichIterator<E>
     {
         private final IntFunction<? extends E> src;
@@ -72,6 +82,14 @@ public final class FunctionSource
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = infiniteSize ? n : Math.min(n, size - count);
+            count = advance(count, skipped);
+            return skipped;
+        }
     }
 
     public static class OfInt extends AbstractIntIterator
@@ -126,6 +144,14 @@ public final class FunctionSource
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = infiniteSize ? n : Math.min(n, size - count);
+            count = advance(count, skipped);
+            return skipped;
+        }
     }
 
     public static class OfLong extends AbstractLongIterator
@@ -180,6 +206,14 @@ public final class FunctionSource
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = infiniteSize ? n : Math.min(n, size - count);
+            count = advance(count, skipped);
+            return skipped;
+        }
     }
 
     public static class OfDouble extends AbstractDoubleIterator
@@ -234,5 +268,13 @@ public final class FunctionSource
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = infiniteSize ? n : Math.min(n, size - count);
+            count = advance(count, skipped);
+            return skipped;
+        }
     }
 }
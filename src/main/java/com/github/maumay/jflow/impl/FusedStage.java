@@ -0,0 +1,207 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.Iterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Template for the stages of a compiled {@link PipelineImpl}. A fresh copy of
+ * this class is defined for every stage of every compiled pipeline, and one
+ * more for its terminal stage, so each call site below only ever sees the
+ * function and downstream sink of its own stage, which lets the JIT inline a
+ * whole pipeline into the driving loop. The terminal stage either passes each
+ * element to an action or folds the elements, possibly after mapping them to
+ * a primitive, so a fold accumulates in a field of the copy without boxing.
+ * As the copies may live in a class loader of their own this class must be
+ * self contained (no lambdas, nested classes or switches over enums) and may
+ * only refer to public types. The uncompiled pipeline uses this class itself
+ * for its terminal stages.
+ *
+ * @author t
+ */
+public final class FusedStage implements PipelineImpl.Terminal,
+        PipelineImpl.CompiledStage
+{
+    public static final int MAP = 0, FILTER = 1, MAP_FILTER = 2, FLAT_MAP = 3,
+            TAKE = 4, SKIP = 5, TAKE_WHILE = 6, SKIP_WHILE = 7, FOR_EACH = 8,
+            FOLD = 9, FOLD_INT = 10, FOLD_LONG = 11, FOLD_DOUBLE = 12;
+
+    private final int kind, n;
+    private final Object fn, predicate, reducer;
+    private final PipelineImpl.Sink downstream;
+
+    private int count;
+    private boolean skipping;
+
+    private Object reduction;
+    private int intReduction;
+    private long longReduction;
+    private double doubleReduction;
+
+    /**
+     * Creates the prototype of a stage from which the sinks used in each
+     * traversal are opened.
+     *
+     * @param kind      One of the constants of this class.
+     * @param fn        The function of the stage, null if it has none.
+     * @param predicate The predicate of the stage, null if it has none.
+     * @param n         The element count of a take or skip stage.
+     */
+    public FusedStage(int kind, Object fn, Object predicate, int n)
+    {
+        this(kind, fn, predicate, null, n, null);
+    }
+
+    private FusedStage(int kind, Object fn, Object predicate, Object reducer,
+            int n, PipelineImpl.Sink downstream)
+    {
+        this.kind = kind;
+        this.fn = fn;
+        this.predicate = predicate;
+        this.reducer = reducer;
+        this.n = n;
+        this.downstream = downstream;
+        this.count = 0;
+        this.skipping = true;
+    }
+
+    @Override
+    public PipelineImpl.Sink open(PipelineImpl.Sink downstream)
+    {
+        return new FusedStage(kind, fn, predicate, null, n, downstream);
+    }
+
+    @Override
+    public PipelineImpl.Terminal terminal(int kind, Object fn, Object reducer,
+            Object id)
+    {
+        FusedStage terminal = new FusedStage(kind, fn, null, reducer, 0, null);
+        switch (kind) {
+            case FOLD:
+                terminal.reduction = id;
+                break;
+            case FOLD_INT:
+                terminal.intReduction = ((Integer) id).intValue();
+                break;
+            case FOLD_LONG:
+                terminal.longReduction = ((Long) id).longValue();
+                break;
+            case FOLD_DOUBLE:
+                terminal.doubleReduction = ((Double) id).doubleValue();
+                break;
+            default:
+                break;
+        }
+        return terminal;
+    }
+
+    @Override
+    public boolean drive(PipelineImpl.Sink head,
+            AbstractRichIterator<?> source)
+    {
+        boolean accepting = true;
+        while (accepting && source.hasNext()) {
+            accepting = head.accept(source.nextImpl());
+        }
+        return accepting;
+    }
+
+    @Override
+    public Object result()
+    {
+        switch (kind) {
+            case FOLD:
+                return reduction;
+            case FOLD_INT:
+                return Integer.valueOf(intReduction);
+            case FOLD_LONG:
+                return Long.valueOf(longReduction);
+            case FOLD_DOUBLE:
+                return Double.valueOf(doubleReduction);
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean accept(Object element)
+    {
+        switch (kind) {
+            case MAP:
+                return downstream
+                        .accept(((Function<Object, Object>) fn).apply(element));
+            case FILTER:
+                return !((Predicate<Object>) predicate).test(element)
+                        || downstream.accept(element);
+            case MAP_FILTER: {
+                Object mapped = ((Function<Object, Object>) fn).apply(element);
+                return !((Predicate<Object>) predicate).test(mapped)
+                        || downstream.accept(mapped);
+            }
+            case FLAT_MAP: {
+                Iterator<?> images = ((Function<Object, Iterator<?>>) fn)
+                        .apply(element);
+                while (images.hasNext()) {
+                    if (!downstream.accept(images.next())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            case TAKE:
+                return downstream.accept(element) && ++count < n;
+            case SKIP:
+                if (count < n) {
+                    count++;
+                    return true;
+                }
+                return downstream.accept(element);
+            case TAKE_WHILE:
+                return ((Predicate<Object>) predicate).test(element)
+                        && downstream.accept(element);
+            case SKIP_WHILE:
+                if (skipping && ((Predicate<Object>) predicate).test(element)) {
+                    return true;
+                }
+                skipping = false;
+                return downstream.accept(element);
+            case FOR_EACH:
+                ((Consumer<Object>) fn).accept(element);
+                return true;
+            case FOLD:
+                reduction = ((BiFunction<Object, Object, Object>) fn)
+                        .apply(reduction, element);
+                return true;
+            case FOLD_INT:
+                intReduction = ((IntBinaryOperator) reducer).applyAsInt(
+                        intReduction,
+                        ((ToIntFunction<Object>) fn).applyAsInt(element));
+                return true;
+            case FOLD_LONG:
+                longReduction = ((LongBinaryOperator) reducer).applyAsLong(
+                        longReduction,
+                        ((ToLongFunction<Object>) fn).applyAsLong(element));
+                return true;
+            case FOLD_DOUBLE:
+                doubleReduction = ((DoubleBinaryOperator) reducer)
+                        .applyAsDouble(doubleReduction,
+                                ((ToDoubleFunction<Object>) fn)
+                                        .applyAsDouble(element));
+                return true;
+            default:
+                throw new AssertionError();
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Adapters computing the inner join of two sources on equal keys. One side,
+ * the smaller if the sizes of the sources show it, is consumed into a hash
+ * table when the first element is requested and the other side is then
+ * streamed through it, so the joined pairs are in the order of the streamed
+ * side and then of the table side. Rather than a map of lists the table
+ * stores every element in a single array and chains elements with equal keys
+ * through a parallel array of indices, the keys themselves are held in an
+ * open addressing table with linear probing. This is a handful of references
+ * and ints per element with no per element allocation.
+ *
+ * @author t
+ */
+public final class HashJoinAdapter
+{
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private HashJoinAdapter()
+    {
+    }
+
+    private static double upperBound(AbstractIteratorSize size)
+    {
+        switch (size.getType()) {
+            case EXACT:
+                return ((KnownSize) size).getValue();
+            case BOUNDED:
+                return ((BoundedSize) size).upper();
+            default:
+                return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private static double lowerBound(AbstractIteratorSize size)
+    {
+        switch (size.getType()) {
+            case EXACT:
+                return ((KnownSize) size).getValue();
+            case BOUNDED:
+                return ((BoundedSize) size).lower();
+            case LOWER_BOUND:
+                return ((LowerBound) size).getValue();
+            default:
+                return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * @return The smallest power of two which is at least twice the given
+     *         count, keeping the load factor at most one half.
+     */
+    private static int tableCapacity(int expectedCount)
+    {
+        int capacity = 16;
+        while (capacity < MAX_CAPACITY && capacity < 2L * expectedCount) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * Shared traversal logic, the elements of the table side are numbered in
+     * the order they are added and element references are these numbers plus
+     * one so zero can mark the end of a chain.
+     */
+    abstract static class Join<L, R, T> extends
+            AbstractIteratorBiAdapters.OfObject<AbstractRichIterator<? extends L>, AbstractRichIterator<? extends R>, T>
+    {
+        private final BiFunction<? super L, ? super R, ? extends T> combiner;
+        private final boolean tableLeft;
+        private boolean built;
+        private Object[] values;
+        private int[] next;
+        private int count;
+        private Object streamed;
+        private int match;
+
+        Join(AbstractRichIterator<? extends L> left,
+                AbstractRichIterator<? extends R> right,
+                BiFunction<? super L, ? super R, ? extends T> combiner)
+        {
+            super(new LowerBound(0), left, right);
+            this.combiner = Objects.requireNonNull(combiner);
+            this.tableLeft = upperBound(left.getSize()) < lowerBound(
+                    right.getSize());
+            if (tableSource().getSize().isInfinite()) {
+                throw new InfiniteConsumptionException();
+            }
+        }
+
+        private AbstractRichIterator<?> tableSource()
+        {
+            return tableLeft ? getSourceOne() : getSourceTwo();
+        }
+
+        private AbstractRichIterator<?> streamedSource()
+        {
+            return tableLeft ? getSourceTwo() : getSourceOne();
+        }
+
+        /**
+         * Prepares the key table to hold the given number of keys.
+         */
+        abstract void allocate(int capacity);
+
+        /**
+         * Adds an element of the table side, whose key is computed with the
+         * key function of that side.
+         */
+        abstract void add(Object element, boolean left);
+
+        /**
+         * @return A reference to the first element of the table side whose
+         *         key equals that of the given element of the streamed side,
+         *         or zero if there is none.
+         */
+        abstract int lookup(Object element, boolean left);
+
+        /**
+         * Appends an element to the chain ending at the given reference.
+         *
+         * @return A reference to the appended element.
+         */
+        final int append(Object element, int tail)
+        {
+            if (count == values.length) {
+                int length = (int) Math.min(Integer.MAX_VALUE - 8,
+                        2L * values.length);
+                values = Arrays.copyOf(values, length);
+                next = Arrays.copyOf(next, length);
+            }
+            values[count] = element;
+            if (tail != 0) {
+                next[tail - 1] = count + 1;
+            }
+            return ++count;
+        }
+
+        private void build()
+        {
+            if (!built) {
+                built = true;
+                AbstractRichIterator<?> src = tableSource();
+                int expected = IteratorSizes.expectedCount(src.getSize());
+                values = new Object[Math.max(16, expected)];
+                next = new int[values.length];
+                allocate(tableCapacity(expected));
+                while (src.hasNext()) {
+                    add(src.nextImpl(), tableLeft);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            build();
+            AbstractRichIterator<?> src = streamedSource();
+            while (match == 0 && src.hasNext()) {
+                streamed = src.nextImpl();
+                match = lookup(streamed, !tableLeft);
+            }
+            return match != 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T nextImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object stored = values[match - 1];
+            match = next[match - 1];
+            return tableLeft ? combiner.apply((L) stored, (R) streamed)
+                             : combiner.apply((L) streamed, (R) stored);
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            match = next[match - 1];
+        }
+    }
+
+    public static final class OfObject<L, R, T> extends Join<L, R, T>
+    {
+        private final Function<? super L, ?> leftKey;
+        private final Function<? super R, ?> rightKey;
+        private Object[] keys;
+        private int[] hashes, heads, tails;
+        private int mask, size;
+
+        public OfObject(AbstractRichIterator<? extends L> left,
+                AbstractRichIterator<? extends R> right,
+                Function<? super L, ?> leftKey,
+                Function<? super R, ?> rightKey,
+                BiFunction<? super L, ? super R, ? extends T> combiner)
+        {
+            super(left, right, combiner);
+            this.leftKey = Objects.requireNonNull(leftKey);
+            this.rightKey = Objects.requireNonNull(rightKey);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object keyOf(Object element, boolean left)
+        {
+            return left ? leftKey.apply((L) element)
+                        : rightKey.apply((R) element);
+        }
+
+        @Override
+        void allocate(int capacity)
+        {
+            keys = new Object[capacity];
+            hashes = new int[capacity];
+            heads = new int[capacity];
+            tails = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        private int slotOf(Object key, int hash)
+        {
+            int i = PrimitiveHashSets.mix(hash) & mask;
+            while (heads[i] != 0
+                    && !(hashes[i] == hash && Objects.equals(keys[i], key))) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        @Override
+        void add(Object element, boolean left)
+        {
+            Object key = keyOf(element, left);
+            int hash = Objects.hashCode(key);
+            int i = slotOf(key, hash);
+            if (heads[i] == 0) {
+                keys[i] = key;
+                hashes[i] = hash;
+                heads[i] = tails[i] = append(element, 0);
+                if (++size > heads.length / 2 && heads.length < MAX_CAPACITY) {
+                    rehash();
+                }
+            } else {
+                tails[i] = append(element, tails[i]);
+            }
+        }
+
+        private void rehash()
+        {
+            Object[] oldKeys = keys;
+            int[] oldHashes = hashes, oldHeads = heads, oldTails = tails;
+            allocate(2 * oldKeys.length);
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldHeads[j] != 0) {
+                    int i = slotOf(oldKeys[j], oldHashes[j]);
+                    keys[i] = oldKeys[j];
+                    hashes[i] = oldHashes[j];
+                    heads[i] = oldHeads[j];
+                    tails[i] = oldTails[j];
+                }
+            }
+        }
+
+        @Override
+        int lookup(Object element, boolean left)
+        {
+            Object key = keyOf(element, left);
+            return heads[slotOf(key, Objects.hashCode(key))];
+        }
+    }
+
+    public static final class ByLong<L, R, T> extends Join<L, R, T>
+    {
+        private final ToLongFunction<? super L> leftKey;
+        private final ToLongFunction<? super R> rightKey;
+        private long[] keys;
+        private int[] heads, tails;
+        private int mask, size;
+
+        public ByLong(AbstractRichIterator<? extends L> left,
+                AbstractRichIterator<? extends R> right,
+                ToLongFunction<? super L> leftKey,
+                ToLongFunction<? super R> rightKey,
+                BiFunction<? super L, ? super R, ? extends T> combiner)
+        {
+            super(left, right, combiner);
+            this.leftKey = Objects.requireNonNull(leftKey);
+            this.rightKey = Objects.requireNonNull(rightKey);
+        }
+
+        @SuppressWarnings("unchecked")
+        private long keyOf(Object element, boolean left)
+        {
+            return left ? leftKey.applyAsLong((L) element)
+                        : rightKey.applyAsLong((R) element);
+        }
+
+        @Override
+        void allocate(int capacity)
+        {
+            keys = new long[capacity];
+            heads = new int[capacity];
+            tails = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        private int slotOf(long key)
+        {
+            int i = PrimitiveHashSets.mix(key) & mask;
+            while (heads[i] != 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        @Override
+        void add(Object element, boolean left)
+        {
+            long key = keyOf(element, left);
+            int i = slotOf(key);
+            if (heads[i] == 0) {
+                keys[i] = key;
+                heads[i] = tails[i] = append(element, 0);
+                if (++size > heads.length / 2 && heads.length < MAX_CAPACITY) {
+                    rehash();
+                }
+            } else {
+                tails[i] = append(element, tails[i]);
+            }
+        }
+
+        private void rehash()
+        {
+            long[] oldKeys = keys;
+            int[] oldHeads = heads, oldTails = tails;
+            allocate(2 * oldKeys.length);
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldHeads[j] != 0) {
+                    int i = slotOf(oldKeys[j]);
+                    keys[i] = oldKeys[j];
+                    heads[i] = oldHeads[j];
+                    tails[i] = oldTails[j];
+                }
+            }
+        }
+
+        @Override
+        int lookup(Object element, boolean left)
+        {
+            return heads[slotOf(keyOf(element, left))];
+        }
+    }
+}
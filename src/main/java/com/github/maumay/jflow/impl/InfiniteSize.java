@@ -27,12 +27,6 @@ public final class InfiniteSize extends AbstractIteratorSize
         return this;
     }
 
-    @Override
-    void decrement()
-    {
-        // Do nothing.
-    }
-
     @Override
     AbstractIteratorSize addImpl(int value)
     {
@@ -62,4 +56,10 @@ public final class InfiniteSize extends AbstractIteratorSize
     {
         return this;
     }
+
+    @Override
+    AbstractIteratorSize divideImpl(int value)
+    {
+        return this;
+    }
 }
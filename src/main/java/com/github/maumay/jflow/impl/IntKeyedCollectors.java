@@ -0,0 +1,126 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.collector.IntIteratorCollector;
+import com.github.maumay.jflow.iterator.collector.IteratorCollector;
+import com.github.maumay.jflow.utils.IntLongMap;
+import com.github.maumay.jflow.utils.IntObjMap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collectors which aggregate elements by a primitive int key into the open
+ * addressing maps {@link IntLongMap} and {@link IntObjMap}, so neither the keys
+ * nor the counts are ever boxed. Sources from this library are traversed via
+ * their internal iteration path.
+ *
+ * @author t
+ */
+public final class IntKeyedCollectors
+{
+    private IntKeyedCollectors()
+    {
+    }
+
+    private static <E> void forEach(Iterator<? extends E> source,
+            Consumer<? super E> action)
+    {
+        if (source instanceof AbstractRichIterator<?>) {
+            AbstractRichIterator<? extends E> src;
+            src = (AbstractRichIterator<? extends E>) source;
+            src.relinquishOwnership();
+            src.forEachRemainingImpl(action);
+        } else {
+            source.forEachRemaining(action);
+        }
+    }
+
+    private static void forEachInt(IntIterator source, IntConsumer action)
+    {
+        if (source instanceof AbstractIntIterator) {
+            AbstractIntIterator src = (AbstractIntIterator) source;
+            src.relinquishOwnership();
+            src.forEachRemainingImpl(action);
+        } else {
+            while (source.hasNext()) {
+                action.accept(source.nextInt());
+            }
+        }
+    }
+
+    public static final class GroupBy<E>
+            implements IteratorCollector<E, IntObjMap<List<E>>>
+    {
+        private final ToIntFunction<? super E> classifier;
+
+        public GroupBy(ToIntFunction<? super E> classifier)
+        {
+            this.classifier = classifier;
+        }
+
+        @Override
+        public IntObjMap<List<E>> collect(Iterator<? extends E> source)
+        {
+            IntObjMap<List<E>> dest = new IntObjMap<>();
+            forEach(source, next -> dest
+                    .computeIfAbsent(classifier.applyAsInt(next),
+                            k -> new ArrayList<>())
+                    .add(next));
+            return dest;
+        }
+    }
+
+    public static final class SumBy<E>
+            implements IteratorCollector<E, IntLongMap>
+    {
+        private final ToIntFunction<? super E> classifier;
+        private final ToLongFunction<? super E> summand;
+
+        /**
+         * Sums the images of the elements under the summand function in groups
+         * determined by the classifier, passing a null summand counts the
+         * elements in each group instead.
+         */
+        public SumBy(ToIntFunction<? super E> classifier,
+                ToLongFunction<? super E> summand)
+        {
+            this.classifier = classifier;
+            this.summand = summand;
+        }
+
+        @Override
+        public IntLongMap collect(Iterator<? extends E> source)
+        {
+            IntLongMap dest = new IntLongMap();
+            if (summand == null) {
+                forEach(source,
+                        next -> dest.addTo(classifier.applyAsInt(next), 1L));
+            } else {
+                forEach(source, next -> dest.addTo(
+                        classifier.applyAsInt(next), summand.applyAsLong(next)));
+            }
+            return dest;
+        }
+    }
+
+    public static final class Histogram
+            implements IntIteratorCollector<IntLongMap>
+    {
+        @Override
+        public IntLongMap collect(IntIterator source)
+        {
+            IntLongMap dest = new IntLongMap();
+            forEachInt(source, next -> dest.addTo(next, 1L));
+            return dest;
+        }
+    }
+}
@@ -17,19 +17,7 @@ public class IntMinMaxConsumption
 
     public static OptionalInt findMinOption(AbstractIntIterator source)
     {
-        source.relinquishOwnership();
-        boolean found = false;
-        int min = Integer.MAX_VALUE;
-        while (source.hasNext()) {
-            int next = source.nextIntImpl();
-            if (!found) {
-                found = true;
-                min = next;
-            } else if (next < min) {
-                min = next;
-            }
-        }
-        return found ? OptionalInt.of(min) : OptionalInt.empty();
+        return IntReductionConsumption.foldOption(source, Math::min);
     }
 
     public static <C extends Comparable<C>> OptionalInt findMinOption(
@@ -56,61 +44,17 @@ public class IntMinMaxConsumption
 
     public static int findMin(AbstractIntIterator source)
     {
-        source.relinquishOwnership();
-        boolean found = false;
-        int min = Integer.MAX_VALUE;
-        while (source.hasNext()) {
-            int next = source.nextIntImpl();
-            if (!found) {
-                found = true;
-                min = next;
-            } else if (next < min) {
-                min = next;
-            }
-        }
-        if (found) {
-            return min;
-        } else {
-            throw new IllegalStateException();
-        }
+        return findMinOption(source).orElseThrow(IllegalStateException::new);
     }
 
     public static OptionalInt findMaxOption(AbstractIntIterator source)
     {
-        source.relinquishOwnership();
-        boolean found = false;
-        int max = Integer.MIN_VALUE;
-        while (source.hasNext()) {
-            int next = source.nextIntImpl();
-            if (!found) {
-                found = true;
-                max = next;
-            } else if (next > max) {
-                max = next;
-            }
-        }
-        return found ? OptionalInt.of(max) : OptionalInt.empty();
+        return IntReductionConsumption.foldOption(source, Math::max);
     }
 
     public static int findMax(AbstractIntIterator source)
     {
-        source.relinquishOwnership();
-        boolean found = false;
-        int max = Integer.MIN_VALUE;
-        while (source.hasNext()) {
-            int next = source.nextIntImpl();
-            if (!found) {
-                found = true;
-                max = next;
-            } else if (next > max) {
-                max = next;
-            }
-        }
-        if (found) {
-            return max;
-        } else {
-            throw new IllegalStateException();
-        }
+        return findMaxOption(source).orElseThrow(IllegalStateException::new);
     }
 
     public static <C extends Comparable<C>> OptionalInt findMaxOption(
@@ -5,6 +5,7 @@ package com.github.maumay.jflow.impl;
 
 import java.util.OptionalInt;
 import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
 
 /**
  * @author ThomasB
@@ -19,38 +20,22 @@ public final class IntReductionConsumption
             IntBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        boolean reductionUninitialised = true;
-        int reduction = -1;
-        while (source.hasNext()) {
-            if (reductionUninitialised) {
-                reduction = source.nextIntImpl();
-                reductionUninitialised = false;
-            } else {
-                reduction = reducer.applyAsInt(reduction, source.nextIntImpl());
-            }
+        if (source.hasNext()) {
+            int first = source.nextIntImpl();
+            return OptionalInt.of(foldRemaining(source, first, reducer));
+        } else {
+            return OptionalInt.empty();
         }
-        return reductionUninitialised ? OptionalInt.empty() : OptionalInt
-                .of(reduction);
     }
 
     public static int fold(AbstractIntIterator source,
             IntBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        boolean reductionUninitialised = true;
-        int reduction = -1;
-        while (source.hasNext()) {
-            if (reductionUninitialised) {
-                reduction = source.nextIntImpl();
-                reductionUninitialised = false;
-            } else {
-                reduction = reducer.applyAsInt(reduction, source.nextIntImpl());
-            }
-        }
-        if (reductionUninitialised) {
-            throw new IllegalStateException("Attempted fold on empty iterator");
+        if (source.hasNext()) {
+            return foldRemaining(source, source.nextIntImpl(), reducer);
         } else {
-            return reduction;
+            throw new IllegalStateException("Attempted fold on empty iterator");
         }
     }
 
@@ -58,11 +43,15 @@ public final class IntReductionConsumption
             IntBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        int reduction = id;
-        while (source.hasNext()) {
-            reduction = reducer.applyAsInt(reduction, source.nextIntImpl());
-        }
-        return reduction;
+        return foldRemaining(source, id, reducer);
+    }
+
+    private static int foldRemaining(AbstractIntIterator source, int id,
+            IntBinaryOperator reducer)
+    {
+        Folder folder = new Folder(id, reducer);
+        source.forEachRemainingImpl(folder);
+        return folder.reduction;
     }
 
     public static long count(AbstractIntIterator source)
@@ -70,9 +59,29 @@ public final class IntReductionConsumption
         source.relinquishOwnership();
         int count = 0;
         while (source.hasNext()) {
-            source.forwardImpl();
-            count++;
+            count += source.skipImpl(Integer.MAX_VALUE);
         }
         return count;
     }
+
+    /**
+     * Accumulates the elements pushed to it by an iterator.
+     */
+    private static final class Folder implements IntConsumer
+    {
+        private final IntBinaryOperator reducer;
+        private int reduction;
+
+        Folder(int id, IntBinaryOperator reducer)
+        {
+            this.reducer = reducer;
+            this.reduction = id;
+        }
+
+        @Override
+        public void accept(int element)
+        {
+            reduction = reducer.applyAsInt(reduction, element);
+        }
+    }
 }
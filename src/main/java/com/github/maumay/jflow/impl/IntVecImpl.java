@@ -5,9 +5,11 @@ package com.github.maumay.jflow.impl;
 
 import com.github.maumay.jflow.iterator.IntIterator;
 import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.ParallelIntIterator;
 import com.github.maumay.jflow.vec.IntVec;
 
 import java.util.Arrays;
+import java.util.StringJoiner;
 import java.util.stream.IntStream;
 
 /**
@@ -19,34 +21,72 @@ final class IntVecImpl implements IntVec
     private static final IntVecImpl EMPTY = new IntVecImpl(new int[0]);
 
     private final int[] data;
+    private final int offset, size;
 
     IntVecImpl(int[] src)
+    {
+        this(src, 0, src.length);
+    }
+
+    /**
+     * Creates a view of the elements of the given array lying in the index range
+     * [offset, offset + size), the range is assumed to be valid.
+     */
+    IntVecImpl(int[] src, int offset, int size)
     {
         this.data = src;
+        this.offset = offset;
+        this.size = size;
     }
 
     @Override
     public IntIterator iter()
     {
-        return Iter.ints(data);
+        return new ArraySource.OfInt(data, offset, offset + size);
     }
 
     @Override
     public IntStream stream()
     {
-        return IntStream.of(data);
+        return Arrays.stream(data, offset, offset + size);
+    }
+
+    @Override
+    public ParallelIntIterator parIter()
+    {
+        return new ParallelIteratorImpl.OfInt(size,
+                (start, end) -> new ArraySource.OfInt(data, offset + start,
+                        offset + end));
+    }
+
+    @Override
+    public IntVecImpl subVec(int from, int to)
+    {
+        int length = ArraySource.requireRange(size, from, to);
+        return length == size ? this
+                : new IntVecImpl(data, offset + from, length);
+    }
+
+    @Override
+    public IntVecImpl compact()
+    {
+        return offset == 0 && size == data.length ? this
+                : new IntVecImpl(Arrays.copyOfRange(data, offset, offset + size));
     }
 
     @Override
     public int get(int index)
     {
-        return data[index];
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return data[offset + index];
     }
 
     @Override
     public int size()
     {
-        return data.length;
+        return size;
     }
 
     public static IntVecImpl empty()
@@ -57,7 +97,7 @@ final class IntVecImpl implements IntVec
     @Override
     public IntIterator iterRev()
     {
-        return Iter.reverseInts(data);
+        return new ArraySource.OfIntReversed(data, offset, offset + size);
     }
 
     @Override
@@ -75,12 +115,21 @@ final class IntVecImpl implements IntVec
     @Override
     public int hashCode()
     {
-        return Arrays.hashCode(data);
+        // Agrees with Arrays.hashCode applied to the elements of this vector.
+        int result = 1;
+        for (int i = offset; i < offset + size; i++) {
+            result = 31 * result + data[i];
+        }
+        return result;
     }
 
     @Override
     public String toString()
     {
-        return Arrays.toString(data);
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = offset; i < offset + size; i++) {
+            joiner.add(String.valueOf(data[i]));
+        }
+        return joiner.toString();
     }
 }
\ No newline at end of file
@@ -14,6 +14,8 @@ import static java.lang.Double.isNaN;
  */
 public final class IteratorSizes
 {
+    static final int DEFAULT_EXPECTED_COUNT = 16;
+
     public static AbstractIteratorSize min(AbstractIteratorSize... sizes)
     {
         Exceptions.require(sizes.length > 0);
@@ -98,6 +100,49 @@ public final class IteratorSizes
         }
     }
 
+    /**
+     * Estimates the number of elements remaining in an iterator with the given
+     * size for the purpose of presizing the collection it is consumed into.
+     * Exact sizes are used as they are, bounded sizes are capped so a very
+     * selective filter does not cause a huge allocation and sizes with no
+     * upper bound fall back to their lower bound or a small default.
+     *
+     * @param size The size of the iterator about to be consumed.
+     * @return A non-negative estimate of the number of remaining elements.
+     */
+    public static int expectedCount(AbstractIteratorSize size)
+    {
+        switch (size.getType()) {
+            case EXACT:
+                return ((KnownSize) size).getValue();
+            case BOUNDED: {
+                BoundedSize bounded = (BoundedSize) size;
+                int cap = ArrayAccumulators.MAX_ARRAY_SIZE;
+                return Math.max(bounded.lower(), Math.min(bounded.upper(), cap));
+            }
+            case LOWER_BOUND:
+                return Math.max(((LowerBound) size).getValue(),
+                        DEFAULT_EXPECTED_COUNT);
+            case INFINITE:
+                return DEFAULT_EXPECTED_COUNT;
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    /**
+     * Computes the initial capacity a {@link java.util.HashMap} or {@link
+     * java.util.HashSet} with the default load factor needs to hold the given
+     * number of entries without rehashing.
+     *
+     * @param expectedCount The number of entries which will be added.
+     * @return The required initial capacity.
+     */
+    public static int hashCapacity(int expectedCount)
+    {
+        return (int) Math.min(4L * expectedCount / 3 + 1, 1 << 30);
+    }
+
     public static int requireNonNegative(int input)
     {
         if (input < 0) {
@@ -107,6 +152,22 @@ public final class IteratorSizes
         return input;
     }
 
+    public static int requirePositive(int input)
+    {
+        if (input <= 0) {
+            throw new IllegalArgumentException("Positive number is required");
+        }
+        return input;
+    }
+
+    /**
+     * Divides a non-negative number by a positive one, rounding up.
+     */
+    static int divideRoundingUp(int value, int divisor)
+    {
+        return value / divisor + (value % divisor == 0 ? 0 : 1);
+    }
+
     // Could probably move the fuctions below to abstract methods on
     // AbstractIteratorSize
 
@@ -5,6 +5,10 @@ package com.github.maumay.jflow.impl;
 
 import java.util.Iterator;
 import java.util.PrimitiveIterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
 
 /**
  * @author thomasb
@@ -80,6 +84,12 @@ public final class IteratorWrapper
         {
             source.next();
         }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            source.forEachRemaining(action);
+        }
     }
 
     private static class OfLong extends AbstractLongIterator
@@ -109,6 +119,12 @@ public final class IteratorWrapper
         {
             source.nextLong();
         }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            source.forEachRemaining(action);
+        }
     }
 
     private static class OfInt extends AbstractIntIterator
@@ -138,6 +154,12 @@ public final class IteratorWrapper
         {
             source.nextInt();
         }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            source.forEachRemaining(action);
+        }
     }
 
     private static class OfDouble extends AbstractDoubleIterator
@@ -167,5 +189,11 @@ public final class IteratorWrapper
         {
             source.nextDouble();
         }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            source.forEachRemaining(action);
+        }
     }
 }
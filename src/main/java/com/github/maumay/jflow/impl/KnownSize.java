@@ -24,7 +24,7 @@ public final class KnownSize extends AbstractValueSize
     @Override
     public KnownSize copy()
     {
-        return new KnownSize(getValue());
+        return this;
     }
 
     @Override
@@ -36,13 +36,14 @@ public final class KnownSize extends AbstractValueSize
     @Override
     AbstractIteratorSize subtractImpl(int value)
     {
-        return new KnownSize(Math.max(0, getValue() - value));
+        return value == 0 ? this
+                          : new KnownSize(Math.max(0, getValue() - value));
     }
 
     @Override
     AbstractIteratorSize minImpl(int value)
     {
-        return new KnownSize(Math.min(getValue(), value));
+        return getValue() <= value ? this : new KnownSize(value);
     }
 
     @Override
@@ -76,4 +77,12 @@ public final class KnownSize extends AbstractValueSize
     {
         return new KnownSize(getValue() * value);
     }
+
+    @Override
+    AbstractIteratorSize divideImpl(int value)
+    {
+        return value == 1 ? this
+                : new KnownSize(
+                        IteratorSizes.divideRoundingUp(getValue(), value));
+    }
 }
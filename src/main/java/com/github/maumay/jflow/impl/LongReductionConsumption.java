@@ -5,6 +5,7 @@ package com.github.maumay.jflow.impl;
 
 import java.util.OptionalLong;
 import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
 
 /**
  * @author ThomasB
@@ -19,40 +20,22 @@ public final class LongReductionConsumption
             LongBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        boolean reductionUninitialised = true;
-        long reduction = -1;
-        while (source.hasNext()) {
-            if (reductionUninitialised) {
-                reduction = source.nextLongImpl();
-                reductionUninitialised = false;
-            } else {
-                reduction = reducer
-                        .applyAsLong(reduction, source.nextLongImpl());
-            }
+        if (source.hasNext()) {
+            long first = source.nextLongImpl();
+            return OptionalLong.of(foldRemaining(source, first, reducer));
+        } else {
+            return OptionalLong.empty();
         }
-        return reductionUninitialised ? OptionalLong.empty() : OptionalLong
-                .of(reduction);
     }
 
     public static long fold(AbstractLongIterator source,
             LongBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        boolean reductionUninitialised = true;
-        long reduction = -1;
-        while (source.hasNext()) {
-            if (reductionUninitialised) {
-                reduction = source.nextLongImpl();
-                reductionUninitialised = false;
-            } else {
-                reduction = reducer
-                        .applyAsLong(reduction, source.nextLongImpl());
-            }
-        }
-        if (reductionUninitialised) {
-            throw new IllegalStateException("Attempted fold on empty iterator");
+        if (source.hasNext()) {
+            return foldRemaining(source, source.nextLongImpl(), reducer);
         } else {
-            return reduction;
+            throw new IllegalStateException("Attempted fold on empty iterator");
         }
     }
 
@@ -60,11 +43,15 @@ public final class LongReductionConsumption
             LongBinaryOperator reducer)
     {
         source.relinquishOwnership();
-        long reduction = id;
-        while (source.hasNext()) {
-            reduction = reducer.applyAsLong(reduction, source.nextLongImpl());
-        }
-        return reduction;
+        return foldRemaining(source, id, reducer);
+    }
+
+    private static long foldRemaining(AbstractLongIterator source, long id,
+            LongBinaryOperator reducer)
+    {
+        Folder folder = new Folder(id, reducer);
+        source.forEachRemainingImpl(folder);
+        return folder.reduction;
     }
 
     public static long count(AbstractLongIterator source)
@@ -72,9 +59,29 @@ public final class LongReductionConsumption
         source.relinquishOwnership();
         long count = 0;
         while (source.hasNext()) {
-            source.forwardImpl();
-            count++;
+            count += source.skipImpl(Integer.MAX_VALUE);
         }
         return count;
     }
+
+    /**
+     * Accumulates the elements pushed to it by an iterator.
+     */
+    private static final class Folder implements LongConsumer
+    {
+        private final LongBinaryOperator reducer;
+        private long reduction;
+
+        Folder(long id, LongBinaryOperator reducer)
+        {
+            this.reducer = reducer;
+            this.reduction = id;
+        }
+
+        @Override
+        public void accept(long element)
+        {
+            reduction = reducer.applyAsLong(reduction, element);
+        }
+    }
 }
@@ -5,9 +5,11 @@ package com.github.maumay.jflow.impl;
 
 import com.github.maumay.jflow.iterator.Iter;
 import com.github.maumay.jflow.iterator.LongIterator;
+import com.github.maumay.jflow.iterator.ParallelLongIterator;
 import com.github.maumay.jflow.vec.LongVec;
 
 import java.util.Arrays;
+import java.util.StringJoiner;
 import java.util.stream.LongStream;
 
 /**
@@ -19,34 +21,72 @@ final class LongVecImpl implements LongVec
     private static final LongVecImpl EMPTY = new LongVecImpl(new long[0]);
 
     private final long[] data;
+    private final int offset, size;
 
     LongVecImpl(long[] src)
+    {
+        this(src, 0, src.length);
+    }
+
+    /**
+     * Creates a view of the elements of the given array lying in the index range
+     * [offset, offset + size), the range is assumed to be valid.
+     */
+    LongVecImpl(long[] src, int offset, int size)
     {
         this.data = src;
+        this.offset = offset;
+        this.size = size;
     }
 
     @Override
     public LongIterator iter()
     {
-        return Iter.longs(data);
+        return new ArraySource.OfLong(data, offset, offset + size);
     }
 
     @Override
     public LongStream stream()
     {
-        return LongStream.of(data);
+        return Arrays.stream(data, offset, offset + size);
+    }
+
+    @Override
+    public ParallelLongIterator parIter()
+    {
+        return new ParallelIteratorImpl.OfLong(size,
+                (start, end) -> new ArraySource.OfLong(data, offset + start,
+                        offset + end));
+    }
+
+    @Override
+    public LongVecImpl subVec(int from, int to)
+    {
+        int length = ArraySource.requireRange(size, from, to);
+        return length == size ? this
+                : new LongVecImpl(data, offset + from, length);
+    }
+
+    @Override
+    public LongVecImpl compact()
+    {
+        return offset == 0 && size == data.length ? this
+                : new LongVecImpl(Arrays.copyOfRange(data, offset, offset + size));
     }
 
     @Override
     public long get(int index)
     {
-        return data[index];
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return data[offset + index];
     }
 
     @Override
     public int size()
     {
-        return data.length;
+        return size;
     }
 
     public static LongVecImpl empty()
@@ -57,7 +97,7 @@ final class LongVecImpl implements LongVec
     @Override
     public LongIterator iterRev()
     {
-        return Iter.reverseLongs(data);
+        return new ArraySource.OfLongReversed(data, offset, offset + size);
     }
 
     @Override
@@ -66,7 +106,8 @@ final class LongVecImpl implements LongVec
         if (obj instanceof LongVec) {
             LongVec other = (LongVec) obj;
             return size() == other.size()
-                    && Iter.until(size()).all(i -> get(i) == other.get(i));
+                    && Iter.until(size())
+                    .all(i -> get(i) == other.get(i));
         } else {
             return false;
         }
@@ -75,12 +116,21 @@ final class LongVecImpl implements LongVec
     @Override
     public int hashCode()
     {
-        return Arrays.hashCode(data);
+        // Agrees with Arrays.hashCode applied to the elements of this vector.
+        int result = 1;
+        for (int i = offset; i < offset + size; i++) {
+            result = 31 * result + Long.hashCode(data[i]);
+        }
+        return result;
     }
 
     @Override
     public String toString()
     {
-        return Arrays.toString(data);
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = offset; i < offset + size; i++) {
+            joiner.add(String.valueOf(data[i]));
+        }
+        return joiner.toString();
     }
 }
\ No newline at end of file
@@ -22,7 +22,7 @@ public final class LowerBound extends AbstractValueSize
     @Override
     public LowerBound copy()
     {
-        return new LowerBound(getValue());
+        return this;
     }
 
     @Override
@@ -47,7 +47,7 @@ public final class LowerBound extends AbstractValueSize
     @Override
     public AbstractIteratorSize dropLowerBound()
     {
-        return new LowerBound(0);
+        return getValue() == 0 ? this : new LowerBound(0);
     }
 
     @Override
@@ -72,4 +72,12 @@ public final class LowerBound extends AbstractValueSize
     {
         return new LowerBound(getValue() * value);
     }
+
+    @Override
+    AbstractIteratorSize divideImpl(int value)
+    {
+        return value == 1 ? this
+                : new LowerBound(
+                        IteratorSizes.divideRoundingUp(getValue(), value));
+    }
 }
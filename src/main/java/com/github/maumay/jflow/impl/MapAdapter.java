@@ -4,10 +4,7 @@
 package com.github.maumay.jflow.impl;
 
 import java.util.Objects;
-import java.util.function.DoubleUnaryOperator;
-import java.util.function.Function;
-import java.util.function.IntUnaryOperator;
-import java.util.function.LongUnaryOperator;
+import java.util.function.*;
 
 /**
  * @author thomasb
@@ -31,6 +28,17 @@ public class MapAdapter
             this.map = Objects.requireNonNull(map);
         }
 
+        /**
+         * Takes the place of the given adapter, applying the given mapping to
+         * the elements of its source.
+         */
+        private OfObject(Function<? super E, ? extends R> map,
+                MapAdapter.OfObject<E, ?> replaced)
+        {
+            super(replaced, replaced.getSize().copy());
+            this.map = map;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -48,6 +56,34 @@ public class MapAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super R> action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.apply(x)));
+        }
+
+        @Override
+        public <T> AbstractRichIterator<T> map(
+                Function<? super R, ? extends T> next)
+        {
+            Objects.requireNonNull(next);
+            Function<? super E, ? extends R> first = map;
+            return new MapAdapter.OfObject<E, T>(
+                    x -> next.apply(first.apply(x)), this);
+        }
+
+        @Override
+        public AbstractRichIterator<R> filter(Predicate<? super R> predicate)
+        {
+            return new MapFilterAdapter.OfObject<>(this, map, predicate);
+        }
     }
 
     public static final class OfInt extends
@@ -61,6 +97,16 @@ public class MapAdapter
             this.map = Objects.requireNonNull(map);
         }
 
+        /**
+         * Takes the place of the given adapter, applying the given mapping to
+         * the elements of its source.
+         */
+        private OfInt(IntUnaryOperator map, MapAdapter.OfInt replaced)
+        {
+            super(replaced, replaced.getSize().copy());
+            this.map = map;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -78,6 +124,33 @@ public class MapAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsInt(x)));
+        }
+
+        @Override
+        public AbstractIntIterator map(IntUnaryOperator next)
+        {
+            Objects.requireNonNull(next);
+            IntUnaryOperator first = map;
+            return new MapAdapter.OfInt(
+                    x -> next.applyAsInt(first.applyAsInt(x)), this);
+        }
+
+        @Override
+        public AbstractIntIterator filter(IntPredicate predicate)
+        {
+            return new MapFilterAdapter.OfInt(this, map, predicate);
+        }
     }
 
     public static final class OfLong extends
@@ -91,6 +164,16 @@ public class MapAdapter
             this.map = Objects.requireNonNull(map);
         }
 
+        /**
+         * Takes the place of the given adapter, applying the given mapping to
+         * the elements of its source.
+         */
+        private OfLong(LongUnaryOperator map, MapAdapter.OfLong replaced)
+        {
+            super(replaced, replaced.getSize().copy());
+            this.map = map;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -108,6 +191,33 @@ public class MapAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsLong(x)));
+        }
+
+        @Override
+        public AbstractLongIterator map(LongUnaryOperator next)
+        {
+            Objects.requireNonNull(next);
+            LongUnaryOperator first = map;
+            return new MapAdapter.OfLong(
+                    x -> next.applyAsLong(first.applyAsLong(x)), this);
+        }
+
+        @Override
+        public AbstractLongIterator filter(LongPredicate predicate)
+        {
+            return new MapFilterAdapter.OfLong(this, map, predicate);
+        }
     }
 
     public static final class OfDouble
@@ -121,6 +231,16 @@ public class MapAdapter
             this.map = Objects.requireNonNull(map);
         }
 
+        /**
+         * Takes the place of the given adapter, applying the given mapping to
+         * the elements of its source.
+         */
+        private OfDouble(DoubleUnaryOperator map, MapAdapter.OfDouble replaced)
+        {
+            super(replaced, replaced.getSize().copy());
+            this.map = map;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -138,5 +258,32 @@ public class MapAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsDouble(x)));
+        }
+
+        @Override
+        public AbstractDoubleIterator map(DoubleUnaryOperator next)
+        {
+            Objects.requireNonNull(next);
+            DoubleUnaryOperator first = map;
+            return new MapAdapter.OfDouble(
+                    x -> next.applyAsDouble(first.applyAsDouble(x)), this);
+        }
+
+        @Override
+        public AbstractDoubleIterator filter(DoublePredicate predicate)
+        {
+            return new MapFilterAdapter.OfDouble(this, map, predicate);
+        }
     }
 }
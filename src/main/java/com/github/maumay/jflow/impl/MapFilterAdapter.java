@@ -0,0 +1,344 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.*;
+
+/**
+ * Adapters produced by fusing a map adapter with a subsequent filter adapter,
+ * each element of the source is mapped and tested within a single adapter.
+ *
+ * @author t
+ */
+public final class MapFilterAdapter
+{
+    private MapFilterAdapter()
+    {
+    }
+
+    public static final class OfObject<E, R>
+            extends AbstractIteratorAdapter.OfObject<AbstractRichIterator<E>, R>
+    {
+        private final Function<? super E, ? extends R> map;
+        private final Predicate<? super R> predicate;
+
+        private boolean initialized;
+        private R cached;
+
+        OfObject(
+                AbstractIteratorAdapter.OfObject<AbstractRichIterator<E>, ?> replaced,
+                Function<? super E, ? extends R> map,
+                Predicate<? super R> predicate)
+        {
+            super(replaced, replaced.getSize().dropLowerBound());
+            this.map = map;
+            this.predicate = Objects.requireNonNull(predicate);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (!initialized && getSource().hasNext()) {
+                R next = map.apply(getSource().nextImpl());
+                if (predicate.test(next)) {
+                    cached = next;
+                    initialized = true;
+                    break;
+                }
+            }
+            return initialized;
+        }
+
+        @Override
+        public R nextImpl()
+        {
+            if (hasNext()) {
+                initialized = false;
+                return cached;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (hasNext()) {
+                initialized = false;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super R> action)
+        {
+            if (initialized) {
+                initialized = false;
+                action.accept(cached);
+            }
+            getSource().forEachRemainingImpl(x -> {
+                R next = map.apply(x);
+                if (predicate.test(next)) {
+                    action.accept(next);
+                }
+            });
+        }
+
+        @Override
+        public AbstractRichIterator<R> filter(Predicate<? super R> next)
+        {
+            if (initialized) {
+                return super.filter(next);
+            }
+            Objects.requireNonNull(next);
+            Predicate<? super R> first = predicate;
+            return new MapFilterAdapter.OfObject<>(this, map,
+                    x -> first.test(x) && next.test(x));
+        }
+    }
+
+    public static final class OfInt extends
+            AbstractIteratorAdapter.OfInt<AbstractIntIterator>
+    {
+        private final IntUnaryOperator map;
+        private final IntPredicate predicate;
+
+        private boolean initialized;
+        private int cached;
+
+        OfInt(AbstractIteratorAdapter.OfInt<AbstractIntIterator> replaced,
+                IntUnaryOperator map, IntPredicate predicate)
+        {
+            super(replaced, replaced.getSize().dropLowerBound());
+            this.map = map;
+            this.predicate = Objects.requireNonNull(predicate);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (!initialized && getSource().hasNext()) {
+                int next = map.applyAsInt(getSource().nextIntImpl());
+                if (predicate.test(next)) {
+                    cached = next;
+                    initialized = true;
+                    break;
+                }
+            }
+            return initialized;
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            if (hasNext()) {
+                initialized = false;
+                return cached;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (hasNext()) {
+                initialized = false;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            if (initialized) {
+                initialized = false;
+                action.accept(cached);
+            }
+            getSource().forEachRemainingImpl(x -> {
+                int next = map.applyAsInt(x);
+                if (predicate.test(next)) {
+                    action.accept(next);
+                }
+            });
+        }
+
+        @Override
+        public AbstractIntIterator filter(IntPredicate next)
+        {
+            if (initialized) {
+                return super.filter(next);
+            }
+            Objects.requireNonNull(next);
+            IntPredicate first = predicate;
+            return new MapFilterAdapter.OfInt(this, map,
+                    x -> first.test(x) && next.test(x));
+        }
+    }
+
+    public static final class OfLong extends
+            AbstractIteratorAdapter.OfLong<AbstractLongIterator>
+    {
+        private final LongUnaryOperator map;
+        private final LongPredicate predicate;
+
+        private boolean initialized;
+        private long cached;
+
+        OfLong(AbstractIteratorAdapter.OfLong<AbstractLongIterator> replaced,
+                LongUnaryOperator map, LongPredicate predicate)
+        {
+            super(replaced, replaced.getSize().dropLowerBound());
+            this.map = map;
+            this.predicate = Objects.requireNonNull(predicate);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (!initialized && getSource().hasNext()) {
+                long next = map.applyAsLong(getSource().nextLongImpl());
+                if (predicate.test(next)) {
+                    cached = next;
+                    initialized = true;
+                    break;
+                }
+            }
+            return initialized;
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            if (hasNext()) {
+                initialized = false;
+                return cached;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (hasNext()) {
+                initialized = false;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            if (initialized) {
+                initialized = false;
+                action.accept(cached);
+            }
+            getSource().forEachRemainingImpl(x -> {
+                long next = map.applyAsLong(x);
+                if (predicate.test(next)) {
+                    action.accept(next);
+                }
+            });
+        }
+
+        @Override
+        public AbstractLongIterator filter(LongPredicate next)
+        {
+            if (initialized) {
+                return super.filter(next);
+            }
+            Objects.requireNonNull(next);
+            LongPredicate first = predicate;
+            return new MapFilterAdapter.OfLong(this, map,
+                    x -> first.test(x) && next.test(x));
+        }
+    }
+
+    public static final class OfDouble extends
+            AbstractIteratorAdapter.OfDouble<AbstractDoubleIterator>
+    {
+        private final DoubleUnaryOperator map;
+        private final DoublePredicate predicate;
+
+        private boolean initialized;
+        private double cached;
+
+        OfDouble(
+                AbstractIteratorAdapter.OfDouble<AbstractDoubleIterator> replaced,
+                DoubleUnaryOperator map, DoublePredicate predicate)
+        {
+            super(replaced, replaced.getSize().dropLowerBound());
+            this.map = map;
+            this.predicate = Objects.requireNonNull(predicate);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (!initialized && getSource().hasNext()) {
+                double next = map.applyAsDouble(getSource().nextDoubleImpl());
+                if (predicate.test(next)) {
+                    cached = next;
+                    initialized = true;
+                    break;
+                }
+            }
+            return initialized;
+        }
+
+        @Override
+        public double nextDoubleImpl()
+        {
+            if (hasNext()) {
+                initialized = false;
+                return cached;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (hasNext()) {
+                initialized = false;
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            if (initialized) {
+                initialized = false;
+                action.accept(cached);
+            }
+            getSource().forEachRemainingImpl(x -> {
+                double next = map.applyAsDouble(x);
+                if (predicate.test(next)) {
+                    action.accept(next);
+                }
+            });
+        }
+
+        @Override
+        public AbstractDoubleIterator filter(DoublePredicate next)
+        {
+            if (initialized) {
+                return super.filter(next);
+            }
+            Objects.requireNonNull(next);
+            DoublePredicate first = predicate;
+            return new MapFilterAdapter.OfDouble(this, map,
+                    x -> first.test(x) && next.test(x));
+        }
+    }
+}
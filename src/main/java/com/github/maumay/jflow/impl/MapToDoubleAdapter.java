@@ -3,6 +3,7 @@
  */
 package com.github.maumay.jflow.impl;
 
+import java.util.function.DoubleConsumer;
 import java.util.function.IntToDoubleFunction;
 import java.util.function.LongToDoubleFunction;
 import java.util.function.ToDoubleFunction;
@@ -46,6 +47,18 @@ public final class MapToDoubleAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsDouble(x)));
+        }
     }
 
     public static final class FromLong
@@ -76,6 +89,18 @@ public final class MapToDoubleAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsDouble(x)));
+        }
     }
 
     public static final class FromInt extends
@@ -106,5 +131,17 @@ public final class MapToDoubleAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsDouble(x)));
+        }
     }
 }
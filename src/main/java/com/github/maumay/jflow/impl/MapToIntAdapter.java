@@ -4,6 +4,7 @@
 package com.github.maumay.jflow.impl;
 
 import java.util.function.DoubleToIntFunction;
+import java.util.function.IntConsumer;
 import java.util.function.LongToIntFunction;
 import java.util.function.ToIntFunction;
 
@@ -46,6 +47,18 @@ public final class MapToIntAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsInt(x)));
+        }
     }
 
     public static final class FromDouble
@@ -77,6 +90,18 @@ public final class MapToIntAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsInt(x)));
+        }
     }
 
     public static final class FromLong extends
@@ -107,5 +132,17 @@ public final class MapToIntAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsInt(x)));
+        }
     }
 }
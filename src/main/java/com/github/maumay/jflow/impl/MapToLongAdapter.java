@@ -5,6 +5,7 @@ package com.github.maumay.jflow.impl;
 
 import java.util.function.DoubleToLongFunction;
 import java.util.function.IntToLongFunction;
+import java.util.function.LongConsumer;
 import java.util.function.ToLongFunction;
 
 /**
@@ -46,6 +47,18 @@ public final class MapToLongAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsLong(x)));
+        }
     }
 
     public static final class FromInt extends
@@ -76,6 +89,18 @@ public final class MapToLongAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsLong(x)));
+        }
     }
 
     public static final class FromDouble
@@ -107,5 +132,17 @@ public final class MapToLongAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.applyAsLong(x)));
+        }
     }
 }
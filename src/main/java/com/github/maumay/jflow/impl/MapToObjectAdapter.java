@@ -3,6 +3,7 @@
  */
 package com.github.maumay.jflow.impl;
 
+import java.util.function.Consumer;
 import java.util.function.DoubleFunction;
 import java.util.function.IntFunction;
 import java.util.function.LongFunction;
@@ -45,6 +46,18 @@ public class MapToObjectAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super R> action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.apply(x)));
+        }
     }
 
     public static final class FromLong<R>
@@ -76,6 +89,18 @@ public class MapToObjectAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super R> action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.apply(x)));
+        }
     }
 
     public static final class FromDouble<R>
@@ -107,5 +132,17 @@ public class MapToObjectAdapter
         {
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super R> action)
+        {
+            getSource().forEachRemainingImpl(x -> action.accept(map.apply(x)));
+        }
     }
 }
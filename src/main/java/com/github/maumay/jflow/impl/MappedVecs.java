@@ -0,0 +1,532 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.DoubleIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.LongIterator;
+import com.github.maumay.jflow.iterator.ParallelDoubleIterator;
+import com.github.maumay.jflow.iterator.ParallelIntIterator;
+import com.github.maumay.jflow.iterator.ParallelLongIterator;
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.StringJoiner;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Primitive vectors whose elements live in a memory mapped file rather than on
+ * the heap, along with the methods for writing such files. A file is simply
+ * the raw elements in little endian byte order with no header. Since a single
+ * mapping cannot exceed 2GB the file is mapped in chunks of {@code 1 << 30}
+ * bytes.
+ *
+ * @author t
+ */
+public final class MappedVecs
+{
+    static final int CHUNK_BYTES_SHIFT = 30;
+    static final int WRITE_BUFFER_BYTES = 1 << 16;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private MappedVecs()
+    {
+    }
+
+    public static IntVec mapInts(Path path)
+    {
+        return mapInts(path, CHUNK_BYTES_SHIFT);
+    }
+
+    static IntVec mapInts(Path path, int chunkBytesShift)
+    {
+        ByteBuffer[] bytes = map(path, 2, chunkBytesShift);
+        IntBuffer[] chunks = new IntBuffer[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            chunks[i] = bytes[i].asIntBuffer();
+        }
+        return new OfInt(chunks, chunkBytesShift - 2, 0, elementCount(bytes, 2));
+    }
+
+    public static LongVec mapLongs(Path path)
+    {
+        return mapLongs(path, CHUNK_BYTES_SHIFT);
+    }
+
+    static LongVec mapLongs(Path path, int chunkBytesShift)
+    {
+        ByteBuffer[] bytes = map(path, 3, chunkBytesShift);
+        LongBuffer[] chunks = new LongBuffer[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            chunks[i] = bytes[i].asLongBuffer();
+        }
+        return new OfLong(chunks, chunkBytesShift - 3, 0, elementCount(bytes, 3));
+    }
+
+    public static DoubleVec mapDoubles(Path path)
+    {
+        return mapDoubles(path, CHUNK_BYTES_SHIFT);
+    }
+
+    static DoubleVec mapDoubles(Path path, int chunkBytesShift)
+    {
+        ByteBuffer[] bytes = map(path, 3, chunkBytesShift);
+        DoubleBuffer[] chunks = new DoubleBuffer[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            chunks[i] = bytes[i].asDoubleBuffer();
+        }
+        return new OfDouble(chunks, chunkBytesShift - 3, 0,
+                elementCount(bytes, 3));
+    }
+
+    public static long writeInts(Path path, PrimitiveIterator.OfInt source)
+    {
+        try (FileChannel channel = openForWriting(path)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES)
+                    .order(ORDER);
+            long count = 0;
+            while (source.hasNext()) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putInt(source.nextInt());
+                count++;
+            }
+            flush(channel, buffer);
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static long writeLongs(Path path, PrimitiveIterator.OfLong source)
+    {
+        try (FileChannel channel = openForWriting(path)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES)
+                    .order(ORDER);
+            long count = 0;
+            while (source.hasNext()) {
+                if (buffer.remaining() < Long.BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(source.nextLong());
+                count++;
+            }
+            flush(channel, buffer);
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static long writeDoubles(Path path,
+            PrimitiveIterator.OfDouble source)
+    {
+        try (FileChannel channel = openForWriting(path)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES)
+                    .order(ORDER);
+            long count = 0;
+            while (source.hasNext()) {
+                if (buffer.remaining() < Double.BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putDouble(source.nextDouble());
+                count++;
+            }
+            flush(channel, buffer);
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static FileChannel openForWriting(Path path) throws IOException
+    {
+        return FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer)
+            throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Maps the given file read only in chunks of {@code 1 << chunkBytesShift}
+     * bytes (the last chunk may be shorter). The mappings remain valid after
+     * the channel is closed.
+     */
+    private static ByteBuffer[] map(Path path, int elementBytesShift,
+            int chunkBytesShift)
+    {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            long length = channel.size();
+            if ((length & ((1 << elementBytesShift) - 1)) != 0) {
+                throw new IllegalArgumentException(String.format(
+                        "File length %d is not a multiple of %d bytes",
+                        length, 1 << elementBytesShift));
+            } else if ((length >>> elementBytesShift) > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format(
+                        "File length %d is too large to map as a vector",
+                        length));
+            }
+            long chunkBytes = 1L << chunkBytesShift;
+            int chunkCount = (int) ((length + chunkBytes - 1) >>> chunkBytesShift);
+            ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long position = i * chunkBytes;
+                long size = Math.min(chunkBytes, length - position);
+                chunks[i] = channel
+                        .map(FileChannel.MapMode.READ_ONLY, position, size)
+                        .order(ORDER);
+            }
+            return chunks;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int elementCount(ByteBuffer[] chunks, int elementBytesShift)
+    {
+        long bytes = 0;
+        for (ByteBuffer chunk : chunks) {
+            bytes += chunk.limit();
+        }
+        return (int) (bytes >>> elementBytesShift);
+    }
+
+    static final class OfInt implements IntVec
+    {
+        private final IntBuffer[] chunks;
+        private final int shift, mask, start, size;
+
+        OfInt(IntBuffer[] chunks, int shift, int start, int size)
+        {
+            this.chunks = chunks;
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+            this.start = start;
+            this.size = size;
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public int get(int index)
+        {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            int i = start + index;
+            return chunks[i >>> shift].get(i & mask);
+        }
+
+        @Override
+        public IntIterator iter()
+        {
+            return new BufferSource.OfInt(chunks, shift, start, start + size);
+        }
+
+        @Override
+        public IntIterator iterRev()
+        {
+            return Iter.until(size).map(i -> get(size - 1 - i));
+        }
+
+        @Override
+        public IntStream stream()
+        {
+            return IntStream.range(0, size).map(this::get);
+        }
+
+        @Override
+        public ParallelIntIterator parIter()
+        {
+            return new ParallelIteratorImpl.OfInt(size,
+                    (from, to) -> new BufferSource.OfInt(chunks, shift,
+                            start + from, start + to));
+        }
+
+        @Override
+        public IntVec subVec(int from, int to)
+        {
+            int length = ArraySource.requireRange(size, from, to);
+            return new OfInt(chunks, shift, start + from, length);
+        }
+
+        @Override
+        public IntVec compact()
+        {
+            return IntVec.of(iter().toArray());
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (obj instanceof IntVec) {
+                IntVec other = (IntVec) obj;
+                return size() == other.size()
+                        && Iter.until(size()).all(i -> get(i) == other.get(i));
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode()
+        {
+            // Agrees with the hash code of the array backed implementation.
+            int result = 1;
+            for (int i = 0; i < size; i++) {
+                result = 31 * result + get(i);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString()
+        {
+            StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            iter().forEach(x -> joiner.add(String.valueOf(x)));
+            return joiner.toString();
+        }
+    }
+
+    static final class OfLong implements LongVec
+    {
+        private final LongBuffer[] chunks;
+        private final int shift, mask, start, size;
+
+        OfLong(LongBuffer[] chunks, int shift, int start, int size)
+        {
+            this.chunks = chunks;
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+            this.start = start;
+            this.size = size;
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public long get(int index)
+        {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            int i = start + index;
+            return chunks[i >>> shift].get(i & mask);
+        }
+
+        @Override
+        public LongIterator iter()
+        {
+            return new BufferSource.OfLong(chunks, shift, start, start + size);
+        }
+
+        @Override
+        public LongIterator iterRev()
+        {
+            return Iter.until(size).mapToLong(i -> get(size - 1 - i));
+        }
+
+        @Override
+        public LongStream stream()
+        {
+            return IntStream.range(0, size).mapToLong(this::get);
+        }
+
+        @Override
+        public ParallelLongIterator parIter()
+        {
+            return new ParallelIteratorImpl.OfLong(size,
+                    (from, to) -> new BufferSource.OfLong(chunks, shift,
+                            start + from, start + to));
+        }
+
+        @Override
+        public LongVec subVec(int from, int to)
+        {
+            int length = ArraySource.requireRange(size, from, to);
+            return new OfLong(chunks, shift, start + from, length);
+        }
+
+        @Override
+        public LongVec compact()
+        {
+            return LongVec.of(iter().toArray());
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (obj instanceof LongVec) {
+                LongVec other = (LongVec) obj;
+                return size() == other.size()
+                        && Iter.until(size()).all(i -> get(i) == other.get(i));
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode()
+        {
+            // Agrees with the hash code of the array backed implementation.
+            int result = 1;
+            for (int i = 0; i < size; i++) {
+                result = 31 * result + Long.hashCode(get(i));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString()
+        {
+            StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            iter().forEach(x -> joiner.add(String.valueOf(x)));
+            return joiner.toString();
+        }
+    }
+
+    static final class OfDouble implements DoubleVec
+    {
+        private final DoubleBuffer[] chunks;
+        private final int shift, mask, start, size;
+
+        OfDouble(DoubleBuffer[] chunks, int shift, int start, int size)
+        {
+            this.chunks = chunks;
+            this.shift = shift;
+            this.mask = (1 << shift) - 1;
+            this.start = start;
+            this.size = size;
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+
+        @Override
+        public double get(int index)
+        {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(Integer.toString(index));
+            }
+            int i = start + index;
+            return chunks[i >>> shift].get(i & mask);
+        }
+
+        @Override
+        public DoubleIterator iter()
+        {
+            return new BufferSource.OfDouble(chunks, shift, start, start + size);
+        }
+
+        @Override
+        public DoubleIterator iterRev()
+        {
+            return Iter.until(size).mapToDouble(i -> get(size - 1 - i));
+        }
+
+        @Override
+        public DoubleStream stream()
+        {
+            return IntStream.range(0, size).mapToDouble(this::get);
+        }
+
+        @Override
+        public ParallelDoubleIterator parIter()
+        {
+            return new ParallelIteratorImpl.OfDouble(size,
+                    (from, to) -> new BufferSource.OfDouble(chunks, shift,
+                            start + from, start + to));
+        }
+
+        @Override
+        public DoubleVec subVec(int from, int to)
+        {
+            int length = ArraySource.requireRange(size, from, to);
+            return new OfDouble(chunks, shift, start + from, length);
+        }
+
+        @Override
+        public DoubleVec compact()
+        {
+            return DoubleVec.of(iter().toArray());
+        }
+
+        @Override
+        public DoubleVec sorted()
+        {
+            double[] cpy = iter().toArray();
+            Arrays.sort(cpy);
+            return DoubleVec.of(cpy);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (obj instanceof DoubleVec) {
+                DoubleVec other = (DoubleVec) obj;
+                return size() == other.size()
+                        && Iter.until(size()).all(i -> Double.compare(get(i), other.get(i)) == 0);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode()
+        {
+            // Agrees with the hash code of the array backed implementation.
+            int result = 1;
+            for (int i = 0; i < size; i++) {
+                result = 31 * result + Double.hashCode(get(i));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString()
+        {
+            StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            iter().forEach(x -> joiner.add(String.valueOf(x)));
+            return joiner.toString();
+        }
+    }
+}
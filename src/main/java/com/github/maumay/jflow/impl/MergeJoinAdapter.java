@@ -0,0 +1,165 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Adapters computing the inner join of two sources which are both sorted by
+ * their keys. The sources are traversed in lockstep and only the run of
+ * elements of the right source sharing the current key is buffered, so the
+ * join is lazy, needs no hash table and works on unbounded inputs. The joined
+ * pairs are in the order of the left source and then of the right source.
+ * The traversal stops as soon as either source is exhausted.
+ *
+ * @author t
+ */
+public final class MergeJoinAdapter
+{
+    private MergeJoinAdapter()
+    {
+    }
+
+    /**
+     * Shared traversal logic, subclasses only compare keys.
+     */
+    abstract static class Join<L, R, T> extends
+            AbstractIteratorBiAdapters.OfObject<AbstractRichIterator<? extends L>, AbstractRichIterator<? extends R>, T>
+    {
+        private final BiFunction<? super L, ? super R, ? extends T> combiner;
+        private final List<R> group = new ArrayList<>();
+        private R right;
+        private boolean hasRight, started, finished;
+        private L left;
+        private int index;
+
+        Join(AbstractRichIterator<? extends L> left,
+                AbstractRichIterator<? extends R> right,
+                BiFunction<? super L, ? super R, ? extends T> combiner)
+        {
+            super(new LowerBound(0), left, right);
+            this.combiner = Objects.requireNonNull(combiner);
+        }
+
+        /**
+         * Compares the key of an element of the left source with the key of an
+         * element of the right source.
+         */
+        abstract int compareKeys(L left, R right);
+
+        private void pullRight()
+        {
+            AbstractRichIterator<? extends R> src = getSourceTwo();
+            hasRight = src.hasNext();
+            right = hasRight ? src.nextImpl() : null;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (!started) {
+                started = true;
+                pullRight();
+            }
+            AbstractRichIterator<? extends L> src = getSourceOne();
+            while (!finished && index == group.size()) {
+                if (!src.hasNext()) {
+                    finished = true;
+                    break;
+                }
+                left = src.nextImpl();
+                index = 0;
+                if (!group.isEmpty() && compareKeys(left, group.get(0)) == 0) {
+                    continue;
+                }
+                group.clear();
+                while (hasRight && compareKeys(left, right) > 0) {
+                    pullRight();
+                }
+                while (hasRight && compareKeys(left, right) == 0) {
+                    group.add(right);
+                    pullRight();
+                }
+                // Later left elements have keys at least this large.
+                finished = group.isEmpty() && !hasRight;
+            }
+            return !finished;
+        }
+
+        @Override
+        public T nextImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return combiner.apply(left, group.get(index++));
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            index++;
+        }
+    }
+
+    public static final class OfObject<L, R, K, T> extends Join<L, R, T>
+    {
+        private final Function<? super L, ? extends K> leftKey;
+        private final Function<? super R, ? extends K> rightKey;
+        private final Comparator<? super K> keyOrder;
+
+        public OfObject(AbstractRichIterator<? extends L> left,
+                AbstractRichIterator<? extends R> right,
+                Function<? super L, ? extends K> leftKey,
+                Function<? super R, ? extends K> rightKey,
+                Comparator<? super K> keyOrder,
+                BiFunction<? super L, ? super R, ? extends T> combiner)
+        {
+            super(left, right, combiner);
+            this.leftKey = Objects.requireNonNull(leftKey);
+            this.rightKey = Objects.requireNonNull(rightKey);
+            this.keyOrder = Objects.requireNonNull(keyOrder);
+        }
+
+        @Override
+        int compareKeys(L left, R right)
+        {
+            return keyOrder.compare(leftKey.apply(left), rightKey.apply(right));
+        }
+    }
+
+    public static final class ByLong<L, R, T> extends Join<L, R, T>
+    {
+        private final ToLongFunction<? super L> leftKey;
+        private final ToLongFunction<? super R> rightKey;
+
+        public ByLong(AbstractRichIterator<? extends L> left,
+                AbstractRichIterator<? extends R> right,
+                ToLongFunction<? super L> leftKey,
+                ToLongFunction<? super R> rightKey,
+                BiFunction<? super L, ? super R, ? extends T> combiner)
+        {
+            super(left, right, combiner);
+            this.leftKey = Objects.requireNonNull(leftKey);
+            this.rightKey = Objects.requireNonNull(rightKey);
+        }
+
+        @Override
+        int compareKeys(L left, R right)
+        {
+            return Long.compare(leftKey.applyAsLong(left),
+                    rightKey.applyAsLong(right));
+        }
+    }
+}
@@ -0,0 +1,549 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Iterators merging any number of sorted sources into a single sorted
+ * sequence. The current head of each source is held in the leaves of a
+ * tournament (loser) tree. Each internal node stores the loser of the match
+ * played there and the overall winner is kept above the root, so replacing
+ * the winner with the next element of its source only requires replaying the
+ * matches on the path from its leaf to the root, i.e. one comparison per
+ * level rather than the two of a binary heap. Ties are broken by source
+ * position so the merge is stable. The heads are pulled lazily on the first
+ * traversal and once a single source remains it is drained directly.
+ *
+ * @author t
+ */
+public final class MergeSortedAdapter
+{
+    private MergeSortedAdapter()
+    {
+    }
+
+    private static AbstractIteratorSize sumSizes(AbstractIterator[] sources)
+    {
+        if (sources.length == 0) {
+            return new KnownSize(0);
+        }
+        AbstractIteratorSize[] sizes = new AbstractIteratorSize[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            sizes[i] = sources[i].getSize();
+            sources[i].relinquishOwnership();
+        }
+        return IteratorSizes.sum(sizes);
+    }
+
+    public static final class OfObject<E> extends AbstractRichIterator<E>
+    {
+        private final Comparator<? super E> order;
+        private final AbstractRichIterator<? extends E>[] sources;
+        private final Object[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private int live = -1;
+
+        public OfObject(Comparator<? super E> order,
+                List<? extends AbstractRichIterator<? extends E>> sources)
+        {
+            this(order, toArray(sources));
+        }
+
+        private OfObject(Comparator<? super E> order,
+                AbstractRichIterator<? extends E>[] sources)
+        {
+            super(sumSizes(sources));
+            this.order = Objects.requireNonNull(order);
+            this.sources = sources;
+            this.heads = new Object[sources.length];
+            this.exhausted = new boolean[sources.length];
+            this.tree = new int[Math.max(1, sources.length)];
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <E> AbstractRichIterator<? extends E>[] toArray(
+                List<? extends AbstractRichIterator<? extends E>> sources)
+        {
+            return (AbstractRichIterator<? extends E>[]) sources
+                    .toArray(new AbstractRichIterator<?>[0]);
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean beats(int a, int b)
+        {
+            if (exhausted[a] || exhausted[b]) {
+                return exhausted[b] && (!exhausted[a] || a < b);
+            }
+            int c = order.compare((E) heads[a], (E) heads[b]);
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        private void pull(int i)
+        {
+            AbstractRichIterator<? extends E> source = sources[i];
+            if (source.hasNext()) {
+                heads[i] = source.nextImpl();
+            } else {
+                heads[i] = null;
+                exhausted[i] = true;
+                live--;
+            }
+        }
+
+        private void build()
+        {
+            if (live < 0) {
+                int k = sources.length;
+                live = k;
+                for (int i = 0; i < k; i++) {
+                    pull(i);
+                }
+                int[] winners = new int[2 * k];
+                for (int i = 0; i < k; i++) {
+                    winners[k + i] = i;
+                }
+                for (int node = k - 1; node > 0; node--) {
+                    int a = winners[2 * node], b = winners[2 * node + 1];
+                    boolean aWins = beats(a, b);
+                    winners[node] = aWins ? a : b;
+                    tree[node] = aWins ? b : a;
+                }
+                if (k > 0) {
+                    tree[0] = winners[1];
+                }
+            }
+        }
+
+        private void replay(int winner)
+        {
+            int node = (sources.length + winner) / 2;
+            for (; node > 0; node /= 2) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            build();
+            return live > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E nextImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int winner = tree[0];
+            E next = (E) heads[winner];
+            pull(winner);
+            replay(winner);
+            return next;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextImpl();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            while (hasNext()) {
+                int winner = tree[0];
+                if (live == 1) {
+                    live = 0;
+                    exhausted[winner] = true;
+                    E last = (E) heads[winner];
+                    heads[winner] = null;
+                    action.accept(last);
+                    sources[winner].forEachRemainingImpl(action);
+                } else {
+                    action.accept((E) heads[winner]);
+                    pull(winner);
+                    replay(winner);
+                }
+            }
+        }
+    }
+
+    public static final class OfInt extends AbstractIntIterator
+    {
+        private final AbstractIntIterator[] sources;
+        private final int[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private int live = -1;
+
+        public OfInt(AbstractIntIterator[] sources)
+        {
+            super(sumSizes(sources));
+            this.sources = sources;
+            this.heads = new int[sources.length];
+            this.exhausted = new boolean[sources.length];
+            this.tree = new int[Math.max(1, sources.length)];
+        }
+
+        private boolean beats(int a, int b)
+        {
+            if (exhausted[a] || exhausted[b]) {
+                return exhausted[b] && (!exhausted[a] || a < b);
+            }
+            int x = heads[a], y = heads[b];
+            return x < y || (x == y && a < b);
+        }
+
+        private void pull(int i)
+        {
+            AbstractIntIterator source = sources[i];
+            if (source.hasNext()) {
+                heads[i] = source.nextIntImpl();
+            } else {
+                exhausted[i] = true;
+                live--;
+            }
+        }
+
+        private void build()
+        {
+            if (live < 0) {
+                int k = sources.length;
+                live = k;
+                for (int i = 0; i < k; i++) {
+                    pull(i);
+                }
+                int[] winners = new int[2 * k];
+                for (int i = 0; i < k; i++) {
+                    winners[k + i] = i;
+                }
+                for (int node = k - 1; node > 0; node--) {
+                    int a = winners[2 * node], b = winners[2 * node + 1];
+                    boolean aWins = beats(a, b);
+                    winners[node] = aWins ? a : b;
+                    tree[node] = aWins ? b : a;
+                }
+                if (k > 0) {
+                    tree[0] = winners[1];
+                }
+            }
+        }
+
+        private void replay(int winner)
+        {
+            int node = (sources.length + winner) / 2;
+            for (; node > 0; node /= 2) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            build();
+            return live > 0;
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int winner = tree[0];
+            int next = heads[winner];
+            pull(winner);
+            replay(winner);
+            return next;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextIntImpl();
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            while (hasNext()) {
+                int winner = tree[0];
+                if (live == 1) {
+                    live = 0;
+                    exhausted[winner] = true;
+                    action.accept(heads[winner]);
+                    sources[winner].forEachRemainingImpl(action);
+                } else {
+                    action.accept(heads[winner]);
+                    pull(winner);
+                    replay(winner);
+                }
+            }
+        }
+    }
+
+    public static final class OfLong extends AbstractLongIterator
+    {
+        private final AbstractLongIterator[] sources;
+        private final long[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private int live = -1;
+
+        public OfLong(AbstractLongIterator[] sources)
+        {
+            super(sumSizes(sources));
+            this.sources = sources;
+            this.heads = new long[sources.length];
+            this.exhausted = new boolean[sources.length];
+            this.tree = new int[Math.max(1, sources.length)];
+        }
+
+        private boolean beats(int a, int b)
+        {
+            if (exhausted[a] || exhausted[b]) {
+                return exhausted[b] && (!exhausted[a] || a < b);
+            }
+            long x = heads[a], y = heads[b];
+            return x < y || (x == y && a < b);
+        }
+
+        private void pull(int i)
+        {
+            AbstractLongIterator source = sources[i];
+            if (source.hasNext()) {
+                heads[i] = source.nextLongImpl();
+            } else {
+                exhausted[i] = true;
+                live--;
+            }
+        }
+
+        private void build()
+        {
+            if (live < 0) {
+                int k = sources.length;
+                live = k;
+                for (int i = 0; i < k; i++) {
+                    pull(i);
+                }
+                int[] winners = new int[2 * k];
+                for (int i = 0; i < k; i++) {
+                    winners[k + i] = i;
+                }
+                for (int node = k - 1; node > 0; node--) {
+                    int a = winners[2 * node], b = winners[2 * node + 1];
+                    boolean aWins = beats(a, b);
+                    winners[node] = aWins ? a : b;
+                    tree[node] = aWins ? b : a;
+                }
+                if (k > 0) {
+                    tree[0] = winners[1];
+                }
+            }
+        }
+
+        private void replay(int winner)
+        {
+            int node = (sources.length + winner) / 2;
+            for (; node > 0; node /= 2) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            build();
+            return live > 0;
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int winner = tree[0];
+            long next = heads[winner];
+            pull(winner);
+            replay(winner);
+            return next;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextLongImpl();
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            while (hasNext()) {
+                int winner = tree[0];
+                if (live == 1) {
+                    live = 0;
+                    exhausted[winner] = true;
+                    action.accept(heads[winner]);
+                    sources[winner].forEachRemainingImpl(action);
+                } else {
+                    action.accept(heads[winner]);
+                    pull(winner);
+                    replay(winner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges double sources ordered as by {@link Double#compare(double,
+     * double)}, so negative zero precedes zero and NaN comes last.
+     */
+    public static final class OfDouble extends AbstractDoubleIterator
+    {
+        private final AbstractDoubleIterator[] sources;
+        private final double[] heads;
+        private final boolean[] exhausted;
+        private final int[] tree;
+        private int live = -1;
+
+        public OfDouble(AbstractDoubleIterator[] sources)
+        {
+            super(sumSizes(sources));
+            this.sources = sources;
+            this.heads = new double[sources.length];
+            this.exhausted = new boolean[sources.length];
+            this.tree = new int[Math.max(1, sources.length)];
+        }
+
+        private boolean beats(int a, int b)
+        {
+            if (exhausted[a] || exhausted[b]) {
+                return exhausted[b] && (!exhausted[a] || a < b);
+            }
+            int c = Double.compare(heads[a], heads[b]);
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        private void pull(int i)
+        {
+            AbstractDoubleIterator source = sources[i];
+            if (source.hasNext()) {
+                heads[i] = source.nextDoubleImpl();
+            } else {
+                exhausted[i] = true;
+                live--;
+            }
+        }
+
+        private void build()
+        {
+            if (live < 0) {
+                int k = sources.length;
+                live = k;
+                for (int i = 0; i < k; i++) {
+                    pull(i);
+                }
+                int[] winners = new int[2 * k];
+                for (int i = 0; i < k; i++) {
+                    winners[k + i] = i;
+                }
+                for (int node = k - 1; node > 0; node--) {
+                    int a = winners[2 * node], b = winners[2 * node + 1];
+                    boolean aWins = beats(a, b);
+                    winners[node] = aWins ? a : b;
+                    tree[node] = aWins ? b : a;
+                }
+                if (k > 0) {
+                    tree[0] = winners[1];
+                }
+            }
+        }
+
+        private void replay(int winner)
+        {
+            int node = (sources.length + winner) / 2;
+            for (; node > 0; node /= 2) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            build();
+            return live > 0;
+        }
+
+        @Override
+        public double nextDoubleImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int winner = tree[0];
+            double next = heads[winner];
+            pull(winner);
+            replay(winner);
+            return next;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextDoubleImpl();
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            while (hasNext()) {
+                int winner = tree[0];
+                if (live == 1) {
+                    live = 0;
+                    exhausted[winner] = true;
+                    action.accept(heads[winner]);
+                    sources[winner].forEachRemainingImpl(action);
+                } else {
+                    action.accept(heads[winner]);
+                    pull(winner);
+                    replay(winner);
+                }
+            }
+        }
+    }
+}
@@ -20,31 +20,19 @@ public final class ObjectMinMaxConsumption
             AbstractRichIterator<? extends E> source,
             Comparator<? super E> orderingFunction)
     {
-        source.relinquishOwnership();
         Comparator<? super E> cf = orderingFunction;
-        E min = null;
-        while (source.hasNext()) {
-            E next = source.nextImpl();
-            if (min == null || cf.compare(min, next) > 0) {
-                min = next;
-            }
-        }
-        return min == null ? Optional.empty() : Optional.of(min);
+        source.relinquishOwnership();
+        return Optional.ofNullable(ObjectReductionConsumption.reduce(source,
+                (min, next) -> cf.compare(min, next) > 0 ? next : min));
     }
 
     public static <E> Optional<E> findMax(
             AbstractRichIterator<? extends E> source,
             Comparator<? super E> orderingFunction)
     {
-        source.relinquishOwnership();
         Comparator<? super E> cf = orderingFunction;
-        E max = null;
-        while (source.hasNext()) {
-            E next = source.nextImpl();
-            if (max == null || cf.compare(max, next) < 0) {
-                max = next;
-            }
-        }
-        return max == null ? Optional.empty() : Optional.of(max);
+        source.relinquishOwnership();
+        return Optional.ofNullable(ObjectReductionConsumption.reduce(source,
+                (max, next) -> cf.compare(max, next) < 0 ? next : max));
     }
 }
@@ -6,6 +6,7 @@ package com.github.maumay.jflow.impl;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 
 /**
  * @author ThomasB
@@ -21,29 +22,14 @@ public class ObjectReductionConsumption
             BinaryOperator<E> reducer)
     {
         source.relinquishOwnership();
-        E reduction = null;
-        while (source.hasNext()) {
-            if (reduction == null) {
-                reduction = source.nextImpl();
-            } else {
-                reduction = reducer.apply(reduction, source.nextImpl());
-            }
-        }
-        return reduction == null ? Optional.empty() : Optional.of(reduction);
+        return Optional.ofNullable(reduce(source, reducer));
     }
 
     public static <E> E fold(AbstractRichIterator<? extends E> source,
             BinaryOperator<E> reducer)
     {
         source.relinquishOwnership();
-        E reduction = null;
-        while (source.hasNext()) {
-            if (reduction == null) {
-                reduction = source.nextImpl();
-            } else {
-                reduction = reducer.apply(reduction, source.nextImpl());
-            }
-        }
+        E reduction = reduce(source, reducer);
         if (reduction == null) {
             throw new IllegalStateException("Cannot fold an empty iterator!");
         } else {
@@ -51,15 +37,48 @@ public class ObjectReductionConsumption
         }
     }
 
+    /**
+     * Reduces the remaining elements, a null reduction is replaced by the next
+     * element rather than passed to the reducer.
+     */
+    static <E> E reduce(AbstractRichIterator<? extends E> source,
+            BinaryOperator<E> reducer)
+    {
+        Folder<E, E> folder = new Folder<>(null,
+                (reduction, next) -> reduction == null ? next
+                        : reducer.apply(reduction, next));
+        source.forEachRemainingImpl(folder);
+        return folder.reduction;
+    }
+
     public static <E, R> R fold(AbstractRichIterator<? extends E> source, R id,
             BiFunction<R, E, R> reducer)
     {
         source.relinquishOwnership();
-        R reduction = id;
-        while (source.hasNext()) {
-            reduction = reducer.apply(reduction, source.nextImpl());
+        Folder<E, R> folder = new Folder<>(id, reducer);
+        source.forEachRemainingImpl(folder);
+        return folder.reduction;
+    }
+
+    /**
+     * Accumulates the elements pushed to it by an iterator.
+     */
+    private static final class Folder<E, R> implements Consumer<E>
+    {
+        private final BiFunction<R, ? super E, R> reducer;
+        private R reduction;
+
+        Folder(R id, BiFunction<R, ? super E, R> reducer)
+        {
+            this.reducer = reducer;
+            this.reduction = id;
+        }
+
+        @Override
+        public void accept(E element)
+        {
+            reduction = reducer.apply(reduction, element);
         }
-        return reduction;
     }
 
     public static <E> long count(AbstractRichIterator<? extends E> source)
@@ -70,8 +89,7 @@ public class ObjectReductionConsumption
         }
         long count = 0;
         while (source.hasNext()) {
-            source.forwardImpl();
-            count++;
+            count += source.skipImpl(Integer.MAX_VALUE);
         }
         return count;
     }
@@ -0,0 +1,555 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.*;
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+import com.github.maumay.jflow.vec.Vec;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.*;
+
+/**
+ * Implementations of the parallel iterators. Each one is a recipe for creating
+ * a sequential iterator over an arbitrary index range [start, end) of some
+ * source, intermediate operations simply compose this recipe with the
+ * corresponding sequential adapter. The consuming methods split the full range
+ * recursively in half (in the same way as the vector spliterator) on the
+ * common fork-join pool, traverse each leaf range sequentially and combine the
+ * partial results in encounter order.
+ *
+ * @author t
+ */
+final class ParallelIteratorImpl
+{
+    private ParallelIteratorImpl()
+    {
+    }
+
+    /**
+     * Creates a sequential iterator over an index range of some source.
+     *
+     * @param <I> The type of iterator created.
+     */
+    @FunctionalInterface
+    interface RangeSource<I>
+    {
+        I create(int start, int end);
+    }
+
+    static final class Task<I, R> extends RecursiveTask<R>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeSource<? extends I> source;
+        private final Function<? super I, ? extends R> leaf;
+        private final BinaryOperator<R> combiner;
+        private final int start, end, threshold;
+
+        Task(RangeSource<? extends I> source,
+                Function<? super I, ? extends R> leaf,
+                BinaryOperator<R> combiner, int start, int end, int threshold)
+        {
+            this.source = source;
+            this.leaf = leaf;
+            this.combiner = combiner;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected R compute()
+        {
+            if (end - start <= threshold) {
+                return leaf.apply(source.create(start, end));
+            } else {
+                final int midpoint = (start + end) >>> 1;
+                Task<I, R> left = new Task<>(source, leaf, combiner, start,
+                        midpoint, threshold);
+                left.fork();
+                R right = new Task<>(source, leaf, combiner, midpoint, end,
+                        threshold).compute();
+                return combiner.apply(left.join(), right);
+            }
+        }
+    }
+
+    /**
+     * Splits the range [0, size) into leaves, traverses each leaf with a fresh
+     * iterator and combines the leaf results. The leaf size is chosen in the
+     * same way as the standard library streams, i.e. so that there are roughly
+     * four leaves per worker thread.
+     */
+    static <I, R> R execute(int size, RangeSource<? extends I> source,
+            Function<? super I, ? extends R> leaf, BinaryOperator<R> combiner)
+    {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int threshold = Math.max(1, size / (parallelism << 2));
+        return ForkJoinPool.commonPool()
+                .invoke(new Task<>(source, leaf, combiner, 0, size, threshold));
+    }
+
+    static <A> List<A> piece(A array)
+    {
+        return Collections.singletonList(array);
+    }
+
+    static <A> List<A> concat(List<A> left, List<A> right)
+    {
+        List<A> dest = new ArrayList<>(left.size() + right.size());
+        dest.addAll(left);
+        dest.addAll(right);
+        return dest;
+    }
+
+    /**
+     * Joins the arrays computed on each leaf into a single array, only copying
+     * if there is more than one leaf.
+     */
+    static <A> A join(List<A> pieces, ToIntFunction<A> length,
+            IntFunction<A> allocator)
+    {
+        if (pieces.size() == 1) {
+            return pieces.get(0);
+        }
+        int total = 0;
+        for (A piece : pieces) {
+            total += length.applyAsInt(piece);
+        }
+        A dest = allocator.apply(total);
+        int position = 0;
+        for (A piece : pieces) {
+            int n = length.applyAsInt(piece);
+            System.arraycopy(piece, 0, dest, position, n);
+            position += n;
+        }
+        return dest;
+    }
+
+    static <E> Optional<E> combine(Optional<E> left, Optional<E> right,
+            BinaryOperator<E> reducer)
+    {
+        if (left.isPresent() && right.isPresent()) {
+            return Optional.of(reducer.apply(left.get(), right.get()));
+        } else {
+            return left.isPresent() ? left : right;
+        }
+    }
+
+    static OptionalInt combine(OptionalInt left, OptionalInt right,
+            IntBinaryOperator reducer)
+    {
+        if (left.isPresent() && right.isPresent()) {
+            return OptionalInt.of(
+                    reducer.applyAsInt(left.getAsInt(), right.getAsInt()));
+        } else {
+            return left.isPresent() ? left : right;
+        }
+    }
+
+    static OptionalLong combine(OptionalLong left, OptionalLong right,
+            LongBinaryOperator reducer)
+    {
+        if (left.isPresent() && right.isPresent()) {
+            return OptionalLong.of(
+                    reducer.applyAsLong(left.getAsLong(), right.getAsLong()));
+        } else {
+            return left.isPresent() ? left : right;
+        }
+    }
+
+    static OptionalDouble combine(OptionalDouble left, OptionalDouble right,
+            DoubleBinaryOperator reducer)
+    {
+        if (left.isPresent() && right.isPresent()) {
+            return OptionalDouble.of(reducer
+                    .applyAsDouble(left.getAsDouble(), right.getAsDouble()));
+        } else {
+            return left.isPresent() ? left : right;
+        }
+    }
+
+    static final class OfObject<E> implements ParallelIterator<E>
+    {
+        private final int size;
+        private final RangeSource<AbstractRichIterator<E>> source;
+
+        OfObject(int size, RangeSource<AbstractRichIterator<E>> source)
+        {
+            this.size = size;
+            this.source = source;
+        }
+
+        @Override
+        public <R> ParallelIterator<R> map(Function<? super E, ? extends R> f)
+        {
+            return new OfObject<R>(size, (s, e) -> source.create(s, e).map(f));
+        }
+
+        @Override
+        public ParallelIntIterator mapToInt(ToIntFunction<? super E> f)
+        {
+            return new OfInt(size, (s, e) -> source.create(s, e).mapToInt(f));
+        }
+
+        @Override
+        public ParallelLongIterator mapToLong(ToLongFunction<? super E> f)
+        {
+            return new OfLong(size, (s, e) -> source.create(s, e).mapToLong(f));
+        }
+
+        @Override
+        public ParallelDoubleIterator mapToDouble(ToDoubleFunction<? super E> f)
+        {
+            return new OfDouble(size,
+                    (s, e) -> source.create(s, e).mapToDouble(f));
+        }
+
+        @Override
+        public ParallelIterator<E> filter(Predicate<? super E> predicate)
+        {
+            return new OfObject<>(size,
+                    (s, e) -> source.create(s, e).filter(predicate));
+        }
+
+        @Override
+        public <R> R fold(R id, BiFunction<R, E, R> accumulator,
+                BinaryOperator<R> combiner)
+        {
+            return execute(size, source, iter -> iter.fold(id, accumulator),
+                    combiner);
+        }
+
+        @Override
+        public Optional<E> foldOp(BinaryOperator<E> reducer)
+        {
+            return execute(size, source, iter -> iter.foldOp(reducer),
+                    (left, right) -> combine(left, right, reducer));
+        }
+
+        @Override
+        public Optional<E> minOp(Comparator<? super E> orderingFunction)
+        {
+            return execute(size, source,
+                    iter -> iter.minOp(orderingFunction),
+                    (left, right) -> combine(left, right,
+                            (x, y) -> orderingFunction.compare(x, y) > 0 ? y
+                                    : x));
+        }
+
+        @Override
+        public Optional<E> maxOp(Comparator<? super E> orderingFunction)
+        {
+            return execute(size, source,
+                    iter -> iter.maxOp(orderingFunction),
+                    (left, right) -> combine(left, right,
+                            (x, y) -> orderingFunction.compare(x, y) < 0 ? y
+                                    : x));
+        }
+
+        @Override
+        public <K> Map<K, List<E>> groupBy(
+                Function<? super E, ? extends K> classifier)
+        {
+            return execute(size, source, iter -> iter.groupBy(classifier),
+                    (left, right) -> {
+                        right.forEach((k, v) -> left.merge(k, v, (l, r) -> {
+                            l.addAll(r);
+                            return l;
+                        }));
+                        return left;
+                    });
+        }
+
+        @Override
+        public long count()
+        {
+            return execute(size, source, AbstractRichIterator::count,
+                    Long::sum);
+        }
+
+        @Override
+        public Vec<E> toVec()
+        {
+            List<Object[]> pieces = execute(size, source,
+                    iter -> piece(ArrayAccumulators.consume(iter)),
+                    ParallelIteratorImpl::concat);
+            return new VecImpl<>(join(pieces, a -> a.length, Object[]::new));
+        }
+    }
+
+    static final class OfInt implements ParallelIntIterator
+    {
+        private final int size;
+        private final RangeSource<AbstractIntIterator> source;
+
+        OfInt(int size, RangeSource<AbstractIntIterator> source)
+        {
+            this.size = size;
+            this.source = source;
+        }
+
+        @Override
+        public ParallelIntIterator map(IntUnaryOperator f)
+        {
+            return new OfInt(size, (s, e) -> source.create(s, e).map(f));
+        }
+
+        @Override
+        public <E> ParallelIterator<E> mapToObj(IntFunction<? extends E> f)
+        {
+            return new OfObject<E>(size,
+                    (s, e) -> source.create(s, e).mapToObj(f));
+        }
+
+        @Override
+        public ParallelLongIterator mapToLong(IntToLongFunction f)
+        {
+            return new OfLong(size, (s, e) -> source.create(s, e).mapToLong(f));
+        }
+
+        @Override
+        public ParallelDoubleIterator mapToDouble(IntToDoubleFunction f)
+        {
+            return new OfDouble(size,
+                    (s, e) -> source.create(s, e).mapToDouble(f));
+        }
+
+        @Override
+        public ParallelIntIterator filter(IntPredicate predicate)
+        {
+            return new OfInt(size,
+                    (s, e) -> source.create(s, e).filter(predicate));
+        }
+
+        @Override
+        public int fold(int id, IntBinaryOperator reducer)
+        {
+            return execute(size, source, iter -> iter.fold(id, reducer),
+                    reducer::applyAsInt);
+        }
+
+        @Override
+        public OptionalInt foldOp(IntBinaryOperator reducer)
+        {
+            return execute(size, source, iter -> iter.foldOp(reducer),
+                    (left, right) -> combine(left, right, reducer));
+        }
+
+        @Override
+        public OptionalInt minOp()
+        {
+            return execute(size, source, AbstractIntIterator::minOp,
+                    (left, right) -> combine(left, right, Math::min));
+        }
+
+        @Override
+        public OptionalInt maxOp()
+        {
+            return execute(size, source, AbstractIntIterator::maxOp,
+                    (left, right) -> combine(left, right, Math::max));
+        }
+
+        @Override
+        public long count()
+        {
+            return execute(size, source, AbstractIntIterator::count, Long::sum);
+        }
+
+        @Override
+        public IntVec toVec()
+        {
+            List<int[]> pieces = execute(size, source,
+                    iter -> piece(ArrayAccumulators.consume(iter)),
+                    ParallelIteratorImpl::concat);
+            return new IntVecImpl(join(pieces, a -> a.length, int[]::new));
+        }
+    }
+
+    static final class OfLong implements ParallelLongIterator
+    {
+        private final int size;
+        private final RangeSource<AbstractLongIterator> source;
+
+        OfLong(int size, RangeSource<AbstractLongIterator> source)
+        {
+            this.size = size;
+            this.source = source;
+        }
+
+        @Override
+        public ParallelLongIterator map(LongUnaryOperator f)
+        {
+            return new OfLong(size, (s, e) -> source.create(s, e).map(f));
+        }
+
+        @Override
+        public <E> ParallelIterator<E> mapToObj(LongFunction<? extends E> f)
+        {
+            return new OfObject<E>(size,
+                    (s, e) -> source.create(s, e).mapToObj(f));
+        }
+
+        @Override
+        public ParallelIntIterator mapToInt(LongToIntFunction f)
+        {
+            return new OfInt(size, (s, e) -> source.create(s, e).mapToInt(f));
+        }
+
+        @Override
+        public ParallelDoubleIterator mapToDouble(LongToDoubleFunction f)
+        {
+            return new OfDouble(size,
+                    (s, e) -> source.create(s, e).mapToDouble(f));
+        }
+
+        @Override
+        public ParallelLongIterator filter(LongPredicate predicate)
+        {
+            return new OfLong(size,
+                    (s, e) -> source.create(s, e).filter(predicate));
+        }
+
+        @Override
+        public long fold(long id, LongBinaryOperator reducer)
+        {
+            return execute(size, source, iter -> iter.fold(id, reducer),
+                    reducer::applyAsLong);
+        }
+
+        @Override
+        public OptionalLong foldOp(LongBinaryOperator reducer)
+        {
+            return execute(size, source, iter -> iter.foldOp(reducer),
+                    (left, right) -> combine(left, right, reducer));
+        }
+
+        @Override
+        public OptionalLong minOp()
+        {
+            return execute(size, source, AbstractLongIterator::minOp,
+                    (left, right) -> combine(left, right, Math::min));
+        }
+
+        @Override
+        public OptionalLong maxOp()
+        {
+            return execute(size, source, AbstractLongIterator::maxOp,
+                    (left, right) -> combine(left, right, Math::max));
+        }
+
+        @Override
+        public long count()
+        {
+            return execute(size, source, AbstractLongIterator::count,
+                    Long::sum);
+        }
+
+        @Override
+        public LongVec toVec()
+        {
+            List<long[]> pieces = execute(size, source,
+                    iter -> piece(ArrayAccumulators.consume(iter)),
+                    ParallelIteratorImpl::concat);
+            return new LongVecImpl(join(pieces, a -> a.length, long[]::new));
+        }
+    }
+
+    static final class OfDouble implements ParallelDoubleIterator
+    {
+        private final int size;
+        private final RangeSource<AbstractDoubleIterator> source;
+
+        OfDouble(int size, RangeSource<AbstractDoubleIterator> source)
+        {
+            this.size = size;
+            this.source = source;
+        }
+
+        @Override
+        public ParallelDoubleIterator map(DoubleUnaryOperator f)
+        {
+            return new OfDouble(size, (s, e) -> source.create(s, e).map(f));
+        }
+
+        @Override
+        public <E> ParallelIterator<E> mapToObj(DoubleFunction<? extends E> f)
+        {
+            return new OfObject<E>(size,
+                    (s, e) -> source.create(s, e).mapToObj(f));
+        }
+
+        @Override
+        public ParallelIntIterator mapToInt(DoubleToIntFunction f)
+        {
+            return new OfInt(size, (s, e) -> source.create(s, e).mapToInt(f));
+        }
+
+        @Override
+        public ParallelLongIterator mapToLong(DoubleToLongFunction f)
+        {
+            return new OfLong(size, (s, e) -> source.create(s, e).mapToLong(f));
+        }
+
+        @Override
+        public ParallelDoubleIterator filter(DoublePredicate predicate)
+        {
+            return new OfDouble(size,
+                    (s, e) -> source.create(s, e).filter(predicate));
+        }
+
+        @Override
+        public double fold(double id, DoubleBinaryOperator reducer)
+        {
+            return execute(size, source, iter -> iter.fold(id, reducer),
+                    reducer::applyAsDouble);
+        }
+
+        @Override
+        public OptionalDouble foldOp(DoubleBinaryOperator reducer)
+        {
+            return execute(size, source, iter -> iter.foldOp(reducer),
+                    (left, right) -> combine(left, right, reducer));
+        }
+
+        @Override
+        public OptionalDouble minOp()
+        {
+            // Leaf minimums ignore NaN so the strict comparison is safe here.
+            return execute(size, source, AbstractDoubleIterator::minOp,
+                    (left, right) -> combine(left, right,
+                            (x, y) -> y < x ? y : x));
+        }
+
+        @Override
+        public OptionalDouble maxOp()
+        {
+            return execute(size, source, AbstractDoubleIterator::maxOp,
+                    (left, right) -> combine(left, right,
+                            (x, y) -> y > x ? y : x));
+        }
+
+        @Override
+        public long count()
+        {
+            return execute(size, source, AbstractDoubleIterator::count,
+                    Long::sum);
+        }
+
+        @Override
+        public DoubleVec toVec()
+        {
+            List<double[]> pieces = execute(size, source,
+                    iter -> piece(ArrayAccumulators.consume(iter)),
+                    ParallelIteratorImpl::concat);
+            return new DoubleVecImpl(
+                    join(pieces, a -> a.length, double[]::new));
+        }
+    }
+}
@@ -0,0 +1,778 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.ParallelIterator;
+import com.github.maumay.jflow.utils.Tup;
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+import com.github.maumay.jflow.vec.PersistentVec;
+import com.github.maumay.jflow.vec.Vec;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementation of {@link PersistentVec} as a rope, i.e. an AVL balanced binary
+ * tree whose leaves are chunks of at most {@link #CHUNK_SIZE} consecutive
+ * elements and whose branches cache the number of elements beneath them.
+ * Every update copies only the path from the root to the affected leaves, the
+ * rest of the tree is shared with the original. The empty vector has a null
+ * root.
+ *
+ * @param <E> The type of the elements contained in this vector.
+ *
+ * @author t
+ */
+public final class PersistentVecImpl<E> implements PersistentVec<E>
+{
+    static final int CHUNK_SIZE = 32;
+
+    private static final PersistentVecImpl<?> EMPTY = new PersistentVecImpl<>(
+            null);
+
+    private final Node root;
+
+    private PersistentVecImpl(Node root)
+    {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVecImpl<E> empty()
+    {
+        return (PersistentVecImpl<E>) EMPTY;
+    }
+
+    public static <E> PersistentVecImpl<E> copyOf(Object[] elements)
+    {
+        for (Object element : elements) {
+            Objects.requireNonNull(element);
+        }
+        return fromArray(elements);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVecImpl<E> copyOf(Vec<? extends E> vec)
+    {
+        if (vec instanceof PersistentVecImpl<?>) {
+            return (PersistentVecImpl<E>) vec;
+        } else {
+            Object[] elements = new Object[vec.size()];
+            vec.iter().forEachIndexed((i, x) -> elements[i] = x);
+            return fromArray(elements);
+        }
+    }
+
+    /**
+     * Builds a vector from an array known to contain no null references, the
+     * array is not retained.
+     */
+    static <E> PersistentVecImpl<E> fromArray(Object[] elements)
+    {
+        return elements.length == 0 ? empty()
+                : new PersistentVecImpl<>(build(elements, 0, elements.length));
+    }
+
+    // Vec API
+
+    @Override
+    public int size()
+    {
+        return root == null ? 0 : root.size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index)
+    {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            if (index < branch.left.size) {
+                node = branch.left;
+            } else {
+                index -= branch.left.size;
+                node = branch.right;
+            }
+        }
+        return (E) ((Leaf) node).elements[index];
+    }
+
+    @Override
+    public AbstractRichIterator<E> iter()
+    {
+        return new TreeSource<>(root, 0, size());
+    }
+
+    @Override
+    public AbstractRichIterator<E> iterRev()
+    {
+        return new ReversedTreeSource<>(root);
+    }
+
+    @Override
+    public Stream<E> stream()
+    {
+        return StreamSupport.stream(Spliterators.spliterator(iter(), size(),
+                Spliterator.IMMUTABLE | Spliterator.ORDERED
+                        | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public ParallelIterator<E> parIter()
+    {
+        Node src = root;
+        return new ParallelIteratorImpl.OfObject<>(size(),
+                (start, end) -> new TreeSource<>(src, start, end));
+    }
+
+    @Override
+    public PersistentVecImpl<E> set(int index, E element)
+    {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return new PersistentVecImpl<>(
+                set(root, index, Objects.requireNonNull(element)));
+    }
+
+    @Override
+    public PersistentVecImpl<E> concat(Vec<? extends E> other)
+    {
+        return new PersistentVecImpl<>(join(root, copyOf(other).root));
+    }
+
+    @Override
+    public PersistentVecImpl<E> append(E other)
+    {
+        Objects.requireNonNull(other);
+        return new PersistentVecImpl<>(
+                root == null ? new Leaf(new Object[]{other})
+                        : append(root, other));
+    }
+
+    @Override
+    public PersistentVecImpl<E> append(Iterable<? extends E> other)
+    {
+        return concat(fromArray(
+                ArrayAccumulators.consume(IteratorWrapper.wrap(other.iterator()))));
+    }
+
+    @Override
+    public PersistentVecImpl<E> append(Collection<? extends E> other)
+    {
+        return concat(fromArray(
+                ArrayAccumulators.consume(new CollectionSource<>(other))));
+    }
+
+    @Override
+    public PersistentVecImpl<E> insert(E other)
+    {
+        Objects.requireNonNull(other);
+        return new PersistentVecImpl<>(
+                root == null ? new Leaf(new Object[]{other})
+                        : prepend(root, other));
+    }
+
+    @Override
+    public PersistentVecImpl<E> insert(Iterable<? extends E> other)
+    {
+        PersistentVecImpl<E> prefix = fromArray(
+                ArrayAccumulators.consume(IteratorWrapper.wrap(other.iterator())));
+        return prefix.concat(this);
+    }
+
+    @Override
+    public PersistentVecImpl<E> insert(Collection<? extends E> other)
+    {
+        PersistentVecImpl<E> prefix = fromArray(
+                ArrayAccumulators.consume(new CollectionSource<>(other)));
+        return prefix.concat(this);
+    }
+
+    @Override
+    public PersistentVecImpl<E> subVec(int from, int to)
+    {
+        int length = ArraySource.requireRange(size(), from, to);
+        return length == size() ? this
+                : new PersistentVecImpl<>(drop(take(root, to), from));
+    }
+
+    @Override
+    public PersistentVecImpl<E> compact()
+    {
+        // Subvectors only retain the leaves they need.
+        return this;
+    }
+
+    @Override
+    public PersistentVecImpl<E> take(int n)
+    {
+        IteratorSizes.requireNonNegative(n);
+        return subVec(0, Math.min(n, size()));
+    }
+
+    @Override
+    public PersistentVecImpl<E> takeWhile(Predicate<? super E> predicate)
+    {
+        return subVec(0, prefixLength(predicate));
+    }
+
+    @Override
+    public PersistentVecImpl<E> skip(int n)
+    {
+        IteratorSizes.requireNonNegative(n);
+        return subVec(Math.min(n, size()), size());
+    }
+
+    @Override
+    public PersistentVecImpl<E> skipWhile(Predicate<? super E> predicate)
+    {
+        return subVec(prefixLength(predicate), size());
+    }
+
+    @Override
+    public Tup<Vec<E>, Vec<E>> span(Predicate<? super E> predicate)
+    {
+        int split = prefixLength(predicate);
+        return Tup.of(subVec(0, split), subVec(split, size()));
+    }
+
+    private int prefixLength(Predicate<? super E> predicate)
+    {
+        AbstractRichIterator<E> iterator = iter();
+        int split = 0;
+        while (iterator.hasNext() && predicate.test(iterator.next())) {
+            split++;
+        }
+        return split;
+    }
+
+    @Override
+    public <R> Vec<R> map(Function<? super E, ? extends R> mapFunc)
+    {
+        return iter().<R>map(mapFunc).toVec();
+    }
+
+    @Override
+    public <R> Vec<R> flatMap(
+            Function<? super E, ? extends Iterator<? extends R>> mapping)
+    {
+        return iter().flatMap(mapping).toVec();
+    }
+
+    @Override
+    public Vec<E> filter(Predicate<? super E> predicate)
+    {
+        return iter().filter(predicate).toVec();
+    }
+
+    @Override
+    public <R> Vec<R> cast()
+    {
+        return iter().<R>cast().toVec();
+    }
+
+    @Override
+    public Tup<Vec<E>, Vec<E>> partition(Predicate<? super E> predicate)
+    {
+        return iter().toVec().partition(predicate);
+    }
+
+    @Override
+    public Vec<E> sorted(Comparator<? super E> ordering)
+    {
+        return iter().toVec().sorted(ordering);
+    }
+
+    @Override
+    public DoubleVec mapToDouble(ToDoubleFunction<? super E> mappingFunc)
+    {
+        return iter().mapToDouble(mappingFunc).toVec();
+    }
+
+    @Override
+    public IntVec mapToInt(ToIntFunction<? super E> mappingFunc)
+    {
+        return iter().mapToInt(mappingFunc).toVec();
+    }
+
+    @Override
+    public LongVec mapToLong(ToLongFunction<? super E> mappingFunc)
+    {
+        return iter().mapToLong(mappingFunc).toVec();
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (obj instanceof Vec<?>) {
+            Vec<?> other = (Vec<?>) obj;
+            if (other.size() == size()) {
+                Iterator<?> mine = iter(), theirs = other.iter();
+                while (mine.hasNext()) {
+                    if (!mine.next().equals(theirs.next())) {
+                        return false;
+                    }
+                }
+                return true;
+            } else {
+                return false;
+            }
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return iter().mapToInt(Object::hashCode)
+                .fold(1, (res, n) -> 31 * res + n);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringJoiner joiner = new StringJoiner(", ", "Vec[", "]");
+        iter().forEach(x -> joiner.add(x.toString()));
+        return joiner.toString();
+    }
+
+    /**
+     * Checks the structural invariants of the underlying tree, namely that it is
+     * AVL balanced, the cached sizes and heights are correct and the leaves are
+     * non-empty chunks of bounded size.
+     */
+    boolean checkInvariants()
+    {
+        return root == null || checkInvariants(root);
+    }
+
+    private static boolean checkInvariants(Node node)
+    {
+        if (node instanceof Leaf) {
+            int length = ((Leaf) node).elements.length;
+            return node.height == 0 && node.size == length && length > 0
+                    && length <= CHUNK_SIZE;
+        } else {
+            Branch branch = (Branch) node;
+            Node l = branch.left, r = branch.right;
+            return Math.abs(l.height - r.height) <= 1
+                    && branch.height == 1 + Math.max(l.height, r.height)
+                    && branch.size == l.size + r.size && checkInvariants(l)
+                    && checkInvariants(r);
+        }
+    }
+
+    // Tree algorithms, null represents the empty tree.
+
+    private static abstract class Node
+    {
+        final int size, height;
+
+        Node(int size, int height)
+        {
+            this.size = size;
+            this.height = height;
+        }
+    }
+
+    private static final class Leaf extends Node
+    {
+        final Object[] elements;
+
+        Leaf(Object[] elements)
+        {
+            super(elements.length, 0);
+            this.elements = elements;
+        }
+    }
+
+    private static final class Branch extends Node
+    {
+        final Node left, right;
+
+        Branch(Node left, Node right)
+        {
+            super(left.size + right.size,
+                    1 + Math.max(left.height, right.height));
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * Builds a perfectly balanced tree over a non-empty range of an array.
+     */
+    private static Node build(Object[] src, int from, int to)
+    {
+        int length = to - from;
+        if (length <= CHUNK_SIZE) {
+            return new Leaf(Arrays.copyOfRange(src, from, to));
+        } else {
+            int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            int mid = from + (chunks / 2) * CHUNK_SIZE;
+            return new Branch(build(src, from, mid), build(src, mid, to));
+        }
+    }
+
+    /**
+     * Creates a branch from two balanced trees whose heights differ by at most
+     * two, performing a single or double rotation if required.
+     */
+    private static Node balance(Node left, Node right)
+    {
+        int diff = left.height - right.height;
+        if (diff > 1) {
+            Branch l = (Branch) left;
+            if (l.left.height >= l.right.height) {
+                return new Branch(l.left, new Branch(l.right, right));
+            } else {
+                Branch lr = (Branch) l.right;
+                return new Branch(new Branch(l.left, lr.left),
+                        new Branch(lr.right, right));
+            }
+        } else if (diff < -1) {
+            Branch r = (Branch) right;
+            if (r.right.height >= r.left.height) {
+                return new Branch(new Branch(left, r.left), r.right);
+            } else {
+                Branch rl = (Branch) r.left;
+                return new Branch(new Branch(left, rl.left),
+                        new Branch(rl.right, r.right));
+            }
+        } else {
+            return new Branch(left, right);
+        }
+    }
+
+    /**
+     * Concatenates two trees, runs in time proportional to the difference in
+     * their heights.
+     */
+    private static Node join(Node left, Node right)
+    {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        } else if (left.height > right.height + 1) {
+            Branch l = (Branch) left;
+            return balance(l.left, join(l.right, right));
+        } else if (right.height > left.height + 1) {
+            Branch r = (Branch) right;
+            return balance(join(left, r.left), r.right);
+        } else {
+            return new Branch(left, right);
+        }
+    }
+
+    private static Node append(Node node, Object element)
+    {
+        if (node instanceof Leaf) {
+            Object[] elements = ((Leaf) node).elements;
+            if (elements.length < CHUNK_SIZE) {
+                Object[] appended = Arrays.copyOf(elements, elements.length + 1);
+                appended[elements.length] = element;
+                return new Leaf(appended);
+            } else {
+                return new Branch(node, new Leaf(new Object[]{element}));
+            }
+        } else {
+            Branch branch = (Branch) node;
+            return balance(branch.left, append(branch.right, element));
+        }
+    }
+
+    private static Node prepend(Node node, Object element)
+    {
+        if (node instanceof Leaf) {
+            Object[] elements = ((Leaf) node).elements;
+            if (elements.length < CHUNK_SIZE) {
+                Object[] prepended = new Object[elements.length + 1];
+                System.arraycopy(elements, 0, prepended, 1, elements.length);
+                prepended[0] = element;
+                return new Leaf(prepended);
+            } else {
+                return new Branch(new Leaf(new Object[]{element}), node);
+            }
+        } else {
+            Branch branch = (Branch) node;
+            return balance(prepend(branch.left, element), branch.right);
+        }
+    }
+
+    private static Node set(Node node, int index, Object element)
+    {
+        if (node instanceof Leaf) {
+            Object[] elements = ((Leaf) node).elements.clone();
+            elements[index] = element;
+            return new Leaf(elements);
+        } else {
+            Branch branch = (Branch) node;
+            if (index < branch.left.size) {
+                return new Branch(set(branch.left, index, element),
+                        branch.right);
+            } else {
+                return new Branch(branch.left,
+                        set(branch.right, index - branch.left.size, element));
+            }
+        }
+    }
+
+    /**
+     * Computes the tree consisting of the first n elements of the given tree.
+     */
+    private static Node take(Node node, int n)
+    {
+        if (n == 0) {
+            return null;
+        } else if (n == node.size) {
+            return node;
+        } else if (node instanceof Leaf) {
+            return new Leaf(Arrays.copyOf(((Leaf) node).elements, n));
+        } else {
+            Branch branch = (Branch) node;
+            if (n <= branch.left.size) {
+                return take(branch.left, n);
+            } else {
+                return join(branch.left,
+                        take(branch.right, n - branch.left.size));
+            }
+        }
+    }
+
+    /**
+     * Computes the tree consisting of all but the first n elements of the given
+     * tree.
+     */
+    private static Node drop(Node node, int n)
+    {
+        if (n == 0) {
+            return node;
+        } else if (n == node.size) {
+            return null;
+        } else if (node instanceof Leaf) {
+            Object[] elements = ((Leaf) node).elements;
+            return new Leaf(Arrays.copyOfRange(elements, n, elements.length));
+        } else {
+            Branch branch = (Branch) node;
+            if (n >= branch.left.size) {
+                return drop(branch.right, n - branch.left.size);
+            } else {
+                return join(drop(branch.left, n), branch.right);
+            }
+        }
+    }
+
+    // Iterators
+
+    /**
+     * Traverses a range of the elements of a tree in order, keeping a stack of
+     * the right siblings on the path to the current leaf.
+     */
+    private static final class TreeSource<E> extends AbstractRichIterator<E>
+    {
+        private final ArrayDeque<Node> pending = new ArrayDeque<>();
+        private Object[] leaf;
+        private int index, remaining;
+
+        TreeSource(Node root, int start, int end)
+        {
+            super(new KnownSize(end - start));
+            this.remaining = end - start;
+            if (remaining > 0) {
+                Node node = root;
+                int i = start;
+                while (node instanceof Branch) {
+                    Branch branch = (Branch) node;
+                    if (i < branch.left.size) {
+                        pending.push(branch.right);
+                        node = branch.left;
+                    } else {
+                        i -= branch.left.size;
+                        node = branch.right;
+                    }
+                }
+                this.leaf = ((Leaf) node).elements;
+                this.index = i;
+            }
+        }
+
+        private void nextLeaf()
+        {
+            Node node = pending.pop();
+            while (node instanceof Branch) {
+                Branch branch = (Branch) node;
+                pending.push(branch.right);
+                node = branch.left;
+            }
+            leaf = ((Leaf) node).elements;
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return remaining > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E nextImpl()
+        {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            } else if (index == leaf.length) {
+                nextLeaf();
+            }
+            remaining--;
+            return (E) leaf[index++];
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            } else if (index == leaf.length) {
+                nextLeaf();
+            }
+            remaining--;
+            index++;
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int skipped = Math.min(n, remaining);
+            remaining -= skipped;
+            int k = skipped - (leaf == null ? 0 : leaf.length - index);
+            if (k <= 0) {
+                index += skipped;
+            } else if (remaining > 0) {
+                // Whole pending subtrees are dropped, only the subtree
+                // containing the target is descended into.
+                Node node = pending.pop();
+                while (!(node instanceof Leaf) || k >= node.size) {
+                    if (k >= node.size) {
+                        k -= node.size;
+                        node = pending.pop();
+                    } else {
+                        Branch branch = (Branch) node;
+                        if (k < branch.left.size) {
+                            pending.push(branch.right);
+                            node = branch.left;
+                        } else {
+                            k -= branch.left.size;
+                            node = branch.right;
+                        }
+                    }
+                }
+                leaf = ((Leaf) node).elements;
+                index = k;
+            }
+            return skipped;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            while (remaining > 0) {
+                if (index == leaf.length) {
+                    nextLeaf();
+                }
+                Object[] src = leaf;
+                int start = index, n = Math.min(remaining, src.length - start);
+                index += n;
+                remaining -= n;
+                for (int i = start; i < start + n; i++) {
+                    action.accept((E) src[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Traverses all the elements of a tree in reverse order, keeping a stack of
+     * the left siblings on the path to the current leaf.
+     */
+    private static final class ReversedTreeSource<E>
+            extends AbstractRichIterator<E>
+    {
+        private final ArrayDeque<Node> pending = new ArrayDeque<>();
+        private Object[] leaf = new Object[0];
+        private int index = 0, remaining;
+
+        ReversedTreeSource(Node root)
+        {
+            super(new KnownSize(root == null ? 0 : root.size));
+            this.remaining = root == null ? 0 : root.size;
+            if (root != null) {
+                pending.push(root);
+            }
+        }
+
+        private void previousLeaf()
+        {
+            Node node = pending.pop();
+            while (node instanceof Branch) {
+                Branch branch = (Branch) node;
+                pending.push(branch.left);
+                node = branch.right;
+            }
+            leaf = ((Leaf) node).elements;
+            index = leaf.length;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return remaining > 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E nextImpl()
+        {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            } else if (index == 0) {
+                previousLeaf();
+            }
+            remaining--;
+            return (E) leaf[--index];
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            } else if (index == 0) {
+                previousLeaf();
+            }
+            remaining--;
+            index--;
+        }
+    }
+}
@@ -0,0 +1,982 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.Pipeline;
+import com.github.maumay.jflow.vec.Vec;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Implementation of {@link Pipeline} as an immutable array of stages. Each
+ * stage can either be attached to an iterator as the corresponding adapter or
+ * opened as a sink which elements are pushed into. Sinks report whether they
+ * want more elements so short circuiting stages stop the traversal of the
+ * source. Stages are typed on objects internally, the public signatures
+ * guarantee the casts are safe. Every traversal ends in a terminal stage
+ * which either passes elements to an action or folds them. A compiled
+ * pipeline additionally holds a copy of {@link FusedStage} for each of its
+ * stages and for its terminal stage which replace the sinks, and its lazy
+ * applications are driven by these copies rather than by adapters.
+ *
+ * @param <A> The type of the elements entering the pipeline.
+ * @param <B> The type of the elements leaving the pipeline.
+ *
+ * @author t
+ */
+public final class PipelineImpl<A, B> implements Pipeline<A, B>
+{
+    private static final PipelineImpl<?, ?> IDENTITY = new PipelineImpl<>(
+            new Stage[0]);
+
+    /**
+     * Opens the terminal stages of pipelines which have not been compiled.
+     */
+    private static final CompiledStage TERMINALS = new FusedStage(
+            FusedStage.FOR_EACH, null, null, 0);
+
+    private final Stage[] stages;
+    private final boolean shortCircuits, expands, empty;
+
+    /**
+     * The compiled stages followed by a compiled terminal stage, null if this
+     * pipeline has not been compiled.
+     */
+    private final CompiledStage[] compiled;
+
+    private PipelineImpl(Stage[] stages)
+    {
+        this(stages, null);
+    }
+
+    private PipelineImpl(Stage[] stages, CompiledStage[] compiled)
+    {
+        this.stages = stages;
+        this.compiled = compiled;
+        boolean shortCircuits = false, expands = false, empty = false;
+        for (Stage stage : stages) {
+            shortCircuits |= stage.shortCircuits();
+            expands |= stage instanceof FlatMapStage;
+            empty |= stage instanceof TakeStage && ((TakeStage) stage).n == 0;
+        }
+        this.shortCircuits = shortCircuits;
+        this.expands = expands;
+        this.empty = empty;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PipelineImpl<E, E> identity()
+    {
+        return (PipelineImpl<E, E>) IDENTITY;
+    }
+
+    /**
+     * Creates a pipeline consisting of these stages followed by the given one,
+     * fusing it into the last stage where possible. If this pipeline is
+     * compiled then so is the result.
+     */
+    private <C> PipelineImpl<A, C> then(Stage stage)
+    {
+        int n = stages.length;
+        Stage fused = n > 0 ? stages[n - 1].fuse(stage) : null;
+        if (fused != null) {
+            Stage[] extended = stages.clone();
+            extended[n - 1] = fused;
+            return new PipelineImpl<>(extended, recompile(extended, n - 1));
+        } else {
+            Stage[] extended = Arrays.copyOf(stages, n + 1);
+            extended[n] = stage;
+            return new PipelineImpl<>(extended, recompile(extended, n));
+        }
+    }
+
+    /**
+     * Compiles the stages of a pipeline extending this one, reusing the copies
+     * of the stages it shares with this pipeline.
+     *
+     * @param extended The stages of the extending pipeline.
+     * @param from     The index of the first stage differing from this
+     *                 pipeline.
+     * @return The compiled stages of the extending pipeline, null if this
+     *         pipeline is not compiled or the new stages cannot be.
+     */
+    private CompiledStage[] recompile(Stage[] extended, int from)
+    {
+        if (compiled == null) {
+            return null;
+        }
+        CompiledStage[] copies = Arrays.copyOf(compiled, extended.length + 1);
+        copies[extended.length] = compiled[stages.length];
+        try {
+            for (int i = from; i < extended.length; i++) {
+                copies[i] = extended[i].compile();
+            }
+            return copies;
+        } catch (IOException | ReflectiveOperationException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <C> PipelineImpl<A, C> map(Function<? super B, ? extends C> fn)
+    {
+        return then(new MapStage((Function<Object, Object>) fn));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public PipelineImpl<A, B> filter(Predicate<? super B> predicate)
+    {
+        return then(new FilterStage((Predicate<Object>) predicate));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <C> PipelineImpl<A, C> flatMap(
+            Function<? super B, ? extends Iterator<? extends C>> fn)
+    {
+        return then(new FlatMapStage(
+                (Function<Object, ? extends Iterator<?>>) fn));
+    }
+
+    @Override
+    public PipelineImpl<A, B> take(int n)
+    {
+        return then(new TakeStage(IteratorSizes.requireNonNegative(n)));
+    }
+
+    @Override
+    public PipelineImpl<A, B> skip(int n)
+    {
+        return then(new SkipStage(IteratorSizes.requireNonNegative(n)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public PipelineImpl<A, B> takeWhile(Predicate<? super B> predicate)
+    {
+        return then(new TakeWhileStage((Predicate<Object>) predicate));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public PipelineImpl<A, B> skipWhile(Predicate<? super B> predicate)
+    {
+        return then(new SkipWhileStage((Predicate<Object>) predicate));
+    }
+
+    @Override
+    public <C> PipelineImpl<A, C> andThen(Pipeline<B, C> next)
+    {
+        PipelineImpl<A, ?> result = this;
+        for (Stage stage : ((PipelineImpl<?, ?>) next).stages) {
+            result = result.then(stage);
+        }
+        @SuppressWarnings("unchecked")
+        PipelineImpl<A, C> typed = (PipelineImpl<A, C>) result;
+        return typed;
+    }
+
+    @Override
+    public PipelineImpl<A, B> compile()
+    {
+        if (compiled != null) {
+            return this;
+        }
+        try {
+            CompiledStage[] copies = new CompiledStage[stages.length + 1];
+            for (int i = 0; i < stages.length; i++) {
+                copies[i] = stages[i].compile();
+            }
+            copies[stages.length] = compiledCopy(FusedStage.FOR_EACH, null,
+                    null, 0);
+            return new PipelineImpl<>(stages, copies);
+        } catch (IOException | ReflectiveOperationException | LinkageError ex) {
+            // The platform does not allow the copies to be defined.
+            return this;
+        }
+    }
+
+    /**
+     * @return Whether this pipeline runs on compiled stages.
+     */
+    public boolean isCompiled()
+    {
+        return compiled != null;
+    }
+
+    private static CompiledStage compiledCopy(int kind, Object fn,
+            Object predicate, int n)
+            throws IOException, ReflectiveOperationException
+    {
+        return (CompiledStage) ClassCloner.copyOf(FusedStage.class)
+                .getConstructor(int.class, Object.class, Object.class,
+                        int.class)
+                .newInstance(kind, fn, predicate, n);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public AbstractRichIterator<B> apply(Iterator<? extends A> source)
+    {
+        if (compiled != null) {
+            AbstractRichIterator<?> wrapped = IteratorWrapper.wrap(source);
+            wrapped.relinquishOwnership();
+            AbstractIteratorSize size = wrapped.getSize();
+            for (Stage stage : stages) {
+                size = stage.size(size);
+            }
+            Buffer buffer = new Buffer();
+            Sink head = open(terminal(FusedStage.FOR_EACH, buffer, null, null));
+            return new CompiledIterator<>(size, wrapped, compiled[0], head,
+                    buffer, !empty);
+        }
+        AbstractRichIterator<Object> iterator;
+        if (source instanceof AbstractRichIterator<?>) {
+            iterator = (AbstractRichIterator<Object>) source;
+        } else {
+            iterator = new IteratorWrapper.OfObject<>(source);
+        }
+        for (Stage stage : stages) {
+            iterator = stage.attach(iterator);
+        }
+        return (AbstractRichIterator<B>) iterator;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public VecImpl<B> apply(Iterable<? extends A> source)
+    {
+        // Without flattening the output can be no larger than a vector source.
+        ArrayAccumulators.OfObject<B> dest;
+        if (source instanceof Vec<?> && !expands) {
+            int bound = ((Vec<?>) source).size();
+            dest = ArrayAccumulators.createObjectAccumulator(bound);
+        } else {
+            dest = ArrayAccumulators.createObjectAccumulator();
+        }
+        Consumer<Object> action = x -> dest.add((B) x);
+        push(source.iterator(), terminal(FusedStage.FOR_EACH, action, null,
+                null));
+        return new VecImpl<>(dest.compress());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(Iterable<? extends A> source,
+            Consumer<? super B> action)
+    {
+        Objects.requireNonNull(action);
+        push(source.iterator(), terminal(FusedStage.FOR_EACH, action, null,
+                null));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R> R fold(Iterable<? extends A> source, R id,
+            BiFunction<R, ? super B, R> reducer)
+    {
+        Objects.requireNonNull(reducer);
+        Terminal terminal = terminal(FusedStage.FOLD, reducer, null, id);
+        push(source.iterator(), terminal);
+        return (R) terminal.result();
+    }
+
+    @Override
+    public int foldInt(Iterable<? extends A> source,
+            ToIntFunction<? super B> fn, int id, IntBinaryOperator reducer)
+    {
+        Terminal terminal = terminal(FusedStage.FOLD_INT,
+                Objects.requireNonNull(fn), Objects.requireNonNull(reducer),
+                id);
+        push(source.iterator(), terminal);
+        return (Integer) terminal.result();
+    }
+
+    @Override
+    public long foldLong(Iterable<? extends A> source,
+            ToLongFunction<? super B> fn, long id, LongBinaryOperator reducer)
+    {
+        Terminal terminal = terminal(FusedStage.FOLD_LONG,
+                Objects.requireNonNull(fn), Objects.requireNonNull(reducer),
+                id);
+        push(source.iterator(), terminal);
+        return (Long) terminal.result();
+    }
+
+    @Override
+    public double foldDouble(Iterable<? extends A> source,
+            ToDoubleFunction<? super B> fn, double id,
+            DoubleBinaryOperator reducer)
+    {
+        Terminal terminal = terminal(FusedStage.FOLD_DOUBLE,
+                Objects.requireNonNull(fn), Objects.requireNonNull(reducer),
+                id);
+        push(source.iterator(), terminal);
+        return (Double) terminal.result();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Consumer<A> into(Consumer<? super B> downstream)
+    {
+        Objects.requireNonNull(downstream);
+        Sink head = open(terminal(FusedStage.FOR_EACH, downstream, null, null));
+        return new Consumer<A>()
+        {
+            private boolean accepting = !empty;
+
+            @Override
+            public void accept(A element)
+            {
+                if (accepting) {
+                    accepting = head.accept(element);
+                }
+            }
+        };
+    }
+
+    /**
+     * Opens the terminal stage of a traversal, see {@link FusedStage} for the
+     * meaning of the arguments.
+     */
+    private Terminal terminal(int kind, Object fn, Object reducer, Object id)
+    {
+        CompiledStage factory = compiled != null ? compiled[stages.length]
+                                                 : TERMINALS;
+        return factory.terminal(kind, fn, reducer, id);
+    }
+
+    private Sink open(Sink terminal)
+    {
+        Sink head = terminal;
+        if (compiled != null) {
+            for (int i = stages.length - 1; i >= 0; i--) {
+                head = compiled[i].open(head);
+            }
+        } else {
+            for (int i = stages.length - 1; i >= 0; i--) {
+                head = stages[i].open(head);
+            }
+        }
+        return head;
+    }
+
+    private void push(Iterator<? extends A> source, Sink terminal)
+    {
+        if (empty) {
+            return;
+        }
+        Sink head = open(terminal);
+        if (compiled != null) {
+            compiled[0].drive(head, IteratorWrapper.wrap(source));
+        } else if (!shortCircuits
+                && source instanceof AbstractRichIterator<?>) {
+            // Nothing can stop the traversal so the source can push.
+            ((AbstractRichIterator<? extends A>) source).forEach(head::accept);
+        } else {
+            boolean accepting = true;
+            while (accepting && source.hasNext()) {
+                accepting = head.accept(source.next());
+            }
+        }
+    }
+
+    /**
+     * Receives the elements pushed through a pipeline. This is public only so
+     * the copies of {@link FusedStage} can implement it.
+     */
+    @FunctionalInterface
+    public interface Sink
+    {
+        /**
+         * @param element The element to receive.
+         * @return Whether this sink wants to receive further elements.
+         */
+        boolean accept(Object element);
+    }
+
+    /**
+     * The last sink of a traversal. This is public only so the copies of
+     * {@link FusedStage} can implement it.
+     */
+    public interface Terminal extends Sink
+    {
+        /**
+         * @return The reduction of a folding terminal stage, boxed if it is
+         *         primitive, or null for any other terminal stage.
+         */
+        Object result();
+    }
+
+    /**
+     * A stage of a compiled pipeline. This is public only so the copies of
+     * {@link FusedStage} can implement it.
+     */
+    public interface CompiledStage
+    {
+        /**
+         * @param downstream The sink receiving the output of this stage.
+         * @return A new sink applying this stage to each element it receives.
+         */
+        Sink open(Sink downstream);
+
+        /**
+         * @param kind    The kind of terminal stage, one of the constants of
+         *                {@link FusedStage}.
+         * @param fn      The action to apply to each element, the reducer of an
+         *                object fold or the mapping of a primitive fold.
+         * @param reducer The reducer of a primitive fold, null otherwise.
+         * @param id      The initial value of a fold, null otherwise.
+         * @return A new terminal stage.
+         */
+        Terminal terminal(int kind, Object fn, Object reducer, Object id);
+
+        /**
+         * Pushes the elements of a source into a sink until either is
+         * exhausted. The source is traversed without ownership checks.
+         *
+         * @param head   A sink opened from this stage.
+         * @param source The source of the elements.
+         * @return Whether the sink still accepts elements.
+         */
+        boolean drive(Sink head, AbstractRichIterator<?> source);
+    }
+
+    private static abstract class Stage
+    {
+        abstract AbstractRichIterator<Object> attach(
+                AbstractRichIterator<Object> source);
+
+        /**
+         * @return A compiled copy of this stage.
+         */
+        abstract CompiledStage compile()
+                throws IOException, ReflectiveOperationException;
+
+        /**
+         * Creates a sink applying this stage to each element it receives
+         * before passing the result on, it is created afresh for each
+         * traversal so may hold state.
+         */
+        abstract Sink open(Sink downstream);
+
+        /**
+         * @return A single stage equivalent to this stage followed by the
+         *         given one or null if they cannot be fused.
+         */
+        Stage fuse(Stage next)
+        {
+            return null;
+        }
+
+        /**
+         * @return Whether this stage can stop accepting elements before the
+         *         source is exhausted.
+         */
+        boolean shortCircuits()
+        {
+            return false;
+        }
+
+        /**
+         * @return The size of the output of this stage given the size of its
+         *         input, as the corresponding adapter computes it.
+         */
+        AbstractIteratorSize size(AbstractIteratorSize input)
+        {
+            return input.dropLowerBound();
+        }
+    }
+
+    private static final class MapStage extends Stage
+    {
+        final Function<Object, Object> fn;
+
+        MapStage(Function<Object, Object> fn)
+        {
+            this.fn = Objects.requireNonNull(fn);
+        }
+
+        @Override
+        AbstractRichIterator<Object> attach(AbstractRichIterator<Object> source)
+        {
+            return source.map(fn);
+        }
+
+        @Override
+        AbstractIteratorSize size(AbstractIteratorSize input)
+        {
+            return input;
+        }
+
+        @Override
+        CompiledStage compile() throws IOException, ReflectiveOperationException
+        {
+            return compiledCopy(FusedStage.MAP, fn, null, 0);
+        }
+
+        @Override
+        Sink open(Sink downstream)
+        {
+            return x -> downstream.accept(fn.apply(x));
+        }
+
+        @Override
+        Stage fuse(Stage next)
+        {
+            if (next instanceof MapStage) {
+                return new MapStage(fn.andThen(((MapStage) next).fn));
+            } else if (next instanceof FilterStage) {
+                return new MapFilterStage(fn, ((FilterStage) next).predicate);
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private static final class FilterStage extends Stage
+    {
+        final Predicate<Object> predicate;
+
+        FilterStage(Predicate<Object> predicate)
+        {
+            this.predicate = Objects.requireNonNull(predicate);
+        }
+
+        @Override
+        AbstractRichIterator<Object> attach(AbstractRichIterator<Object> source)
+        {
+            return source.filter(predicate);
+        }
+
+        @Override
+        CompiledStage compile() throws IOException, ReflectiveOperationException
+        {
+            return compiledCopy(FusedStage.FILTER, null, predicate, 0);
+        }
+
+        @Override
+        Sink open(Sink downstream)
+        {
+            return x -> !predicate.test(x) || downstream.accept(x);
+        }
+
+        @Override
+        Stage fuse(Stage next)
+        {
+            if (next instanceof FilterStage) {
+                return new FilterStage(
+                        predicate.and(((FilterStage) next).predicate));
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private static final class MapFilterStage extends Stage
+    {
+        final Function<Object, Object> fn;
+        final Predicate<Object> predicate;
+
+        MapFilterStage(Function<Object, Object> fn, Predicate<Object> predicate)
+        {
+            this.fn = fn;
+            this.predicate = predicate;
+        }
+
+        @Override
+        AbstractRichIterator<Object> attach(AbstractRichIterator<Object> source)
+        {
+            // The adapters fuse these into a single map filter adapter.
+            return source.map(fn).filter(predicate);
+        }
+
+        @Override
+        CompiledStage compile() throws IOException, ReflectiveOperationException
+        {
+            return compiledCopy(FusedStage.MAP_FILTER, fn, predicate, 0);
+        }
+
+        @Override
+        Sink open(Sink downstream)
+        {
+            return x -> {
+                Object mapped = fn.apply(x);
+                return !predicate.test(mapped) || downstream.accept(mapped);
+            };
+        }
+
+        @Override
+        Stage fuse(Stage next)
+        {
+            if (next instanceof FilterStage) {
+                return new MapFilterStage(fn,
+                        predicate.and(((FilterStage) next).predicate));
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private static final class FlatMapStage extends Stage
+    {
+        final Function<Object, ? extends Iterator<?>> fn;
+
+        FlatMapStage(Function<Object, ? extends Iterator<?>> fn)
+        {
+            this.fn = Objects.requireNonNull(fn);
+        }
+
+        @Override
+        AbstractRichIterator<Object> attach(AbstractRichIterator<Object> source)
+        {
+            return source.flatMap(fn);
+        }
+
+        @Override
+        AbstractIteratorSize size(AbstractIteratorSize input)
+        {
+            return new LowerBound(0);
+        }
+
+        @Override
+        CompiledStage compile() throws IOException, ReflectiveOperationException
+        {
+            return compiledCopy(FusedStage.FLAT_MAP, fn, null, 0);
+        }
+
+        @Override
+        Sink open(Sink downstream)
+        {
+            return x -> {
+                Iterator<?> images = fn.apply(x);
+                while (images.hasNext()) {
+                    if (!downstream.accept(images.next())) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+    }
+
+    private static final class TakeStage extends Stage
+    {
+        final int n;
+
+        TakeStage(int n)
+        {
+            this.n = n;
+        }
+
+        @Override
+        AbstractRichIterator<Object> attach(AbstractRichIterator<Object> source)
+        {
+            return source.take(n);
+        }
+
+        @Override
+        AbstractIteratorSize size(AbstractIteratorSize input)
+        {
+            return input.min(n);
+        }
+
+        @Override
+        CompiledStage compile() throws IOException, ReflectiveOperationException
+        {
+            return compiledCopy(FusedStage.TAKE, null, null, n);
+        }
+
+        @Override
+        Sink open(Sink downstream)
+        {
+            return new Sink()
+            {
+                private int count = 0;
+
+                @Override
+                public boolean accept(Object element)
+                {
+                    // Stop as soon as the last element is taken so no further
+                    // elements are pulled from the source.
+                    return downstream.accept(element) && ++count < n;
+                }
+            };
+        }
+
+        @Override
+        Stage fuse(Stage next)
+        {
+            if (next instanceof TakeStage) {
+                return new TakeStage(Math.min(n, ((TakeStage) next).n));
+            } else {
+                return null;
+            }
+        }
+
+        @Override
+        boolean shortCircuits()
+        {
+            return true;
+        }
+    }
+
+    private static final class SkipStage extends Stage
+    {
+        final int n;
+
+        SkipStage(int n)
+        {
+            this.n = n;
+        }
+
+        @Override
+        AbstractRichIterator<Object> attach(AbstractRichIterator<Object> source)
+        {
+            return source.skip(n);
+        }
+
+        @Override
+        AbstractIteratorSize size(AbstractIteratorSize input)
+        {
+            return input.subtract(n);
+        }
+
+        @Override
+        CompiledStage compile() throws IOException, ReflectiveOperationException
+        {
+            return compiledCopy(FusedStage.SKIP, null, null, n);
+        }
+
+        @Override
+        Sink open(Sink downstream)
+        {
+            return new Sink()
+            {
+                private int count = 0;
+
+                @Override
+                public boolean accept(Object element)
+                {
+                    if (count < n) {
+                        count++;
+                        return true;
+                    } else {
+                        return downstream.accept(element);
+                    }
+                }
+            };
+        }
+
+        @Override
+        Stage fuse(Stage next)
+        {
+            if (next instanceof SkipStage) {
+                long total = (long) n + ((SkipStage) next).n;
+                return new SkipStage((int) Math.min(total, Integer.MAX_VALUE));
+            } else {
+                return null;
+            }
+        }
+    }
+
+    private static final class TakeWhileStage extends Stage
+    {
+        final Predicate<Object> predicate;
+
+        TakeWhileStage(Predicate<Object> predicate)
+        {
+            this.predicate = Objects.requireNonNull(predicate);
+        }
+
+        @Override
+        AbstractRichIterator<Object> attach(AbstractRichIterator<Object> source)
+        {
+            return source.takeWhile(predicate);
+        }
+
+        @Override
+        CompiledStage compile() throws IOException, ReflectiveOperationException
+        {
+            return compiledCopy(FusedStage.TAKE_WHILE, null, predicate, 0);
+        }
+
+        @Override
+        Sink open(Sink downstream)
+        {
+            return x -> predicate.test(x) && downstream.accept(x);
+        }
+
+        @Override
+        boolean shortCircuits()
+        {
+            return true;
+        }
+    }
+
+    private static final class SkipWhileStage extends Stage
+    {
+        final Predicate<Object> predicate;
+
+        SkipWhileStage(Predicate<Object> predicate)
+        {
+            this.predicate = Objects.requireNonNull(predicate);
+        }
+
+        @Override
+        AbstractRichIterator<Object> attach(AbstractRichIterator<Object> source)
+        {
+            return source.skipWhile(predicate);
+        }
+
+        @Override
+        CompiledStage compile() throws IOException, ReflectiveOperationException
+        {
+            return compiledCopy(FusedStage.SKIP_WHILE, null, predicate, 0);
+        }
+
+        @Override
+        Sink open(Sink downstream)
+        {
+            return new Sink()
+            {
+                private boolean skipping = true;
+
+                @Override
+                public boolean accept(Object element)
+                {
+                    if (skipping && predicate.test(element)) {
+                        return true;
+                    }
+                    skipping = false;
+                    return downstream.accept(element);
+                }
+            };
+        }
+    }
+
+    /**
+     * Holds the elements which have been pushed through the stages of a
+     * compiled pipeline but not yet pulled by its lazy application. While an
+     * action is set elements are passed straight to it instead.
+     */
+    private static final class Buffer implements Consumer<Object>
+    {
+        private Object[] elements = new Object[8];
+        private int head, tail;
+        private Consumer<Object> action;
+
+        @Override
+        public void accept(Object element)
+        {
+            if (action != null) {
+                action.accept(element);
+            } else {
+                if (tail == elements.length) {
+                    elements = Arrays.copyOf(elements, 2 * tail);
+                }
+                elements[tail++] = element;
+            }
+        }
+
+        boolean isEmpty()
+        {
+            return head == tail;
+        }
+
+        Object poll()
+        {
+            Object next = elements[head];
+            elements[head++] = null;
+            if (head == tail) {
+                // Elements are only pushed once the buffer is drained.
+                head = tail = 0;
+            }
+            return next;
+        }
+    }
+
+    /**
+     * The lazy application of a compiled pipeline. Pulling an element pushes
+     * elements of the source through the compiled stages until one reaches
+     * the buffer, internal iteration drains the buffer and then runs the rest
+     * of the traversal in the compiled loop.
+     */
+    private static final class CompiledIterator<B>
+            extends AbstractRichIterator<B>
+    {
+        private final AbstractRichIterator<?> source;
+        private final CompiledStage driver;
+        private final Sink head;
+        private final Buffer buffer;
+        private boolean accepting;
+
+        CompiledIterator(AbstractIteratorSize size,
+                AbstractRichIterator<?> source, CompiledStage driver,
+                Sink head, Buffer buffer, boolean accepting)
+        {
+            super(size);
+            this.source = source;
+            this.driver = driver;
+            this.head = head;
+            this.buffer = buffer;
+            this.accepting = accepting;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (buffer.isEmpty() && accepting && source.hasNext()) {
+                accepting = head.accept(source.nextImpl());
+            }
+            return !buffer.isEmpty();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public B nextImpl()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (B) buffer.poll();
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextImpl();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemainingImpl(Consumer<? super B> action)
+        {
+            while (!buffer.isEmpty()) {
+                action.accept((B) buffer.poll());
+            }
+            if (accepting) {
+                buffer.action = (Consumer<Object>) action;
+                accepting = driver.drive(head, source);
+                buffer.action = null;
+            }
+        }
+    }
+}
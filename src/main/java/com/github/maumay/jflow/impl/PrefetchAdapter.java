@@ -0,0 +1,499 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.PrefetchIterator;
+
+import java.lang.ref.WeakReference;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Adapters draining their source on a dedicated daemon thread into a bounded
+ * ring buffer so that producing elements (typically blocking on I/O) overlaps
+ * with consuming them. The buffer has a single producer and a single consumer
+ * so the only synchronization is a pair of counters recording how many
+ * elements have been written and read, a side which finds the buffer full or
+ * empty parks until the other side signals progress. The thread is started
+ * when the first element is requested. Any exception thrown by the source is
+ * rethrown to the consumer once the elements produced before it have been
+ * traversed. The thread only holds the source and the buffer, not the
+ * adapter, and while waiting for space it periodically checks whether the
+ * adapter is still reachable. A traversal which is abandoned without being
+ * closed therefore ends the thread once the adapter has been collected.
+ *
+ * @author t
+ */
+public final class PrefetchAdapter
+{
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /**
+     * How long a producer waiting for space parks before checking whether its
+     * adapter has been collected.
+     */
+    private static final long OWNER_CHECK_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(100);
+
+    private PrefetchAdapter()
+    {
+    }
+
+    private static int capacityFor(int bufferSize)
+    {
+        IteratorSizes.requirePositive(bufferSize);
+        int capacity = 1;
+        while (capacity < bufferSize && capacity < (1 << 30)) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * The synchronization shared by every element type, subclasses move
+     * elements between the source and the slots of a typed array. A ring must
+     * not refer to the adapter which owns it, see {@link #owner}.
+     */
+    abstract static class Ring implements Runnable
+    {
+        final int mask;
+        /**
+         * The adapter consuming from this ring, once it has been collected no
+         * one is left to consume or close so the producer stops.
+         */
+        private WeakReference<Object> owner;
+        private final AtomicLong written = new AtomicLong(),
+                read = new AtomicLong();
+        private volatile boolean done, closed;
+        private volatile boolean producerWaiting, consumerWaiting;
+        private volatile Throwable failure;
+        private volatile Thread producer, consumer;
+        private long position, knownWritten;
+
+        Ring(int capacity)
+        {
+            this.mask = capacity - 1;
+        }
+
+        final void setOwner(Object adapter)
+        {
+            this.owner = new WeakReference<>(adapter);
+        }
+
+        /**
+         * @return Whether the source has another element, called on the
+         *         producer thread.
+         */
+        abstract boolean sourceHasNext();
+
+        /**
+         * Moves the next element of the source into the given slot, called on
+         * the producer thread.
+         */
+        abstract void pull(int slot);
+
+        @Override
+        public final void run()
+        {
+            try {
+                long count = 0;
+                while (!closed && sourceHasNext()) {
+                    awaitSpace(count);
+                    if (closed) {
+                        break;
+                    }
+                    pull((int) count & mask);
+                    written.set(++count);
+                    if (consumerWaiting) {
+                        LockSupport.unpark(consumer);
+                    }
+                }
+            } catch (Throwable ex) {
+                failure = ex;
+            } finally {
+                done = true;
+                Thread waiting = consumer;
+                if (waiting != null) {
+                    LockSupport.unpark(waiting);
+                }
+            }
+        }
+
+        private void awaitSpace(long count)
+        {
+            while (count - read.get() > mask && !closed) {
+                if (owner.get() == null) {
+                    closed = true;
+                    break;
+                }
+                producerWaiting = true;
+                if (count - read.get() > mask && !closed) {
+                    LockSupport.parkNanos(this, OWNER_CHECK_NANOS);
+                }
+                producerWaiting = false;
+            }
+        }
+
+        /**
+         * @return The slot holding the next element, or -1 if the traversal
+         *         is over, called on the consumer thread.
+         */
+        final int peek()
+        {
+            if (closed) {
+                return -1;
+            } else if (position < knownWritten) {
+                return (int) position & mask;
+            }
+            if (producer == null) {
+                Thread thread = new Thread(this,
+                        "jflow-prefetch-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                producer = thread;
+                thread.start();
+            }
+            while (true) {
+                if (closed) {
+                    return -1;
+                }
+                boolean finished = done;
+                knownWritten = written.get();
+                if (position < knownWritten) {
+                    return (int) position & mask;
+                } else if (finished) {
+                    rethrowFailure();
+                    return -1;
+                }
+                consumer = Thread.currentThread();
+                consumerWaiting = true;
+                if (written.get() == position && !done && !closed) {
+                    LockSupport.park(this);
+                }
+                consumerWaiting = false;
+            }
+        }
+
+        private void rethrowFailure()
+        {
+            Throwable ex = failure;
+            if (ex instanceof RuntimeException) {
+                throw (RuntimeException) ex;
+            } else if (ex instanceof Error) {
+                throw (Error) ex;
+            } else if (ex != null) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        /**
+         * Frees the slot of the element last returned by {@link #peek()},
+         * called on the consumer thread.
+         */
+        final void release()
+        {
+            read.set(++position);
+            if (producerWaiting) {
+                LockSupport.unpark(producer);
+            }
+        }
+
+        /**
+         * Stops the traversal, which may be called from any thread. Both
+         * sides are woken so neither stays parked waiting for the other.
+         */
+        final void close()
+        {
+            closed = true;
+            Thread thread = producer;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+            Thread waiting = consumer;
+            if (waiting != null) {
+                LockSupport.unpark(waiting);
+            }
+        }
+    }
+
+    private static final class ObjectRing<E> extends Ring
+    {
+        final AbstractRichIterator<E> source;
+        final Object[] slots;
+
+        ObjectRing(AbstractRichIterator<E> source, int capacity)
+        {
+            super(capacity);
+            this.source = source;
+            this.slots = new Object[capacity];
+        }
+
+        @Override
+        boolean sourceHasNext()
+        {
+            return source.hasNext();
+        }
+
+        @Override
+        void pull(int slot)
+        {
+            slots[slot] = source.nextImpl();
+        }
+    }
+
+    private static final class IntRing extends Ring
+    {
+        final AbstractIntIterator source;
+        final int[] slots;
+
+        IntRing(AbstractIntIterator source, int capacity)
+        {
+            super(capacity);
+            this.source = source;
+            this.slots = new int[capacity];
+        }
+
+        @Override
+        boolean sourceHasNext()
+        {
+            return source.hasNext();
+        }
+
+        @Override
+        void pull(int slot)
+        {
+            slots[slot] = source.nextIntImpl();
+        }
+    }
+
+    private static final class LongRing extends Ring
+    {
+        final AbstractLongIterator source;
+        final long[] slots;
+
+        LongRing(AbstractLongIterator source, int capacity)
+        {
+            super(capacity);
+            this.source = source;
+            this.slots = new long[capacity];
+        }
+
+        @Override
+        boolean sourceHasNext()
+        {
+            return source.hasNext();
+        }
+
+        @Override
+        void pull(int slot)
+        {
+            slots[slot] = source.nextLongImpl();
+        }
+    }
+
+    private static final class DoubleRing extends Ring
+    {
+        final AbstractDoubleIterator source;
+        final double[] slots;
+
+        DoubleRing(AbstractDoubleIterator source, int capacity)
+        {
+            super(capacity);
+            this.source = source;
+            this.slots = new double[capacity];
+        }
+
+        @Override
+        boolean sourceHasNext()
+        {
+            return source.hasNext();
+        }
+
+        @Override
+        void pull(int slot)
+        {
+            slots[slot] = source.nextDoubleImpl();
+        }
+    }
+
+    public static final class OfObject<E>
+            extends AbstractIteratorAdapter.OfObject<AbstractRichIterator<E>, E>
+            implements PrefetchIterator.OfObject<E>
+    {
+        private final ObjectRing<E> ring;
+
+        public OfObject(AbstractRichIterator<E> source, int bufferSize)
+        {
+            super(source.getSize().copy(), source);
+            this.ring = new ObjectRing<>(source, capacityFor(bufferSize));
+            ring.setOwner(this);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return ring.peek() >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public E nextImpl()
+        {
+            int slot = ring.peek();
+            if (slot < 0) {
+                throw new NoSuchElementException();
+            }
+            E next = (E) ring.slots[slot];
+            ring.slots[slot] = null;
+            ring.release();
+            return next;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextImpl();
+        }
+
+        @Override
+        public void close()
+        {
+            ring.close();
+        }
+    }
+
+    public static final class OfInt
+            extends AbstractIteratorAdapter.OfInt<AbstractIntIterator>
+            implements PrefetchIterator.OfInt
+    {
+        private final IntRing ring;
+
+        public OfInt(AbstractIntIterator source, int bufferSize)
+        {
+            super(source.getSize().copy(), source);
+            this.ring = new IntRing(source, capacityFor(bufferSize));
+            ring.setOwner(this);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return ring.peek() >= 0;
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            int slot = ring.peek();
+            if (slot < 0) {
+                throw new NoSuchElementException();
+            }
+            int next = ring.slots[slot];
+            ring.release();
+            return next;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextIntImpl();
+        }
+
+        @Override
+        public void close()
+        {
+            ring.close();
+        }
+    }
+
+    public static final class OfLong
+            extends AbstractIteratorAdapter.OfLong<AbstractLongIterator>
+            implements PrefetchIterator.OfLong
+    {
+        private final LongRing ring;
+
+        public OfLong(AbstractLongIterator source, int bufferSize)
+        {
+            super(source.getSize().copy(), source);
+            this.ring = new LongRing(source, capacityFor(bufferSize));
+            ring.setOwner(this);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return ring.peek() >= 0;
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            int slot = ring.peek();
+            if (slot < 0) {
+                throw new NoSuchElementException();
+            }
+            long next = ring.slots[slot];
+            ring.release();
+            return next;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextLongImpl();
+        }
+
+        @Override
+        public void close()
+        {
+            ring.close();
+        }
+    }
+
+    public static final class OfDouble
+            extends AbstractIteratorAdapter.OfDouble<AbstractDoubleIterator>
+            implements PrefetchIterator.OfDouble
+    {
+        private final DoubleRing ring;
+
+        public OfDouble(AbstractDoubleIterator source, int bufferSize)
+        {
+            super(source.getSize().copy(), source);
+            this.ring = new DoubleRing(source, capacityFor(bufferSize));
+            ring.setOwner(this);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return ring.peek() >= 0;
+        }
+
+        @Override
+        public double nextDoubleImpl()
+        {
+            int slot = ring.peek();
+            if (slot < 0) {
+                throw new NoSuchElementException();
+            }
+            double next = ring.slots[slot];
+            ring.release();
+            return next;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextDoubleImpl();
+        }
+
+        @Override
+        public void close()
+        {
+            ring.close();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+/**
+ * Minimal insert only open addressing hash sets of primitives backing the
+ * distinct adapters. Elements are stored in a single primitive array with
+ * linear probing so nothing is boxed or allocated per element. Zero marks a
+ * free slot and so is tracked separately. The load factor is kept at most one
+ * half.
+ *
+ * @author t
+ */
+final class PrimitiveHashSets
+{
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private PrimitiveHashSets()
+    {
+    }
+
+    /**
+     * Scrambles a value so that sequential values are spread across the table
+     * rather than occupying one long probe run.
+     */
+    static int mix(long value)
+    {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int grownCapacity(int length)
+    {
+        if (length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Too many distinct elements");
+        }
+        return 2 * length;
+    }
+
+    static final class OfInt
+    {
+        private int[] elements = new int[INITIAL_CAPACITY];
+        private int mask = INITIAL_CAPACITY - 1, size;
+        private boolean hasZero;
+
+        /**
+         * @param element The element to add.
+         * @return Whether the element was absent from this set.
+         */
+        boolean add(int element)
+        {
+            if (element == 0) {
+                boolean added = !hasZero;
+                hasZero = true;
+                return added;
+            }
+            int[] es = elements;
+            int i = mix(element) & mask;
+            while (es[i] != 0) {
+                if (es[i] == element) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            es[i] = element;
+            if (++size > es.length / 2) {
+                rehash(grownCapacity(es.length));
+            }
+            return true;
+        }
+
+        private void rehash(int capacity)
+        {
+            int[] old = elements;
+            int[] es = new int[capacity];
+            int m = capacity - 1;
+            for (int element : old) {
+                if (element != 0) {
+                    int i = mix(element) & m;
+                    while (es[i] != 0) {
+                        i = (i + 1) & m;
+                    }
+                    es[i] = element;
+                }
+            }
+            elements = es;
+            mask = m;
+        }
+    }
+
+    static final class OfLong
+    {
+        private long[] elements = new long[INITIAL_CAPACITY];
+        private int mask = INITIAL_CAPACITY - 1, size;
+        private boolean hasZero;
+
+        /**
+         * @param element The element to add.
+         * @return Whether the element was absent from this set.
+         */
+        boolean add(long element)
+        {
+            if (element == 0) {
+                boolean added = !hasZero;
+                hasZero = true;
+                return added;
+            }
+            long[] es = elements;
+            int i = mix(element) & mask;
+            while (es[i] != 0) {
+                if (es[i] == element) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            es[i] = element;
+            if (++size > es.length / 2) {
+                rehash(grownCapacity(es.length));
+            }
+            return true;
+        }
+
+        private void rehash(int capacity)
+        {
+            long[] old = elements;
+            long[] es = new long[capacity];
+            int m = capacity - 1;
+            for (long element : old) {
+                if (element != 0) {
+                    int i = mix(element) & m;
+                    while (es[i] != 0) {
+                        i = (i + 1) & m;
+                    }
+                    es[i] = element;
+                }
+            }
+            elements = es;
+            mask = m;
+        }
+    }
+}
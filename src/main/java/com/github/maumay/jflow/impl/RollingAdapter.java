@@ -0,0 +1,311 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.NoSuchElementException;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Adapters computing an aggregate of each window of consecutive elements of a
+ * fixed length in a double source, one value is emitted per complete window.
+ * Each aggregate is updated in amortized constant time as the window slides
+ * rather than recomputed from scratch. The sums are recomputed exactly once
+ * per window length of elements so rounding errors cannot accumulate.
+ *
+ * @author t
+ */
+public final class RollingAdapter
+{
+    private RollingAdapter()
+    {
+    }
+
+    public static final class Sum extends Moments
+    {
+        public Sum(AbstractDoubleIterator source, int window)
+        {
+            super(source, window);
+        }
+
+        @Override
+        double value()
+        {
+            return sum;
+        }
+    }
+
+    public static final class Mean extends Moments
+    {
+        public Mean(AbstractDoubleIterator source, int window)
+        {
+            super(source, window);
+        }
+
+        @Override
+        double value()
+        {
+            return sum / window;
+        }
+    }
+
+    /**
+     * Computes the sample variance of each window.
+     */
+    public static final class Variance extends Moments
+    {
+        private double mean, squares;
+
+        public Variance(AbstractDoubleIterator source, int window)
+        {
+            super(source, requireAtLeastTwo(window));
+        }
+
+        private static int requireAtLeastTwo(int window)
+        {
+            if (window < 2) {
+                throw new IllegalArgumentException(
+                        "Variance requires a window of at least two");
+            }
+            return window;
+        }
+
+        @Override
+        void add(double element, int count)
+        {
+            double delta = element - mean;
+            mean += delta / count;
+            squares += delta * (element - mean);
+        }
+
+        @Override
+        void replace(double removed, double added)
+        {
+            double oldMean = mean;
+            mean += (added - removed) / window;
+            squares += (added - removed)
+                    * (added - mean + removed - oldMean);
+        }
+
+        @Override
+        void recompute()
+        {
+            super.recompute();
+            mean = sum / window;
+            squares = 0;
+            for (double element : ring) {
+                double delta = element - mean;
+                squares += delta * delta;
+            }
+        }
+
+        @Override
+        double value()
+        {
+            // Rounding can make the running value slightly negative.
+            return Math.max(0, squares / (window - 1));
+        }
+    }
+
+    public static final class Min extends Extremum
+    {
+        public Min(AbstractDoubleIterator source, int window)
+        {
+            super(source, window, false);
+        }
+    }
+
+    public static final class Max extends Extremum
+    {
+        public Max(AbstractDoubleIterator source, int window)
+        {
+            super(source, window, true);
+        }
+    }
+
+    /**
+     * Shared traversal logic, the first window length minus one elements are
+     * consumed before the first value is emitted and then a value is emitted
+     * for every further element.
+     */
+    abstract static class Rolling
+            extends AbstractIteratorAdapter.OfDouble<AbstractDoubleIterator>
+    {
+        final int window;
+        private boolean primed;
+
+        Rolling(AbstractDoubleIterator source, int window)
+        {
+            super(source.getSize()
+                    .subtract(IteratorSizes.requirePositive(window) - 1),
+                    source);
+            this.window = window;
+        }
+
+        /**
+         * Slides the window forward to include the given element.
+         */
+        abstract void push(double element);
+
+        /**
+         * @return The aggregate of the current window.
+         */
+        abstract double value();
+
+        private void prime()
+        {
+            if (!primed) {
+                primed = true;
+                AbstractDoubleIterator src = getSource();
+                for (int i = 1; i < window && src.hasNext(); i++) {
+                    push(src.nextDoubleImpl());
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            prime();
+            return getSource().hasNext();
+        }
+
+        @Override
+        public double nextDoubleImpl()
+        {
+            if (hasNext()) {
+                push(getSource().nextDoubleImpl());
+                return value();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextDoubleImpl();
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            prime();
+            getSource().forEachRemainingImpl(x -> {
+                push(x);
+                action.accept(value());
+            });
+        }
+    }
+
+    /**
+     * Keeps the elements of the current window in a ring buffer along with
+     * their sum.
+     */
+    abstract static class Moments extends Rolling
+    {
+        final double[] ring;
+        private int position, count;
+        double sum;
+
+        Moments(AbstractDoubleIterator source, int window)
+        {
+            super(source, window);
+            this.ring = new double[window];
+        }
+
+        /**
+         * Adds an element while the window is not yet full.
+         */
+        void add(double element, int count)
+        {
+        }
+
+        /**
+         * Replaces the oldest element of a full window.
+         */
+        void replace(double removed, double added)
+        {
+        }
+
+        /**
+         * Recomputes the aggregates of a full window from scratch.
+         */
+        void recompute()
+        {
+            double total = 0;
+            for (double element : ring) {
+                total += element;
+            }
+            sum = total;
+        }
+
+        @Override
+        final void push(double element)
+        {
+            if (count < window) {
+                count++;
+                sum += element;
+                add(element, count);
+            } else {
+                double removed = ring[position];
+                sum += element - removed;
+                replace(removed, element);
+            }
+            ring[position++] = element;
+            if (position == window) {
+                position = 0;
+                recompute();
+            }
+        }
+    }
+
+    /**
+     * Finds the minimum or maximum of each window with a monotonic deque,
+     * i.e. the elements of the window which are not dominated by a later
+     * element. The front of the deque is the extremum of the window and each
+     * element is added and removed at most once.
+     */
+    abstract static class Extremum extends Rolling
+    {
+        private final boolean max;
+        private final double[] values;
+        private final long[] indices;
+        private int head, size;
+        private long index;
+
+        Extremum(AbstractDoubleIterator source, int window, boolean max)
+        {
+            super(source, window);
+            this.max = max;
+            this.values = new double[window];
+            this.indices = new long[window];
+        }
+
+        @Override
+        final void push(double element)
+        {
+            if (size > 0 && indices[head] <= index - window) {
+                head = head + 1 == window ? 0 : head + 1;
+                size--;
+            }
+            while (size > 0) {
+                int back = (head + size - 1) % window;
+                if (max ? values[back] > element : values[back] < element) {
+                    break;
+                }
+                size--;
+            }
+            int tail = (head + size) % window;
+            values[tail] = element;
+            indices[tail] = index++;
+            size++;
+        }
+
+        @Override
+        final double value()
+        {
+            return values[head];
+        }
+    }
+}
@@ -3,6 +3,11 @@
  */
 package com.github.maumay.jflow.impl;
 
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
 /**
  * @author thomasb
  *
@@ -26,12 +31,21 @@ public class SkipAdapter
             this.skipped = false;
         }
 
+        /**
+         * Takes the place of the given adapter whose skip has not yet been
+         * performed, skipping the given number of elements of its source.
+         */
+        private OfObject(int skipCount, AbstractIteratorSize size,
+                SkipAdapter.OfObject<E> replaced)
+        {
+            super(replaced, size);
+            this.skipCount = skipCount;
+            this.skipped = false;
+        }
+
         private void performSkip()
         {
-            AbstractRichIterator<E> src = getSource();
-            for (int count = 0; count < skipCount && src.hasNext(); count++) {
-                src.forwardImpl();
-            }
+            getSource().skipImpl(skipCount);
             skipped = true;
         }
 
@@ -61,6 +75,45 @@ public class SkipAdapter
             }
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(Consumer<? super E> action)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            getSource().forEachRemainingImpl(action);
+        }
+
+        @Override
+        public AbstractRichIterator<E> skip(int n)
+        {
+            if (skipped) {
+                return super.skip(n);
+            }
+            IteratorSizes.requireNonNegative(n);
+            int total = (int) Math.min((long) skipCount + n, Integer.MAX_VALUE);
+            return new SkipAdapter.OfObject<E>(total, getSize().subtract(n),
+                    this);
+        }
+
+        @Override
+        public AbstractRichIterator<E> take(int n)
+        {
+            if (skipped) {
+                return super.take(n);
+            }
+            return new SkipTakeAdapter.OfObject<E>(this, skipCount, n);
+        }
     }
 
     public static final class OfInt extends
@@ -76,12 +129,21 @@ public class SkipAdapter
             this.skipped = false;
         }
 
+        /**
+         * Takes the place of the given adapter whose skip has not yet been
+         * performed, skipping the given number of elements of its source.
+         */
+        private OfInt(int skipCount, AbstractIteratorSize size,
+                SkipAdapter.OfInt replaced)
+        {
+            super(replaced, size);
+            this.skipCount = skipCount;
+            this.skipped = false;
+        }
+
         private void performSkip()
         {
-            AbstractIntIterator src = getSource();
-            for (int count = 0; count < skipCount && src.hasNext(); count++) {
-                src.forwardImpl();
-            }
+            getSource().skipImpl(skipCount);
             skipped = true;
         }
 
@@ -111,6 +173,44 @@ public class SkipAdapter
             }
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(IntConsumer action)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            getSource().forEachRemainingImpl(action);
+        }
+
+        @Override
+        public AbstractIntIterator skip(int n)
+        {
+            if (skipped) {
+                return super.skip(n);
+            }
+            IteratorSizes.requireNonNegative(n);
+            int total = (int) Math.min((long) skipCount + n, Integer.MAX_VALUE);
+            return new SkipAdapter.OfInt(total, getSize().subtract(n), this);
+        }
+
+        @Override
+        public AbstractIntIterator take(int n)
+        {
+            if (skipped) {
+                return super.take(n);
+            }
+            return new SkipTakeAdapter.OfInt(this, skipCount, n);
+        }
     }
 
     public static final class OfLong extends
@@ -126,12 +226,21 @@ public class SkipAdapter
             this.skipped = false;
         }
 
+        /**
+         * Takes the place of the given adapter whose skip has not yet been
+         * performed, skipping the given number of elements of its source.
+         */
+        private OfLong(int skipCount, AbstractIteratorSize size,
+                SkipAdapter.OfLong replaced)
+        {
+            super(replaced, size);
+            this.skipCount = skipCount;
+            this.skipped = false;
+        }
+
         private void performSkip()
         {
-            AbstractLongIterator src = getSource();
-            for (int count = 0; count < skipCount && src.hasNext(); count++) {
-                src.forwardImpl();
-            }
+            getSource().skipImpl(skipCount);
             skipped = true;
         }
 
@@ -161,6 +270,44 @@ public class SkipAdapter
             }
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(LongConsumer action)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            getSource().forEachRemainingImpl(action);
+        }
+
+        @Override
+        public AbstractLongIterator skip(int n)
+        {
+            if (skipped) {
+                return super.skip(n);
+            }
+            IteratorSizes.requireNonNegative(n);
+            int total = (int) Math.min((long) skipCount + n, Integer.MAX_VALUE);
+            return new SkipAdapter.OfLong(total, getSize().subtract(n), this);
+        }
+
+        @Override
+        public AbstractLongIterator take(int n)
+        {
+            if (skipped) {
+                return super.take(n);
+            }
+            return new SkipTakeAdapter.OfLong(this, skipCount, n);
+        }
     }
 
     public static final class OfDouble
@@ -176,12 +323,21 @@ public class SkipAdapter
             this.skipped = false;
         }
 
+        /**
+         * Takes the place of the given adapter whose skip has not yet been
+         * performed, skipping the given number of elements of its source.
+         */
+        private OfDouble(int skipCount, AbstractIteratorSize size,
+                SkipAdapter.OfDouble replaced)
+        {
+            super(replaced, size);
+            this.skipCount = skipCount;
+            this.skipped = false;
+        }
+
         private void performSkip()
         {
-            AbstractDoubleIterator src = getSource();
-            for (int count = 0; count < skipCount && src.hasNext(); count++) {
-                src.forwardImpl();
-            }
+            getSource().skipImpl(skipCount);
             skipped = true;
         }
 
@@ -211,5 +367,43 @@ public class SkipAdapter
             }
             getSource().forwardImpl();
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            return getSource().skipImpl(n);
+        }
+
+        @Override
+        public void forEachRemainingImpl(DoubleConsumer action)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            getSource().forEachRemainingImpl(action);
+        }
+
+        @Override
+        public AbstractDoubleIterator skip(int n)
+        {
+            if (skipped) {
+                return super.skip(n);
+            }
+            IteratorSizes.requireNonNegative(n);
+            int total = (int) Math.min((long) skipCount + n, Integer.MAX_VALUE);
+            return new SkipAdapter.OfDouble(total, getSize().subtract(n), this);
+        }
+
+        @Override
+        public AbstractDoubleIterator take(int n)
+        {
+            if (skipped) {
+                return super.take(n);
+            }
+            return new SkipTakeAdapter.OfDouble(this, skipCount, n);
+        }
     }
 }
@@ -0,0 +1,300 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Adapters produced by fusing a skip adapter with a subsequent take adapter,
+ * they skip a number of elements of their source and then traverse at most a
+ * fixed number of the remaining elements.
+ *
+ * @author t
+ */
+public final class SkipTakeAdapter
+{
+    private SkipTakeAdapter()
+    {
+    }
+
+    public static final class OfObject<E> extends
+            AbstractIteratorAdapter.OfObject<AbstractRichIterator<E>, E>
+    {
+        private final int skipCount, takeCount;
+        private int count;
+        private boolean skipped;
+
+        OfObject(SkipAdapter.OfObject<E> replaced, int skipCount, int takeCount)
+        {
+            super(replaced, replaced.getSize().min(takeCount));
+            this.skipCount = skipCount;
+            this.takeCount = IteratorSizes.requireNonNegative(takeCount);
+            this.count = 0;
+            this.skipped = false;
+        }
+
+        private void performSkip()
+        {
+            getSource().skipImpl(skipCount);
+            skipped = true;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            return count < takeCount && getSource().hasNext();
+        }
+
+        @Override
+        public E nextImpl()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            if (count++ < takeCount) {
+                return getSource().nextImpl();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            if (count++ < takeCount) {
+                getSource().forwardImpl();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            int limit = Math.min(n, Math.max(0, takeCount - count));
+            int skippedCount = getSource().skipImpl(limit);
+            count += skippedCount;
+            return skippedCount;
+        }
+    }
+
+    public static final class OfInt extends
+            AbstractIteratorAdapter.OfInt<AbstractIntIterator>
+    {
+        private final int skipCount, takeCount;
+        private int count;
+        private boolean skipped;
+
+        OfInt(SkipAdapter.OfInt replaced, int skipCount, int takeCount)
+        {
+            super(replaced, replaced.getSize().min(takeCount));
+            this.skipCount = skipCount;
+            this.takeCount = IteratorSizes.requireNonNegative(takeCount);
+            this.count = 0;
+            this.skipped = false;
+        }
+
+        private void performSkip()
+        {
+            getSource().skipImpl(skipCount);
+            skipped = true;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            return count < takeCount && getSource().hasNext();
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            if (count++ < takeCount) {
+                return getSource().nextIntImpl();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            if (count++ < takeCount) {
+                getSource().forwardImpl();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            int limit = Math.min(n, Math.max(0, takeCount - count));
+            int skippedCount = getSource().skipImpl(limit);
+            count += skippedCount;
+            return skippedCount;
+        }
+    }
+
+    public static final class OfLong extends
+            AbstractIteratorAdapter.OfLong<AbstractLongIterator>
+    {
+        private final int skipCount, takeCount;
+        private int count;
+        private boolean skipped;
+
+        OfLong(SkipAdapter.OfLong replaced, int skipCount, int takeCount)
+        {
+            super(replaced, replaced.getSize().min(takeCount));
+            this.skipCount = skipCount;
+            this.takeCount = IteratorSizes.requireNonNegative(takeCount);
+            this.count = 0;
+            this.skipped = false;
+        }
+
+        private void performSkip()
+        {
+            getSource().skipImpl(skipCount);
+            skipped = true;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            return count < takeCount && getSource().hasNext();
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            if (count++ < takeCount) {
+                return getSource().nextLongImpl();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            if (count++ < takeCount) {
+                getSource().forwardImpl();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            int limit = Math.min(n, Math.max(0, takeCount - count));
+            int skippedCount = getSource().skipImpl(limit);
+            count += skippedCount;
+            return skippedCount;
+        }
+    }
+
+    public static final class OfDouble extends
+            AbstractIteratorAdapter.OfDouble<AbstractDoubleIterator>
+    {
+        private final int skipCount, takeCount;
+        private int count;
+        private boolean skipped;
+
+        OfDouble(SkipAdapter.OfDouble replaced, int skipCount, int takeCount)
+        {
+            super(replaced, replaced.getSize().min(takeCount));
+            this.skipCount = skipCount;
+            this.takeCount = IteratorSizes.requireNonNegative(takeCount);
+            this.count = 0;
+            this.skipped = false;
+        }
+
+        private void performSkip()
+        {
+            getSource().skipImpl(skipCount);
+            skipped = true;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            return count < takeCount && getSource().hasNext();
+        }
+
+        @Override
+        public double nextDoubleImpl()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            if (count++ < takeCount) {
+                return getSource().nextDoubleImpl();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            if (count++ < takeCount) {
+                getSource().forwardImpl();
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            if (!skipped) {
+                performSkip();
+            }
+            int limit = Math.min(n, Math.max(0, takeCount - count));
+            int skippedCount = getSource().skipImpl(limit);
+            count += skippedCount;
+            return skippedCount;
+        }
+    }
+}
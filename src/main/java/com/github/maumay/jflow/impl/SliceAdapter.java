@@ -50,11 +50,9 @@ public class SliceAdapter
         private boolean cacheNextElement()
         {
             AbstractRichIterator<E> src = getSource();
-            while (iteratorCount < checkpoint) {
-                if (src.hasNext()) {
-                    src.forwardImpl();
-                    iteratorCount++;
-                } else {
+            if (iteratorCount < checkpoint) {
+                iteratorCount += src.skipImpl(checkpoint - iteratorCount);
+                if (iteratorCount < checkpoint) {
                     return false;
                 }
             }
@@ -134,11 +132,9 @@ public class SliceAdapter
         private boolean cacheNextElement()
         {
             AbstractIntIterator src = getSource();
-            while (iteratorCount < checkpoint) {
-                if (src.hasNext()) {
-                    src.forwardImpl();
-                    iteratorCount++;
-                } else {
+            if (iteratorCount < checkpoint) {
+                iteratorCount += src.skipImpl(checkpoint - iteratorCount);
+                if (iteratorCount < checkpoint) {
                     return false;
                 }
             }
@@ -218,11 +214,9 @@ public class SliceAdapter
         private boolean cacheNextElement()
         {
             AbstractLongIterator src = getSource();
-            while (iteratorCount < checkpoint) {
-                if (src.hasNext()) {
-                    src.forwardImpl();
-                    iteratorCount++;
-                } else {
+            if (iteratorCount < checkpoint) {
+                iteratorCount += src.skipImpl(checkpoint - iteratorCount);
+                if (iteratorCount < checkpoint) {
                     return false;
                 }
             }
@@ -303,11 +297,9 @@ public class SliceAdapter
         private boolean cacheNextElement()
         {
             AbstractDoubleIterator src = getSource();
-            while (iteratorCount < checkpoint) {
-                if (src.hasNext()) {
-                    src.forwardImpl();
-                    iteratorCount++;
-                } else {
+            if (iteratorCount < checkpoint) {
+                iteratorCount += src.skipImpl(checkpoint - iteratorCount);
+                if (iteratorCount < checkpoint) {
                     return false;
                 }
             }
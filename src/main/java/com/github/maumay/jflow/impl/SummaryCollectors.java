@@ -0,0 +1,163 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.DoubleIterator;
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.LongIterator;
+import com.github.maumay.jflow.utils.DoubleSummary;
+import com.github.maumay.jflow.utils.IntSummary;
+import com.github.maumay.jflow.utils.LongSummary;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Backs the summarising collectors, which compute the summary statistics of a
+ * primitive iterator in a single pass. The variance is accumulated with
+ * Welford's algorithm which, unlike accumulating the sum of squares, does not
+ * lose precision when the mean is large relative to the spread of the values.
+ *
+ * @author t
+ */
+public final class SummaryCollectors
+{
+    private SummaryCollectors()
+    {
+    }
+
+    public static IntSummary summarize(IntIterator source)
+    {
+        return new IntAccumulator().collect(source);
+    }
+
+    private static final class IntAccumulator implements IntConsumer
+    {
+        private long count;
+        private long sum;
+        private int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        private double mean, squaredDeviations;
+
+        IntSummary collect(IntIterator source)
+        {
+            if (source instanceof AbstractIntIterator) {
+                AbstractIntIterator src = (AbstractIntIterator) source;
+                src.relinquishOwnership();
+                src.forEachRemainingImpl(this);
+            } else {
+                while (source.hasNext()) {
+                    accept(source.nextInt());
+                }
+            }
+            return count == 0 ? IntSummary.empty()
+                    : new IntSummary(count, sum, min, max,
+                            squaredDeviations);
+        }
+
+        @Override
+        public void accept(int value)
+        {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            double delta = value - mean;
+            mean += delta / count;
+            squaredDeviations += delta * (value - mean);
+        }
+    }
+
+    public static LongSummary summarize(LongIterator source)
+    {
+        return new LongAccumulator().collect(source);
+    }
+
+    private static final class LongAccumulator implements LongConsumer
+    {
+        private long count;
+        private long sum;
+        private long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        private double mean, squaredDeviations;
+
+        LongSummary collect(LongIterator source)
+        {
+            if (source instanceof AbstractLongIterator) {
+                AbstractLongIterator src = (AbstractLongIterator) source;
+                src.relinquishOwnership();
+                src.forEachRemainingImpl(this);
+            } else {
+                while (source.hasNext()) {
+                    accept(source.nextLong());
+                }
+            }
+            return count == 0 ? LongSummary.empty()
+                    : new LongSummary(count, sum, min, max,
+                            squaredDeviations);
+        }
+
+        @Override
+        public void accept(long value)
+        {
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            double delta = value - mean;
+            mean += delta / count;
+            squaredDeviations += delta * (value - mean);
+        }
+    }
+
+    public static DoubleSummary summarize(DoubleIterator source)
+    {
+        return new DoubleAccumulator().collect(source);
+    }
+
+    private static final class DoubleAccumulator implements DoubleConsumer
+    {
+        private long count;
+        private double sum;
+        /** The rounding error lost from the sum so far. */
+        private double compensation;
+        private double min = Double.POSITIVE_INFINITY,
+                max = Double.NEGATIVE_INFINITY;
+        private double mean, squaredDeviations;
+
+        DoubleSummary collect(DoubleIterator source)
+        {
+            if (source instanceof AbstractDoubleIterator) {
+                AbstractDoubleIterator src = (AbstractDoubleIterator) source;
+                src.relinquishOwnership();
+                src.forEachRemainingImpl(this);
+            } else {
+                while (source.hasNext()) {
+                    accept(source.nextDouble());
+                }
+            }
+            return count == 0 ? DoubleSummary.empty()
+                    : new DoubleSummary(count, sum + compensation, min, max,
+                            squaredDeviations);
+        }
+
+        @Override
+        public void accept(double value)
+        {
+            count++;
+            // Neumaier's variant of compensated summation.
+            double next = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - next) + value;
+            } else {
+                compensation += (value - next) + sum;
+            }
+            sum = next;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            double delta = value - mean;
+            mean += delta / count;
+            squaredDeviations += delta * (value - mean);
+        }
+    }
+}
@@ -28,6 +28,18 @@ public class TakeAdapter
             this.count = 0;
         }
 
+        /**
+         * Takes the place of the given adapter, taking at most the given number
+         * of elements from its source.
+         */
+        private OfObject(int takeCount, AbstractIteratorSize size,
+                TakeAdapter.OfObject<E> replaced)
+        {
+            super(replaced, size);
+            this.takeCount = takeCount;
+            this.count = 0;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -53,6 +65,24 @@ public class TakeAdapter
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int limit = Math.min(n, Math.max(0, takeCount - count));
+            int skipped = getSource().skipImpl(limit);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public AbstractRichIterator<E> take(int n)
+        {
+            IteratorSizes.requireNonNegative(n);
+            int remaining = Math.max(0, takeCount - count);
+            return new TakeAdapter.OfObject<E>(Math.min(remaining, n),
+                    getSize().min(n), this);
+        }
     }
 
     public static final class OfInt extends
@@ -68,6 +98,18 @@ public class TakeAdapter
             this.count = 0;
         }
 
+        /**
+         * Takes the place of the given adapter, taking at most the given number
+         * of elements from its source.
+         */
+        private OfInt(int takeCount, AbstractIteratorSize size,
+                TakeAdapter.OfInt replaced)
+        {
+            super(replaced, size);
+            this.takeCount = takeCount;
+            this.count = 0;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -93,6 +135,24 @@ public class TakeAdapter
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int limit = Math.min(n, Math.max(0, takeCount - count));
+            int skipped = getSource().skipImpl(limit);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public AbstractIntIterator take(int n)
+        {
+            IteratorSizes.requireNonNegative(n);
+            int remaining = Math.max(0, takeCount - count);
+            return new TakeAdapter.OfInt(Math.min(remaining, n),
+                    getSize().min(n), this);
+        }
     }
 
     public static final class OfLong extends
@@ -108,6 +168,18 @@ public class TakeAdapter
             this.count = 0;
         }
 
+        /**
+         * Takes the place of the given adapter, taking at most the given number
+         * of elements from its source.
+         */
+        private OfLong(int takeCount, AbstractIteratorSize size,
+                TakeAdapter.OfLong replaced)
+        {
+            super(replaced, size);
+            this.takeCount = takeCount;
+            this.count = 0;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -133,6 +205,24 @@ public class TakeAdapter
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int limit = Math.min(n, Math.max(0, takeCount - count));
+            int skipped = getSource().skipImpl(limit);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public AbstractLongIterator take(int n)
+        {
+            IteratorSizes.requireNonNegative(n);
+            int remaining = Math.max(0, takeCount - count);
+            return new TakeAdapter.OfLong(Math.min(remaining, n),
+                    getSize().min(n), this);
+        }
     }
 
     public static final class OfDouble
@@ -148,6 +238,18 @@ public class TakeAdapter
             this.count = 0;
         }
 
+        /**
+         * Takes the place of the given adapter, taking at most the given number
+         * of elements from its source.
+         */
+        private OfDouble(int takeCount, AbstractIteratorSize size,
+                TakeAdapter.OfDouble replaced)
+        {
+            super(replaced, size);
+            this.takeCount = takeCount;
+            this.count = 0;
+        }
+
         @Override
         public boolean hasNext()
         {
@@ -173,5 +275,23 @@ public class TakeAdapter
                 throw new NoSuchElementException();
             }
         }
+
+        @Override
+        public int skipImpl(int n)
+        {
+            int limit = Math.min(n, Math.max(0, takeCount - count));
+            int skipped = getSource().skipImpl(limit);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public AbstractDoubleIterator take(int n)
+        {
+            IteratorSizes.requireNonNegative(n);
+            int remaining = Math.max(0, takeCount - count);
+            return new TakeAdapter.OfDouble(Math.min(remaining, n),
+                    getSize().min(n), this);
+        }
     }
 }
@@ -0,0 +1,584 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.collector.IteratorCollector;
+import com.github.maumay.jflow.vec.Vec;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Selects the k greatest (or least) elements of an iterator in a single pass
+ * using a binary heap bounded at k elements, so the cost is O(n log k) time
+ * and O(k) space rather than sorting everything. The root of each heap is the
+ * worst element retained so far, a new element only enters the heap if it is
+ * better than the root which it then replaces. Heaps of primitives hold them
+ * in primitive arrays. The heaps start small and grow up to k so a large k
+ * does not allocate up front. The results are sorted best first, the order of
+ * equal elements is unspecified.
+ *
+ * @author t
+ */
+public final class TopK
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private TopK()
+    {
+    }
+
+    private static int initialCapacity(int k)
+    {
+        return Math.min(IteratorSizes.requireNonNegative(k), INITIAL_CAPACITY);
+    }
+
+    private static int grownCapacity(int length, int k)
+    {
+        return (int) Math.min(k, 2L * length);
+    }
+
+    public static final class OfObject<E>
+            implements IteratorCollector<E, Vec<E>>
+    {
+        private final int k;
+        private final Comparator<? super E> order;
+
+        /**
+         * @param k     The maximum number of elements to select.
+         * @param order The comparator under which the greatest elements are
+         *              selected.
+         */
+        public OfObject(int k, Comparator<? super E> order)
+        {
+            this.k = IteratorSizes.requireNonNegative(k);
+            this.order = Objects.requireNonNull(order);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Vec<E> collect(Iterator<? extends E> source)
+        {
+            ObjectHeap<E> heap = new ObjectHeap<>(k, order);
+            if (source instanceof AbstractRichIterator<?>) {
+                AbstractRichIterator<E> src = (AbstractRichIterator<E>) source;
+                src.relinquishOwnership();
+                src.forEachRemainingImpl(heap);
+            } else {
+                while (source.hasNext()) {
+                    heap.accept(source.next());
+                }
+            }
+            return new VecImpl<>(heap.sorted());
+        }
+    }
+
+    public static final class ByDoubleKey<E>
+            implements IteratorCollector<E, Vec<E>>
+    {
+        private final int k;
+        private final boolean greatest;
+        private final ToDoubleFunction<? super E> key;
+
+        /**
+         * @param k        The maximum number of elements to select.
+         * @param greatest Whether to select the elements with the greatest
+         *                 keys rather than the least.
+         * @param key      The function computing the key of each element.
+         */
+        public ByDoubleKey(int k, boolean greatest,
+                ToDoubleFunction<? super E> key)
+        {
+            this.k = IteratorSizes.requireNonNegative(k);
+            this.greatest = greatest;
+            this.key = Objects.requireNonNull(key);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Vec<E> collect(Iterator<? extends E> source)
+        {
+            KeyedHeap<E> heap = new KeyedHeap<>(k, greatest, key);
+            if (source instanceof AbstractRichIterator<?>) {
+                AbstractRichIterator<E> src = (AbstractRichIterator<E>) source;
+                src.relinquishOwnership();
+                src.forEachRemainingImpl(heap);
+            } else {
+                while (source.hasNext()) {
+                    heap.accept(source.next());
+                }
+            }
+            return new VecImpl<>(heap.sorted());
+        }
+    }
+
+    public static IntVecImpl select(AbstractIntIterator source, int k,
+            boolean greatest)
+    {
+        IteratorSizes.requireNonNegative(k);
+        source.relinquishOwnership();
+        IntHeap heap = new IntHeap(k, greatest);
+        source.forEachRemainingImpl(heap);
+        return new IntVecImpl(heap.sorted());
+    }
+
+    private static final class IntHeap implements IntConsumer
+    {
+        private final int k;
+        private final boolean greatest;
+        private int[] heap;
+        private int size;
+
+        IntHeap(int k, boolean greatest)
+        {
+            this.k = k;
+            this.greatest = greatest;
+            this.heap = new int[initialCapacity(k)];
+        }
+
+        /**
+         * @return Whether the first element is worse than the second, i.e.
+         *         should be closer to the root.
+         */
+        private boolean worse(int a, int b)
+        {
+            return greatest ? a < b : a > b;
+        }
+
+        @Override
+        public void accept(int element)
+        {
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, grownCapacity(size, k));
+                }
+                heap[size] = element;
+                siftUp(size++);
+            } else if (size > 0 && worse(heap[0], element)) {
+                heap[0] = element;
+                siftDown(0, size);
+            }
+        }
+
+        private void siftUp(int index)
+        {
+            int element = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(element, heap[parent])) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = element;
+        }
+
+        private void siftDown(int index, int end)
+        {
+            int element = heap[index];
+            int child;
+            while ((child = 2 * index + 1) < end) {
+                if (child + 1 < end && worse(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!worse(heap[child], element)) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = element;
+        }
+
+        /**
+         * Sorts the heap in place by repeatedly moving the root to the end.
+         */
+        int[] sorted()
+        {
+            for (int end = size - 1; end > 0; end--) {
+                int root = heap[0];
+                heap[0] = heap[end];
+                heap[end] = root;
+                siftDown(0, end);
+            }
+            return size == heap.length ? heap : Arrays.copyOf(heap, size);
+        }
+    }
+
+    public static LongVecImpl select(AbstractLongIterator source, int k,
+            boolean greatest)
+    {
+        IteratorSizes.requireNonNegative(k);
+        source.relinquishOwnership();
+        LongHeap heap = new LongHeap(k, greatest);
+        source.forEachRemainingImpl(heap);
+        return new LongVecImpl(heap.sorted());
+    }
+
+    private static final class LongHeap implements LongConsumer
+    {
+        private final int k;
+        private final boolean greatest;
+        private long[] heap;
+        private int size;
+
+        LongHeap(int k, boolean greatest)
+        {
+            this.k = k;
+            this.greatest = greatest;
+            this.heap = new long[initialCapacity(k)];
+        }
+
+        /**
+         * @return Whether the first element is worse than the second, i.e.
+         *         should be closer to the root.
+         */
+        private boolean worse(long a, long b)
+        {
+            return greatest ? a < b : a > b;
+        }
+
+        @Override
+        public void accept(long element)
+        {
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, grownCapacity(size, k));
+                }
+                heap[size] = element;
+                siftUp(size++);
+            } else if (size > 0 && worse(heap[0], element)) {
+                heap[0] = element;
+                siftDown(0, size);
+            }
+        }
+
+        private void siftUp(int index)
+        {
+            long element = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(element, heap[parent])) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = element;
+        }
+
+        private void siftDown(int index, int end)
+        {
+            long element = heap[index];
+            int child;
+            while ((child = 2 * index + 1) < end) {
+                if (child + 1 < end && worse(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!worse(heap[child], element)) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = element;
+        }
+
+        /**
+         * Sorts the heap in place by repeatedly moving the root to the end.
+         */
+        long[] sorted()
+        {
+            for (int end = size - 1; end > 0; end--) {
+                long root = heap[0];
+                heap[0] = heap[end];
+                heap[end] = root;
+                siftDown(0, end);
+            }
+            return size == heap.length ? heap : Arrays.copyOf(heap, size);
+        }
+    }
+
+    public static DoubleVecImpl select(AbstractDoubleIterator source, int k,
+            boolean greatest)
+    {
+        IteratorSizes.requireNonNegative(k);
+        source.relinquishOwnership();
+        DoubleHeap heap = new DoubleHeap(k, greatest);
+        source.forEachRemainingImpl(heap);
+        return new DoubleVecImpl(heap.sorted());
+    }
+
+    private static final class DoubleHeap implements DoubleConsumer
+    {
+        private final int k;
+        private final boolean greatest;
+        private double[] heap;
+        private int size;
+
+        DoubleHeap(int k, boolean greatest)
+        {
+            this.k = k;
+            this.greatest = greatest;
+            this.heap = new double[initialCapacity(k)];
+        }
+
+        /**
+         * @return Whether the first element is worse than the second, i.e.
+         *         should be closer to the root.
+         */
+        private boolean worse(double a, double b)
+        {
+            return greatest ? Double.compare(a, b) < 0
+                    : Double.compare(a, b) > 0;
+        }
+
+        @Override
+        public void accept(double element)
+        {
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, grownCapacity(size, k));
+                }
+                heap[size] = element;
+                siftUp(size++);
+            } else if (size > 0 && worse(heap[0], element)) {
+                heap[0] = element;
+                siftDown(0, size);
+            }
+        }
+
+        private void siftUp(int index)
+        {
+            double element = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(element, heap[parent])) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = element;
+        }
+
+        private void siftDown(int index, int end)
+        {
+            double element = heap[index];
+            int child;
+            while ((child = 2 * index + 1) < end) {
+                if (child + 1 < end && worse(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!worse(heap[child], element)) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = element;
+        }
+
+        /**
+         * Sorts the heap in place by repeatedly moving the root to the end.
+         */
+        double[] sorted()
+        {
+            for (int end = size - 1; end > 0; end--) {
+                double root = heap[0];
+                heap[0] = heap[end];
+                heap[end] = root;
+                siftDown(0, end);
+            }
+            return size == heap.length ? heap : Arrays.copyOf(heap, size);
+        }
+    }
+
+    private static final class ObjectHeap<E> implements Consumer<E>
+    {
+        private final int k;
+        private final Comparator<? super E> order;
+        private Object[] heap;
+        private int size;
+
+        ObjectHeap(int k, Comparator<? super E> order)
+        {
+            this.k = k;
+            this.order = order;
+            this.heap = new Object[initialCapacity(k)];
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean worse(Object a, Object b)
+        {
+            return order.compare((E) a, (E) b) < 0;
+        }
+
+        @Override
+        public void accept(E element)
+        {
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, grownCapacity(size, k));
+                }
+                heap[size] = element;
+                siftUp(size++);
+            } else if (size > 0 && worse(heap[0], element)) {
+                heap[0] = element;
+                siftDown(0, size);
+            }
+        }
+
+        private void siftUp(int index)
+        {
+            Object element = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(element, heap[parent])) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = element;
+        }
+
+        private void siftDown(int index, int end)
+        {
+            Object element = heap[index];
+            int child;
+            while ((child = 2 * index + 1) < end) {
+                if (child + 1 < end && worse(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!worse(heap[child], element)) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = element;
+        }
+
+        Object[] sorted()
+        {
+            for (int end = size - 1; end > 0; end--) {
+                Object root = heap[0];
+                heap[0] = heap[end];
+                heap[end] = root;
+                siftDown(0, end);
+            }
+            return size == heap.length ? heap : Arrays.copyOf(heap, size);
+        }
+    }
+
+    /**
+     * Heap of elements ordered by primitive keys, the keys are computed once
+     * per element and held in an array parallel to the elements.
+     */
+    private static final class KeyedHeap<E> implements Consumer<E>
+    {
+        private final int k;
+        private final boolean greatest;
+        private final ToDoubleFunction<? super E> key;
+        private double[] keys;
+        private Object[] elements;
+        private int size;
+
+        KeyedHeap(int k, boolean greatest, ToDoubleFunction<? super E> key)
+        {
+            this.k = k;
+            this.greatest = greatest;
+            this.key = key;
+            this.keys = new double[initialCapacity(k)];
+            this.elements = new Object[keys.length];
+        }
+
+        private boolean worse(double a, double b)
+        {
+            return greatest ? Double.compare(a, b) < 0
+                    : Double.compare(a, b) > 0;
+        }
+
+        @Override
+        public void accept(E element)
+        {
+            double elementKey = key.applyAsDouble(element);
+            if (size < k) {
+                if (size == keys.length) {
+                    int capacity = grownCapacity(size, k);
+                    keys = Arrays.copyOf(keys, capacity);
+                    elements = Arrays.copyOf(elements, capacity);
+                }
+                keys[size] = elementKey;
+                elements[size] = element;
+                siftUp(size++);
+            } else if (size > 0 && worse(keys[0], elementKey)) {
+                keys[0] = elementKey;
+                elements[0] = element;
+                siftDown(0, size);
+            }
+        }
+
+        private void siftUp(int index)
+        {
+            double elementKey = keys[index];
+            Object element = elements[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(elementKey, keys[parent])) {
+                    break;
+                }
+                keys[index] = keys[parent];
+                elements[index] = elements[parent];
+                index = parent;
+            }
+            keys[index] = elementKey;
+            elements[index] = element;
+        }
+
+        private void siftDown(int index, int end)
+        {
+            double elementKey = keys[index];
+            Object element = elements[index];
+            int child;
+            while ((child = 2 * index + 1) < end) {
+                if (child + 1 < end && worse(keys[child + 1], keys[child])) {
+                    child++;
+                }
+                if (!worse(keys[child], elementKey)) {
+                    break;
+                }
+                keys[index] = keys[child];
+                elements[index] = elements[child];
+                index = child;
+            }
+            keys[index] = elementKey;
+            elements[index] = element;
+        }
+
+        Object[] sorted()
+        {
+            for (int end = size - 1; end > 0; end--) {
+                double rootKey = keys[0];
+                Object root = elements[0];
+                keys[0] = keys[end];
+                elements[0] = elements[end];
+                keys[end] = rootKey;
+                elements[end] = root;
+                siftDown(0, end);
+            }
+            return size == elements.length ? elements
+                    : Arrays.copyOf(elements, size);
+        }
+    }
+}
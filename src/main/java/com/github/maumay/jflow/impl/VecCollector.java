@@ -54,6 +54,6 @@ public class VecCollector<E> implements
     @Override
     public Supplier<OfObject<E>> supplier()
     {
-        return OfObject::new;
+        return ArrayAccumulators::createObjectAccumulator;
     }
 }
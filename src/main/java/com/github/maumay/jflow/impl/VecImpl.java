@@ -4,6 +4,7 @@
 package com.github.maumay.jflow.impl;
 
 import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.ParallelIterator;
 import com.github.maumay.jflow.iterator.RichIterator;
 import com.github.maumay.jflow.utils.Tup;
 import com.github.maumay.jflow.vec.IntVec;
@@ -21,6 +22,11 @@ import java.util.stream.StreamSupport;
  * Object array. When combined with {@link RichIterator} instances one can write
  * very clean, efficient and safe code code without ever needing to reference
  * this type directly.
+ * <p>
+ * An instance may be a view of a contiguous range of a larger array, this allows
+ * the methods which select a prefix, suffix or range of a vector to run in
+ * constant time without copying. The parent array is kept alive by such views,
+ * {@link #compact()} can be used to detach a small view from a large parent.
  *
  * @param <E> The type of the elements contained in this List.
  *
@@ -29,6 +35,7 @@ import java.util.stream.StreamSupport;
 final class VecImpl<E> implements Vec<E>
 {
     private final Object[] data;
+    private final int offset, size;
 
     public VecImpl()
     {
@@ -37,20 +44,34 @@ final class VecImpl<E> implements Vec<E>
 
     VecImpl(Object... cache)
     {
-        this.data = cache;
+        this(cache, 0, cache.length);
+    }
+
+    /**
+     * Creates a view of the elements of the given array lying in the index range
+     * [offset, offset + size), the range is assumed to be valid.
+     */
+    VecImpl(Object[] data, int offset, int size)
+    {
+        this.data = data;
+        this.offset = offset;
+        this.size = size;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public E get(int index)
     {
-        return (E) data[index];
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        }
+        return (E) data[offset + index];
     }
 
     @Override
     public int size()
     {
-        return data.length;
+        return size;
     }
 
     @Override
@@ -60,7 +81,7 @@ final class VecImpl<E> implements Vec<E>
             final Vec<?> other = (Vec<?>) obj;
             if (other.size() == size()) {
                 return Iter.until(size())
-                        .all(i -> data[i].equals(other.get(i)));
+                        .all(i -> data[offset + i].equals(other.get(i)));
             } else {
                 return false;
             }
@@ -80,9 +101,9 @@ final class VecImpl<E> implements Vec<E>
     public String toString()
     {
         final StringBuilder sb = new StringBuilder("Vec[");
-        for (int i = 0; i < data.length; i++) {
+        for (int i = offset; i < offset + size; i++) {
             sb.append(data[i].toString());
-            if (i < data.length - 1) {
+            if (i < offset + size - 1) {
                 sb.append(", ");
             }
         }
@@ -102,25 +123,36 @@ final class VecImpl<E> implements Vec<E>
         return StreamSupport.stream(spliterator(), false);
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public ParallelIterator<E> parIter()
+    {
+        E[] src = (E[]) data;
+        return new ParallelIteratorImpl.OfObject<>(size,
+                (start, end) -> new ArraySource.OfObject<>(src, offset + start,
+                        offset + end));
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public AbstractRichIterator<E> iterRev()
     {
-        return new ArraySource.OfObjectReversed<>((E[]) data);
+        return new ArraySource.OfObjectReversed<>((E[]) data, offset,
+                offset + size);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public AbstractRichIterator<E> iter()
     {
-        return new ArraySource.OfObject<E>((E[]) data);
+        return new ArraySource.OfObject<E>((E[]) data, offset, offset + size);
     }
 
     @Override
     public <R> VecImpl<R> map(Function<? super E, ? extends R> mappingFunction)
     {
-        Object[] mappedData = new Object[data.length];
-        for (int i = 0; i < data.length; i++) {
+        Object[] mappedData = new Object[size];
+        for (int i = 0; i < size; i++) {
             mappedData[i] = mappingFunction.apply(get(i));
         }
         return new VecImpl<>(mappedData);
@@ -160,9 +192,9 @@ final class VecImpl<E> implements Vec<E>
     @Override
     public Vec<E> append(E other)
     {
-        Object[] newData = new Object[size() + 1];
-        System.arraycopy(data, 0, newData, 0, data.length);
-        newData[size()] = other;
+        Object[] newData = new Object[size + 1];
+        System.arraycopy(data, offset, newData, 0, size);
+        newData[size] = other;
         return new VecImpl<>(newData);
     }
 
@@ -181,62 +213,71 @@ final class VecImpl<E> implements Vec<E>
     @Override
     public Vec<E> insert(E other)
     {
-        Object[] newData = new Object[size() + 1];
-        System.arraycopy(data, 0, newData, 1, data.length);
+        Object[] newData = new Object[size + 1];
+        System.arraycopy(data, offset, newData, 1, size);
         newData[0] = other;
         return new VecImpl<>(newData);
     }
 
+    @Override
+    public VecImpl<E> subVec(int from, int to)
+    {
+        int length = ArraySource.requireRange(size, from, to);
+        return length == size ? this : new VecImpl<>(data, offset + from, length);
+    }
+
+    @Override
+    public VecImpl<E> compact()
+    {
+        return offset == 0 && size == data.length ? this
+                : new VecImpl<>(Arrays.copyOfRange(data, offset, offset + size));
+    }
+
     @Override
     public Vec<E> take(int n)
     {
-        if (n >= size())
-            return this;
-        else if (n == 0)
-            return new VecImpl<>();
-        else
-            return iter().take(n).toVec();
+        IteratorSizes.requireNonNegative(n);
+        return subVec(0, Math.min(n, size));
     }
 
     @Override
     public Vec<E> takeWhile(Predicate<? super E> predicate)
     {
-        return iter().takeWhile(predicate).toVec();
+        return subVec(0, prefixLength(predicate));
     }
 
     @Override
     public Vec<E> skip(int n)
     {
-        if (n == 0)
-            return this;
-        else if (n >= size())
-            return new VecImpl<>();
-        else
-            return iter().skip(n).toVec();
+        IteratorSizes.requireNonNegative(n);
+        return subVec(Math.min(n, size), size);
     }
 
     @Override
     public VecImpl<E> skipWhile(Predicate<? super E> predicate)
     {
-        return iter().skipWhile(predicate).toVec();
+        return subVec(prefixLength(predicate), size);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Tup<Vec<E>, Vec<E>> span(Predicate<? super E> predicate)
+    {
+        int split = prefixLength(predicate);
+        return Tup.of(subVec(0, split), subVec(split, size));
+    }
+
+    /**
+     * Computes the length of the longest prefix of this vector whose elements all
+     * pass the given predicate.
+     */
+    @SuppressWarnings("unchecked")
+    private int prefixLength(Predicate<? super E> predicate)
     {
         int split = 0;
-        for (Object o : data) {
-            if (predicate.test((E) o)) {
-                split++;
-            } else {
-                break;
-            }
+        while (split < size && predicate.test((E) data[offset + split])) {
+            split++;
         }
-        Object[] first = new Object[split], second = new Object[data.length - split];
-        System.arraycopy(data, 0, first, 0, first.length);
-        System.arraycopy(data, first.length, second, 0, second.length);
-        return Tup.of(new VecImpl<>(first), new VecImpl<>(second));
+        return split;
     }
 
     @SuppressWarnings("unchecked")
@@ -246,7 +287,8 @@ final class VecImpl<E> implements Vec<E>
         int n = size();
         Object[] tmp = new Object[size()];
         int trueIndex = 0, falseIndex = 0;
-        for (Object o : data) {
+        for (int i = offset; i < offset + size; i++) {
+            Object o = data[i];
             if (predicate.test((E) o)) {
                 tmp[trueIndex++] = o;
             } else {
@@ -266,8 +308,8 @@ final class VecImpl<E> implements Vec<E>
     public Set<E> toSet()
     {
         Set<E> set = new HashSet<>(size());
-        for (Object o : data) {
-            set.add((E) o);
+        for (int i = offset; i < offset + size; i++) {
+            set.add((E) data[i]);
         }
         return set;
     }
@@ -277,8 +319,8 @@ final class VecImpl<E> implements Vec<E>
     public List<E> toList()
     {
         List<E> list = new ArrayList<>(size());
-        for (Object o : data) {
-            list.add((E) o);
+        for (int i = offset; i < offset + size; i++) {
+            list.add((E) data[i]);
         }
         return list;
     }
@@ -287,7 +329,7 @@ final class VecImpl<E> implements Vec<E>
     @Override
     public Vec<E> sorted(Comparator<? super E> orderingFunction)
     {
-        Object[] dcpy = Arrays.copyOf(data, size());
+        Object[] dcpy = Arrays.copyOfRange(data, offset, offset + size);
         Arrays.sort(dcpy, (o1, o2) -> orderingFunction.compare((E) o1, (E) o2));
         return new VecImpl<>(dcpy);
     }
@@ -0,0 +1,307 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Adapters emitting the sliding windows of a fixed length over a primitive
+ * source, the start of each window being a fixed step after the start of the
+ * previous one. Windows which would extend past the end of the source are not
+ * emitted. Elements are read into a shared buffer and each window is an
+ * immutable view of a region of it so no elements are copied per window.
+ * When the buffer fills up the current window is moved into a new one, the
+ * old buffer is never written to again so previously emitted windows stay
+ * valid, which is why the window cannot be compacted in place. The buffer
+ * starts no longer than the source and grows to at least twice the window
+ * length, after which the cost of these moves is constant per element.
+ *
+ * @author t
+ */
+public final class WindowAdapter
+{
+    private static final int MIN_BUFFER_LENGTH = 256;
+
+    private WindowAdapter()
+    {
+    }
+
+    private static int bufferLength(int windowSize)
+    {
+        // Some virtual machines reserve a few header words in arrays.
+        return (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.max(2L * windowSize, MIN_BUFFER_LENGTH));
+    }
+
+    /**
+     * @return The length of the buffer first allocated, which is the upper
+     *         bound on the size of the source if there is one so a large
+     *         window does not cost a large allocation for a short source.
+     */
+    private static int initialLength(AbstractIterator source, int windowSize)
+    {
+        int length = bufferLength(windowSize);
+        AbstractIteratorSize size = source.getSize();
+        switch (size.getType()) {
+            case EXACT:
+                return Math.max(1,
+                        Math.min(length, ((KnownSize) size).getValue()));
+            case BOUNDED:
+                return Math.max(1,
+                        Math.min(length, ((BoundedSize) size).upper()));
+            default:
+                return Math.min(length, MIN_BUFFER_LENGTH);
+        }
+    }
+
+    /**
+     * @return The length of the buffer replacing a full one of the given
+     *         length, doubling it until it reaches its final length.
+     */
+    private static int grownLength(int length, int windowSize)
+    {
+        return (int) Math.min(bufferLength(windowSize), 2L * length);
+    }
+
+    public static final class OfInt extends
+            AbstractIteratorAdapter.OfObject<AbstractIntIterator, IntVec>
+    {
+        private final int windowSize, step;
+
+        private int[] buffer;
+        /** The current window occupies [start, start + windowSize). */
+        private int start, end;
+        /** Source elements to discard before the current window starts. */
+        private int gap;
+
+        public OfInt(AbstractIntIterator source, int windowSize, int step)
+        {
+            super(source.getSize()
+                    .subtract(IteratorSizes.requirePositive(windowSize) - 1)
+                    .divide(step), source);
+            this.windowSize = windowSize;
+            this.step = step;
+            this.buffer = new int[initialLength(source, windowSize)];
+        }
+
+        /**
+         * Reads elements from the source until the current window is complete
+         * or the source is exhausted.
+         *
+         * @return Whether the current window is complete.
+         */
+        private boolean fill()
+        {
+            AbstractIntIterator src = getSource();
+            if (gap > 0) {
+                gap -= src.skipImpl(gap);
+                if (gap > 0) {
+                    return false;
+                }
+            }
+            while (end - start < windowSize && src.hasNext()) {
+                if (end == buffer.length) {
+                    int[] moved = new int[grownLength(buffer.length,
+                            windowSize)];
+                    System.arraycopy(buffer, start, moved, 0, end - start);
+                    buffer = moved;
+                    end -= start;
+                    start = 0;
+                }
+                buffer[end++] = src.nextIntImpl();
+            }
+            return end - start == windowSize;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return fill();
+        }
+
+        @Override
+        public IntVec nextImpl()
+        {
+            if (!fill()) {
+                throw new NoSuchElementException();
+            }
+            IntVec window = new IntVecImpl(buffer, start, windowSize);
+            if (step < end - start) {
+                start += step;
+            } else {
+                gap = step - (end - start);
+                start = end;
+            }
+            return window;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextImpl();
+        }
+    }
+
+    public static final class OfLong extends
+            AbstractIteratorAdapter.OfObject<AbstractLongIterator, LongVec>
+    {
+        private final int windowSize, step;
+
+        private long[] buffer;
+        /** The current window occupies [start, start + windowSize). */
+        private int start, end;
+        /** Source elements to discard before the current window starts. */
+        private int gap;
+
+        public OfLong(AbstractLongIterator source, int windowSize, int step)
+        {
+            super(source.getSize()
+                    .subtract(IteratorSizes.requirePositive(windowSize) - 1)
+                    .divide(step), source);
+            this.windowSize = windowSize;
+            this.step = step;
+            this.buffer = new long[initialLength(source, windowSize)];
+        }
+
+        /**
+         * Reads elements from the source until the current window is complete
+         * or the source is exhausted.
+         *
+         * @return Whether the current window is complete.
+         */
+        private boolean fill()
+        {
+            AbstractLongIterator src = getSource();
+            if (gap > 0) {
+                gap -= src.skipImpl(gap);
+                if (gap > 0) {
+                    return false;
+                }
+            }
+            while (end - start < windowSize && src.hasNext()) {
+                if (end == buffer.length) {
+                    long[] moved = new long[grownLength(buffer.length,
+                            windowSize)];
+                    System.arraycopy(buffer, start, moved, 0, end - start);
+                    buffer = moved;
+                    end -= start;
+                    start = 0;
+                }
+                buffer[end++] = src.nextLongImpl();
+            }
+            return end - start == windowSize;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return fill();
+        }
+
+        @Override
+        public LongVec nextImpl()
+        {
+            if (!fill()) {
+                throw new NoSuchElementException();
+            }
+            LongVec window = new LongVecImpl(buffer, start, windowSize);
+            if (step < end - start) {
+                start += step;
+            } else {
+                gap = step - (end - start);
+                start = end;
+            }
+            return window;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextImpl();
+        }
+    }
+
+    public static final class OfDouble extends
+            AbstractIteratorAdapter.OfObject<AbstractDoubleIterator, DoubleVec>
+    {
+        private final int windowSize, step;
+
+        private double[] buffer;
+        /** The current window occupies [start, start + windowSize). */
+        private int start, end;
+        /** Source elements to discard before the current window starts. */
+        private int gap;
+
+        public OfDouble(AbstractDoubleIterator source, int windowSize, int step)
+        {
+            super(source.getSize()
+                    .subtract(IteratorSizes.requirePositive(windowSize) - 1)
+                    .divide(step), source);
+            this.windowSize = windowSize;
+            this.step = step;
+            this.buffer = new double[initialLength(source, windowSize)];
+        }
+
+        /**
+         * Reads elements from the source until the current window is complete
+         * or the source is exhausted.
+         *
+         * @return Whether the current window is complete.
+         */
+        private boolean fill()
+        {
+            AbstractDoubleIterator src = getSource();
+            if (gap > 0) {
+                gap -= src.skipImpl(gap);
+                if (gap > 0) {
+                    return false;
+                }
+            }
+            while (end - start < windowSize && src.hasNext()) {
+                if (end == buffer.length) {
+                    double[] moved = new double[grownLength(buffer.length,
+                            windowSize)];
+                    System.arraycopy(buffer, start, moved, 0, end - start);
+                    buffer = moved;
+                    end -= start;
+                    start = 0;
+                }
+                buffer[end++] = src.nextDoubleImpl();
+            }
+            return end - start == windowSize;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return fill();
+        }
+
+        @Override
+        public DoubleVec nextImpl()
+        {
+            if (!fill()) {
+                throw new NoSuchElementException();
+            }
+            DoubleVec window = new DoubleVecImpl(buffer, start, windowSize);
+            if (step < end - start) {
+                start += step;
+            } else {
+                gap = step - (end - start);
+                start = end;
+            }
+            return window;
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            nextImpl();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Adapters which combine the elements of two iterators sharing an index with a
+ * function, the primitive versions produce primitive iterators so no
+ * intermediate tuples are created.
+ *
+ * @author t
+ */
+public final class ZipWithAdapter
+{
+    private ZipWithAdapter()
+    {
+    }
+
+    public static final class OfObject<E1, E2, R> extends
+            AbstractIteratorBiAdapters.OfObject<AbstractRichIterator<? extends E1>, AbstractRichIterator<? extends E2>, R>
+    {
+        private final BiFunction<? super E1, ? super E2, ? extends R> combiner;
+
+        public OfObject(AbstractRichIterator<? extends E1> sourceOne,
+                AbstractRichIterator<? extends E2> sourceTwo,
+                BiFunction<? super E1, ? super E2, ? extends R> combiner)
+        {
+            super(IteratorSizes.min(sourceOne.getSize(), sourceTwo.getSize()),
+                    sourceOne,
+                    sourceTwo);
+            this.combiner = Objects.requireNonNull(combiner);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSourceOne().hasNext() && getSourceTwo().hasNext();
+        }
+
+        @Override
+        public R nextImpl()
+        {
+            return combiner.apply(getSourceOne().nextImpl(),
+                    getSourceTwo().nextImpl());
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            getSourceOne().forwardImpl();
+            getSourceTwo().forwardImpl();
+        }
+    }
+
+    public static final class OfInt extends
+            AbstractIteratorBiAdapters.OfInt<AbstractIntIterator, AbstractIntIterator>
+    {
+        private final IntBinaryOperator combiner;
+
+        public OfInt(AbstractIntIterator sourceOne,
+                AbstractIntIterator sourceTwo, IntBinaryOperator combiner)
+        {
+            super(IteratorSizes.min(sourceOne.getSize(), sourceTwo.getSize()),
+                    sourceOne,
+                    sourceTwo);
+            this.combiner = Objects.requireNonNull(combiner);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSourceOne().hasNext() && getSourceTwo().hasNext();
+        }
+
+        @Override
+        public int nextIntImpl()
+        {
+            return combiner.applyAsInt(getSourceOne().nextIntImpl(),
+                    getSourceTwo().nextIntImpl());
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            getSourceOne().forwardImpl();
+            getSourceTwo().forwardImpl();
+        }
+    }
+
+    public static final class OfLong extends
+            AbstractIteratorBiAdapters.OfLong<AbstractLongIterator, AbstractLongIterator>
+    {
+        private final LongBinaryOperator combiner;
+
+        public OfLong(AbstractLongIterator sourceOne,
+                AbstractLongIterator sourceTwo, LongBinaryOperator combiner)
+        {
+            super(IteratorSizes.min(sourceOne.getSize(), sourceTwo.getSize()),
+                    sourceOne,
+                    sourceTwo);
+            this.combiner = Objects.requireNonNull(combiner);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSourceOne().hasNext() && getSourceTwo().hasNext();
+        }
+
+        @Override
+        public long nextLongImpl()
+        {
+            return combiner.applyAsLong(getSourceOne().nextLongImpl(),
+                    getSourceTwo().nextLongImpl());
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            getSourceOne().forwardImpl();
+            getSourceTwo().forwardImpl();
+        }
+    }
+
+    public static final class OfDouble extends
+            AbstractIteratorBiAdapters.OfDouble<AbstractDoubleIterator, AbstractDoubleIterator>
+    {
+        private final DoubleBinaryOperator combiner;
+
+        public OfDouble(AbstractDoubleIterator sourceOne,
+                AbstractDoubleIterator sourceTwo, DoubleBinaryOperator combiner)
+        {
+            super(IteratorSizes.min(sourceOne.getSize(), sourceTwo.getSize()),
+                    sourceOne,
+                    sourceTwo);
+            this.combiner = Objects.requireNonNull(combiner);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return getSourceOne().hasNext() && getSourceTwo().hasNext();
+        }
+
+        @Override
+        public double nextDoubleImpl()
+        {
+            return combiner.applyAsDouble(getSourceOne().nextDoubleImpl(),
+                    getSourceTwo().nextDoubleImpl());
+        }
+
+        @Override
+        public void forwardImpl()
+        {
+            getSourceOne().forwardImpl();
+            getSourceTwo().forwardImpl();
+        }
+    }
+}
@@ -228,7 +228,7 @@ public interface RichIterable<E> extends Iterable<E>
      */
     default List<E> toList()
     {
-        return to(ArrayList::new);
+        return iter().toList();
     }
 
     /**
@@ -239,7 +239,7 @@ public interface RichIterable<E> extends Iterable<E>
      */
     default Set<E> toSet()
     {
-        return to(HashSet::new);
+        return iter().toSet();
     }
 
     /**
@@ -256,6 +256,23 @@ public interface RichIterable<E> extends Iterable<E>
         return iter().to(collectionFactory);
     }
 
+    /**
+     * Builds a collection from the elements in the iterator created by {@link
+     * #iter()}, the collection is created with an initial capacity suited to
+     * the number of elements.
+     *
+     * @param <C>               The type of collection to build
+     * @param collectionFactory A function accepting an expected number of
+     *                          elements and returning an empty, mutable
+     *                          instance of the required collection type.
+     * @return see {@link RichIterator#toSized(IntFunction)}
+     */
+    default <C extends Collection<E>> C toSized(
+            IntFunction<C> collectionFactory)
+    {
+        return iter().toSized(collectionFactory);
+    }
+
     /**
      * Builds a vector from the elements traversed by the iterator created by
      * {@link #iter()}
@@ -74,6 +74,117 @@ public interface DoubleIterator extends OptionalDoubleIterator
      */
     IntIterator mapToInt(DoubleToIntFunction f);
 
+    /**
+     * Maps elements of this {@link DoubleIterator} to primitive double iterators
+     * before sequentially concatenating them end to end, no boxing takes
+     * place.
+     *
+     * @param f A function taking elements to primitive double iterators.
+     * @return A {@link DoubleIterator} obtained by applying the mapping function
+     * to each element in turn and sequentially concatenating the results.
+     */
+    DoubleIterator flatMap(DoubleFunction<? extends PrimitiveIterator.OfDouble> f);
+
+    /**
+     * Lazily splits this {@link DoubleIterator} into consecutive chunks of the given
+     * length, the last chunk may be shorter. Each chunk is only read from
+     * this iterator when it is requested.
+     *
+     * @param n The length of the chunks, must be positive.
+     * @return A {@link RichIterator} over the chunks of this iterator.
+     * @throws IllegalArgumentException If the parameter is not positive.
+     */
+    RichIterator<DoubleVec> chunks(int n);
+
+    /**
+     * Lazily splits this {@link DoubleIterator} into consecutive chunks whose length is
+     * the length of the given buffer, the last chunk may be shorter. Each time
+     * an element of the result is requested the next chunk is written into
+     * the start of the buffer, overwriting the previous one, so no allocation
+     * takes place.
+     *
+     * @param buffer The buffer chunks are written into, it must not be empty.
+     * @return An {@link IntIterator} over the number of elements written into
+     * the buffer for each chunk.
+     * @throws IllegalArgumentException If the buffer is empty.
+     */
+    IntIterator chunksInto(double[] buffer);
+
+    /**
+     * Lazily creates the sliding windows of a fixed length over this {@link
+     * DoubleIterator}, the start of each window being a fixed step after the
+     * start of the previous one. Windows which would extend past the end of
+     * this iterator are not emitted. The windows are immutable views of a
+     * buffer shared between them so no elements are copied per window.
+     *
+     * @param size The length of each window, must be positive.
+     * @param step The distance between the starts of consecutive windows,
+     *             must be positive.
+     * @return A {@link RichIterator} over the windows of this iterator.
+     * @throws IllegalArgumentException If either parameter is not positive.
+     */
+    RichIterator<DoubleVec> windows(int size, int step);
+
+    /**
+     * Computes the sum of each window of consecutive elements of a fixed
+     * length in this {@link DoubleIterator}, i.e. element {@code i} of the
+     * result is the sum of elements {@code i} to {@code i + window - 1}.
+     * Each value is computed in amortized constant time.
+     *
+     * @param window The length of the windows, must be positive.
+     * @return A {@link DoubleIterator} over the rolling sum of this iterator.
+     * @throws IllegalArgumentException If the window is not positive.
+     */
+    DoubleIterator rollingSum(int window);
+
+    /**
+     * Computes the mean of each window of consecutive elements of a fixed
+     * length in this {@link DoubleIterator}, i.e. element {@code i} of the
+     * result is the mean of elements {@code i} to {@code i + window - 1}.
+     * Each value is computed in amortized constant time.
+     *
+     * @param window The length of the windows, must be positive.
+     * @return A {@link DoubleIterator} over the rolling mean of this iterator.
+     * @throws IllegalArgumentException If the window is not positive.
+     */
+    DoubleIterator rollingMean(int window);
+
+    /**
+     * Computes the sample variance of each window of consecutive elements of a fixed
+     * length in this {@link DoubleIterator}, i.e. element {@code i} of the
+     * result is the sample variance of elements {@code i} to {@code i + window - 1}.
+     * Each value is computed in amortized constant time.
+     *
+     * @param window The length of the windows, must be at least two.
+     * @return A {@link DoubleIterator} over the rolling sample variance of this iterator.
+     * @throws IllegalArgumentException If the window is not at least two.
+     */
+    DoubleIterator rollingVariance(int window);
+
+    /**
+     * Computes the minimum of each window of consecutive elements of a fixed
+     * length in this {@link DoubleIterator}, i.e. element {@code i} of the
+     * result is the minimum of elements {@code i} to {@code i + window - 1}.
+     * Each value is computed in amortized constant time.
+     *
+     * @param window The length of the windows, must be positive.
+     * @return A {@link DoubleIterator} over the rolling minimum of this iterator.
+     * @throws IllegalArgumentException If the window is not positive.
+     */
+    DoubleIterator rollingMin(int window);
+
+    /**
+     * Computes the maximum of each window of consecutive elements of a fixed
+     * length in this {@link DoubleIterator}, i.e. element {@code i} of the
+     * result is the maximum of elements {@code i} to {@code i + window - 1}.
+     * Each value is computed in amortized constant time.
+     *
+     * @param window The length of the windows, must be positive.
+     * @return A {@link DoubleIterator} over the rolling maximum of this iterator.
+     * @throws IllegalArgumentException If the window is not positive.
+     */
+    DoubleIterator rollingMax(int window);
+
     /**
      * Combines this {@link DoubleIterator} with another primitive iterator to
      * create a new Iterator consisting of pairs of elements with the same index
@@ -91,6 +202,26 @@ public interface DoubleIterator extends OptionalDoubleIterator
      */
     RichIterator<DoubleTup> zip(PrimitiveIterator.OfDouble other);
 
+    /**
+     * Combines this {@link DoubleIterator} with another primitive iterator by
+     * applying an operator to the pairs of elements with the same index in
+     * their respective origins. Unlike {@link #zip(PrimitiveIterator.OfDouble)} the
+     * result is a primitive iterator and no tuples are created.
+     *
+     * @param other    The primitive iterator to zip this source {@link
+     *                 DoubleIterator} with.
+     * @param combiner The operator combining the paired elements.
+     * @return Denote this source {@link DoubleIterator} by {@code F} with the
+     * parameter primitive iterator denoted by {@code I} and combining operator
+     * by {@code f}. We return a new {@link DoubleIterator} instance {@code G}
+     * defined by:
+     * <ul>
+     * <li>{@code G[j] = f(F[j], I[j])}</li>
+     * <li>{@code length(G) = min(length(F), length(I))}</li>
+     * </ul>
+     */
+    DoubleIterator zipWith(PrimitiveIterator.OfDouble other, DoubleBinaryOperator combiner);
+
     /**
      * Creates a new Iterator by mapping each element in this source {@link
      * DoubleIterator} to a pair consisting of the element and the index it
@@ -184,6 +315,53 @@ public interface DoubleIterator extends OptionalDoubleIterator
      */
     DoubleIterator filter(DoublePredicate predicate);
 
+    /**
+     * Lazily removes repeated elements from this {@link DoubleIterator}, each element
+     * is emitted at its first occurrence and the order is retained. The
+     * elements seen so far are tracked in an open addressing hash set of their bit patterns,
+     * so as for {@link Double#equals(Object)} all NaNs are equal while zero and
+     * negative zero are distinct.
+     *
+     * @return A {@link DoubleIterator} over the distinct elements of this iterator.
+     */
+    DoubleIterator distinct();
+
+    /**
+     * Lazily removes repeated elements from this {@link DoubleIterator} using a
+     * Bloom filter instead of a set, which uses a small fixed amount of memory
+     * (around ten bits per element for a one percent false positive rate).
+     * Duplicates are never emitted but false positives mean some distinct
+     * elements may be dropped, the probability of which stays below the given
+     * rate as long as there are at most the expected number of distinct
+     * elements.
+     *
+     * @param expectedCount     The expected number of distinct elements,
+     *                          must be positive.
+     * @param falsePositiveRate The acceptable probability of dropping a
+     *                          distinct element, must lie strictly between
+     *                          zero and one.
+     * @return A {@link DoubleIterator} over the elements of this iterator which were
+     * not reported as seen before by the filter.
+     */
+    DoubleIterator distinctApprox(int expectedCount, double falsePositiveRate);
+
+    /**
+     * Drains this {@link DoubleIterator} ahead of consumption on a dedicated daemon
+     * thread so that slow or blocking sources (database cursors, file readers,
+     * decoders and so on) are read concurrently with whatever work is done on
+     * the traversed elements. Up to the given number of elements are buffered.
+     * The thread is started when the first element is requested and any
+     * exception thrown while reading this iterator is rethrown to the consumer
+     * after the elements read before it. The returned iterator must be
+     * traversed from a single thread and should be closed if it may not be
+     * traversed to the end, see {@link PrefetchIterator#close()}.
+     *
+     * @param bufferSize The maximum number of elements read ahead, must be
+     *                   positive.
+     * @return A closeable {@link DoubleIterator} over the elements of this iterator.
+     */
+    PrefetchIterator.OfDouble prefetch(int bufferSize);
+
     /**
      * Creates a new {@link DoubleIterator} from this {@link DoubleIterator} by
      * adding each element of the supplied primitive iterator to its end in
@@ -287,6 +465,38 @@ public interface DoubleIterator extends OptionalDoubleIterator
      */
     double max();
 
+    /**
+     * Selects the k greatest elements of this {@link DoubleIterator} in a single
+     * pass using a heap of at most k elements, which is much cheaper than
+     * sorting when k is small relative to the number of elements. Doubles are ordered
+     * as by {@link Double#compare(double, double)}.
+     *
+     * This method is a 'consuming method', i.e. it will iterate through this
+     * {@link DoubleIterator}.
+     *
+     * @param k The maximum number of elements to select, must be
+     *          non-negative.
+     * @return A vector of the k greatest elements (or all elements if there
+     * are fewer) in descending order.
+     */
+    DoubleVec topK(int k);
+
+    /**
+     * Selects the k least elements of this {@link DoubleIterator} in a single
+     * pass using a heap of at most k elements, which is much cheaper than
+     * sorting when k is small relative to the number of elements. Doubles are ordered
+     * as by {@link Double#compare(double, double)}.
+     *
+     * This method is a 'consuming method', i.e. it will iterate through this
+     * {@link DoubleIterator}.
+     *
+     * @param k The maximum number of elements to select, must be
+     *          non-negative.
+     * @return A vector of the k least elements (or all elements if there are
+     * fewer) in ascending order.
+     */
+    DoubleVec bottomK(int k);
+
     /**
      * Checks whether every element in this {@link DoubleIterator} is the same
      * according to the equality contract: {@link Double#compare(double,
@@ -0,0 +1,71 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts elements to and from a binary form so they can be written to and
+ * later read back from temporary files, see {@link
+ * RichIterator#sortedExternal(java.util.Comparator, ElementCodec, int)}. An
+ * element read back must be equivalent to the element written with respect to
+ * the order it is being sorted by.
+ *
+ * @param <E> The type of the elements converted.
+ *
+ * @author t
+ */
+public interface ElementCodec<E>
+{
+    /**
+     * Writes the binary form of an element.
+     *
+     * @param element The element to write.
+     * @param out     The destination of the binary form.
+     * @throws IOException If the destination cannot be written to.
+     */
+    void write(E element, DataOutput out) throws IOException;
+
+    /**
+     * Reads an element back from the binary form written by {@link
+     * #write(Object, DataOutput)}.
+     *
+     * @param in The source of the binary form.
+     * @return The element which was written.
+     * @throws IOException If the source cannot be read from.
+     */
+    E read(DataInput in) throws IOException;
+
+    /**
+     * Retrieves a codec for non-null strings of any length, which are stored
+     * as UTF-8 bytes prefixed by their count.
+     *
+     * @return A codec for strings.
+     */
+    static ElementCodec<String> strings()
+    {
+        return new ElementCodec<String>()
+        {
+            @Override
+            public void write(String element, DataOutput out)
+                    throws IOException
+            {
+                byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException
+            {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
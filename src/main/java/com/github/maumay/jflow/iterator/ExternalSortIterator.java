@@ -0,0 +1,46 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+/**
+ * An iterator over elements sorted with the help of temporary files, see
+ * {@link RichIterator#sortedExternal(java.util.Comparator, ElementCodec, int)}.
+ * The files are deleted as they are read so a traversal which runs to the end
+ * leaves nothing behind. Closing it deletes the files which are still
+ * outstanding and closes the files still open, after which no further
+ * elements are traversed. It should be closed whenever it may not be
+ * traversed to the end, e.g. in a try-with-resources statement, as otherwise
+ * the files remain on disk.
+ *
+ * @author t
+ */
+public interface ExternalSortIterator extends AutoCloseable
+{
+    /**
+     * Deletes the temporary files of the sort, this iterator is then
+     * considered exhausted. Closing has no effect if the traversal has
+     * already finished or this iterator was already closed.
+     *
+     * @throws java.io.UncheckedIOException If a file cannot be closed or
+     *                                      deleted.
+     */
+    @Override
+    void close();
+
+    /**
+     * An externally sorted {@link RichIterator}.
+     *
+     * @param <E> The type of elements traversed by this iterator.
+     */
+    interface OfObject<E> extends RichIterator<E>, ExternalSortIterator
+    {
+    }
+
+    /**
+     * An externally sorted {@link LongIterator}.
+     */
+    interface OfLong extends LongIterator, ExternalSortIterator
+    {
+    }
+}
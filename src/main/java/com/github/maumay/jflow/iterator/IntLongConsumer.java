@@ -0,0 +1,23 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+/**
+ * An operation accepting a primitive int together with a primitive long, used
+ * for traversing primitive keyed maps without boxing.
+ *
+ * @author t
+ */
+@FunctionalInterface
+public interface IntLongConsumer
+{
+    /**
+     * Performs this operation on the given arguments.
+     *
+     * @param key   The int argument, typically a key.
+     * @param value The long argument, typically the value associated with the
+     *              key.
+     */
+    void accept(int key, long value);
+}
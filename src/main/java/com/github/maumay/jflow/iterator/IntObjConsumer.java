@@ -0,0 +1,24 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+/**
+ * An operation accepting a primitive int together with an object, used for
+ * index aware traversal without boxing the index.
+ *
+ * @param <E> The type of the object argument.
+ *
+ * @author t
+ */
+@FunctionalInterface
+public interface IntObjConsumer<E>
+{
+    /**
+     * Performs this operation on the given arguments.
+     *
+     * @param index   The int argument, typically the index of the element.
+     * @param element The object argument.
+     */
+    void accept(int index, E element);
+}
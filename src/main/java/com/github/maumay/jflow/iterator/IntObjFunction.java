@@ -0,0 +1,26 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+/**
+ * A function accepting a primitive int together with an object, used for index
+ * aware mapping without boxing the index.
+ *
+ * @param <E> The type of the object argument.
+ * @param <R> The type of the result.
+ *
+ * @author t
+ */
+@FunctionalInterface
+public interface IntObjFunction<E, R>
+{
+    /**
+     * Applies this function to the given arguments.
+     *
+     * @param index   The int argument, typically the index of the element.
+     * @param element The object argument.
+     * @return The function result.
+     */
+    R apply(int index, E element);
+}
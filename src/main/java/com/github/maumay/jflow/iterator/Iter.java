@@ -5,11 +5,16 @@ package com.github.maumay.jflow.iterator;
 
 import com.github.maumay.jflow.impl.*;
 import com.github.maumay.jflow.utils.Tup;
+import com.github.maumay.jflow.vec.Vec;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PrimitiveIterator;
 import java.util.function.*;
 
 import static java.lang.Math.abs;
@@ -162,6 +167,52 @@ public final class Iter
         return Iter.wrap(source.iterator()).flatMap(Iterable::iterator);
     }
 
+    /**
+     * Lazily merges iterators which are each sorted with respect to the same
+     * order into a single sorted iterator. Each step costs a number of
+     * comparisons logarithmic in the number of sources, and elements which
+     * compare equal are traversed in the order of their sources. The sources
+     * give up their ownership to the merged iterator.
+     *
+     * @param         <E> The type of the merged elements.
+     * @param order   The order each source is sorted by.
+     * @param sources The sorted iterators to merge.
+     * @return An iterator traversing every element of the sources in sorted
+     *         order, whose size is the sum of the sizes of the sources.
+     */
+    @SafeVarargs
+    public static <E> RichIterator<E> mergeSorted(Comparator<? super E> order,
+            Iterator<? extends E>... sources)
+    {
+        List<AbstractRichIterator<? extends E>> wrapped = new ArrayList<>();
+        for (Iterator<? extends E> source : sources) {
+            wrapped.add(IteratorWrapper.wrap(source));
+        }
+        return new MergeSortedAdapter.OfObject<>(order, wrapped);
+    }
+
+    /**
+     * Lazily merges iterators which are each sorted with respect to the same
+     * order into a single sorted iterator, see {@link #mergeSorted(Comparator,
+     * Iterator...)}.
+     *
+     * @param         <E> The type of the merged elements.
+     * @param sources The sorted iterators to merge.
+     * @param order   The order each source is sorted by.
+     * @return An iterator traversing every element of the sources in sorted
+     *         order, whose size is the sum of the sizes of the sources.
+     */
+    public static <E> RichIterator<E> mergeSorted(
+            Vec<? extends Iterator<? extends E>> sources,
+            Comparator<? super E> order)
+    {
+        List<AbstractRichIterator<? extends E>> wrapped = new ArrayList<>();
+        for (Iterator<? extends E> source : sources) {
+            wrapped.add(IteratorWrapper.wrap(source));
+        }
+        return new MergeSortedAdapter.OfObject<>(order, wrapped);
+    }
+
     // Ints
 
     /**
@@ -197,6 +248,27 @@ public final class Iter
         return new ArraySource.OfIntReversed(elements);
     }
 
+    /**
+     * Lazily merges int iterators which are each sorted in ascending order
+     * into a single sorted iterator. Each step costs a number of
+     * comparisons logarithmic in the number of sources. The sources give up
+     * their ownership to the merged iterator.
+     *
+     * @param sources The sorted iterators to merge.
+     * @return An iterator traversing every element of the sources in
+     *         ascending order, whose size is the sum of the sizes of the
+     *         sources.
+     */
+    public static IntIterator mergeSortedInts(
+            PrimitiveIterator.OfInt... sources)
+    {
+        AbstractIntIterator[] wrapped = new AbstractIntIterator[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            wrapped[i] = IteratorWrapper.wrap(sources[i]);
+        }
+        return new MergeSortedAdapter.OfInt(wrapped);
+    }
+
     // Doubles
 
     /**
@@ -232,6 +304,29 @@ public final class Iter
         return new ArraySource.OfDoubleReversed(elements);
     }
 
+    /**
+     * Lazily merges double iterators which are each sorted in ascending order
+     * into a single sorted iterator. The order is that of
+     * {@link Double#compare(double, double)}, so negative zero precedes zero
+     * and NaN comes last. Each step costs a number of
+     * comparisons logarithmic in the number of sources. The sources give up
+     * their ownership to the merged iterator.
+     *
+     * @param sources The sorted iterators to merge.
+     * @return An iterator traversing every element of the sources in
+     *         ascending order, whose size is the sum of the sizes of the
+     *         sources.
+     */
+    public static DoubleIterator mergeSortedDoubles(
+            PrimitiveIterator.OfDouble... sources)
+    {
+        AbstractDoubleIterator[] wrapped = new AbstractDoubleIterator[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            wrapped[i] = IteratorWrapper.wrap(sources[i]);
+        }
+        return new MergeSortedAdapter.OfDouble(wrapped);
+    }
+
     // /**
     // * Build a finite length DoubleEnhancedIterator from a function which accepts
     // a
@@ -288,6 +383,27 @@ public final class Iter
         return new ArraySource.OfLongReversed(elements);
     }
 
+    /**
+     * Lazily merges long iterators which are each sorted in ascending order
+     * into a single sorted iterator. Each step costs a number of
+     * comparisons logarithmic in the number of sources. The sources give up
+     * their ownership to the merged iterator.
+     *
+     * @param sources The sorted iterators to merge.
+     * @return An iterator traversing every element of the sources in
+     *         ascending order, whose size is the sum of the sizes of the
+     *         sources.
+     */
+    public static LongIterator mergeSortedLongs(
+            PrimitiveIterator.OfLong... sources)
+    {
+        AbstractLongIterator[] wrapped = new AbstractLongIterator[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            wrapped[i] = IteratorWrapper.wrap(sources[i]);
+        }
+        return new MergeSortedAdapter.OfLong(wrapped);
+    }
+
     /**
      * Wraps an existing iterator in a EnhancedIterator to enable use of all extra
      * functionality.
@@ -1,5 +1,6 @@
 package com.github.maumay.jflow.iterator;
 
+import com.github.maumay.jflow.iterator.collector.LongIteratorCollector;
 import com.github.maumay.jflow.utils.LongTup;
 import com.github.maumay.jflow.vec.LongVec;
 
@@ -72,6 +73,57 @@ public interface LongIterator extends OptionalLongIterator
      */
     IntIterator mapToInt(LongToIntFunction f);
 
+    /**
+     * Maps elements of this {@link LongIterator} to primitive long iterators
+     * before sequentially concatenating them end to end, no boxing takes
+     * place.
+     *
+     * @param f A function taking elements to primitive long iterators.
+     * @return A {@link LongIterator} obtained by applying the mapping function
+     * to each element in turn and sequentially concatenating the results.
+     */
+    LongIterator flatMap(LongFunction<? extends PrimitiveIterator.OfLong> f);
+
+    /**
+     * Lazily splits this {@link LongIterator} into consecutive chunks of the given
+     * length, the last chunk may be shorter. Each chunk is only read from
+     * this iterator when it is requested.
+     *
+     * @param n The length of the chunks, must be positive.
+     * @return A {@link RichIterator} over the chunks of this iterator.
+     * @throws IllegalArgumentException If the parameter is not positive.
+     */
+    RichIterator<LongVec> chunks(int n);
+
+    /**
+     * Lazily splits this {@link LongIterator} into consecutive chunks whose length is
+     * the length of the given buffer, the last chunk may be shorter. Each time
+     * an element of the result is requested the next chunk is written into
+     * the start of the buffer, overwriting the previous one, so no allocation
+     * takes place.
+     *
+     * @param buffer The buffer chunks are written into, it must not be empty.
+     * @return An {@link IntIterator} over the number of elements written into
+     * the buffer for each chunk.
+     * @throws IllegalArgumentException If the buffer is empty.
+     */
+    IntIterator chunksInto(long[] buffer);
+
+    /**
+     * Lazily creates the sliding windows of a fixed length over this {@link
+     * LongIterator}, the start of each window being a fixed step after the
+     * start of the previous one. Windows which would extend past the end of
+     * this iterator are not emitted. The windows are immutable views of a
+     * buffer shared between them so no elements are copied per window.
+     *
+     * @param size The length of each window, must be positive.
+     * @param step The distance between the starts of consecutive windows,
+     *             must be positive.
+     * @return A {@link RichIterator} over the windows of this iterator.
+     * @throws IllegalArgumentException If either parameter is not positive.
+     */
+    RichIterator<LongVec> windows(int size, int step);
+
     /**
      * Combines this {@link LongIterator} with another primitive iterator to
      * create a new {@link RichIterator} consisting of pairs of elements with
@@ -89,6 +141,26 @@ public interface LongIterator extends OptionalLongIterator
      */
     RichIterator<LongTup> zip(PrimitiveIterator.OfLong other);
 
+    /**
+     * Combines this {@link LongIterator} with another primitive iterator by
+     * applying an operator to the pairs of elements with the same index in
+     * their respective origins. Unlike {@link #zip(PrimitiveIterator.OfLong)} the
+     * result is a primitive iterator and no tuples are created.
+     *
+     * @param other    The primitive iterator to zip this source {@link
+     *                 LongIterator} with.
+     * @param combiner The operator combining the paired elements.
+     * @return Denote this source {@link LongIterator} by {@code F} with the
+     * parameter primitive iterator denoted by {@code I} and combining operator
+     * by {@code f}. We return a new {@link LongIterator} instance {@code G}
+     * defined by:
+     * <ul>
+     * <li>{@code G[j] = f(F[j], I[j])}</li>
+     * <li>{@code length(G) = min(length(F), length(I))}</li>
+     * </ul>
+     */
+    LongIterator zipWith(PrimitiveIterator.OfLong other, LongBinaryOperator combiner);
+
     /**
      * Creates a new {@link RichIterator} by mapping each element in this source
      * {@link LongIterator} to a pair consisting of the element and the index it
@@ -182,6 +254,72 @@ public interface LongIterator extends OptionalLongIterator
      */
     LongIterator filter(LongPredicate predicate);
 
+    /**
+     * Lazily removes repeated elements from this {@link LongIterator}, each element
+     * is emitted at its first occurrence and the order is retained. The
+     * elements seen so far are tracked in an open addressing hash set of primitives.
+     *
+     * @return A {@link LongIterator} over the distinct elements of this iterator.
+     */
+    LongIterator distinct();
+
+    /**
+     * Lazily removes repeated elements from this {@link LongIterator} using a
+     * Bloom filter instead of a set, which uses a small fixed amount of memory
+     * (around ten bits per element for a one percent false positive rate).
+     * Duplicates are never emitted but false positives mean some distinct
+     * elements may be dropped, the probability of which stays below the given
+     * rate as long as there are at most the expected number of distinct
+     * elements.
+     *
+     * @param expectedCount     The expected number of distinct elements,
+     *                          must be positive.
+     * @param falsePositiveRate The acceptable probability of dropping a
+     *                          distinct element, must lie strictly between
+     *                          zero and one.
+     * @return A {@link LongIterator} over the elements of this iterator which were
+     * not reported as seen before by the filter.
+     */
+    LongIterator distinctApprox(int expectedCount, double falsePositiveRate);
+
+    /**
+     * Lazily sorts the elements of this {@link LongIterator} into ascending
+     * order without holding more than a fixed number of them in memory.
+     * Sorted runs are spilled to temporary files (in the default temporary
+     * directory) and then merged back on demand, so the input can be far
+     * larger than the heap. Nothing is written if every element fits in
+     * memory. The sort happens when the first element is requested, at which
+     * point this iterator is fully consumed. Temporary files are deleted once
+     * read, the returned iterator should be closed if it may not be traversed
+     * to the end, see {@link ExternalSortIterator#close()}.
+     *
+     * @param memoryBudget The maximum number of elements held in memory at
+     *                     once while cutting the input into runs, must be
+     *                     positive.
+     * @return A {@link LongIterator} over the elements of this iterator in
+     * ascending order.
+     * @throws java.io.UncheckedIOException If a temporary file cannot be
+     *                                      written or read.
+     */
+    ExternalSortIterator.OfLong sortedExternal(int memoryBudget);
+
+    /**
+     * Drains this {@link LongIterator} ahead of consumption on a dedicated daemon
+     * thread so that slow or blocking sources (database cursors, file readers,
+     * decoders and so on) are read concurrently with whatever work is done on
+     * the traversed elements. Up to the given number of elements are buffered.
+     * The thread is started when the first element is requested and any
+     * exception thrown while reading this iterator is rethrown to the consumer
+     * after the elements read before it. The returned iterator must be
+     * traversed from a single thread and should be closed if it may not be
+     * traversed to the end, see {@link PrefetchIterator#close()}.
+     *
+     * @param bufferSize The maximum number of elements read ahead, must be
+     *                   positive.
+     * @return A closeable {@link LongIterator} over the elements of this iterator.
+     */
+    PrefetchIterator.OfLong prefetch(int bufferSize);
+
     /**
      * Creates a new {@link LongIterator} from this {@link LongIterator} by
      * adding each element of the supplied primitive iterator to its end in
@@ -271,6 +409,36 @@ public interface LongIterator extends OptionalLongIterator
      */
     long max();
 
+    /**
+     * Selects the k greatest elements of this {@link LongIterator} in a single
+     * pass using a heap of at most k elements, which is much cheaper than
+     * sorting when k is small relative to the number of elements.
+     *
+     * This method is a 'consuming method', i.e. it will iterate through this
+     * {@link LongIterator}.
+     *
+     * @param k The maximum number of elements to select, must be
+     *          non-negative.
+     * @return A vector of the k greatest elements (or all elements if there
+     * are fewer) in descending order.
+     */
+    LongVec topK(int k);
+
+    /**
+     * Selects the k least elements of this {@link LongIterator} in a single
+     * pass using a heap of at most k elements, which is much cheaper than
+     * sorting when k is small relative to the number of elements.
+     *
+     * This method is a 'consuming method', i.e. it will iterate through this
+     * {@link LongIterator}.
+     *
+     * @param k The maximum number of elements to select, must be
+     *          non-negative.
+     * @return A vector of the k least elements (or all elements if there are
+     * fewer) in ascending order.
+     */
+    LongVec bottomK(int k);
+
     /**
      * Checks whether every element in this {@link LongIterator} passes the
      * supplied {@linkplain LongPredicate} test.
@@ -380,6 +548,18 @@ public interface LongIterator extends OptionalLongIterator
      */
     LongVec toVec();
 
+    /**
+     * Consumes this iterator using the supplied collection function to create a
+     * new instance of the given type.
+     *
+     * @param <R>       The type of the collection result.
+     * @param collector The collection function which is used to consume this
+     *                  iterator.
+     * @return The result of the collection function applied to this {@link
+     * LongIterator}.
+     */
+    <R> R collect(LongIteratorCollector<R> collector);
+
     /**
      * Caches the values in this {@link LongIterator} to an array.
      *
@@ -0,0 +1,118 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+import com.github.maumay.jflow.vec.DoubleVec;
+
+import java.util.OptionalDouble;
+import java.util.function.*;
+
+/**
+ * The primitive double analogue of {@link ParallelIterator}, the pipeline is
+ * built lazily and executed on the common fork-join pool when one of the
+ * consuming methods is called. Functions passed to it must be stateless.
+ *
+ * @author t
+ */
+public interface ParallelDoubleIterator
+{
+    /**
+     * Applies a function elementwise to this parallel iterator.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelDoubleIterator map(DoubleUnaryOperator f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelIterator}.
+     *
+     * @param <E> The target type of the mapping function.
+     * @param f   A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    <E> ParallelIterator<E> mapToObj(DoubleFunction<? extends E> f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelIntIterator}.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelIntIterator mapToInt(DoubleToIntFunction f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelLongIterator}.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelLongIterator mapToLong(DoubleToLongFunction f);
+
+    /**
+     * Filters the elements of this parallel iterator using a predicate.
+     *
+     * @param predicate A stateless predicate.
+     * @return A new parallel iterator containing only the elements of this
+     * iterator which pass the given predicate, relative order is preserved.
+     */
+    ParallelDoubleIterator filter(DoublePredicate predicate);
+
+    /**
+     * Reduces the elements of this parallel iterator to a single value. Each
+     * piece of the source is folded starting from the identity and the partial
+     * results are merged with the same function.
+     *
+     * @param id      The identity of the reduction function.
+     * @param reducer An associative reduction function.
+     * @return The result of the reduction.
+     */
+    double fold(double id, DoubleBinaryOperator reducer);
+
+    /**
+     * Reduces the elements of this parallel iterator using an associative
+     * reduction function.
+     *
+     * @param reducer An associative reduction function.
+     * @return The result of the reduction or nothing if there are no
+     * elements.
+     */
+    OptionalDouble foldOp(DoubleBinaryOperator reducer);
+
+    /**
+     * Finds the minimum element of this parallel iterator.
+     *
+     * @return The minimum element or nothing if there are no elements.
+     */
+    OptionalDouble minOp();
+
+    /**
+     * Finds the maximum element of this parallel iterator.
+     *
+     * @return The maximum element or nothing if there are no elements.
+     */
+    OptionalDouble maxOp();
+
+    /**
+     * Counts the elements of this parallel iterator.
+     *
+     * @return The number of elements.
+     */
+    long count();
+
+    /**
+     * Collects the elements of this parallel iterator into a vector.
+     *
+     * @return A vector containing the elements of this parallel iterator in
+     * encounter order.
+     */
+    DoubleVec toVec();
+}
@@ -0,0 +1,151 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+import com.github.maumay.jflow.vec.Vec;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.*;
+
+/**
+ * <p>
+ * A lazily built pipeline of operations over an indexed source (such as a
+ * {@link Vec}) which is executed in parallel on the common fork-join pool when
+ * one of the consuming methods is called. The source range is recursively
+ * split in half until the pieces are small enough, each piece is then
+ * traversed by a sequential {@link RichIterator} built with the same
+ * operations and the partial results are combined in encounter order.
+ * </p>
+ * <p>
+ * The functions passed to this parallel iterator must be stateless and safe to
+ * call from multiple threads.
+ * </p>
+ *
+ * @param <E> The element type of this parallel iterator.
+ *
+ * @author t
+ */
+public interface ParallelIterator<E>
+{
+    /**
+     * Applies a function elementwise to this parallel iterator.
+     *
+     * @param <R> The target type of the mapping function.
+     * @param f   A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    <R> ParallelIterator<R> map(Function<? super E, ? extends R> f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelIntIterator}.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelIntIterator mapToInt(ToIntFunction<? super E> f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelLongIterator}.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelLongIterator mapToLong(ToLongFunction<? super E> f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelDoubleIterator}.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelDoubleIterator mapToDouble(ToDoubleFunction<? super E> f);
+
+    /**
+     * Filters the elements of this parallel iterator using a predicate.
+     *
+     * @param predicate A stateless predicate.
+     * @return A new parallel iterator containing only the elements of this
+     * iterator which pass the given predicate, relative order is preserved.
+     */
+    ParallelIterator<E> filter(Predicate<? super E> predicate);
+
+    /**
+     * Reduces the elements of this parallel iterator to a single value. Each
+     * piece of the source is folded sequentially starting from the identity
+     * before the partial results are merged in encounter order.
+     *
+     * @param <R>         The type of the result.
+     * @param id          The identity of the combiner.
+     * @param accumulator Folds a single element into a partial result.
+     * @param combiner    Merges two partial results, must be associative and
+     *                    compatible with the accumulator.
+     * @return The result of the reduction.
+     */
+    <R> R fold(R id, BiFunction<R, E, R> accumulator,
+            BinaryOperator<R> combiner);
+
+    /**
+     * Reduces the elements of this parallel iterator using an associative
+     * binary operator.
+     *
+     * @param reducer An associative reduction function.
+     * @return The result of the reduction or nothing if there are no
+     * elements.
+     */
+    Optional<E> foldOp(BinaryOperator<E> reducer);
+
+    /**
+     * Finds the minimum element of this parallel iterator. If there are
+     * multiple minimal elements the first in encounter order is returned.
+     *
+     * @param orderingFunction A total ordering on the elements.
+     * @return The minimum element or nothing if there are no elements.
+     */
+    Optional<E> minOp(Comparator<? super E> orderingFunction);
+
+    /**
+     * Finds the maximum element of this parallel iterator. If there are
+     * multiple maximal elements the first in encounter order is returned.
+     *
+     * @param orderingFunction A total ordering on the elements.
+     * @return The maximum element or nothing if there are no elements.
+     */
+    Optional<E> maxOp(Comparator<? super E> orderingFunction);
+
+    /**
+     * Groups the elements of this parallel iterator by a classification
+     * function.
+     *
+     * @param <K>        The type of the classification keys.
+     * @param classifier A stateless classification function.
+     * @return A map from keys to the list of elements which produced that key,
+     * each list retains the encounter order of the elements.
+     */
+    <K> Map<K, List<E>> groupBy(Function<? super E, ? extends K> classifier);
+
+    /**
+     * Counts the elements of this parallel iterator.
+     *
+     * @return The number of elements.
+     */
+    long count();
+
+    /**
+     * Collects the elements of this parallel iterator into a vector.
+     *
+     * @return A vector containing the elements of this parallel iterator in
+     * encounter order.
+     */
+    Vec<E> toVec();
+}
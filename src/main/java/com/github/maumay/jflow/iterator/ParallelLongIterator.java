@@ -0,0 +1,118 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+import com.github.maumay.jflow.vec.LongVec;
+
+import java.util.OptionalLong;
+import java.util.function.*;
+
+/**
+ * The primitive long analogue of {@link ParallelIterator}, the pipeline is
+ * built lazily and executed on the common fork-join pool when one of the
+ * consuming methods is called. Functions passed to it must be stateless.
+ *
+ * @author t
+ */
+public interface ParallelLongIterator
+{
+    /**
+     * Applies a function elementwise to this parallel iterator.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelLongIterator map(LongUnaryOperator f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelIterator}.
+     *
+     * @param <E> The target type of the mapping function.
+     * @param f   A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    <E> ParallelIterator<E> mapToObj(LongFunction<? extends E> f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelIntIterator}.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelIntIterator mapToInt(LongToIntFunction f);
+
+    /**
+     * Applies a function elementwise to this parallel iterator to make a new
+     * {@link ParallelDoubleIterator}.
+     *
+     * @param f A stateless mapping function.
+     * @return A new parallel iterator whose elements are the images of the
+     * elements of this parallel iterator under the given function.
+     */
+    ParallelDoubleIterator mapToDouble(LongToDoubleFunction f);
+
+    /**
+     * Filters the elements of this parallel iterator using a predicate.
+     *
+     * @param predicate A stateless predicate.
+     * @return A new parallel iterator containing only the elements of this
+     * iterator which pass the given predicate, relative order is preserved.
+     */
+    ParallelLongIterator filter(LongPredicate predicate);
+
+    /**
+     * Reduces the elements of this parallel iterator to a single value. Each
+     * piece of the source is folded starting from the identity and the partial
+     * results are merged with the same function.
+     *
+     * @param id      The identity of the reduction function.
+     * @param reducer An associative reduction function.
+     * @return The result of the reduction.
+     */
+    long fold(long id, LongBinaryOperator reducer);
+
+    /**
+     * Reduces the elements of this parallel iterator using an associative
+     * reduction function.
+     *
+     * @param reducer An associative reduction function.
+     * @return The result of the reduction or nothing if there are no
+     * elements.
+     */
+    OptionalLong foldOp(LongBinaryOperator reducer);
+
+    /**
+     * Finds the minimum element of this parallel iterator.
+     *
+     * @return The minimum element or nothing if there are no elements.
+     */
+    OptionalLong minOp();
+
+    /**
+     * Finds the maximum element of this parallel iterator.
+     *
+     * @return The maximum element or nothing if there are no elements.
+     */
+    OptionalLong maxOp();
+
+    /**
+     * Counts the elements of this parallel iterator.
+     *
+     * @return The number of elements.
+     */
+    long count();
+
+    /**
+     * Collects the elements of this parallel iterator into a vector.
+     *
+     * @return A vector containing the elements of this parallel iterator in
+     * encounter order.
+     */
+    LongVec toVec();
+}
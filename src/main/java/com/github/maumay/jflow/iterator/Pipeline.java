@@ -0,0 +1,248 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+import com.github.maumay.jflow.impl.PipelineImpl;
+import com.github.maumay.jflow.vec.Vec;
+
+import java.util.Iterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>
+ * An immutable description of a sequence of transformations which is built
+ * once and can then be applied to any number of sources. The operators mirror
+ * the corresponding adapters on {@link RichIterator}. Adjacent stages are
+ * fused as the pipeline is built, e.g. two consecutive maps become a single
+ * composed map, so this work is not repeated each time the pipeline is
+ * applied.
+ * </p>
+ * <p>
+ * A pipeline can be applied lazily to an iterator, eagerly to an iterable
+ * (in which case the elements are pushed through the stages without building
+ * a chain of adapters), used to fold the elements of an iterable (optionally
+ * mapping them to a primitive first) or used to wrap a consumer so elements
+ * can be pushed into it one at a time.
+ * </p>
+ *
+ * @param <A> The type of the elements entering the pipeline.
+ * @param <B> The type of the elements leaving the pipeline.
+ *
+ * @author t
+ */
+public interface Pipeline<A, B>
+{
+    /**
+     * Appends a mapping stage to this pipeline.
+     *
+     * @param <C> The target type of the mapping.
+     * @param fn  The mapping function.
+     * @return A new pipeline which maps each element leaving this one.
+     */
+    <C> Pipeline<A, C> map(Function<? super B, ? extends C> fn);
+
+    /**
+     * Appends a filtering stage to this pipeline.
+     *
+     * @param predicate The predicate elements must pass to be retained.
+     * @return A new pipeline which only retains the elements leaving this one
+     *         which pass the predicate.
+     */
+    Pipeline<A, B> filter(Predicate<? super B> predicate);
+
+    /**
+     * Appends a flattening stage to this pipeline.
+     *
+     * @param <C> The element type of the iterators produced by the function.
+     * @param fn  Maps each element to an iterator of elements.
+     * @return A new pipeline which replaces each element leaving this one with
+     *         the elements of its image under the function.
+     */
+    <C> Pipeline<A, C> flatMap(
+            Function<? super B, ? extends Iterator<? extends C>> fn);
+
+    /**
+     * Appends a stage which retains at most a fixed number of elements.
+     *
+     * @param n The maximum number of elements to retain, must be non-negative.
+     * @return A new pipeline which retains the first n elements leaving this
+     *         one. Each application of the pipeline counts independently.
+     */
+    Pipeline<A, B> take(int n);
+
+    /**
+     * Appends a stage which discards a fixed number of elements.
+     *
+     * @param n The number of elements to discard, must be non-negative.
+     * @return A new pipeline which discards the first n elements leaving this
+     *         one. Each application of the pipeline counts independently.
+     */
+    Pipeline<A, B> skip(int n);
+
+    /**
+     * Appends a stage which retains elements until the first one failing a
+     * predicate.
+     *
+     * @param predicate The predicate elements must pass to be retained.
+     * @return A new pipeline retaining the longest prefix of the elements
+     *         leaving this one which pass the predicate.
+     */
+    Pipeline<A, B> takeWhile(Predicate<? super B> predicate);
+
+    /**
+     * Appends a stage which discards elements until the first one failing a
+     * predicate.
+     *
+     * @param predicate The predicate determining which elements to discard.
+     * @return A new pipeline discarding the longest prefix of the elements
+     *         leaving this one which pass the predicate.
+     */
+    Pipeline<A, B> skipWhile(Predicate<? super B> predicate);
+
+    /**
+     * Appends all the stages of another pipeline to this one.
+     *
+     * @param <C>  The type of the elements leaving the other pipeline.
+     * @param next The pipeline to append.
+     * @return A new pipeline equivalent to this one followed by the other.
+     */
+    <C> Pipeline<A, C> andThen(Pipeline<B, C> next);
+
+    /**
+     * Compiles this pipeline for use in hot code. Normally the code of each
+     * kind of stage is shared by every pipeline, so the JIT sees many
+     * different functions at each call site and cannot inline them. A
+     * compiled pipeline instead runs on a private copy of the stage code
+     * (hidden classes on Java 15+, a dedicated class loader otherwise) so
+     * every call site sees a single function, including those of the folds.
+     * Lazy application to an iterator then returns an iterator driven by
+     * these copies instead of a chain of adapters, its internal iteration
+     * (e.g. {@link RichIterator#forEach(Consumer)} or
+     * {@link RichIterator#toVec()}) runs entirely in the compiled loop.
+     * Compilation is relatively expensive so should only be done once for
+     * pipelines applied many times. Adding stages to a compiled pipeline
+     * gives a compiled pipeline, only the added stages are copied.
+     *
+     * @return A compiled pipeline equivalent to this one, or this pipeline if
+     *         the platform does not permit the stage code to be copied.
+     */
+    Pipeline<A, B> compile();
+
+    /**
+     * Lazily applies this pipeline to an iterator. The source gives up its
+     * ownership as if the stages had been applied to it directly.
+     *
+     * @param source The iterator to transform.
+     * @return An iterator over the elements of the source transformed by this
+     *         pipeline.
+     */
+    RichIterator<B> apply(Iterator<? extends A> source);
+
+    /**
+     * Eagerly applies this pipeline to each element of an iterable, collecting
+     * the results in a vector.
+     *
+     * @param source The elements to transform.
+     * @return A vector of the elements of the source transformed by this
+     *         pipeline.
+     */
+    Vec<B> apply(Iterable<? extends A> source);
+
+    /**
+     * Eagerly applies this pipeline to each element of an iterable, passing
+     * the results to an action.
+     *
+     * @param source The elements to transform.
+     * @param action The action to apply to each transformed element.
+     */
+    void forEach(Iterable<? extends A> source, Consumer<? super B> action);
+
+    /**
+     * Eagerly applies this pipeline to each element of an iterable, folding
+     * the results.
+     *
+     * @param <R>     The type of the reduction.
+     * @param source  The elements to transform.
+     * @param id      The initial value of the reduction.
+     * @param reducer Combines the reduction so far with the next transformed
+     *                element.
+     * @return The reduction of the elements of the source transformed by this
+     *         pipeline.
+     */
+    <R> R fold(Iterable<? extends A> source, R id,
+            BiFunction<R, ? super B, R> reducer);
+
+    /**
+     * Eagerly applies this pipeline to each element of an iterable, mapping
+     * the results to ints and folding them without boxing.
+     *
+     * @param source  The elements to transform.
+     * @param fn      Maps each transformed element to an int.
+     * @param id      The initial value of the reduction.
+     * @param reducer Combines the reduction so far with the next int.
+     * @return The reduction of the ints.
+     */
+    int foldInt(Iterable<? extends A> source, ToIntFunction<? super B> fn,
+            int id, IntBinaryOperator reducer);
+
+    /**
+     * Eagerly applies this pipeline to each element of an iterable, mapping
+     * the results to longs and folding them without boxing.
+     *
+     * @param source  The elements to transform.
+     * @param fn      Maps each transformed element to a long.
+     * @param id      The initial value of the reduction.
+     * @param reducer Combines the reduction so far with the next long.
+     * @return The reduction of the longs.
+     */
+    long foldLong(Iterable<? extends A> source, ToLongFunction<? super B> fn,
+            long id, LongBinaryOperator reducer);
+
+    /**
+     * Eagerly applies this pipeline to each element of an iterable, mapping
+     * the results to doubles and folding them without boxing.
+     *
+     * @param source  The elements to transform.
+     * @param fn      Maps each transformed element to a double.
+     * @param id      The initial value of the reduction.
+     * @param reducer Combines the reduction so far with the next double.
+     * @return The reduction of the doubles.
+     */
+    double foldDouble(Iterable<? extends A> source,
+            ToDoubleFunction<? super B> fn, double id,
+            DoubleBinaryOperator reducer);
+
+    /**
+     * Wraps a consumer in one which applies this pipeline to each element
+     * before passing the result on. Once a stage such as {@link #take(int)} has
+     * stopped accepting elements any further elements are ignored.
+     *
+     * @param downstream The consumer of the transformed elements.
+     * @return A consumer which pushes each element it accepts through this
+     *         pipeline into the given consumer.
+     */
+    Consumer<A> into(Consumer<? super B> downstream);
+
+    // Static factories
+
+    /**
+     * Retrieves the pipeline with no stages from which others are built.
+     *
+     * @param <E> The element type of the pipeline.
+     * @return A pipeline which leaves every element unchanged.
+     */
+    static <E> Pipeline<E, E> identity()
+    {
+        return PipelineImpl.identity();
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.iterator;
+
+/**
+ * An iterator whose source is drained ahead of consumption on a background
+ * thread, see {@link RichIterator#prefetch(int)}. Closing it stops the
+ * background thread early, after which no further elements are traversed. It
+ * should be closed whenever it may not be traversed to the end, e.g. in a
+ * try-with-resources statement, as otherwise the background thread stays
+ * blocked waiting for space in the buffer until this iterator has been
+ * garbage collected.
+ *
+ * @author t
+ */
+public interface PrefetchIterator extends AutoCloseable
+{
+    /**
+     * Stops prefetching, the background thread finishes once any call it is
+     * making to the source returns and this iterator is then considered
+     * exhausted. Closing has no effect if the source has already been
+     * drained or this iterator was already closed.
+     */
+    @Override
+    void close();
+
+    /**
+     * A prefetching {@link RichIterator}.
+     *
+     * @param <E> The type of elements traversed by this iterator.
+     */
+    interface OfObject<E> extends RichIterator<E>, PrefetchIterator
+    {
+    }
+
+    /**
+     * A prefetching {@link IntIterator}.
+     */
+    interface OfInt extends IntIterator, PrefetchIterator
+    {
+    }
+
+    /**
+     * A prefetching {@link LongIterator}.
+     */
+    interface OfLong extends LongIterator, PrefetchIterator
+    {
+    }
+
+    /**
+     * A prefetching {@link DoubleIterator}.
+     */
+    interface OfDouble extends DoubleIterator, PrefetchIterator
+    {
+    }
+}
@@ -1,9 +1,11 @@
 package com.github.maumay.jflow.iterator;
 
+import com.github.maumay.jflow.impl.IteratorSizes;
 import com.github.maumay.jflow.impl.RichIteratorAdapter;
 import com.github.maumay.jflow.iterable.RichIterable;
 import com.github.maumay.jflow.iterator.collector.IteratorCollector;
 import com.github.maumay.jflow.utils.Tup;
+import com.github.maumay.jflow.vec.PersistentVec;
 import com.github.maumay.jflow.vec.Vec;
 
 import java.util.*;
@@ -90,6 +92,67 @@ public interface RichIterator<E> extends OptionalIterator<E>
     <R> RichIterator<R> flatMap(
             Function<? super E, ? extends Iterator<? extends R>> fn);
 
+    /**
+     * Maps elements of this {@link RichIterator} to primitive int iterators
+     * before sequentially concatenating them end to end into a {@link
+     * IntIterator}, no boxing takes place.
+     *
+     * @param fn A function taking elements to primitive int iterators.
+     * @return A {@link IntIterator} obtained by applying the mapping function
+     * to each element in turn and sequentially concatenating the results.
+     */
+    IntIterator flatMapToInt(
+            Function<? super E, ? extends PrimitiveIterator.OfInt> fn);
+
+    /**
+     * Maps elements of this {@link RichIterator} to primitive long iterators
+     * before sequentially concatenating them end to end into a {@link
+     * LongIterator}, no boxing takes place.
+     *
+     * @param fn A function taking elements to primitive long iterators.
+     * @return A {@link LongIterator} obtained by applying the mapping function
+     * to each element in turn and sequentially concatenating the results.
+     */
+    LongIterator flatMapToLong(
+            Function<? super E, ? extends PrimitiveIterator.OfLong> fn);
+
+    /**
+     * Maps elements of this {@link RichIterator} to primitive double iterators
+     * before sequentially concatenating them end to end into a {@link
+     * DoubleIterator}, no boxing takes place.
+     *
+     * @param fn A function taking elements to primitive double iterators.
+     * @return A {@link DoubleIterator} obtained by applying the mapping function
+     * to each element in turn and sequentially concatenating the results.
+     */
+    DoubleIterator flatMapToDouble(
+            Function<? super E, ? extends PrimitiveIterator.OfDouble> fn);
+
+    /**
+     * Lazily splits this {@link RichIterator} into consecutive chunks of the given
+     * length, the last chunk may be shorter. Each chunk is only read from
+     * this iterator when it is requested.
+     *
+     * @param n The length of the chunks, must be positive.
+     * @return A {@link RichIterator} over the chunks of this iterator.
+     * @throws IllegalArgumentException If the parameter is not positive.
+     */
+    RichIterator<Vec<E>> chunks(int n);
+
+    /**
+     * Lazily splits this {@link RichIterator} into consecutive chunks whose length is
+     * the length of the given buffer, the last chunk may be shorter. Each time
+     * an element of the result is requested the next chunk is written into
+     * the start of the buffer, overwriting the previous one, so no allocation
+     * takes place.
+     *
+     * @param buffer The buffer chunks are written into, it must not be empty.
+     * @return An {@link IntIterator} over the number of elements written into
+     * the buffer for each chunk.
+     * @throws IllegalArgumentException If the buffer is empty.
+     */
+    IntIterator chunksInto(E[] buffer);
+
     /**
      * Combines this {@link RichIterator} with another iterator to create a new
      * {@link RichIterator} consisting of pairs of elements with the same index
@@ -143,6 +206,117 @@ public interface RichIterator<E> extends OptionalIterator<E>
      */
     <R> RichIterator<Tup<E, R>> zip(Vec<? extends R> other);
 
+    /**
+     * Combines this {@link RichIterator} with another iterator by applying a
+     * function to the pairs of elements with the same index in their respective
+     * origins. Unlike {@link #zip(Iterator)} no intermediate tuple is created
+     * for each pair.
+     *
+     * @param <R>      The upper type bound on the parameter iterator.
+     * @param <T>      The type of the combined elements.
+     * @param other    The sequence to zip this iterator with.
+     * @param combiner The function combining the paired elements.
+     * @return Denote this source {@link RichIterator} by {@code F} with the
+     * parameter sequence denoted by {@code I} and combining function by {@code
+     * f}. We return a new {@link RichIterator} instance {@code G} defined by:
+     * <ul>
+     * <li>{@code G[j] = f(F[j], I[j])}</li>
+     * <li>{@code length(G) = min(length(F), length(I))}</li>
+     * </ul>
+     */
+    <R, T> RichIterator<T> zipWith(Iterator<? extends R> other,
+            BiFunction<? super E, ? super R, ? extends T> combiner);
+
+    /**
+     * Computes the inner join of this {@link RichIterator} with another
+     * iterator, i.e. a function is applied to every pair of elements of the
+     * two sources whose keys are equal. One side is consumed into a compact
+     * hash table when the first element is requested and the other side is
+     * streamed through it. The other iterator is put in the table unless the
+     * sizes of the sources show this iterator to be smaller, so pass the
+     * smaller dataset as the other iterator when the sizes are unknown. The
+     * joined elements are in the order of the streamed side and then of the
+     * table side.
+     *
+     * @param <R>      The upper type bound on the parameter iterator.
+     * @param <T>      The type of the joined elements.
+     * @param other    The iterator to join this iterator with.
+     * @param leftKey  Computes the key of each element of this iterator, keys
+     *                 are compared with {@link Object#equals(Object)}.
+     * @param rightKey Computes the key of each element of the other iterator.
+     * @param combiner The function combining each pair of matching elements.
+     * @return A {@link RichIterator} over the combinations of the matching
+     * pairs of elements.
+     */
+    <R, T> RichIterator<T> hashJoin(Iterator<? extends R> other,
+            Function<? super E, ?> leftKey, Function<? super R, ?> rightKey,
+            BiFunction<? super E, ? super R, ? extends T> combiner);
+
+    /**
+     * Computes the inner join of this {@link RichIterator} with another
+     * iterator on primitive long keys, which avoids boxing each key. Otherwise
+     * this behaves as {@link #hashJoin(Iterator, Function, Function,
+     * BiFunction)}.
+     *
+     * @param <R>      The upper type bound on the parameter iterator.
+     * @param <T>      The type of the joined elements.
+     * @param other    The iterator to join this iterator with.
+     * @param leftKey  Computes the key of each element of this iterator.
+     * @param rightKey Computes the key of each element of the other iterator.
+     * @param combiner The function combining each pair of matching elements.
+     * @return A {@link RichIterator} over the combinations of the matching
+     * pairs of elements.
+     */
+    <R, T> RichIterator<T> hashJoinByLong(Iterator<? extends R> other,
+            ToLongFunction<? super E> leftKey,
+            ToLongFunction<? super R> rightKey,
+            BiFunction<? super E, ? super R, ? extends T> combiner);
+
+    /**
+     * Computes the inner join of this {@link RichIterator} with another
+     * iterator where both are already sorted by their keys. The sources are
+     * traversed in lockstep so only the elements of the other iterator
+     * sharing the current key are held in memory. The joined elements are in
+     * the order of this iterator and then of the other. The result is
+     * unspecified if either source is not sorted.
+     *
+     * @param <R>      The upper type bound on the parameter iterator.
+     * @param <K>      The type of the keys.
+     * @param <T>      The type of the joined elements.
+     * @param other    The iterator to join this iterator with.
+     * @param leftKey  Computes the key of each element of this iterator.
+     * @param rightKey Computes the key of each element of the other iterator.
+     * @param keyOrder The order both sources are sorted by.
+     * @param combiner The function combining each pair of matching elements.
+     * @return A {@link RichIterator} over the combinations of the matching
+     * pairs of elements.
+     */
+    <R, K, T> RichIterator<T> mergeJoin(Iterator<? extends R> other,
+            Function<? super E, ? extends K> leftKey,
+            Function<? super R, ? extends K> rightKey,
+            Comparator<? super K> keyOrder,
+            BiFunction<? super E, ? super R, ? extends T> combiner);
+
+    /**
+     * Computes the inner join of this {@link RichIterator} with another
+     * iterator where both are already sorted in ascending order of primitive
+     * long keys, otherwise this behaves as {@link #mergeJoin(Iterator,
+     * Function, Function, Comparator, BiFunction)}.
+     *
+     * @param <R>      The upper type bound on the parameter iterator.
+     * @param <T>      The type of the joined elements.
+     * @param other    The iterator to join this iterator with.
+     * @param leftKey  Computes the key of each element of this iterator.
+     * @param rightKey Computes the key of each element of the other iterator.
+     * @param combiner The function combining each pair of matching elements.
+     * @return A {@link RichIterator} over the combinations of the matching
+     * pairs of elements.
+     */
+    <R, T> RichIterator<T> mergeJoinByLong(Iterator<? extends R> other,
+            ToLongFunction<? super E> leftKey,
+            ToLongFunction<? super R> rightKey,
+            BiFunction<? super E, ? super R, ? extends T> combiner);
+
     /**
      * Combines this iterator with another via an 'interleaving' operation.
      * Elements are taken from the head of the two sources in turn (beginning
@@ -168,6 +342,32 @@ public interface RichIterator<E> extends OptionalIterator<E>
      */
     RichIterator<Tup<Integer, E>> enumerate();
 
+    /**
+     * Creates a new {@link RichIterator} by mapping each element in this source
+     * {@link RichIterator} together with the index it appears. Unlike
+     * {@link #enumerate()} the index is passed as a primitive and no tuple is
+     * created for each element.
+     *
+     * @param <R> The target element type of the mapping operation.
+     * @param fn  A mapping function taking the index and the element.
+     * @return Denote this source {@link RichIterator} by {@code F}. We return a
+     * new {@link RichIterator} instance {@code G} defined by:
+     * <ul>
+     * <li>{@code G[j] = fn(j, F[j])}</li>
+     * <li>{@code length(G) = length(F)}</li>
+     * </ul>
+     */
+    <R> RichIterator<R> enumerateInto(IntObjFunction<? super E, ? extends R> fn);
+
+    /**
+     * Consumes this {@link RichIterator} by applying the given action to each
+     * remaining element together with its index relative to the current
+     * position of this iterator.
+     *
+     * @param action The action taking the index and the element.
+     */
+    void forEachIndexed(IntObjConsumer<? super E> action);
+
     /**
      * Creates a new {@link RichIterator} from this {@link RichIterator} by
      * selecting elements with indices defined by the parameter index mapping.
@@ -250,6 +450,93 @@ public interface RichIterator<E> extends OptionalIterator<E>
      */
     RichIterator<E> filter(Predicate<? super E> fn);
 
+    /**
+     * Lazily removes repeated elements (as determined by {@link
+     * Object#equals(Object)}) from this {@link RichIterator}, each element is
+     * emitted at its first occurrence and the order is retained. The elements
+     * seen so far are tracked in a hash set.
+     *
+     * @return A {@link RichIterator} over the distinct elements of this
+     * iterator.
+     */
+    RichIterator<E> distinct();
+
+    /**
+     * Lazily removes elements from this {@link RichIterator} whose key has
+     * already occurred, each key is represented by the first element with
+     * that key and the order is retained. The keys seen so far are tracked in
+     * a hash set.
+     *
+     * @param key The function computing the key of each element.
+     * @return A {@link RichIterator} over the first element of this iterator
+     * with each distinct key.
+     */
+    RichIterator<E> distinctBy(Function<? super E, ?> key);
+
+    /**
+     * Lazily removes repeated elements from this {@link RichIterator} using a
+     * Bloom filter instead of a set, which uses a small fixed amount of memory
+     * (around ten bits per element for a one percent false positive rate).
+     * Duplicates are never emitted but false positives mean some distinct
+     * elements may be dropped, the probability of which stays below the given
+     * rate as long as there are at most the expected number of distinct
+     * elements. Elements are hashed by their {@link
+     * Object#hashCode()} so distinct elements with equal hash codes are
+     * treated as duplicates.
+     *
+     * @param expectedCount     The expected number of distinct elements,
+     *                          must be positive.
+     * @param falsePositiveRate The acceptable probability of dropping a
+     *                          distinct element, must lie strictly between
+     *                          zero and one.
+     * @return A {@link RichIterator} over the elements of this iterator which were
+     * not reported as seen before by the filter.
+     */
+    RichIterator<E> distinctApprox(int expectedCount, double falsePositiveRate);
+
+    /**
+     * Lazily sorts the elements of this {@link RichIterator} without holding
+     * more than a fixed number of them in memory. Sorted runs of elements are
+     * spilled to temporary files (in the default temporary directory) and then
+     * merged back on demand, so the input can be far larger than the heap.
+     * Nothing is written if every element fits in memory. The sort happens
+     * when the first element is requested, at which point this iterator is
+     * fully consumed, and is stable. Temporary files are deleted once read,
+     * the returned iterator should be closed if it may not be traversed to
+     * the end, see {@link ExternalSortIterator#close()}.
+     *
+     * @param order        The order to sort by.
+     * @param codec        Converts elements to and from the binary form which
+     *                     is written to disk.
+     * @param memoryBudget The maximum number of elements held in memory at
+     *                     once while cutting the input into runs, must be
+     *                     positive.
+     * @return A {@link RichIterator} over the elements of this iterator in
+     * sorted order.
+     * @throws java.io.UncheckedIOException If a temporary file cannot be
+     *                                      written or read.
+     */
+    ExternalSortIterator.OfObject<E> sortedExternal(
+            Comparator<? super E> order, ElementCodec<E> codec,
+            int memoryBudget);
+
+    /**
+     * Drains this {@link RichIterator} ahead of consumption on a dedicated daemon
+     * thread so that slow or blocking sources (database cursors, file readers,
+     * decoders and so on) are read concurrently with whatever work is done on
+     * the traversed elements. Up to the given number of elements are buffered.
+     * The thread is started when the first element is requested and any
+     * exception thrown while reading this iterator is rethrown to the consumer
+     * after the elements read before it. The returned iterator must be
+     * traversed from a single thread and should be closed if it may not be
+     * traversed to the end, see {@link PrefetchIterator#close()}.
+     *
+     * @param bufferSize The maximum number of elements read ahead, must be
+     *                   positive.
+     * @return A closeable {@link RichIterator} over the elements of this iterator.
+     */
+    PrefetchIterator.OfObject<E> prefetch(int bufferSize);
+
     /**
      * Creates a new {@link RichIterator} from this {@link RichIterator} by
      * removing any element which passes the supplied predicate test.
@@ -514,6 +801,16 @@ public interface RichIterator<E> extends OptionalIterator<E>
      */
     Vec<E> toVec();
 
+    /**
+     * Caches the elements in this {@link RichIterator} into a {@link
+     * PersistentVec}. This method is a 'consuming method', i.e. it will iterate
+     * through this {@link RichIterator}.
+     *
+     * @return A PersistentVec containing all elements of this source {@link
+     * RichIterator} in the order that they appeared in the iteration.
+     */
+    PersistentVec<E> toPersistentVec();
+
     /**
      * Converts this iterator into a single use {@link RichIterable}, i.e. it
      * 'lifts' this object into a supplier function returning this object.
@@ -616,6 +913,30 @@ public interface RichIterator<E> extends OptionalIterator<E>
      */
     <C extends Collection<E>> C to(Supplier<C> collectionFactory);
 
+    /**
+     * Caches the elements in this {@link RichIterator} into a collection which
+     * is created with an initial capacity. The capacity passed to the factory
+     * is the exact number of remaining elements when that is known, otherwise
+     * it is an estimate derived from the bounds on the size of this iterator.
+     * An implementation which knows nothing of its size passes zero, as the
+     * default implementation does. This method is a 'consuming method', i.e.
+     * it will iterate through this {@link RichIterator}.
+     *
+     * @param <C>               The type of collection which is created and
+     *                          returned.
+     * @param collectionFactory A function accepting an expected number of
+     *                          elements and returning an empty, mutable
+     *                          {@link Collection} with room for them, e.g.
+     *                          {@code ArrayList::new}.
+     * @return The collection obtained by calling the factory function once and
+     * adding each element in this {@link RichIterator} to it.
+     */
+    default <C extends Collection<E>> C toSized(
+            IntFunction<C> collectionFactory)
+    {
+        return to(() -> collectionFactory.apply(0));
+    }
+
     /**
      * Caches the elements in this {@link RichIterator} into a Set. This method
      * is a 'consuming method', i.e. it will iterate through this {@link
@@ -625,7 +946,7 @@ public interface RichIterator<E> extends OptionalIterator<E>
      */
     default Set<E> toSet()
     {
-        return to(HashSet::new);
+        return toSized(n -> new HashSet<>(IteratorSizes.hashCapacity(n)));
     }
 
     /**
@@ -649,7 +970,7 @@ public interface RichIterator<E> extends OptionalIterator<E>
      */
     default List<E> toList()
     {
-        return to(ArrayList::new);
+        return toSized(ArrayList::new);
     }
 
     /**
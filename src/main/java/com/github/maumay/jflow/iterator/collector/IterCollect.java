@@ -4,9 +4,17 @@
 package com.github.maumay.jflow.iterator.collector;
 
 import com.github.maumay.jflow.impl.EnumAssociator;
+import com.github.maumay.jflow.impl.IntKeyedCollectors;
 import com.github.maumay.jflow.impl.Packer;
 import com.github.maumay.jflow.impl.Packer.Type;
+import com.github.maumay.jflow.impl.SummaryCollectors;
+import com.github.maumay.jflow.impl.TopK;
 import com.github.maumay.jflow.iterator.RichIterator;
+import com.github.maumay.jflow.utils.DoubleSummary;
+import com.github.maumay.jflow.utils.IntLongMap;
+import com.github.maumay.jflow.utils.IntObjMap;
+import com.github.maumay.jflow.utils.IntSummary;
+import com.github.maumay.jflow.utils.LongSummary;
 import com.github.maumay.jflow.utils.Option;
 import com.github.maumay.jflow.utils.Tup;
 import com.github.maumay.jflow.vec.DoubleVec;
@@ -14,6 +22,9 @@ import com.github.maumay.jflow.vec.Vec;
 
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * A collection of static factory methods for building iterator collectors.
@@ -74,6 +85,123 @@ public class IterCollect
         };
     }
 
+    /**
+     * Creates a collector which computes the count, sum, minimum, maximum,
+     * mean and variance of the elements of a primitive int iterator in a
+     * single pass.
+     *
+     * @return A collector summarising the elements traversed by a primitive
+     *         int iterator.
+     */
+    public static IntIteratorCollector<IntSummary> summarizeInts()
+    {
+        return SummaryCollectors::summarize;
+    }
+
+    /**
+     * Creates a collector which computes the count, sum, minimum, maximum,
+     * mean and variance of the elements of a primitive long iterator in a
+     * single pass.
+     *
+     * @return A collector summarising the elements traversed by a primitive
+     *         long iterator.
+     */
+    public static LongIteratorCollector<LongSummary> summarizeLongs()
+    {
+        return SummaryCollectors::summarize;
+    }
+
+    /**
+     * Creates a collector which computes the count, sum, minimum, maximum,
+     * mean and variance of the elements of a primitive double iterator in a
+     * single pass. The sum is computed with compensated summation.
+     *
+     * @return A collector summarising the elements traversed by a primitive
+     *         double iterator.
+     */
+    public static DoubleIteratorCollector<DoubleSummary> summarizeDoubles()
+    {
+        return SummaryCollectors::summarize;
+    }
+
+    /**
+     * Creates a collector which selects the k greatest elements of an
+     * iterator under a comparator in a single pass, using a heap of at most k
+     * elements rather than sorting every element.
+     *
+     * @param <E>   The inferred element type of the compatible source
+     *              iterators.
+     * @param k     The maximum number of elements to select, must be
+     *              non-negative.
+     * @param order The order under which the greatest elements are selected.
+     * @return A collector returning a vector of the k greatest elements (or
+     *         all elements if there are fewer) in descending order.
+     */
+    public static <E> IteratorCollector<E, Vec<E>> topK(int k,
+            Comparator<? super E> order)
+    {
+        return new TopK.OfObject<>(k, order);
+    }
+
+    /**
+     * Creates a collector which selects the k least elements of an iterator
+     * under a comparator in a single pass, using a heap of at most k elements
+     * rather than sorting every element.
+     *
+     * @param <E>   The inferred element type of the compatible source
+     *              iterators.
+     * @param k     The maximum number of elements to select, must be
+     *              non-negative.
+     * @param order The order under which the least elements are selected.
+     * @return A collector returning a vector of the k least elements (or all
+     *         elements if there are fewer) in ascending order.
+     */
+    public static <E> IteratorCollector<E, Vec<E>> bottomK(int k,
+            Comparator<? super E> order)
+    {
+        return new TopK.OfObject<>(k, order.reversed());
+    }
+
+    /**
+     * Creates a collector which selects the k elements of an iterator with
+     * the greatest primitive keys in a single pass. The key of each element
+     * is computed once and the keys are held in a primitive heap.
+     *
+     * @param <E> The inferred element type of the compatible source
+     *            iterators.
+     * @param k   The maximum number of elements to select, must be
+     *            non-negative.
+     * @param key The function computing the key of each element.
+     * @return A collector returning a vector of the k elements with the
+     *         greatest keys (or all elements if there are fewer) in descending
+     *         order of key.
+     */
+    public static <E> IteratorCollector<E, Vec<E>> topKByKey(int k,
+            ToDoubleFunction<? super E> key)
+    {
+        return new TopK.ByDoubleKey<>(k, true, key);
+    }
+
+    /**
+     * Creates a collector which selects the k elements of an iterator with
+     * the least primitive keys in a single pass. The key of each element is
+     * computed once and the keys are held in a primitive heap.
+     *
+     * @param <E> The inferred element type of the compatible source
+     *            iterators.
+     * @param k   The maximum number of elements to select, must be
+     *            non-negative.
+     * @param key The function computing the key of each element.
+     * @return A collector returning a vector of the k elements with the least
+     *         keys (or all elements if there are fewer) in ascending order of
+     *         key.
+     */
+    public static <E> IteratorCollector<E, Vec<E>> bottomKByKey(int k,
+            ToDoubleFunction<? super E> key)
+    {
+        return new TopK.ByDoubleKey<>(k, false, key);
+    }
+
     /**
      * Creates a collector which applies the same logic as
      * {@link RichIterator#associate(Function)} but optimizes the result for
@@ -176,4 +304,71 @@ public class IterCollect
             return Tup.of(Vec.copy(left), Vec.copy(right));
         };
     }
+
+    /**
+     * Creates a collector which groups the elements of an iterator by a
+     * primitive int key, analogous to {@link RichIterator#groupBy(Function)}.
+     * The keys are never boxed and the groups are stored in an open addressing
+     * map rather than a {@link HashMap}.
+     *
+     * @param <E>        The inferred element type of the compatible source
+     *                   iterators.
+     * @param classifier The function computing the group key of each element.
+     * @return A collector mapping each key to the list of elements with that
+     *         key in the order in which they were traversed.
+     */
+    public static <E> IteratorCollector<E, IntObjMap<List<E>>> groupByInt(
+            ToIntFunction<? super E> classifier)
+    {
+        return new IntKeyedCollectors.GroupBy<>(classifier);
+    }
+
+    /**
+     * Creates a collector which counts the elements of an iterator in groups
+     * determined by a primitive int key without boxing the keys or the counts.
+     *
+     * @param <E>        The inferred element type of the compatible source
+     *                   iterators.
+     * @param classifier The function computing the group key of each element.
+     * @return A collector mapping each key to the number of elements with that
+     *         key.
+     */
+    public static <E> IteratorCollector<E, IntLongMap> countByInt(
+            ToIntFunction<? super E> classifier)
+    {
+        return new IntKeyedCollectors.SumBy<>(classifier, null);
+    }
+
+    /**
+     * Creates a collector which sums a primitive long value computed from each
+     * element of an iterator in groups determined by a primitive int key,
+     * without boxing the keys or the sums.
+     *
+     * @param <E>        The inferred element type of the compatible source
+     *                   iterators.
+     * @param classifier The function computing the group key of each element.
+     * @param summand    The function computing the value of each element to
+     *                   add to the sum of its group.
+     * @return A collector mapping each key to the sum of the values of the
+     *         elements with that key.
+     */
+    public static <E> IteratorCollector<E, IntLongMap> sumByKey(
+            ToIntFunction<? super E> classifier,
+            ToLongFunction<? super E> summand)
+    {
+        return new IntKeyedCollectors.SumBy<>(classifier,
+                Objects.requireNonNull(summand));
+    }
+
+    /**
+     * Creates a collector which counts the occurrences of each distinct value
+     * in a primitive int iterator without boxing.
+     *
+     * @return A collector mapping each value traversed by an iterator to the
+     *         number of times it occurred.
+     */
+    public static IntIteratorCollector<IntLongMap> histogram()
+    {
+        return new IntKeyedCollectors.Histogram();
+    }
 }
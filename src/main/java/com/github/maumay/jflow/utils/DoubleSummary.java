@@ -0,0 +1,150 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.utils;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable summary statistics of a sequence of primitive double values, i.e.
+ * the count, sum, minimum, maximum, mean and variance. Summaries of disjoint
+ * sequences can be merged, so a large sequence can be summarised in parts
+ * (e.g. in parallel) and the results combined. Sums are computed with
+ * compensated summation so they are accurate to within a few units of the
+ * last place regardless of the number of values.
+ *
+ * @author t
+ */
+public final class DoubleSummary
+{
+    private static final DoubleSummary EMPTY = new DoubleSummary(0, 0,
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0);
+
+    private final long count;
+    private final double sum;
+    private final double min, max;
+    private final double squaredDeviations;
+
+    /**
+     * @param count             The number of values.
+     * @param sum               The sum of the values.
+     * @param min               The least value.
+     * @param max               The greatest value.
+     * @param squaredDeviations The sum of the squared differences between
+     *                          each value and the mean.
+     */
+    public DoubleSummary(long count, double sum, double min, double max,
+            double squaredDeviations)
+    {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.squaredDeviations = squaredDeviations;
+    }
+
+    /**
+     * @return The summary of an empty sequence.
+     */
+    public static DoubleSummary empty()
+    {
+        return EMPTY;
+    }
+
+    /**
+     * @return The number of values.
+     */
+    public long count()
+    {
+        return count;
+    }
+
+    /**
+     * @return The sum of the values, zero if there are none.
+     */
+    public double sum()
+    {
+        return sum;
+    }
+
+    /**
+     * @return The least value.
+     * @throws NoSuchElementException If there are no values.
+     */
+    public double min()
+    {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return min;
+    }
+
+    /**
+     * @return The greatest value.
+     * @throws NoSuchElementException If there are no values.
+     */
+    public double max()
+    {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return max;
+    }
+
+    /**
+     * @return The arithmetic mean of the values, NaN if there are none.
+     */
+    public double mean()
+    {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * @return The sample variance of the values, NaN if there are fewer than
+     *         two.
+     */
+    public double variance()
+    {
+        return count < 2 ? Double.NaN : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * @return The sample standard deviation of the values, NaN if there are
+     *         fewer than two.
+     */
+    public double standardDeviation()
+    {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * Combines this summary with the summary of a disjoint sequence.
+     *
+     * @param other The summary to merge with this one.
+     * @return The summary of the concatenation of the two sequences.
+     */
+    public DoubleSummary merge(DoubleSummary other)
+    {
+        if (other.count == 0) {
+            return this;
+        } else if (count == 0) {
+            return other;
+        }
+        long n = count + other.count;
+        double delta = other.mean() - mean();
+        double deviations = squaredDeviations + other.squaredDeviations
+                + delta * delta * ((double) count * other.count / n);
+        return new DoubleSummary(n, sum + other.sum, Math.min(min, other.min),
+                Math.max(max, other.max), deviations);
+    }
+
+    @Override
+    public String toString()
+    {
+        return new StringBuilder("DoubleSummary(count=").append(count)
+                .append(", sum=").append(sum).append(", min=").append(min)
+                .append(", max=").append(max).append(", mean=")
+                .append(mean()).append(", variance=").append(variance())
+                .append(")").toString();
+    }
+}
@@ -0,0 +1,312 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.utils;
+
+import com.github.maumay.jflow.iterator.IntLongConsumer;
+import com.github.maumay.jflow.vec.IntVec;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.StringJoiner;
+
+/**
+ * A mutable hash map from primitive int keys to primitive long values which
+ * never boxes either. Entries are stored in parallel arrays using open
+ * addressing with linear probing so no objects are allocated per entry. The
+ * key zero marks a free slot and so is stored separately. This map is the
+ * result type of the counting and summing collectors in {@link
+ * com.github.maumay.jflow.iterator.collector.IterCollect}. Instances are not
+ * thread safe.
+ *
+ * @author t
+ */
+public final class IntLongMap
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private long[] values;
+    private int mask, size, resizeThreshold;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    /**
+     * Creates an empty map with a small default capacity.
+     */
+    public IntLongMap()
+    {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map which can hold the given number of entries without
+     * resizing.
+     *
+     * @param expectedSize The expected number of entries, must be
+     *                     non-negative.
+     */
+    public IntLongMap(int expectedSize)
+    {
+        Exceptions.require(expectedSize >= 0);
+        allocate(IntMaps.capacityFor(expectedSize, MIN_CAPACITY));
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity / 2;
+    }
+
+    /**
+     * @return The number of entries in this map.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return Whether this map contains no entries.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    private int indexOf(int key)
+    {
+        int[] ks = keys;
+        int i = IntMaps.mix(key) & mask;
+        while (ks[i] != 0) {
+            if (ks[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param key The key to search for.
+     * @return Whether this map contains an entry with the given key.
+     */
+    public boolean containsKey(int key)
+    {
+        return key == 0 ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Retrieves the value associated to the given key.
+     *
+     * @param key The key to look up.
+     * @return The value associated to the key.
+     * @throws NoSuchElementException if there is no entry with the given key.
+     */
+    public long get(int key)
+    {
+        if (key == 0) {
+            if (hasZeroKey) {
+                return zeroValue;
+            }
+        } else {
+            int index = indexOf(key);
+            if (index >= 0) {
+                return values[index];
+            }
+        }
+        throw new NoSuchElementException(Integer.toString(key));
+    }
+
+    /**
+     * Retrieves the value associated to the given key or the given default if
+     * there is no such value.
+     *
+     * @param key          The key to look up.
+     * @param defaultValue The value to return if the key is absent.
+     * @return The value associated to the key or the default value.
+     */
+    public long getOrDefault(int key, long defaultValue)
+    {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        } else {
+            int index = indexOf(key);
+            return index >= 0 ? values[index] : defaultValue;
+        }
+    }
+
+    /**
+     * Associates the given value to the given key, replacing any existing
+     * value.
+     *
+     * @param key   The key of the entry.
+     * @param value The new value of the entry.
+     */
+    public void put(int key, long value)
+    {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+        } else {
+            int index = insertionIndex(key);
+            values[index] = value;
+        }
+    }
+
+    /**
+     * Adds the given amount to the value associated to the given key, an
+     * absent key is treated as being associated to zero.
+     *
+     * @param key   The key of the entry to update.
+     * @param delta The amount to add.
+     * @return The value associated to the key after the update.
+     */
+    public long addTo(int key, long delta)
+    {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return zeroValue += delta;
+        } else {
+            // The index must be found first as inserting may replace the arrays.
+            int index = insertionIndex(key);
+            return values[index] += delta;
+        }
+    }
+
+    /**
+     * Finds the slot of the given non-zero key, claiming a free slot (whose
+     * value is zero) if the key is absent.
+     */
+    private int insertionIndex(int key)
+    {
+        int[] ks = keys;
+        int i = IntMaps.mix(key) & mask;
+        while (ks[i] != 0) {
+            if (ks[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size - (hasZeroKey ? 1 : 0) >= resizeThreshold) {
+            rehash(2 * keys.length);
+            return insertionIndex(key);
+        }
+        ks[i] = key;
+        size++;
+        return i;
+    }
+
+    private void rehash(int capacity)
+    {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            int key = oldKeys[j];
+            if (key != 0) {
+                int i = IntMaps.mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Applies the given action to each entry of this map, the order of
+     * traversal is unspecified.
+     *
+     * @param action The action to apply to each key and value.
+     */
+    public void forEach(IntLongConsumer action)
+    {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        int[] ks = keys;
+        long[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != 0) {
+                action.accept(ks[i], vs[i]);
+            }
+        }
+    }
+
+    /**
+     * @return A vector containing the keys of this map in ascending order.
+     */
+    public IntVec keys()
+    {
+        int[] dest = new int[size];
+        int count = 0;
+        if (hasZeroKey) {
+            dest[count++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                dest[count++] = key;
+            }
+        }
+        Arrays.sort(dest);
+        return IntVec.of(dest);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof IntLongMap) {
+            IntLongMap other = (IntLongMap) obj;
+            if (other.size != size
+                    || (hasZeroKey && !(other.hasZeroKey
+                            && other.zeroValue == zeroValue))) {
+                return false;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                int key = keys[i];
+                if (key != 0) {
+                    int index = other.indexOf(key);
+                    if (index < 0 || other.values[index] != values[i]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode()
+    {
+        // Matches the hash of the equivalent boxed java.util.Map.
+        int hash = hasZeroKey ? Long.hashCode(zeroValue) : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                hash += keys[i] ^ Long.hashCode(values[i]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach((k, v) -> joiner.add(k + "=" + v));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.utils;
+
+/**
+ * Hashing helpers shared by the open addressing primitive keyed maps.
+ *
+ * @author t
+ */
+final class IntMaps
+{
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private IntMaps()
+    {
+    }
+
+    /**
+     * Scrambles a key so that sequential keys are spread across the table
+     * rather than occupying one long probe run.
+     */
+    static int mix(int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Computes the power of two table length which keeps the load factor of a
+     * table holding the given number of entries at most one half.
+     */
+    static int capacityFor(int expectedSize, int minCapacity)
+    {
+        long required = Math.max(2L * expectedSize, minCapacity);
+        if (required > MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "Too many entries: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+}
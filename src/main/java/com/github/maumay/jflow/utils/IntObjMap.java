@@ -0,0 +1,319 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.utils;
+
+import com.github.maumay.jflow.iterator.IntObjConsumer;
+import com.github.maumay.jflow.vec.IntVec;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.IntFunction;
+
+/**
+ * A mutable hash map from primitive int keys to non-null object values which
+ * never boxes its keys. Entries are stored in parallel arrays using open
+ * addressing with linear probing so no node objects are allocated per entry.
+ * The key zero marks a free slot and so is stored separately. This map is the
+ * result type of the grouping collectors in {@link
+ * com.github.maumay.jflow.iterator.collector.IterCollect}. Instances are not
+ * thread safe.
+ *
+ * @param <V> The type of the values in this map.
+ *
+ * @author t
+ */
+public final class IntObjMap<V>
+{
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask, size, resizeThreshold;
+    private Object zeroValue;
+
+    /**
+     * Creates an empty map with a small default capacity.
+     */
+    public IntObjMap()
+    {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map which can hold the given number of entries without
+     * resizing.
+     *
+     * @param expectedSize The expected number of entries, must be
+     *                     non-negative.
+     */
+    public IntObjMap(int expectedSize)
+    {
+        Exceptions.require(expectedSize >= 0);
+        allocate(IntMaps.capacityFor(expectedSize, MIN_CAPACITY));
+    }
+
+    private void allocate(int capacity)
+    {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity / 2;
+    }
+
+    /**
+     * @return The number of entries in this map.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return Whether this map contains no entries.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    private int indexOf(int key)
+    {
+        int[] ks = keys;
+        int i = IntMaps.mix(key) & mask;
+        while (ks[i] != 0) {
+            if (ks[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V find(int key)
+    {
+        if (key == 0) {
+            return (V) zeroValue;
+        } else {
+            int index = indexOf(key);
+            return index >= 0 ? (V) values[index] : null;
+        }
+    }
+
+    /**
+     * @param key The key to search for.
+     * @return Whether this map contains an entry with the given key.
+     */
+    public boolean containsKey(int key)
+    {
+        return find(key) != null;
+    }
+
+    /**
+     * Retrieves the value associated to the given key.
+     *
+     * @param key The key to look up.
+     * @return The value associated to the key.
+     * @throws NoSuchElementException if there is no entry with the given key.
+     */
+    public V get(int key)
+    {
+        V value = find(key);
+        if (value == null) {
+            throw new NoSuchElementException(Integer.toString(key));
+        }
+        return value;
+    }
+
+    /**
+     * Safely retrieves the value associated to the given key.
+     *
+     * @param key The key to look up.
+     * @return The value associated to the key if there is one, nothing
+     *         otherwise.
+     */
+    public Optional<V> getOp(int key)
+    {
+        return Optional.ofNullable(find(key));
+    }
+
+    /**
+     * Associates the given value to the given key, replacing any existing
+     * value.
+     *
+     * @param key   The key of the entry.
+     * @param value The new value of the entry, must not be null.
+     */
+    public void put(int key, V value)
+    {
+        Objects.requireNonNull(value);
+        if (key == 0) {
+            if (zeroValue == null) {
+                size++;
+            }
+            zeroValue = value;
+        } else {
+            // The index must be found first as inserting may replace the arrays.
+            int index = insertionIndex(key);
+            values[index] = value;
+        }
+    }
+
+    /**
+     * Retrieves the value associated to the given key, if there is no such
+     * value then one is created using the given function and stored first.
+     *
+     * @param key     The key to look up.
+     * @param factory Creates the value for an absent key from the key, must
+     *                not return null.
+     * @return The existing or newly created value associated to the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int key, IntFunction<? extends V> factory)
+    {
+        if (key == 0) {
+            if (zeroValue == null) {
+                zeroValue = Objects.requireNonNull(factory.apply(key));
+                size++;
+            }
+            return (V) zeroValue;
+        } else {
+            int existing = indexOf(key);
+            if (existing >= 0) {
+                return (V) values[existing];
+            }
+            V value = Objects.requireNonNull(factory.apply(key));
+            int index = insertionIndex(key);
+            values[index] = value;
+            return value;
+        }
+    }
+
+    /**
+     * Finds the slot of the given non-zero key, claiming a free slot if the key
+     * is absent. The caller must store a value in a claimed slot.
+     */
+    private int insertionIndex(int key)
+    {
+        int[] ks = keys;
+        int i = IntMaps.mix(key) & mask;
+        while (ks[i] != 0) {
+            if (ks[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        if (size - (zeroValue == null ? 0 : 1) >= resizeThreshold) {
+            rehash(2 * keys.length);
+            return insertionIndex(key);
+        }
+        ks[i] = key;
+        size++;
+        return i;
+    }
+
+    private void rehash(int capacity)
+    {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            int key = oldKeys[j];
+            if (key != 0) {
+                int i = IntMaps.mix(key) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Applies the given action to each entry of this map, the order of
+     * traversal is unspecified.
+     *
+     * @param action The action to apply to each key and value.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(IntObjConsumer<? super V> action)
+    {
+        if (zeroValue != null) {
+            action.accept(0, (V) zeroValue);
+        }
+        int[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != 0) {
+                action.accept(ks[i], (V) vs[i]);
+            }
+        }
+    }
+
+    /**
+     * @return A vector containing the keys of this map in ascending order.
+     */
+    public IntVec keys()
+    {
+        int[] dest = new int[size];
+        int count = 0;
+        if (zeroValue != null) {
+            dest[count++] = 0;
+        }
+        for (int key : keys) {
+            if (key != 0) {
+                dest[count++] = key;
+            }
+        }
+        Arrays.sort(dest);
+        return IntVec.of(dest);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof IntObjMap<?>) {
+            IntObjMap<?> other = (IntObjMap<?>) obj;
+            if (other.size != size || (zeroValue != null
+                    && !zeroValue.equals(other.zeroValue))) {
+                return false;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0 && !values[i].equals(other.find(keys[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode()
+    {
+        // Matches the hash of the equivalent boxed java.util.Map.
+        int hash = zeroValue != null ? zeroValue.hashCode() : 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                hash += keys[i] ^ values[i].hashCode();
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach((k, v) -> joiner.add(k + "=" + v));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.utils;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable summary statistics of a sequence of primitive int values, i.e.
+ * the count, sum, minimum, maximum, mean and variance. Summaries of disjoint
+ * sequences can be merged, so a large sequence can be summarised in parts
+ * (e.g. in parallel) and the results combined. The sum is exact unless it
+ * overflows a long.
+ *
+ * @author t
+ */
+public final class IntSummary
+{
+    private static final IntSummary EMPTY = new IntSummary(0, 0,
+            Integer.MAX_VALUE, Integer.MIN_VALUE, 0);
+
+    private final long count;
+    private final long sum;
+    private final int min, max;
+    private final double squaredDeviations;
+
+    /**
+     * @param count             The number of values.
+     * @param sum               The sum of the values.
+     * @param min               The least value.
+     * @param max               The greatest value.
+     * @param squaredDeviations The sum of the squared differences between
+     *                          each value and the mean.
+     */
+    public IntSummary(long count, long sum, int min, int max,
+            double squaredDeviations)
+    {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.squaredDeviations = squaredDeviations;
+    }
+
+    /**
+     * @return The summary of an empty sequence.
+     */
+    public static IntSummary empty()
+    {
+        return EMPTY;
+    }
+
+    /**
+     * @return The number of values.
+     */
+    public long count()
+    {
+        return count;
+    }
+
+    /**
+     * @return The sum of the values, zero if there are none.
+     */
+    public long sum()
+    {
+        return sum;
+    }
+
+    /**
+     * @return The least value.
+     * @throws NoSuchElementException If there are no values.
+     */
+    public int min()
+    {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return min;
+    }
+
+    /**
+     * @return The greatest value.
+     * @throws NoSuchElementException If there are no values.
+     */
+    public int max()
+    {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return max;
+    }
+
+    /**
+     * @return The arithmetic mean of the values, NaN if there are none.
+     */
+    public double mean()
+    {
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+
+    /**
+     * @return The sample variance of the values, NaN if there are fewer than
+     *         two.
+     */
+    public double variance()
+    {
+        return count < 2 ? Double.NaN : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * @return The sample standard deviation of the values, NaN if there are
+     *         fewer than two.
+     */
+    public double standardDeviation()
+    {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * Combines this summary with the summary of a disjoint sequence.
+     *
+     * @param other The summary to merge with this one.
+     * @return The summary of the concatenation of the two sequences.
+     */
+    public IntSummary merge(IntSummary other)
+    {
+        if (other.count == 0) {
+            return this;
+        } else if (count == 0) {
+            return other;
+        }
+        long n = count + other.count;
+        double delta = other.mean() - mean();
+        double deviations = squaredDeviations + other.squaredDeviations
+                + delta * delta * ((double) count * other.count / n);
+        return new IntSummary(n, sum + other.sum, Math.min(min, other.min),
+                Math.max(max, other.max), deviations);
+    }
+
+    @Override
+    public String toString()
+    {
+        return new StringBuilder("IntSummary(count=").append(count)
+                .append(", sum=").append(sum).append(", min=").append(min)
+                .append(", max=").append(max).append(", mean=")
+                .append(mean()).append(", variance=").append(variance())
+                .append(")").toString();
+    }
+}
@@ -4,9 +4,13 @@
 package com.github.maumay.jflow.vec;
 
 import com.github.maumay.jflow.impl.ArraySource;
+import com.github.maumay.jflow.impl.MappedVecs;
 import com.github.maumay.jflow.iterable.LongIterable;
 import com.github.maumay.jflow.iterator.LongIterator;
+import com.github.maumay.jflow.iterator.ParallelLongIterator;
 
+import java.nio.file.Path;
+import java.util.PrimitiveIterator;
 import java.util.stream.LongStream;
 
 /**
@@ -48,6 +52,40 @@ public interface LongVec extends LongIterable
      */
     LongStream stream();
 
+    /**
+     * Creates a parallel iterator over the elements in this vector which
+     * executes its operations on the common fork-join pool.
+     *
+     * @return a parallel iterator over the elements of this vector whose
+     * consuming methods preserve the order of this vector.
+     */
+    ParallelLongIterator parIter();
+
+    /**
+     * Creates a vector containing the elements of this vector lying in the
+     * half open index range [from, to). This is a constant time operation, the
+     * result is a view which shares the storage of this vector.
+     *
+     * @param from the index of the first element of the result (inclusive).
+     * @param to   the index of the last element of the result (exclusive).
+     * @return a vector of length {@code to - from} containing the specified
+     * range of elements of this vector.
+     * @throws IndexOutOfBoundsException if the range is not contained in the
+     *                                   valid indices of this vector.
+     */
+    LongVec subVec(int from, int to);
+
+    /**
+     * Creates a vector equal to this one which does not share its storage with
+     * any other vector. Vectors created by {@link #subVec(int, int)} may keep the
+     * storage of their parent alive, a small range of a large vector should be
+     * compacted if it is retained for a long time.
+     *
+     * @return a vector equal to this one backed by an on heap array holding only
+     * its own elements, this vector itself if it already is one.
+     */
+    LongVec compact();
+
     /**
      * Creates a vector wrapper around the given arguments, <b>no</b> defensive
      * copying takes place.
@@ -69,4 +107,38 @@ public interface LongVec extends LongIterable
     {
         return Constants.EMPTY_LONG_VEC;
     }
+
+    /**
+     * Maps a file written by {@link #writeFile(Path, PrimitiveIterator.OfLong)}
+     * into memory and wraps it in a vector. The elements are not copied onto the
+     * heap, they are paged in by the operating system on access and the mapping
+     * may be shared with other processes reading the same file. The file must
+     * not be modified while the vector is in use.
+     *
+     * @param path the file to map, its length must be a multiple of the size of a
+     *             long.
+     * @return a vector backed by the contents of the given file.
+     * @throws java.io.UncheckedIOException if the file could not be mapped.
+     */
+    static LongVec mapFile(Path path)
+    {
+        return MappedVecs.mapLongs(path);
+    }
+
+    /**
+     * Writes the remaining elements of the given iterator to a file (replacing
+     * any existing contents) so that it can later be mapped using
+     * {@link #mapFile(Path)}. The elements are streamed through a small buffer
+     * so the whole sequence is never held in memory. The file consists of the
+     * raw elements in little endian byte order.
+     *
+     * @param path   the file to write to.
+     * @param source the elements to write.
+     * @return the number of elements written.
+     * @throws java.io.UncheckedIOException if the file could not be written.
+     */
+    static long writeFile(Path path, PrimitiveIterator.OfLong source)
+    {
+        return MappedVecs.writeLongs(path, source);
+    }
 }
@@ -0,0 +1,138 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.vec;
+
+import com.github.maumay.jflow.impl.PersistentVecImpl;
+import com.github.maumay.jflow.iterator.RichIterator;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * An immutable vector supporting efficient non-destructive updates. Unlike the
+ * array backed {@link Vec} which copies all of its elements when an element is
+ * appended, the result of an update shares almost all of its structure with
+ * the original so that building a vector one element at a time is no longer
+ * quadratic.
+ * </p>
+ * <p>
+ * The elements are stored in the leaves of a balanced binary tree, each leaf
+ * holding a chunk of up to 32 consecutive elements. Indexed access, single
+ * element updates, appending, inserting, concatenation and taking subvectors
+ * all run in time logarithmic in the size of the vector. Sequential traversal
+ * runs in linear time.
+ * </p>
+ *
+ * @param <E> The element type of this vector.
+ *
+ * @author t
+ */
+public interface PersistentVec<E> extends Vec<E>
+{
+    /**
+     * Creates a new vector with the element at the given index replaced.
+     *
+     * @param index   The index of the element to replace.
+     * @param element The replacement element, must not be null.
+     * @return A vector equal to this one except at the given index where the
+     *         given element is stored.
+     * @throws IndexOutOfBoundsException if the index is not a valid index of
+     *                                   this vector.
+     */
+    PersistentVec<E> set(int index, E element);
+
+    /**
+     * Creates a new vector consisting of the elements of this vector followed by
+     * the elements of the given vector. If the other vector is persistent the
+     * two vectors share their structure with the result.
+     *
+     * @param other The vector to concatenate onto the end of this one.
+     * @return The concatenation of this vector and the given one.
+     */
+    PersistentVec<E> concat(Vec<? extends E> other);
+
+    @Override
+    PersistentVec<E> append(E other);
+
+    @Override
+    PersistentVec<E> append(Iterable<? extends E> other);
+
+    @Override
+    PersistentVec<E> append(Collection<? extends E> other);
+
+    @Override
+    PersistentVec<E> insert(E other);
+
+    @Override
+    PersistentVec<E> insert(Iterable<? extends E> other);
+
+    @Override
+    PersistentVec<E> insert(Collection<? extends E> other);
+
+    @Override
+    PersistentVec<E> subVec(int from, int to);
+
+    @Override
+    PersistentVec<E> compact();
+
+    @Override
+    PersistentVec<E> take(int n);
+
+    @Override
+    PersistentVec<E> takeWhile(Predicate<? super E> predicate);
+
+    @Override
+    PersistentVec<E> skip(int n);
+
+    @Override
+    PersistentVec<E> skipWhile(Predicate<? super E> predicate);
+
+    // Static factories
+
+    /**
+     * Retrieves the empty persistent vector.
+     *
+     * @param <E> The inferred type of the empty vector.
+     * @return The empty persistent vector.
+     */
+    static <E> PersistentVec<E> empty()
+    {
+        return PersistentVecImpl.empty();
+    }
+
+    /**
+     * Creates a persistent vector containing the given elements, the elements
+     * are copied so later changes to a passed array are not reflected in the
+     * result. If a null reference is passed as an argument then an exception
+     * will be thrown.
+     *
+     * @param <E>      The element type of the new vector.
+     * @param elements The elements which will populate the resulting vector.
+     * @return A persistent vector containing the arguments.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <E> PersistentVec<E> of(E... elements)
+    {
+        // The elements are only read into new nodes, so exposing them to a
+        // method taking an Object[] cannot pollute the heap.
+        return PersistentVecImpl.copyOf(elements);
+    }
+
+    /**
+     * Copies the contents of the given vector into a persistent vector, if the
+     * given vector is already persistent it is simply returned. To build a
+     * persistent vector from an iterator see {@link
+     * RichIterator#toPersistentVec()}.
+     *
+     * @param <E> The element type of the new vector.
+     * @param vec The vector to copy.
+     * @return A persistent vector containing the elements of the given vector.
+     */
+    static <E> PersistentVec<E> copy(Vec<? extends E> vec)
+    {
+        return PersistentVecImpl.copyOf(vec);
+    }
+}
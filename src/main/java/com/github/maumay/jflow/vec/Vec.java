@@ -8,6 +8,7 @@ import com.github.maumay.jflow.impl.CollectionSource;
 import com.github.maumay.jflow.impl.EmptyIterator;
 import com.github.maumay.jflow.impl.VecCollector;
 import com.github.maumay.jflow.iterable.RichIterable;
+import com.github.maumay.jflow.iterator.ParallelIterator;
 import com.github.maumay.jflow.iterator.RichIterator;
 import com.github.maumay.jflow.utils.Tup;
 
@@ -48,6 +49,41 @@ public interface Vec<E> extends RichIterable<E>, Indexable<E>
      */
     Stream<E> stream();
 
+    /**
+     * Creates a parallel iterator over the elements in this vector which
+     * executes its operations on the common fork-join pool.
+     *
+     * @return A parallel iterator over the elements of this vector whose
+     *         consuming methods preserve the order of this vector.
+     */
+    ParallelIterator<E> parIter();
+
+    /**
+     * Creates a vector containing the elements of this vector lying in the half
+     * open index range [from, to). This is a constant time operation, the result
+     * is a view which shares the storage of this vector.
+     *
+     * @param from The index of the first element of the result (inclusive).
+     * @param to   The index of the last element of the result (exclusive).
+     * @return A vector of length {@code to - from} containing the specified range
+     *         of elements of this vector.
+     * @throws IndexOutOfBoundsException if the range is not contained in the
+     *                                   valid indices of this vector.
+     */
+    Vec<E> subVec(int from, int to);
+
+    /**
+     * Creates a vector equal to this one which does not share its storage with
+     * any other vector. Vectors created by {@link #subVec(int, int)}, take, skip
+     * and similar methods are views which keep the storage of their parent alive,
+     * a small view of a large vector should be compacted if it is retained for a
+     * long time.
+     *
+     * @return A vector equal to this one which holds only its own elements, this
+     *         vector itself if it already does so.
+     */
+    Vec<E> compact();
+
     /**
      * Creates a new vector by applying a function element-wise to this vector.
      *
@@ -3,12 +3,19 @@
  */
 package com.github.maumay.jflow.api;
 
+import com.github.maumay.jflow.impl.IteratorOwnershipException;
+import com.github.maumay.jflow.iterator.IntIterator;
 import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.RichIterator;
 import com.github.maumay.jflow.iterator.collector.IterCollect;
+import com.github.maumay.jflow.utils.IntLongMap;
+import com.github.maumay.jflow.utils.IntObjMap;
 import com.github.maumay.jflow.utils.Tup;
 import com.github.maumay.jflow.vec.Vec;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.OptionalDouble;
 
@@ -47,4 +54,57 @@ public final class IterCollectTest
         assertEquals(Tup.of(vec(1, 3), vec(2, 4)),
                 source.iter().collect(IterCollect.split()));
     }
+
+    @Test
+    void testGroupByInt()
+    {
+        IntObjMap<List<String>> expected = new IntObjMap<>();
+        expected.put(1, Arrays.asList("a", "b"));
+        expected.put(2, Arrays.asList("cd"));
+        expected.put(0, Arrays.asList(""));
+        assertEquals(expected, vec("a", "cd", "", "b").iter()
+                .collect(IterCollect.groupByInt(String::length)));
+    }
+
+    @Test
+    void testCountAndSumByInt()
+    {
+        IntLongMap counts = new IntLongMap();
+        counts.put(0, 4);
+        counts.put(1, 3);
+        counts.put(2, 3);
+        assertEquals(counts, Iter.until(10).boxed()
+                .collect(IterCollect.countByInt(x -> x % 3)));
+
+        IntLongMap sums = new IntLongMap();
+        sums.put(0, 0 + 3 + 6 + 9);
+        sums.put(1, 1 + 4 + 7);
+        sums.put(-1, 2 + 5 + 8);
+        assertEquals(sums, Iter.until(10).boxed().collect(
+                IterCollect.sumByKey(x -> x % 3 == 2 ? -1 : x % 3, x -> x)));
+    }
+
+    @Test
+    void testHistogram()
+    {
+        IntLongMap expected = new IntLongMap();
+        expected.put(5, 2);
+        expected.put(0, 1);
+        expected.put(-3, 3);
+        assertEquals(expected, Iter.ints(-3, 5, 0, -3, 5, -3)
+                .collect(IterCollect.histogram()));
+        assertEquals(new IntLongMap(),
+                Iter.emptyInts().collect(IterCollect.histogram()));
+    }
+
+    @Test
+    void testKeyedCollectorsTakeOwnership()
+    {
+        RichIterator<Integer> boxed = Iter.until(10).boxed();
+        IterCollect.countByInt((Integer x) -> x % 3).collect(boxed);
+        assertThrows(IteratorOwnershipException.class, boxed::toList);
+        IntIterator ints = Iter.ints(1, 2, 2);
+        IterCollect.histogram().collect(ints);
+        assertThrows(IteratorOwnershipException.class, ints::toArray);
+    }
 }
@@ -0,0 +1,128 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.api;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.utils.Tup;
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+import com.github.maumay.jflow.vec.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks the parallel iterators agree with their sequential counterparts, the
+ * sizes are chosen so that the empty, single leaf and many leaf cases are all
+ * covered.
+ *
+ * @author t
+ */
+public final class ParallelIteratorTest
+{
+    private static final IntVec SIZES = IntVec.of(0, 1, 7, 10_000);
+
+    @Test
+    void testToVecPreservesOrder()
+    {
+        SIZES.iter().forEach(n -> {
+            Vec<Integer> source = Iter.until(n).boxed().toVec();
+            assertEquals(source.map(x -> x + 1),
+                    source.parIter().map(x -> x + 1).toVec());
+            assertEquals(source.filter(x -> x % 3 == 0),
+                    source.parIter().filter(x -> x % 3 == 0).toVec());
+            assertEquals(source.iter().mapToInt(x -> 2 * x).toVec(),
+                    source.parIter().mapToInt(x -> 2 * x).toVec());
+        });
+    }
+
+    @Test
+    void testObjectReductions()
+    {
+        SIZES.iter().forEach(n -> {
+            Vec<Integer> source = Iter.until(n).boxed().toVec();
+            assertEquals(source.iter().fold(0L, (acc, x) -> acc + x),
+                    source.parIter().fold(0L, (acc, x) -> acc + x, Long::sum));
+            assertEquals(source.iter().foldOp(Integer::sum),
+                    source.parIter().foldOp(Integer::sum));
+            assertEquals(source.iter().minOp(Comparator.naturalOrder()),
+                    source.parIter().minOp(Comparator.naturalOrder()));
+            assertEquals(source.iter().maxOp(Comparator.naturalOrder()),
+                    source.parIter().maxOp(Comparator.naturalOrder()));
+            assertEquals(source.iter().groupBy(x -> x % 5),
+                    source.parIter().groupBy(x -> x % 5));
+            assertEquals(source.size(), source.parIter().count());
+        });
+    }
+
+    @Test
+    void testMinMaxPreferFirstOccurrence()
+    {
+        Vec<Tup<Integer, Integer>> source = Iter.until(10_000)
+                .mapToObj(i -> Tup.of(i % 2, i)).toVec();
+        Comparator<Tup<Integer, Integer>> byFirst = Comparator
+                .comparing(Tup::_1);
+        Optional<Tup<Integer, Integer>> min = source.parIter().minOp(byFirst);
+        Optional<Tup<Integer, Integer>> max = source.parIter().maxOp(byFirst);
+        assertSame(source.get(0), min.get());
+        assertSame(source.get(1), max.get());
+    }
+
+    @Test
+    void testIntReductions()
+    {
+        SIZES.iter().forEach(n -> {
+            IntVec source = Iter.until(n).map(x -> x * 7919 % 101).toVec();
+            assertEquals(source.iter().fold(0, Integer::sum),
+                    source.parIter().fold(0, Integer::sum));
+            assertEquals(source.iter().foldOp(Integer::sum),
+                    source.parIter().foldOp(Integer::sum));
+            OptionalInt min = source.iter().minOp();
+            assertEquals(min, source.parIter().minOp());
+            assertEquals(source.iter().maxOp(), source.parIter().maxOp());
+            assertEquals(source.iter().filter(x -> x > 50).toVec(),
+                    source.parIter().filter(x -> x > 50).toVec());
+            assertEquals(source.size(), source.parIter().count());
+        });
+    }
+
+    @Test
+    void testLongReductions()
+    {
+        SIZES.iter().forEach(n -> {
+            LongVec source = Iter.until(n).mapToLong(x -> x * 7919L % 101)
+                    .toVec();
+            assertEquals(source.iter().fold(0L, Long::sum),
+                    source.parIter().fold(0L, Long::sum));
+            OptionalLong min = source.iter().minOp();
+            assertEquals(min, source.parIter().minOp());
+            assertEquals(source.iter().maxOp(), source.parIter().maxOp());
+            assertEquals(source.iter().map(x -> x + 1).toVec(),
+                    source.parIter().map(x -> x + 1).toVec());
+        });
+    }
+
+    @Test
+    void testDoubleReductions()
+    {
+        SIZES.iter().forEach(n -> {
+            DoubleVec source = Iter.until(n).mapToDouble(x -> x * 7919 % 101)
+                    .toVec();
+            OptionalDouble min = source.iter().minOp();
+            assertEquals(min, source.parIter().minOp());
+            assertEquals(source.iter().maxOp(), source.parIter().maxOp());
+            assertEquals(source.iter().mapToLong(x -> (long) x).toVec(),
+                    source.parIter().mapToLong(x -> (long) x).toVec());
+            assertEquals(source.size(), source.parIter().count());
+        });
+    }
+}
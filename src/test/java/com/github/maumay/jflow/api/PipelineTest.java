@@ -0,0 +1,176 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.api;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.impl.IteratorOwnershipException;
+import com.github.maumay.jflow.impl.KnownSize;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.Pipeline;
+import com.github.maumay.jflow.iterator.RichIterator;
+import com.github.maumay.jflow.vec.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks each way of applying a pipeline, compiled or not, agrees with
+ * applying the equivalent adapters directly.
+ *
+ * @author t
+ */
+public final class PipelineTest
+{
+    private static final List<List<Integer>> SOURCES = Arrays.asList(
+            Arrays.asList(), Arrays.asList(5), Arrays.asList(3, 1, 4, 1, 5),
+            Iter.until(100).boxed().toList());
+
+    private static void assertPipelineAsExpected(
+            Pipeline<Integer, Integer> pipeline,
+            Function<RichIterator<Integer>, RichIterator<Integer>> adapters)
+    {
+        assertApplicationsAsExpected(pipeline, adapters);
+        assertApplicationsAsExpected(pipeline.compile(), adapters);
+    }
+
+    private static void assertApplicationsAsExpected(
+            Pipeline<Integer, Integer> pipeline,
+            Function<RichIterator<Integer>, RichIterator<Integer>> adapters)
+    {
+        for (List<Integer> source : SOURCES) {
+            List<Integer> expected = adapters.apply(Iter.over(source)).toList();
+            // The same pipeline is applied repeatedly to check it keeps no
+            // state between applications.
+            for (int i = 0; i < 2; i++) {
+                assertEquals(expected,
+                        pipeline.apply(Vec.copy(source)).toList());
+                assertEquals(expected, pipeline.apply(source).toList());
+                assertEquals(expected,
+                        pipeline.apply(source.iterator()).toList());
+                assertEquals(expected,
+                        pipeline.apply(Iter.over(source)).toList());
+
+                List<Integer> pushed = new ArrayList<>();
+                pipeline.forEach(source, pushed::add);
+                assertEquals(expected, pushed);
+
+                assertEquals(expected.toString(),
+                        pipeline.fold(source, "[", (acc, x) -> acc
+                                + (acc.length() > 1 ? ", " : "") + x) + "]");
+                int sum = expected.stream().mapToInt(x -> x).sum();
+                assertEquals(sum, pipeline.foldInt(source, x -> x, 0,
+                        (a, b) -> a + b));
+                assertEquals(sum, pipeline.foldLong(source, x -> x, 0L,
+                        (a, b) -> a + b));
+                assertEquals(sum, pipeline.foldDouble(source, x -> x, 0.0,
+                        (a, b) -> a + b));
+
+                List<Integer> pulled = new ArrayList<>();
+                Iterator<Integer> lazy = pipeline.apply(source.iterator());
+                while (lazy.hasNext()) {
+                    pulled.add(lazy.next());
+                }
+                assertEquals(expected, pulled);
+
+                List<Integer> sunk = new ArrayList<>();
+                Consumer<Integer> sink = pipeline.into(sunk::add);
+                source.forEach(sink);
+                assertEquals(expected, sunk);
+            }
+        }
+    }
+
+    @Test
+    void testStagesMatchAdapters()
+    {
+        assertPipelineAsExpected(Pipeline.identity(), x -> x);
+        assertPipelineAsExpected(
+                Pipeline.<Integer> identity().map(x -> x + 1).map(x -> 2 * x),
+                x -> x.map(y -> y + 1).map(y -> 2 * y));
+        assertPipelineAsExpected(
+                Pipeline.<Integer> identity().filter(x -> x % 2 == 1)
+                        .map(x -> x * x).filter(x -> x > 1)
+                        .filter(x -> x < 1000),
+                x -> x.filter(y -> y % 2 == 1).map(y -> y * y)
+                        .filter(y -> y > 1).filter(y -> y < 1000));
+        assertPipelineAsExpected(
+                Pipeline.<Integer> identity().skip(1).skip(1).take(10).take(2),
+                x -> x.skip(2).take(2));
+        assertPipelineAsExpected(Pipeline.<Integer> identity().take(0),
+                x -> x.take(0));
+        assertPipelineAsExpected(
+                Pipeline.<Integer> identity().skipWhile(x -> x > 2)
+                        .takeWhile(x -> x < 50),
+                x -> x.skipWhile(y -> y > 2).takeWhile(y -> y < 50));
+        assertPipelineAsExpected(
+                Pipeline.<Integer> identity()
+                        .flatMap(x -> Iter.until(x % 4).boxed()).take(7),
+                x -> x.flatMap(y -> Iter.until(y % 4).boxed()).take(7));
+        assertPipelineAsExpected(
+                Pipeline.<Integer> identity().map(x -> x + 1)
+                        .andThen(Pipeline.<Integer> identity()
+                                .map(x -> 3 * x).skip(1)),
+                x -> x.map(y -> 3 * (y + 1)).skip(1));
+    }
+
+    @Test
+    void testShortCircuitingStopsPulling()
+    {
+        List<Integer> pulled = new ArrayList<>();
+        Iterator<Integer> source = Iter.until(10).boxed()
+                .map(x -> {
+                    pulled.add(x);
+                    return x;
+                });
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer> identity()
+                .flatMap(x -> Iter.args(x, x)).take(3);
+        assertEquals(Arrays.asList(0, 0, 1), pipeline.apply(() -> source)
+                .toList());
+        assertEquals(Arrays.asList(0, 1), pulled);
+        assertEquals(Arrays.asList(2, 2, 3),
+                pipeline.compile().apply(() -> source).toList());
+        assertEquals(Arrays.asList(0, 1, 2, 3), pulled);
+
+        Pipeline<Integer, Integer> empty = Pipeline.<Integer> identity()
+                .take(0);
+        assertEquals(Vec.empty(), empty.apply(() -> source));
+        assertEquals(Arrays.asList(0, 1, 2, 3), pulled);
+    }
+
+    @Test
+    void testCompiledIteratorPullsThenPushes()
+    {
+        Pipeline<Integer, Integer> pipeline = Pipeline.<Integer> identity()
+                .flatMap(x -> Iter.args(x, -x)).filter(x -> x != 2).compile();
+        RichIterator<Integer> iterator = pipeline.apply(Iter.until(4).boxed());
+        assertEquals(Integer.valueOf(0), iterator.next());
+        // The image of zero is still partly buffered.
+        assertEquals(Arrays.asList(0, 1, -1, -2, 3, -3), iterator.toList());
+
+        RichIterator<Integer> mapped = Pipeline.<Integer> identity()
+                .map(x -> x + 1).skip(2).compile()
+                .apply(Iter.until(5).boxed());
+        assertEquals(KnownSize.of(3),
+                ((AbstractRichIterator<?>) mapped).getSize());
+        assertEquals(Arrays.asList(3, 4, 5), mapped.toList());
+    }
+
+    @Test
+    void testLazyApplicationTakesOwnership()
+    {
+        RichIterator<Integer> source = Iter.until(5).boxed();
+        RichIterator<String> result = Pipeline.<Integer> identity()
+                .map(x -> x.toString()).apply(source);
+        assertThrows(IteratorOwnershipException.class, source::next);
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4"), result.toList());
+    }
+}
@@ -5,6 +5,7 @@ package com.github.maumay.jflow.impl;
 
 import com.github.maumay.jflow.iterator.Iter;
 import com.github.maumay.jflow.iterator.RichIterator;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -135,4 +136,61 @@ class ArrayAccumulatorsTest
         return Iter.args(Arguments.of(36, 0.5), Arguments.of(241, 0.3),
                 Arguments.of(241, 0.9));
     }
+
+    @ParameterizedTest
+    @MethodSource
+    void testBoundedAccumulation(Integer bound, Integer count)
+    {
+        ArrayAccumulators.OfInt ints = ArrayAccumulators
+                .createIntAccumulator(bound);
+        ArrayAccumulators.OfLong longs = ArrayAccumulators
+                .createLongAccumulator(bound);
+        ArrayAccumulators.OfDouble doubles = ArrayAccumulators
+                .createDoubleAccumulator(bound);
+        ArrayAccumulators.OfObject<Integer> objects = ArrayAccumulators
+                .createObjectAccumulator(bound);
+        int[] expectedInts = new int[count];
+        long[] expectedLongs = new long[count];
+        double[] expectedDoubles = new double[count];
+        Integer[] expectedObjects = new Integer[count];
+
+        for (int i = 0; i < count; i++) {
+            ints.add(i);
+            longs.add(i);
+            doubles.add(i);
+            objects.add(i);
+            expectedInts[i] = i;
+            expectedLongs[i] = i;
+            expectedDoubles[i] = i;
+            expectedObjects[i] = i;
+        }
+
+        assertArrayEquals(expectedInts, ints.compress());
+        assertArrayEquals(expectedLongs, longs.compress());
+        assertArrayEquals(expectedDoubles, doubles.compress());
+        assertArrayEquals(expectedObjects, objects.compress());
+    }
+
+    static RichIterator<Arguments> testBoundedAccumulation()
+    {
+        // The last cases exceed the bound, which should be handled gracefully.
+        return Iter.args(Arguments.of(0, 0), Arguments.of(10, 0),
+                Arguments.of(10, 7), Arguments.of(10, 10),
+                Arguments.of(100_000, 0), Arguments.of(100_000, 70_001),
+                Arguments.of(100_000, 100_000), Arguments.of(0, 5),
+                Arguments.of(10, 45), Arguments.of(100_000, 100_021));
+    }
+
+    @Test
+    void testBoundedConsumption()
+    {
+        // Filtering gives a bounded size well above the largest segment.
+        int n = 200_000;
+        int[] expected = new int[(n + 2) / 3];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = 3 * i;
+        }
+        assertArrayEquals(expected,
+                Iter.until(n).filter(x -> x % 3 == 0).toArray());
+    }
 }
@@ -0,0 +1,93 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.Iter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author t
+ */
+class ClassClonerTest
+{
+    private static void assertCopyBehaves(boolean hidden) throws Exception
+    {
+        Class<?> first = ClassCloner.copyOf(FusedStage.class, hidden);
+        Class<?> second = ClassCloner.copyOf(FusedStage.class, hidden);
+        assertNotSame(FusedStage.class, first);
+        assertNotSame(first, second);
+
+        Function<Object, Object> fn = x -> 2 * (Integer) x;
+        PipelineImpl.CompiledStage map = (PipelineImpl.CompiledStage) first
+                .getConstructor(int.class, Object.class, Object.class,
+                        int.class)
+                .newInstance(FusedStage.MAP, fn, null, 0);
+        List<Object> dest = new ArrayList<>();
+        Consumer<Object> action = dest::add;
+        PipelineImpl.Sink head = map.open(
+                map.terminal(FusedStage.FOR_EACH, action, null, null));
+        // Sinks opened from a copy must be instances of that copy.
+        assertEquals(first, head.getClass());
+        map.drive(head, (AbstractRichIterator<?>) Iter.until(3).boxed());
+        assertEquals(Arrays.asList(0, 2, 4), dest);
+
+        ToIntFunction<Object> length = x -> x.toString().length();
+        IntBinaryOperator sum = (a, b) -> a + b;
+        PipelineImpl.Terminal fold = map.terminal(FusedStage.FOLD_INT, length,
+                sum, 0);
+        map.drive(map.open(fold), (AbstractRichIterator<?>) Iter.until(8)
+                .boxed());
+        assertEquals(first, fold.getClass());
+        assertEquals(11, fold.result());
+    }
+
+    @Test
+    void testHiddenCopies() throws Exception
+    {
+        if (ClassCloner.definesHiddenClasses()) {
+            assertCopyBehaves(true);
+        }
+    }
+
+    @Test
+    void testLoaderCopies() throws Exception
+    {
+        assertCopyBehaves(false);
+    }
+
+    @Test
+    void testPipelinesCompile()
+    {
+        assertTrue(PipelineImpl.<Integer> identity().map(x -> x + 1).take(2)
+                .compile().isCompiled());
+    }
+
+    @Test
+    void testPipelinesStayCompiledWhenExtended()
+    {
+        PipelineImpl<Integer, Integer> compiled = PipelineImpl
+                .<Integer> identity().map(x -> x + 1).compile();
+        PipelineImpl<Integer, Integer> fused = compiled.map(x -> 2 * x);
+        PipelineImpl<Integer, Integer> appended = compiled.skip(1)
+                .andThen(PipelineImpl.<Integer> identity().filter(x -> x > 2));
+        assertTrue(fused.isCompiled());
+        assertTrue(appended.isCompiled());
+        assertEquals(Arrays.asList(4, 6, 8),
+                fused.apply(Iter.args(1, 2, 3)).toList());
+        assertEquals(Arrays.asList(3, 4),
+                appended.apply(Iter.args(1, 2, 3)).toList());
+    }
+}
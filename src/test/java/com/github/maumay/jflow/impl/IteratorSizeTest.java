@@ -3,6 +3,7 @@
  */
 package com.github.maumay.jflow.impl;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * @author thomasb
@@ -89,4 +91,68 @@ class IteratorSizeTest
                 Arguments.of(expected3, input3),
                 Arguments.of(expected4, input4));
     }
+
+    @ParameterizedTest
+    @MethodSource
+    void testExpectedCount(int expected, AbstractIteratorSize size)
+    {
+        assertEquals(expected, IteratorSizes.expectedCount(size));
+    }
+
+    static Stream<Arguments> testExpectedCount()
+    {
+        int cap = ArrayAccumulators.MAX_ARRAY_SIZE;
+        int fallback = IteratorSizes.DEFAULT_EXPECTED_COUNT;
+        return Stream.of(Arguments.of(0, new KnownSize(0)),
+                Arguments.of(1_000_000, new KnownSize(1_000_000)),
+                Arguments.of(10, new BoundedSize(3, 10)),
+                Arguments.of(cap, new BoundedSize(0, 1_000_000)),
+                Arguments.of(500_000, new BoundedSize(500_000, 1_000_000)),
+                Arguments.of(fallback, new LowerBound(2)),
+                Arguments.of(100, new LowerBound(100)),
+                Arguments.of(fallback, InfiniteSize.instance()));
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void testDivide(AbstractIteratorSize expected, AbstractIteratorSize size,
+            int divisor)
+    {
+        assertEquals(expected, size.divide(divisor));
+    }
+
+    static Stream<Arguments> testDivide()
+    {
+        return Stream.of(Arguments.of(new KnownSize(0), new KnownSize(0), 3),
+                Arguments.of(new KnownSize(2), new KnownSize(6), 3),
+                Arguments.of(new KnownSize(3), new KnownSize(7), 3),
+                Arguments.of(new KnownSize(7), new KnownSize(7), 1),
+                Arguments.of(new BoundedSize(1, 4), new BoundedSize(2, 7), 2),
+                Arguments.of(new LowerBound(2), new LowerBound(5), 4),
+                Arguments.of(InfiniteSize.instance(), InfiniteSize.instance(),
+                        5));
+    }
+
+    @Test
+    void testSizeTracksConsumption()
+    {
+        AbstractRichIterator<String> source = new ArraySource.OfObject<>("a",
+                "b", "c", "d", "e");
+        source.next();
+        source.forward();
+        assertEquals(new KnownSize(3), source.getSize());
+        source.next();
+        assertEquals(new KnownSize(2), source.getSize());
+
+        AbstractRichIterator<String> mapped = source.map(String::toUpperCase);
+        assertSame(source.getSize(), mapped.getSize());
+        AbstractRichIterator<String> filtered = mapped.filter(x -> true);
+        assertEquals(new BoundedSize(0, 2), filtered.getSize());
+        assertSame(filtered.getSize(), filtered.getSize().copy());
+        assertSame(filtered.getSize(), filtered.getSize().dropLowerBound());
+        filtered.next();
+        assertEquals(new BoundedSize(0, 1), filtered.getSize());
+        filtered.next();
+        assertEquals(new KnownSize(0), filtered.getSize());
+    }
 }
@@ -0,0 +1,150 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The vectors are mapped with tiny chunks so that traversals cross chunk
+ * boundaries.
+ *
+ * @author t
+ */
+class MappedVecsTest
+{
+    private static final int CHUNK_BYTES_SHIFT = 4;
+
+    @Test
+    void testIntRoundTrip() throws IOException
+    {
+        Path file = Files.createTempFile("jflow", ".bin");
+        try {
+            for (int n : new int[]{0, 1, 4, 11}) {
+                IntVec expected = Iter.until(n).map(x -> x * x - 7).toVec();
+                assertEquals(n, IntVec.writeFile(file, expected.iter()));
+                IntVec mapped = MappedVecs.mapInts(file, CHUNK_BYTES_SHIFT);
+
+                assertEquals(expected, mapped);
+                assertEquals(mapped, expected);
+                assertEquals(expected.hashCode(), mapped.hashCode());
+                assertEquals(expected.toString(), mapped.toString());
+                assertArrayEquals(expected.iter().toArray(),
+                        mapped.iter().toArray());
+                assertArrayEquals(expected.iterRev().toArray(),
+                        mapped.iterRev().toArray());
+                assertArrayEquals(expected.stream().toArray(),
+                        mapped.stream().toArray());
+                assertEquals(expected, mapped.parIter().toVec());
+                assertEquals(IntVec.mapFile(file), mapped);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testLongRoundTrip() throws IOException
+    {
+        Path file = Files.createTempFile("jflow", ".bin");
+        try {
+            for (int n : new int[]{0, 1, 2, 9}) {
+                LongVec expected = Iter.until(n)
+                        .mapToLong(x -> Long.MAX_VALUE - x).toVec();
+                assertEquals(n, LongVec.writeFile(file, expected.iter()));
+                LongVec mapped = MappedVecs.mapLongs(file, CHUNK_BYTES_SHIFT);
+
+                assertEquals(expected, mapped);
+                assertEquals(expected.hashCode(), mapped.hashCode());
+                assertEquals(expected.toString(), mapped.toString());
+                assertArrayEquals(expected.iterRev().toArray(),
+                        mapped.iterRev().toArray());
+                assertEquals(expected.stream().boxed()
+                                .collect(Collectors.toList()),
+                        mapped.stream().boxed().collect(Collectors.toList()));
+                assertEquals(expected, mapped.parIter().toVec());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testDoubleRoundTrip() throws IOException
+    {
+        Path file = Files.createTempFile("jflow", ".bin");
+        try {
+            for (int n : new int[]{0, 1, 2, 9}) {
+                DoubleVec expected = Iter.until(n)
+                        .mapToDouble(x -> Math.sqrt(x) - 1).toVec();
+                assertEquals(n, DoubleVec.writeFile(file, expected.iter()));
+                DoubleVec mapped = MappedVecs
+                        .mapDoubles(file, CHUNK_BYTES_SHIFT);
+
+                assertEquals(expected, mapped);
+                assertEquals(expected.hashCode(), mapped.hashCode());
+                assertEquals(expected.toString(), mapped.toString());
+                assertEquals(expected.sorted(), mapped.sorted());
+                assertEquals(expected, mapped.parIter().toVec());
+                assertEquals(expected.iter().fold(0, Double::sum),
+                        mapped.iter().fold(0, Double::sum));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testSubVec() throws IOException
+    {
+        Path file = Files.createTempFile("jflow", ".bin");
+        try {
+            IntVec expected = Iter.until(13).toVec();
+            IntVec.writeFile(file, expected.iter());
+            IntVec mapped = MappedVecs.mapInts(file, CHUNK_BYTES_SHIFT);
+
+            assertEquals(expected.subVec(3, 11), mapped.subVec(3, 11));
+            assertEquals(expected.subVec(5, 5), mapped.subVec(5, 5));
+            assertEquals(expected.subVec(3, 11).subVec(2, 6),
+                    mapped.subVec(3, 11).subVec(2, 6));
+            assertEquals(Iter.until(4).map(x -> x + 5).toVec(),
+                    mapped.subVec(3, 11).subVec(2, 6).parIter().toVec());
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> mapped.subVec(3, 14));
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> mapped.subVec(3, 11).get(8));
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> mapped.get(-1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testInvalidFileLength() throws IOException
+    {
+        Path file = Files.createTempFile("jflow", ".bin");
+        try {
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6});
+            assertThrows(IllegalArgumentException.class,
+                    () -> LongVec.mapFile(file));
+            assertThrows(IllegalArgumentException.class,
+                    () -> IntVec.mapFile(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.vec.PersistentVec;
+import com.github.maumay.jflow.vec.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the persistent vector against a list which is copied on every
+ * update.
+ *
+ * @author t
+ */
+class PersistentVecImplTest
+{
+    @Test
+    void testRandomUpdates()
+    {
+        Random random = new Random(0x5eed);
+        List<List<Integer>> models = new ArrayList<>();
+        List<PersistentVecImpl<Integer>> vectors = new ArrayList<>();
+        models.add(Collections.emptyList());
+        vectors.add(PersistentVecImpl.empty());
+
+        for (int step = 0; step < 2000; step++) {
+            int k = random.nextInt(vectors.size());
+            List<Integer> model = new ArrayList<>(models.get(k));
+            PersistentVecImpl<Integer> vector = vectors.get(k);
+            int next = random.nextInt(1000);
+            switch (random.nextInt(7)) {
+                case 0:
+                    model.add(next);
+                    vector = vector.append(next);
+                    break;
+                case 1:
+                    model.add(0, next);
+                    vector = vector.insert(next);
+                    break;
+                case 2:
+                    if (!model.isEmpty()) {
+                        int index = random.nextInt(model.size());
+                        model.set(index, next);
+                        vector = vector.set(index, next);
+                    }
+                    break;
+                case 3:
+                    int j = random.nextInt(vectors.size());
+                    model.addAll(models.get(j));
+                    vector = vector.concat(vectors.get(j));
+                    break;
+                case 4:
+                    int from = random.nextInt(model.size() + 1);
+                    int to = from + random.nextInt(model.size() - from + 1);
+                    model = new ArrayList<>(model.subList(from, to));
+                    vector = vector.subVec(from, to);
+                    break;
+                case 5:
+                    List<Integer> block = Iter.until(random.nextInt(100))
+                            .boxed().map(x -> x + next).toList();
+                    model.addAll(block);
+                    vector = vector.append(block);
+                    break;
+                default:
+                    List<Integer> prefix = Iter.until(random.nextInt(100))
+                            .boxed().map(x -> x - next).toList();
+                    model.addAll(0, prefix);
+                    vector = vector.insert(prefix);
+                    break;
+            }
+            assertTrue(vector.checkInvariants());
+            assertEquals(model.size(), vector.size());
+            models.add(model);
+            vectors.add(vector);
+        }
+
+        // Check that no update has disturbed the vectors it was derived from.
+        for (int i = 0; i < vectors.size(); i++) {
+            assertVecAsExpected(models.get(i), vectors.get(i));
+        }
+    }
+
+    private static void assertVecAsExpected(List<Integer> expected,
+            PersistentVec<Integer> vector)
+    {
+        assertEquals(expected.size(), vector.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), vector.get(i));
+        }
+        assertEquals(expected, vector.iter().toList());
+        List<Integer> reversed = new ArrayList<>(expected);
+        Collections.reverse(reversed);
+        assertEquals(reversed, vector.iterRev().toList());
+        assertEquals(expected, vector.parIter().toVec().iter().toList());
+        Vec<Integer> copy = Vec.copy(expected);
+        assertEquals(copy, vector);
+        assertEquals(vector, copy);
+        assertEquals(copy.hashCode(), vector.hashCode());
+    }
+
+    @Test
+    void testIterationFromEachOffset()
+    {
+        List<Integer> elements = Iter.until(1000).boxed().toList();
+        PersistentVec<Integer> vector = Iter.over(elements).toPersistentVec();
+        for (int start : Arrays.asList(0, 1, 31, 32, 33, 500, 999, 1000)) {
+            List<Integer> expected = elements.subList(start, 1000);
+            assertEquals(expected, vector.skip(start).iter().toList());
+            assertEquals(expected, vector.iter().skip(start).toList());
+        }
+    }
+
+    @Test
+    void testVecBehaviour()
+    {
+        PersistentVec<String> vector = Vec.of("a", "b", "c", "d").iter()
+                .toPersistentVec();
+        assertEquals(Vec.of("a", "b", "c", "d"), vector);
+        assertEquals("Vec[a, b, c, d]", vector.toString());
+        assertEquals(Vec.of("b", "c"), vector.skip(1).take(2));
+        assertEquals(Vec.of("c", "d"), vector.skipWhile(x -> !x.equals("c")));
+        assertEquals(Vec.of("a", "b"), vector.takeWhile(x -> !x.equals("c")));
+        assertEquals(Vec.of("A", "B", "C", "D"),
+                vector.map(String::toUpperCase));
+        assertEquals(Vec.of("d", "c", "b", "a"),
+                vector.sorted((a, b) -> b.compareTo(a)));
+        assertSame(vector, vector.subVec(0, 4));
+        assertSame(vector, vector.compact());
+        assertSame(vector, PersistentVec.copy(vector));
+        assertEquals(PersistentVec.empty(), vector.subVec(2, 2));
+        assertEquals(vector, PersistentVec.copy(Vec.of("a", "b", "c", "d")));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(4));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> vector.set(-1, "e"));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> vector.subVec(1, 5));
+        assertThrows(NullPointerException.class,
+                () -> vector.append((String) null));
+        assertThrows(NullPointerException.class,
+                () -> PersistentVec.of("a", null));
+    }
+}
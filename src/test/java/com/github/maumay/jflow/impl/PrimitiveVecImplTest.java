@@ -0,0 +1,71 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the range views of the array backed primitive vectors behave like the
+ * vectors of the same elements.
+ *
+ * @author t
+ */
+class PrimitiveVecImplTest
+{
+    @Test
+    void testIntViews()
+    {
+        IntVec vector = IntVec.of(0, 1, 2, 3, 4, 5);
+        IntVec view = vector.subVec(1, 4);
+        IntVec expected = IntVec.of(1, 2, 3);
+        assertEquals(expected, view);
+        assertEquals(expected.hashCode(), view.hashCode());
+        assertEquals(expected.toString(), view.toString());
+        assertArrayEquals(new int[]{3, 2, 1}, view.iterRev().toArray());
+        assertArrayEquals(new int[]{1, 2, 3}, view.stream().toArray());
+        assertEquals(expected, view.parIter().toVec());
+        assertEquals(IntVec.of(2), view.subVec(1, 2));
+        assertSame(vector, vector.subVec(0, 6));
+        assertSame(vector, vector.compact());
+        assertEquals(expected, view.compact());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.subVec(0, 4));
+    }
+
+    @Test
+    void testLongViews()
+    {
+        LongVec view = LongVec.of(0, 1, 2, 3, 4, 5).subVec(2, 6);
+        LongVec expected = LongVec.of(2, 3, 4, 5);
+        assertEquals(expected, view);
+        assertEquals(expected.hashCode(), view.hashCode());
+        assertEquals(expected.toString(), view.toString());
+        assertArrayEquals(new long[]{5, 4, 3, 2}, view.iterRev().toArray());
+        assertArrayEquals(new long[]{2, 3, 4, 5}, view.stream().toArray());
+        assertEquals(expected, view.parIter().toVec());
+        assertEquals(expected, view.compact());
+    }
+
+    @Test
+    void testDoubleViews()
+    {
+        DoubleVec view = DoubleVec.of(5, 4, 3, 2, 1, 0).subVec(0, 3);
+        DoubleVec expected = DoubleVec.of(5, 4, 3);
+        assertEquals(expected, view);
+        assertEquals(expected.hashCode(), view.hashCode());
+        assertEquals(expected.toString(), view.toString());
+        assertArrayEquals(new double[]{3, 4, 5}, view.iterRev().toArray());
+        assertEquals(DoubleVec.of(3, 4, 5), view.sorted());
+        assertEquals(expected, view.parIter().toVec());
+        assertEquals(expected, view.compact());
+    }
+}
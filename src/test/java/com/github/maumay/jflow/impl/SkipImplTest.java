@@ -0,0 +1,109 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.RichIterator;
+import com.github.maumay.jflow.vec.PersistentVec;
+import com.github.maumay.jflow.vec.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the sources and adapters which jump directly to an index when
+ * skipping agree with skipping one element at a time.
+ *
+ * @author t
+ */
+class SkipImplTest
+{
+    private static final int SIZE = 1000;
+
+    private static final List<Integer> SKIPS = Arrays.asList(0, 1, 31, 32, 33,
+            500, 999, 1000, 1001, Integer.MAX_VALUE);
+
+    @Test
+    void testSourcesSkipAsExpected()
+    {
+        List<Integer> elements = Iter.until(SIZE).boxed().toList();
+        List<Integer> reversed = new ArrayList<>(elements);
+        Collections.reverse(reversed);
+        Vec<Integer> vec = Vec.copy(elements);
+        PersistentVec<Integer> persistent = PersistentVec.copy(vec);
+
+        assertSkipsAsExpected(elements, () -> vec.iter());
+        assertSkipsAsExpected(reversed, () -> vec.iterRev());
+        assertSkipsAsExpected(elements, () -> persistent.iter());
+        assertSkipsAsExpected(elements.subList(10, 990),
+                () -> persistent.subVec(10, 990).iter());
+        assertSkipsAsExpected(elements, () -> Iter.until(SIZE).boxed());
+        assertSkipsAsExpected(elements,
+                () -> Iter.until(SIZE).map(n -> n + 1).boxed().map(n -> n - 1));
+        assertSkipsAsExpected(elements.subList(0, 700),
+                () -> vec.iter().skip(0).take(700));
+        assertSkipsAsExpected(elements.subList(300, 700),
+                () -> vec.iter().skip(300).take(400));
+        assertSkipsAsExpected(elements.subList(300, SIZE),
+                () -> Iter.until(SIZE).boxed().skip(300));
+    }
+
+    @Test
+    void testInfiniteSourceSkipsDoNotOverflow()
+    {
+        FunctionSource.OfInt indices = new FunctionSource.OfInt(i -> i);
+        assertEquals(Integer.MAX_VALUE, indices.skipImpl(Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE, indices.skipImpl(Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE, indices.nextIntImpl());
+    }
+
+    private static void assertSkipsAsExpected(List<Integer> expected,
+            Supplier<RichIterator<Integer>> source)
+    {
+        for (int n : SKIPS) {
+            AbstractRichIterator<Integer> iterator = open(source);
+            int skipped = Math.min(n, expected.size());
+            assertEquals(skipped, iterator.skipImpl(n));
+            assertEquals(expected.subList(skipped, expected.size()),
+                    iterator.toList());
+        }
+        // Skipping after some elements have already been traversed.
+        AbstractRichIterator<Integer> iterator = open(source);
+        List<Integer> traversed = new ArrayList<>();
+        while (iterator.hasNext()) {
+            traversed.add(iterator.nextImpl());
+            iterator.skipImpl(traversed.size());
+        }
+        List<Integer> expectedTraversal = new ArrayList<>();
+        for (int i = 0, step = 2; i < expected.size(); i += step++) {
+            expectedTraversal.add(expected.get(i));
+        }
+        assertEquals(expectedTraversal, traversed);
+    }
+
+    private static AbstractRichIterator<Integer> open(
+            Supplier<RichIterator<Integer>> source)
+    {
+        return (AbstractRichIterator<Integer>) source.get();
+    }
+
+    @Test
+    void testSliceAndCountOverRandomAccessSources()
+    {
+        Vec<Integer> vec = Iter.until(SIZE).boxed().toVec();
+        assertEquals(Arrays.asList(0, 250, 500, 750),
+                vec.iter().slice(i -> 250 * i).toList());
+        assertEquals(Arrays.asList(0L, 7L, 14L),
+                Iter.until(20).mapToLong(n -> n).slice(i -> 7 * i).toVec()
+                        .iter().boxed().toList());
+        assertEquals(400, vec.iter().skip(300).take(400).count());
+        assertEquals(200, vec.iter().filter(n -> n % 5 == 0).count());
+    }
+}
@@ -14,6 +14,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static java.util.Comparator.naturalOrder;
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -260,4 +261,56 @@ class VecImplTest extends AbstractCollectionBuilder
         assertEquals(Optional.of(2), populated.getOp(1));
         assertEquals((Integer) 2, populated.get(1));
     }
+
+    @Test
+    void testSubVec()
+    {
+        Vec<Integer> vector = new VecImpl<>(1, 2, 3, 4, 5, 6);
+        assertEquals(vec(2, 3, 4), vector.subVec(1, 4));
+        assertEquals(vec(), vector.subVec(6, 6));
+        assertEquals(vec(4), vector.subVec(1, 4).subVec(2, 3));
+        assertSame(vector, vector.subVec(0, 6));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.subVec(2, 7));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.subVec(-1, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.subVec(3, 2));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> vector.subVec(1, 4).get(3));
+    }
+
+    @Test
+    void testViewBehaviour()
+    {
+        Vec<Integer> view = new VecImpl<Integer>(0, 1, 2, 3, 4, 5, 6)
+                .subVec(2, 6);
+        Vec<Integer> expected = vec(2, 3, 4, 5);
+        assertEquals(expected, view);
+        assertEquals(view, expected);
+        assertEquals(expected.hashCode(), view.hashCode());
+        assertEquals("Vec[2, 3, 4, 5]", view.toString());
+        assertEquals(vec(5, 4, 3, 2), view.iterRev().toVec());
+        assertEquals(expected, view.parIter().toVec());
+        assertEquals(list(2, 3, 4, 5), view.toList());
+        assertEquals(new HashSet<>(list(2, 3, 4, 5)), view.toSet());
+        assertEquals(list(2, 3, 4, 5), view.stream().collect(toList()));
+        assertEquals(vec(4, 6, 8, 10), view.map(x -> 2 * x));
+        assertEquals(vec(2, 3, 4, 5, 9), view.append(9));
+        assertEquals(vec(9, 2, 3, 4, 5), view.insert(9));
+        assertEquals(vec(5, 4, 3, 2), view.sorted(Comparator.reverseOrder()));
+        assertEquals(Tup.of(vec(2, 4), vec(3, 5)),
+                view.partition(x -> x % 2 == 0));
+        assertEquals(Tup.of(vec(2, 3), vec(4, 5)), view.span(x -> x < 4));
+        assertEquals(vec(3, 4), view.skipWhile(x -> x < 3).takeWhile(x -> x < 5));
+        assertEquals(vec(3, 4), view.skip(1).take(2));
+    }
+
+    @Test
+    void testCompact()
+    {
+        Vec<Integer> vector = new VecImpl<>(1, 2, 3, 4);
+        assertSame(vector, vector.compact());
+        Vec<Integer> view = vector.take(2);
+        assertEquals(vec(1, 2), view.compact());
+        Vec<Integer> compacted = view.compact();
+        assertSame(compacted, compacted.compact());
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.chunk;
+
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.RichIterator;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author t
+ */
+class ChunkBufferTest
+{
+    @Test
+    void testObjectChunksAreWrittenIntoBuffer()
+    {
+        String[] buffer = new String[2];
+        IntIterator counts = Iter.args("a", "b", "c").chunksInto(buffer);
+        List<List<String>> chunks = new ArrayList<>();
+        counts.forEach(n -> chunks
+                .add(new ArrayList<>(Arrays.asList(buffer).subList(0, n))));
+        assertEquals(
+                Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")),
+                chunks);
+    }
+
+    @Test
+    void testPrimitiveChunksAreWrittenIntoBuffer()
+    {
+        int[] ints = new int[3];
+        IntIterator intCounts = Iter.until(5).chunksInto(ints);
+        assertEquals(3, intCounts.nextInt());
+        assertArrayEquals(new int[] { 0, 1, 2 }, ints);
+        assertEquals(2, intCounts.nextInt());
+        assertArrayEquals(new int[] { 3, 4, 2 }, ints);
+
+        long[] longs = new long[2];
+        IntIterator longCounts = Iter.longs(5, 6).chunksInto(longs);
+        assertEquals(2, longCounts.nextInt());
+        assertArrayEquals(new long[] { 5, 6 }, longs);
+
+        double[] doubles = new double[4];
+        IntIterator doubleCounts = Iter.doubles(0.5).chunksInto(doubles);
+        assertEquals(1, doubleCounts.nextInt());
+        assertEquals(0.5, doubles[0]);
+    }
+
+    @Test
+    void testChunkAllocationFollowsSource()
+    {
+        // Allocating a full chunk up front would exhaust the heap here.
+        RichIterator<IntVec> exact = Iter.until(3).chunks(1 << 30);
+        assertArrayEquals(new int[] { 0, 1, 2 }, exact.next().iter().toArray());
+        assertFalse(exact.hasNext());
+
+        // Without an upper bound chunks grow as elements arrive.
+        List<Integer> lengths = Iter.until(5000).filter(x -> true).chunks(3000)
+                .map(IntVec::size).toList();
+        assertEquals(Arrays.asList(3000, 2000), lengths);
+        Vec<Integer> chunk = Iter.until(5000).boxed().filter(x -> true)
+                .chunks(1 << 30).next();
+        assertEquals(Iter.until(5000).boxed().toList(), chunk.toList());
+    }
+
+    @Test
+    void testShortLastChunkAllocationFollowsSource()
+    {
+        // Only three elements follow the skipped chunk, sizing the last chunk
+        // by the starting size of the source would exhaust the heap here.
+        int chunkSize = 1 << 30;
+        RichIterator<IntVec> chunks = Iter.until(chunkSize + 3)
+                .chunks(chunkSize).skip(1);
+        assertArrayEquals(new int[] { chunkSize, chunkSize + 1, chunkSize + 2 },
+                chunks.next().iter().toArray());
+        assertFalse(chunks.hasNext());
+
+        List<Integer> lengths = Iter.until(2500).chunks(1000)
+                .map(IntVec::size).toList();
+        assertEquals(Arrays.asList(1000, 1000, 500), lengths);
+    }
+
+    @Test
+    void testChunkLengthMustBePositive()
+    {
+        assertThrows(IllegalArgumentException.class,
+                () -> Iter.until(3).chunks(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> Iter.until(3).chunksInto(new int[0]));
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.chunk;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+import com.github.maumay.jflow.vec.DoubleVec;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class DoubleChunksTest extends
+        AbstractDoubleAdapterTest<AbstractRichIterator<DoubleVec>>
+{
+    @Override
+    protected List<Case<AbstractRichIterator<DoubleVec>>> getTestCases()
+    {
+        Adapter<AbstractRichIterator<DoubleVec>> adapter = iter -> iter
+                .chunks(1);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(1.0, 2.0), adapter,
+                        list(DoubleVec.of(1.0), DoubleVec.of(2.0))));
+    }
+}
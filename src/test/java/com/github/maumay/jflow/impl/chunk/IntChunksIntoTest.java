@@ -0,0 +1,30 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.chunk;
+
+import com.github.maumay.jflow.impl.AbstractIntIterator;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+
+import java.util.List;
+
+/**
+ * Checks the number of elements written into the buffer for each chunk, the
+ * contents of the buffer are checked in {@link ChunkBufferTest}.
+ *
+ * @author t
+ */
+public final class IntChunksIntoTest extends
+        AbstractIntAdapterTest<AbstractIntIterator>
+{
+    @Override
+    protected List<Case<AbstractIntIterator>> getTestCases()
+    {
+        Adapter<AbstractIntIterator> adapter = iter -> iter
+                .chunksInto(new int[3]);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(1, 2, 3), adapter, list(3)),
+                new Case<>(list(1, 2, 3, 4, 5, 6, 7), adapter,
+                        list(3, 3, 1)));
+    }
+}
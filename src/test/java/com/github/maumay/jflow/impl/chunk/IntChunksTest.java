@@ -0,0 +1,29 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.chunk;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+import com.github.maumay.jflow.vec.IntVec;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class IntChunksTest extends
+        AbstractIntAdapterTest<AbstractRichIterator<IntVec>>
+{
+    @Override
+    protected List<Case<AbstractRichIterator<IntVec>>> getTestCases()
+    {
+        Adapter<AbstractRichIterator<IntVec>> adapter = iter -> iter.chunks(3);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(1, 2), adapter, list(IntVec.of(1, 2))),
+                new Case<>(list(1, 2, 3), adapter, list(IntVec.of(1, 2, 3))),
+                new Case<>(list(1, 2, 3, 4, 5, 6, 7), adapter,
+                        list(IntVec.of(1, 2, 3), IntVec.of(4, 5, 6),
+                                IntVec.of(7))));
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.chunk;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+import com.github.maumay.jflow.vec.LongVec;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class LongChunksTest extends
+        AbstractLongAdapterTest<AbstractRichIterator<LongVec>>
+{
+    @Override
+    protected List<Case<AbstractRichIterator<LongVec>>> getTestCases()
+    {
+        Adapter<AbstractRichIterator<LongVec>> adapter = iter -> iter
+                .chunks(2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(1L), adapter, list(LongVec.of(1L))),
+                new Case<>(list(1L, 2L, 3L), adapter,
+                        list(LongVec.of(1L, 2L), LongVec.of(3L))));
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.chunk;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+import com.github.maumay.jflow.vec.Vec;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class ObjectChunksTest extends
+        AbstractObjectAdapterTest<String, AbstractRichIterator<Vec<String>>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<Vec<String>>>>
+            getTestCases()
+    {
+        Adapter<String, AbstractRichIterator<Vec<String>>> adapter =
+                iter -> iter.chunks(2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("a"), adapter, list(Vec.of("a"))),
+                new Case<>(list("a", "b"), adapter, list(Vec.of("a", "b"))),
+                new Case<>(list("a", "b", "c", "d", "e"), adapter,
+                        list(Vec.of("a", "b"), Vec.of("c", "d"),
+                                Vec.of("e"))));
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.collecting;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.test.AbstractObjectCollectionTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author t
+ */
+public class ObjectToSizedCollectionTest
+        extends AbstractObjectCollectionTest<Integer, List<Integer>>
+{
+    @Override
+    protected Collector<Integer, ? extends List<Integer>> getCollectorToTest()
+    {
+        return iter -> iter.toSized(ArrayList::new);
+    }
+
+    @Override
+    protected List<Case<Integer, List<Integer>>> getTestCases()
+    {
+        return list(new Case<>(list(), list()),
+                new Case<>(list(1, 2, 3), list(1, 2, 3)));
+    }
+
+    @Override
+    protected List<FailCase<Integer>> getFailureCases()
+    {
+        return list();
+    }
+
+    @Test
+    void testFactoryReceivesExactSize()
+    {
+        List<Integer> capacities = new ArrayList<>();
+        Iter.until(1000).boxed().map(x -> x + 1).toSized(n -> {
+            capacities.add(n);
+            return new ArrayList<>(n);
+        });
+        assertEquals(list(1000), capacities);
+    }
+}
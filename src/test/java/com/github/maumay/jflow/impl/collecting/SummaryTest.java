@@ -0,0 +1,117 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.collecting;
+
+import com.github.maumay.jflow.impl.IteratorOwnershipException;
+import com.github.maumay.jflow.iterator.DoubleIterator;
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.LongIterator;
+import com.github.maumay.jflow.iterator.collector.IterCollect;
+import com.github.maumay.jflow.utils.DoubleSummary;
+import com.github.maumay.jflow.utils.IntSummary;
+import com.github.maumay.jflow.utils.LongSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author t
+ */
+class SummaryTest
+{
+    @Test
+    void testIntSummary()
+    {
+        IntSummary summary = Iter.ints(2, 4, 4, 4, 5, 5, 7, 9)
+                .collect(IterCollect.summarizeInts());
+        assertEquals(8, summary.count());
+        assertEquals(40, summary.sum());
+        assertEquals(2, summary.min());
+        assertEquals(9, summary.max());
+        assertEquals(5.0, summary.mean());
+        assertEquals(32.0 / 7, summary.variance(), 1e-12);
+    }
+
+    @Test
+    void testLongSummary()
+    {
+        LongSummary summary = Iter.longs(Long.MAX_VALUE / 2, 1L, -3L)
+                .collect(IterCollect.summarizeLongs());
+        assertEquals(3, summary.count());
+        assertEquals(Long.MAX_VALUE / 2 - 2, summary.sum());
+        assertEquals(-3L, summary.min());
+        assertEquals(Long.MAX_VALUE / 2, summary.max());
+    }
+
+    @Test
+    void testEmptySummary()
+    {
+        DoubleSummary summary = Iter.emptyDoubles()
+                .collect(IterCollect.summarizeDoubles());
+        assertEquals(0, summary.count());
+        assertEquals(0.0, summary.sum());
+        assertTrue(Double.isNaN(summary.mean()));
+        assertTrue(Double.isNaN(summary.variance()));
+        assertThrows(NoSuchElementException.class, summary::min);
+        assertEquals(DoubleSummary.empty(), summary);
+    }
+
+    @Test
+    void testDirectSummaryTakesOwnership()
+    {
+        IntIterator ints = Iter.ints(1, 2);
+        assertEquals(2, IterCollect.summarizeInts().collect(ints).count());
+        assertThrows(IteratorOwnershipException.class, ints::toArray);
+        LongIterator longs = Iter.longs(1, 2);
+        IterCollect.summarizeLongs().collect(longs);
+        assertThrows(IteratorOwnershipException.class, longs::toArray);
+        DoubleIterator doubles = Iter.doubles(1, 2);
+        IterCollect.summarizeDoubles().collect(doubles);
+        assertThrows(IteratorOwnershipException.class, doubles::toArray);
+    }
+
+    @Test
+    void testDoubleSumIsCompensated()
+    {
+        // Naively adding 0.1 ten million times drifts by around 1e-5.
+        DoubleSummary summary = Iter.call(() -> 0.1).mapToDouble(x -> x)
+                .take(10_000_000).collect(IterCollect.summarizeDoubles());
+        assertEquals(1_000_000.0, summary.sum(), 1e-8);
+    }
+
+    @Test
+    void testVarianceIsStableForLargeMeans()
+    {
+        double offset = 1e9;
+        DoubleSummary summary = Iter
+                .doubles(offset + 4, offset + 7, offset + 13, offset + 16)
+                .collect(IterCollect.summarizeDoubles());
+        assertEquals(30.0, summary.variance(), 1e-6);
+    }
+
+    @Test
+    void testMergeAgreesWithSinglePass()
+    {
+        double[] values = new Random(7).doubles(1001).toArray();
+        DoubleSummary whole = Iter.doubles(values)
+                .collect(IterCollect.summarizeDoubles());
+        DoubleSummary merged = DoubleSummary.empty();
+        for (int start = 0; start < values.length; start += 100) {
+            merged = merged.merge(Iter.doubles(values).skip(start).take(100)
+                    .collect(IterCollect.summarizeDoubles()));
+        }
+        assertEquals(whole.count(), merged.count());
+        assertEquals(whole.sum(), merged.sum(), 1e-9);
+        assertEquals(whole.min(), merged.min());
+        assertEquals(whole.max(), merged.max());
+        assertEquals(whole.mean(), merged.mean(), 1e-12);
+        assertEquals(whole.variance(), merged.variance(), 1e-12);
+    }
+}
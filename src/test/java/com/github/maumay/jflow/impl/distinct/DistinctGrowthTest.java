@@ -0,0 +1,68 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.distinct;
+
+import com.github.maumay.jflow.iterator.Iter;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the distinct adapters against a hash set on inputs large enough to
+ * force the primitive sets to grow several times.
+ *
+ * @author t
+ */
+class DistinctGrowthTest
+{
+    private static final int SIZE = 20_000;
+
+    private static long[] randomLongs()
+    {
+        Random random = new Random(0x5eed);
+        long[] values = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            // A small range guarantees plenty of repeats.
+            values[i] = random.nextInt(SIZE / 2) * 0x1_0000_0001L;
+        }
+        return values;
+    }
+
+    @Test
+    void testExactAgainstHashSet()
+    {
+        long[] values = randomLongs();
+        Set<Long> expected = new LinkedHashSet<>();
+        for (long value : values) {
+            expected.add(value);
+        }
+        assertEquals(Iter.wrap(expected.iterator()).toList(),
+                Iter.longs(values).distinct().boxed().toList());
+        assertEquals(
+                Iter.wrap(expected.iterator()).map(Long::intValue).toList(),
+                Iter.longs(values).mapToInt(x -> (int) x).distinct().boxed()
+                        .toList());
+    }
+
+    @Test
+    void testApproxNeverEmitsDuplicates()
+    {
+        long[] values = randomLongs();
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (long value : values) {
+            distinct.add(value);
+        }
+        Set<Long> emitted = new LinkedHashSet<>();
+        Iter.longs(values).distinctApprox(distinct.size(), 0.01)
+                .forEach(x -> assertTrue(emitted.add(x)));
+        assertTrue(distinct.containsAll(emitted));
+        // Allow generous slack on the configured one percent rate.
+        assertTrue(emitted.size() > 0.95 * distinct.size());
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.distinct;
+
+import com.github.maumay.jflow.impl.AbstractDoubleIterator;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class DoubleDistinctTest
+        extends AbstractDoubleAdapterTest<AbstractDoubleIterator>
+{
+    private static final double OTHER_NAN = Double
+            .longBitsToDouble(0x7ff8_0000_0000_0001L);
+
+    @Override
+    protected List<Case<AbstractDoubleIterator>> getTestCases()
+    {
+        Adapter<AbstractDoubleIterator> adapter = iter -> iter.distinct();
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0.0), adapter, list(0.0)),
+                new Case<>(list(0.0, -0.0, 0.0), adapter, list(0.0, -0.0)),
+                new Case<>(list(Double.NaN, 1.5, OTHER_NAN, 1.5), adapter,
+                        list(Double.NaN, 1.5)));
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.distinct;
+
+import com.github.maumay.jflow.impl.AbstractIntIterator;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class IntDistinctTest extends
+        AbstractIntAdapterTest<AbstractIntIterator>
+{
+    @Override
+    protected List<Case<AbstractIntIterator>> getTestCases()
+    {
+        Adapter<AbstractIntIterator> adapter = iter -> iter.distinct();
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0), adapter, list(0)),
+                new Case<>(list(0, 0), adapter, list(0)),
+                new Case<>(list(3, 0, -1, 3, 0, 2, -1), adapter,
+                        list(3, 0, -1, 2)));
+    }
+}
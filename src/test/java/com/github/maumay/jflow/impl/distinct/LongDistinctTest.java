@@ -0,0 +1,28 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.distinct;
+
+import com.github.maumay.jflow.impl.AbstractLongIterator;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class LongDistinctTest extends
+        AbstractLongAdapterTest<AbstractLongIterator>
+{
+    @Override
+    protected List<Case<AbstractLongIterator>> getTestCases()
+    {
+        Adapter<AbstractLongIterator> adapter = iter -> iter.distinct();
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0L), adapter, list(0L)),
+                new Case<>(list(0L, 0L), adapter, list(0L)),
+                new Case<>(list(Long.MIN_VALUE, 0L, 5L, Long.MIN_VALUE, 0L),
+                        adapter, list(Long.MIN_VALUE, 0L, 5L)));
+    }
+}
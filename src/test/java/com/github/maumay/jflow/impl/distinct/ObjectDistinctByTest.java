@@ -0,0 +1,29 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.distinct;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class ObjectDistinctByTest
+        extends AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        Adapter<String, AbstractRichIterator<String>> adapter = iter -> iter
+                .distinctBy(String::length);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("a"), adapter, list("a")),
+                new Case<>(list("a", "b"), adapter, list("a")),
+                new Case<>(list("ab", "c", "de", "f", "ghi"), adapter,
+                        list("ab", "c", "ghi")));
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.distinct;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class ObjectDistinctTest
+        extends AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        Adapter<String, AbstractRichIterator<String>> adapter = iter -> iter
+                .distinct();
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("0"), adapter, list("0")),
+                new Case<>(list("0", "0"), adapter, list("0")),
+                new Case<>(list("1", "0", "1", "2", "0"), adapter,
+                        list("1", "0", "2")));
+    }
+}
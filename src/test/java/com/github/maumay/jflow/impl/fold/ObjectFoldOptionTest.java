@@ -26,7 +26,9 @@ public class ObjectFoldOptionTest extends
     {
         return list(new Case<>(list("a", "b"), Optional.of("ab")),
                 new Case<>(list("a"), Optional.of("a")),
-                new Case<>(list(), Optional.empty()));
+                new Case<>(list(), Optional.empty()),
+                new Case<>(list((String) null), Optional.empty()),
+                new Case<>(list(null, "a", "b"), Optional.of("ab")));
     }
 
     @Override
@@ -0,0 +1,44 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.fusion;
+
+import com.github.maumay.jflow.impl.AbstractDoubleIterator;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class DoubleFusionTest extends
+        AbstractDoubleAdapterTest<AbstractDoubleIterator>
+{
+    @Override
+    protected List<Case<AbstractDoubleIterator>> getTestCases()
+    {
+        List<Double> src = list(1.0, 2.0, 3.0, 4.0, 5.0, 6.0);
+        return list(
+                new Case<>(list(), i -> i.map(n -> n + 1).map(n -> 2 * n),
+                        list()),
+                new Case<>(src, i -> i.map(n -> n + 1).map(n -> 2 * n),
+                        list(4.0, 6.0, 8.0, 10.0, 12.0, 14.0)),
+                new Case<>(src, i -> i.filter(n -> n > 1).filter(n -> n < 6),
+                        list(2.0, 3.0, 4.0, 5.0)),
+                new Case<>(src, i -> i.map(n -> 3 * n).filter(n -> n % 2 == 0),
+                        list(6.0, 12.0, 18.0)),
+                new Case<>(src,
+                        i -> i.map(n -> 3 * n).filter(n -> n % 2 == 0)
+                                .filter(n -> n > 6.0),
+                        list(12.0, 18.0)),
+                new Case<>(src, i -> i.skip(1).take(3), list(2.0, 3.0, 4.0)),
+                new Case<>(src, i -> i.skip(4).take(3), list(5.0, 6.0)),
+                new Case<>(src, i -> i.skip(7).take(3), list()),
+                new Case<>(src, i -> i.skip(1).skip(2), list(4.0, 5.0, 6.0)),
+                new Case<>(src, i -> i.take(5).take(2), list(1.0, 2.0)),
+                new Case<>(src, i -> i.take(2).take(5), list(1.0, 2.0)),
+                new Case<>(src, i -> i.skip(1).take(4).take(2).skip(1),
+                        list(3.0)));
+    }
+}
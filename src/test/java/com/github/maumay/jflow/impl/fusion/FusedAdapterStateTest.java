@@ -0,0 +1,62 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.fusion;
+
+import com.github.maumay.jflow.impl.IteratorOwnershipException;
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.RichIterator;
+import com.github.maumay.jflow.vec.IntVec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that fusing an adapter with the next stage respects the elements the
+ * first adapter has already consumed and takes its ownership away.
+ *
+ * @author t
+ */
+class FusedAdapterStateTest
+{
+    @Test
+    void testFusedStagesLoseOwnership()
+    {
+        IntIterator mapped = Iter.until(10).map(n -> n + 1);
+        IntIterator fused = mapped.map(n -> 2 * n);
+        assertThrows(IteratorOwnershipException.class, mapped::nextInt);
+        assertEquals(IntVec.of(2, 4, 6), fused.take(3).toVec());
+
+        IntIterator skipped = Iter.until(10).skip(2);
+        IntIterator sliced = skipped.take(3);
+        assertThrows(IteratorOwnershipException.class, skipped::nextInt);
+        assertEquals(IntVec.of(2, 3, 4), sliced.toVec());
+    }
+
+    @Test
+    void testFusionAfterPartialConsumption()
+    {
+        IntIterator taken = Iter.until(10).take(5);
+        taken.nextInt();
+        taken.nextInt();
+        assertEquals(IntVec.of(2, 3, 4), taken.take(4).toVec());
+
+        IntIterator skipped = Iter.until(10).skip(2);
+        skipped.nextInt();
+        assertEquals(IntVec.of(3, 4), skipped.take(2).toVec());
+
+        IntIterator skippedTwice = Iter.until(10).skip(2);
+        skippedTwice.nextInt();
+        assertEquals(IntVec.of(6, 7, 8, 9), skippedTwice.skip(3).toVec());
+
+        RichIterator<String> filtered = Iter.args("a", "", "b", "c")
+                .filter(s -> !s.isEmpty());
+        filtered.hasNext();
+        assertEquals(Arrays.asList("a", "c"),
+                filtered.filter(s -> !s.equals("b")).toList());
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.fusion;
+
+import com.github.maumay.jflow.impl.AbstractIntIterator;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class IntFusionTest extends
+        AbstractIntAdapterTest<AbstractIntIterator>
+{
+    @Override
+    protected List<Case<AbstractIntIterator>> getTestCases()
+    {
+        List<Integer> src = list(1, 2, 3, 4, 5, 6);
+        return list(new Case<>(list(), i -> i.map(n -> n + 1).map(n -> 2 * n),
+                list()),
+                new Case<>(src, i -> i.map(n -> n + 1).map(n -> 2 * n),
+                        list(4, 6, 8, 10, 12, 14)),
+                new Case<>(src, i -> i.filter(n -> n > 1).filter(n -> n < 6),
+                        list(2, 3, 4, 5)),
+                new Case<>(src, i -> i.map(n -> 3 * n).filter(n -> n % 2 == 0),
+                        list(6, 12, 18)),
+                new Case<>(src,
+                        i -> i.map(n -> 3 * n).filter(n -> n % 2 == 0)
+                                .filter(n -> n > 6),
+                        list(12, 18)),
+                new Case<>(src, i -> i.skip(1).take(3), list(2, 3, 4)),
+                new Case<>(src, i -> i.skip(4).take(3), list(5, 6)),
+                new Case<>(src, i -> i.skip(7).take(3), list()),
+                new Case<>(src, i -> i.skip(1).skip(2), list(4, 5, 6)),
+                new Case<>(src, i -> i.take(5).take(2), list(1, 2)),
+                new Case<>(src, i -> i.take(2).take(5), list(1, 2)),
+                new Case<>(src, i -> i.skip(1).take(4).take(2).skip(1),
+                        list(3)));
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.fusion;
+
+import com.github.maumay.jflow.impl.AbstractLongIterator;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class LongFusionTest extends
+        AbstractLongAdapterTest<AbstractLongIterator>
+{
+    @Override
+    protected List<Case<AbstractLongIterator>> getTestCases()
+    {
+        List<Long> src = list(1L, 2L, 3L, 4L, 5L, 6L);
+        return list(new Case<>(list(), i -> i.map(n -> n + 1).map(n -> 2 * n),
+                list()),
+                new Case<>(src, i -> i.map(n -> n + 1).map(n -> 2 * n),
+                        list(4L, 6L, 8L, 10L, 12L, 14L)),
+                new Case<>(src, i -> i.filter(n -> n > 1).filter(n -> n < 6),
+                        list(2L, 3L, 4L, 5L)),
+                new Case<>(src, i -> i.map(n -> 3 * n).filter(n -> n % 2 == 0),
+                        list(6L, 12L, 18L)),
+                new Case<>(src,
+                        i -> i.map(n -> 3 * n).filter(n -> n % 2 == 0)
+                                .filter(n -> n > 6L),
+                        list(12L, 18L)),
+                new Case<>(src, i -> i.skip(1).take(3), list(2L, 3L, 4L)),
+                new Case<>(src, i -> i.skip(4).take(3), list(5L, 6L)),
+                new Case<>(src, i -> i.skip(7).take(3), list()),
+                new Case<>(src, i -> i.skip(1).skip(2), list(4L, 5L, 6L)),
+                new Case<>(src, i -> i.take(5).take(2), list(1L, 2L)),
+                new Case<>(src, i -> i.take(2).take(5), list(1L, 2L)),
+                new Case<>(src, i -> i.skip(1).take(4).take(2).skip(1),
+                        list(3L)));
+    }
+}
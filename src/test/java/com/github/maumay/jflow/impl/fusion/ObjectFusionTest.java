@@ -0,0 +1,49 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.fusion;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class ObjectFusionTest
+        extends AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        List<String> src = list("a", "bb", "", "ccc", "d", "ee");
+        return list(
+                new Case<>(list(), i -> i.map(x -> x + "0").map(x -> x + "1"),
+                        list()),
+                new Case<>(src, i -> i.map(x -> x + "0").map(x -> x + "1"),
+                        list("a01", "bb01", "01", "ccc01", "d01", "ee01")),
+                new Case<>(src,
+                        i -> i.filter(x -> !x.isEmpty())
+                                .filter(x -> x.length() < 3),
+                        list("a", "bb", "d", "ee")),
+                new Case<>(src,
+                        i -> i.map(x -> x + x).filter(x -> x.length() > 2),
+                        list("bbbb", "cccccc", "eeee")),
+                new Case<>(src,
+                        i -> i.map(x -> x + x).filter(x -> x.length() > 2)
+                                .filter(x -> !x.startsWith("c")),
+                        list("bbbb", "eeee")),
+                new Case<>(src, i -> i.skip(1).take(3),
+                        list("bb", "", "ccc")),
+                new Case<>(src, i -> i.skip(4).take(3), list("d", "ee")),
+                new Case<>(src, i -> i.skip(7).take(3), list()),
+                new Case<>(src, i -> i.skip(1).skip(2),
+                        list("ccc", "d", "ee")),
+                new Case<>(src, i -> i.take(5).take(2), list("a", "bb")),
+                new Case<>(src, i -> i.take(2).take(5), list("a", "bb")),
+                new Case<>(src, i -> i.skip(1).take(4).take(2).skip(1),
+                        list("")));
+    }
+}
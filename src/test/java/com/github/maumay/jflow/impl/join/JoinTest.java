@@ -0,0 +1,97 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.join;
+
+import com.github.maumay.jflow.iterator.Iter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares each join against a nested loop join on random inputs with many
+ * repeated keys, with either side being the smaller.
+ *
+ * @author t
+ */
+class JoinTest
+{
+    private static List<Long> randomKeys(Random random, int count)
+    {
+        List<Long> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add((long) random.nextInt(count / 3 + 1) << 33);
+        }
+        return keys;
+    }
+
+    private static List<String> nestedLoopJoin(List<Long> left,
+            List<Long> right, boolean leftOuterLoop)
+    {
+        List<String> joined = new ArrayList<>();
+        List<Long> outer = leftOuterLoop ? left : right;
+        List<Long> inner = leftOuterLoop ? right : left;
+        for (int i = 0; i < outer.size(); i++) {
+            for (int j = 0; j < inner.size(); j++) {
+                if (outer.get(i).equals(inner.get(j))) {
+                    joined.add(leftOuterLoop ? i + ":" + j : j + ":" + i);
+                }
+            }
+        }
+        return joined;
+    }
+
+    @Test
+    void testHashJoins()
+    {
+        Random random = new Random(0x5eed);
+        int[][] sizes = { { 0, 10 }, { 50, 400 }, { 400, 50 }, { 300, 300 } };
+        for (int[] size : sizes) {
+            List<Long> left = randomKeys(random, size[0]);
+            List<Long> right = randomKeys(random, size[1]);
+            // The smaller side goes in the table, the other is streamed.
+            List<String> expected = nestedLoopJoin(left, right,
+                    size[0] >= size[1]);
+            assertEquals(expected, Iter.until(left.size())
+                    .boxed()
+                    .hashJoin(Iter.until(right.size()).boxed(), left::get,
+                            right::get, (i, j) -> i + ":" + j)
+                    .toList());
+            assertEquals(expected, Iter.until(left.size())
+                    .boxed()
+                    .hashJoinByLong(Iter.until(right.size()).boxed(),
+                            left::get, right::get, (i, j) -> i + ":" + j)
+                    .toList());
+        }
+    }
+
+    @Test
+    void testMergeJoins()
+    {
+        Random random = new Random(0xb0b);
+        for (int n = 0; n < 200; n += 7) {
+            List<Long> left = randomKeys(random, n);
+            List<Long> right = randomKeys(random, 200 - n);
+            Collections.sort(left);
+            Collections.sort(right);
+            List<String> expected = nestedLoopJoin(left, right, true);
+            assertEquals(expected, Iter.until(left.size())
+                    .boxed()
+                    .mergeJoin(Iter.until(right.size()).boxed(), left::get,
+                            right::get, Comparator.naturalOrder(),
+                            (i, j) -> i + ":" + j)
+                    .toList());
+            assertEquals(expected, Iter.until(left.size())
+                    .boxed()
+                    .mergeJoinByLong(Iter.until(right.size()).boxed(),
+                            left::get, right::get, (i, j) -> i + ":" + j)
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.join;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.List;
+
+/**
+ * Joins on the first character, the other side is never smaller than the
+ * source so it is always the one put in the table.
+ *
+ * @author t
+ */
+public final class ObjectHashJoinTest
+        extends AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        Adapter<String, AbstractRichIterator<String>> adapter = iter -> iter
+                .hashJoin(Iter.args("a1", "b1", "a2"), l -> l.charAt(0),
+                        r -> r.charAt(0), (l, r) -> l + r);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("a"), adapter, list("aa1", "aa2")),
+                new Case<>(list("c", "b"), adapter, list("bb1")),
+                new Case<>(list("b", "a", "b"), adapter,
+                        list("bb1", "aa1", "aa2", "bb1")));
+    }
+}
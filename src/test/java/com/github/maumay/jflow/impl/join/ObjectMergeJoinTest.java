@@ -0,0 +1,33 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.join;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class ObjectMergeJoinTest
+        extends AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        Adapter<String, AbstractRichIterator<String>> adapter = iter -> iter
+                .mergeJoin(Iter.args("a1", "a2", "b1", "d1"), l -> l.charAt(0),
+                        r -> r.charAt(0), Comparator.naturalOrder(),
+                        (l, r) -> l + r);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("a"), adapter, list("aa1", "aa2")),
+                new Case<>(list("b", "e"), adapter, list("bb1")),
+                new Case<>(list("a", "a", "c", "d"), adapter,
+                        list("aa1", "aa2", "aa1", "aa2", "dd1")));
+    }
+}
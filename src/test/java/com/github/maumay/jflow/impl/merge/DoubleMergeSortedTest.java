@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.merge;
+
+import com.github.maumay.jflow.impl.AbstractDoubleIterator;
+import com.github.maumay.jflow.impl.ArraySource;
+import com.github.maumay.jflow.impl.MergeSortedAdapter;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class DoubleMergeSortedTest
+        extends AbstractDoubleAdapterTest<AbstractDoubleIterator>
+{
+    @Override
+    protected List<Case<AbstractDoubleIterator>> getTestCases()
+    {
+        Adapter<AbstractDoubleIterator> adapter = iter -> new MergeSortedAdapter
+                .OfDouble(new AbstractDoubleIterator[] {
+                        new ArraySource.OfDouble(0.0, 1.5, Double.NaN), iter });
+        return list(new Case<>(list(), adapter, list(0.0, 1.5, Double.NaN)),
+                new Case<>(list(-0.0, 1.0), adapter,
+                        list(-0.0, 0.0, 1.0, 1.5, Double.NaN)),
+                new Case<>(list(2.0, 3.0), adapter,
+                        list(0.0, 1.5, 2.0, 3.0, Double.NaN)));
+    }
+}
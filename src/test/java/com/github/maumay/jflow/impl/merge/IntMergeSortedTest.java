@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.merge;
+
+import com.github.maumay.jflow.impl.AbstractIntIterator;
+import com.github.maumay.jflow.impl.ArraySource;
+import com.github.maumay.jflow.impl.MergeSortedAdapter;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class IntMergeSortedTest extends
+        AbstractIntAdapterTest<AbstractIntIterator>
+{
+    @Override
+    protected List<Case<AbstractIntIterator>> getTestCases()
+    {
+        Adapter<AbstractIntIterator> adapter = iter -> new MergeSortedAdapter
+                .OfInt(new AbstractIntIterator[] {
+                        new ArraySource.OfInt(1, 4), iter,
+                        new ArraySource.OfInt() });
+        return list(new Case<>(list(), adapter, list(1, 4)),
+                new Case<>(list(0), adapter, list(0, 1, 4)),
+                new Case<>(list(1, 1), adapter, list(1, 1, 1, 4)),
+                new Case<>(list(2, 3, 5, 6), adapter, list(1, 2, 3, 4, 5, 6)));
+    }
+}
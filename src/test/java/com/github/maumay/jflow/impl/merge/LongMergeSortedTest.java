@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.merge;
+
+import com.github.maumay.jflow.impl.AbstractLongIterator;
+import com.github.maumay.jflow.impl.ArraySource;
+import com.github.maumay.jflow.impl.MergeSortedAdapter;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ *
+ */
+public final class LongMergeSortedTest extends
+        AbstractLongAdapterTest<AbstractLongIterator>
+{
+    @Override
+    protected List<Case<AbstractLongIterator>> getTestCases()
+    {
+        Adapter<AbstractLongIterator> adapter = iter -> new MergeSortedAdapter
+                .OfLong(new AbstractLongIterator[] { iter,
+                        new ArraySource.OfLong(Long.MIN_VALUE, 2L) });
+        return list(new Case<>(list(), adapter, list(Long.MIN_VALUE, 2L)),
+                new Case<>(list(3L), adapter, list(Long.MIN_VALUE, 2L, 3L)),
+                new Case<>(list(0L, 2L), adapter,
+                        list(Long.MIN_VALUE, 0L, 2L, 2L)));
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.merge;
+
+import com.github.maumay.jflow.impl.AbstractIterator;
+import com.github.maumay.jflow.impl.KnownSize;
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.utils.Tup;
+import com.github.maumay.jflow.vec.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares merges of many sources, some of them empty, against sorting the
+ * concatenation of the sources.
+ *
+ * @author t
+ */
+class MergeSortedTest
+{
+    private static int[][] randomSortedArrays(Random random, int count)
+    {
+        int[][] arrays = new int[count][];
+        for (int i = 0; i < count; i++) {
+            arrays[i] = random.ints(random.nextInt(20), -50, 50).sorted()
+                    .toArray();
+        }
+        return arrays;
+    }
+
+    @Test
+    void testPrimitiveMergeAgainstSort()
+    {
+        Random random = new Random(0x5eed);
+        for (int count = 0; count < 40; count++) {
+            int[][] arrays = randomSortedArrays(random, count);
+            IntIterator[] sources = new IntIterator[count];
+            for (int i = 0; i < count; i++) {
+                sources[i] = Iter.ints(arrays[i]);
+            }
+            int[] expected = Arrays.stream(arrays).flatMapToInt(Arrays::stream)
+                    .sorted().toArray();
+            IntIterator merged = Iter.mergeSortedInts(sources);
+            assertEquals(KnownSize.of(expected.length),
+                    ((AbstractIterator) merged).getSize());
+            assertEquals(Arrays.toString(expected),
+                    Arrays.toString(merged.toArray()));
+        }
+    }
+
+    @Test
+    void testObjectMergeIsStable()
+    {
+        Random random = new Random(0xb0b);
+        for (int count = 1; count < 40; count++) {
+            int[][] arrays = randomSortedArrays(random, count);
+            List<Tup<Integer, Integer>> expected = new ArrayList<>();
+            List<List<Tup<Integer, Integer>>> sources = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                List<Tup<Integer, Integer>> source = new ArrayList<>();
+                for (int x : arrays[i]) {
+                    source.add(Tup.of(x, i));
+                }
+                sources.add(source);
+                expected.addAll(source);
+            }
+            Comparator<Tup<Integer, Integer>> order = Comparator
+                    .comparing(Tup::_1);
+            // List.sort is stable so ties stay ordered by source.
+            expected.sort(order);
+            Vec<Iterator<Tup<Integer, Integer>>> iterators = Iter
+                    .over(sources).map(List::iterator).toVec();
+            assertEquals(expected,
+                    Iter.mergeSorted(iterators, order).toList());
+        }
+    }
+}
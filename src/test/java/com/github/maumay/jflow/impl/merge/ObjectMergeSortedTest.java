@@ -0,0 +1,35 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.merge;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.impl.ArraySource;
+import com.github.maumay.jflow.impl.MergeSortedAdapter;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Merges by length only so the stability of the merge is visible.
+ *
+ * @author t
+ */
+public final class ObjectMergeSortedTest
+        extends AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        Comparator<String> order = Comparator.comparingInt(String::length);
+        Adapter<String, AbstractRichIterator<String>> adapter;
+        adapter = iter -> new MergeSortedAdapter.OfObject<>(order,
+                Arrays.asList(new ArraySource.OfObject<>("a", "bbb"), iter));
+        return list(new Case<>(list(), adapter, list("a", "bbb")),
+                new Case<>(list("x"), adapter, list("a", "x", "bbb")),
+                new Case<>(list("xx", "yyy", "zzzz"), adapter,
+                        list("a", "xx", "bbb", "yyy", "zzzz")));
+    }
+}
@@ -28,12 +28,16 @@ public final class ObjectMinOptionTest
     {
         return list(new Case<>(list(), Option.empty()),
                 new Case<>(list(1.0), Optional.of(1.0)),
-                new Case<>(list(9.0, 1.0, 3.0, 2.0), Optional.of(1.0)));
+                new Case<>(list(9.0, 1.0, 3.0, 2.0), Optional.of(1.0)),
+                new Case<>(list((Double) null), Optional.empty()),
+                new Case<>(list(null, 9.0, 1.0), Optional.of(1.0)));
     }
 
     @Override
     protected List<FailCase<Double>> getFailureCases()
     {
-        return list();
+        // Only a leading null is dropped, later ones reach the comparator.
+        return list(new FailCase<>(list(null, 9.0, null, 1.0),
+                NullPointerException.class));
     }
 }
@@ -0,0 +1,162 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.minmax;
+
+import com.github.maumay.jflow.impl.IteratorOwnershipException;
+import com.github.maumay.jflow.iterator.DoubleIterator;
+import com.github.maumay.jflow.iterator.IntIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.LongIterator;
+import com.github.maumay.jflow.iterator.RichIterator;
+import com.github.maumay.jflow.iterator.collector.IterCollect;
+import com.github.maumay.jflow.vec.DoubleVec;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+import com.github.maumay.jflow.vec.Vec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the heap based selection agrees with sorting everything.
+ *
+ * @author t
+ */
+class TopKTest
+{
+    private static final int[] INTS = new Random(11).ints(500, -100, 100)
+            .toArray();
+    private static final int[] KS = { 0, 1, 7, 100, 500, 1000 };
+
+    private static int[] sortedInts()
+    {
+        int[] sorted = INTS.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static int[] reversed(int[] xs)
+    {
+        return IntStream.range(0, xs.length).map(i -> xs[xs.length - 1 - i])
+                .toArray();
+    }
+
+    @Test
+    void testIntSelection()
+    {
+        int[] ascending = sortedInts();
+        int[] descending = reversed(ascending);
+        for (int k : KS) {
+            int n = Math.min(k, INTS.length);
+            assertArrayEquals(Arrays.copyOf(descending, n),
+                    Iter.ints(INTS).topK(k).iter().toArray());
+            assertArrayEquals(Arrays.copyOf(ascending, n),
+                    Iter.ints(INTS).bottomK(k).iter().toArray());
+        }
+        assertEquals(IntVec.of(), Iter.emptyInts().topK(3));
+    }
+
+    @Test
+    void testLongAndDoubleSelection()
+    {
+        long[] longs = Arrays.stream(INTS).mapToLong(x -> x).toArray();
+        double[] doubles = Arrays.stream(INTS).mapToDouble(x -> x / 2.0)
+                .toArray();
+        int[] ascending = sortedInts();
+        for (int k : KS) {
+            int n = Math.min(k, INTS.length);
+            assertEquals(
+                    LongVec.of(Arrays.stream(ascending).limit(n)
+                            .mapToLong(x -> x).toArray()),
+                    Iter.longs(longs).bottomK(k));
+            assertEquals(
+                    DoubleVec.of(Arrays.stream(reversed(ascending)).limit(n)
+                            .mapToDouble(x -> x / 2.0).toArray()),
+                    Iter.doubles(doubles).topK(k));
+        }
+    }
+
+    @Test
+    void testObjectSelection()
+    {
+        List<String> strings = Arrays.stream(INTS)
+                .mapToObj(Integer::toString).collect(Collectors.toList());
+        Comparator<String> byLength = Comparator
+                .comparingInt(String::length)
+                .thenComparing(Comparator.naturalOrder());
+        for (int k : KS) {
+            List<String> ascending = strings.stream().sorted(byLength)
+                    .limit(k).collect(Collectors.toList());
+            List<String> descending = strings.stream()
+                    .sorted(byLength.reversed()).limit(k)
+                    .collect(Collectors.toList());
+            assertEquals(descending, Iter.over(strings)
+                    .collect(IterCollect.topK(k, byLength)).toList());
+            assertEquals(ascending, Iter.over(strings)
+                    .collect(IterCollect.bottomK(k, byLength)).toList());
+            // A plain iterator is consumed by pulling rather than pushing.
+            assertEquals(descending, IterCollect.topK(k, byLength)
+                    .collect(strings.iterator()).toList());
+        }
+    }
+
+    @Test
+    void testSelectionByKey()
+    {
+        Vec<Integer> boxed = Iter.ints(INTS).boxed().toVec();
+        for (int k : KS) {
+            List<Double> keys = boxed.iter()
+                    .collect(IterCollect.topKByKey(k, x -> x * 1.5))
+                    .iter().map(x -> x * 1.5).toList();
+            List<Double> expected = Arrays.stream(reversed(sortedInts()))
+                    .limit(k).mapToObj(x -> x * 1.5)
+                    .collect(Collectors.toList());
+            assertEquals(expected, keys);
+            List<Integer> least = boxed.iter()
+                    .collect(IterCollect.bottomKByKey(k, x -> x)).toList();
+            assertEquals(Arrays.stream(sortedInts()).limit(k).boxed()
+                    .collect(Collectors.toList()), least);
+        }
+    }
+
+    @Test
+    void testNegativeCountRejected()
+    {
+        IntIterator ints = Iter.ints(INTS);
+        assertThrows(IllegalArgumentException.class, () -> ints.topK(-1));
+        // A rejected count leaves the iterator usable.
+        assertArrayEquals(Arrays.copyOf(reversed(sortedInts()), 3),
+                ints.topK(3).iter().toArray());
+        LongIterator longs = Iter.longs(1, 2);
+        assertThrows(IllegalArgumentException.class, () -> longs.bottomK(-1));
+        assertEquals(2, longs.count());
+        DoubleIterator doubles = Iter.doubles(1, 2);
+        assertThrows(IllegalArgumentException.class, () -> doubles.topK(-1));
+        assertEquals(2, doubles.count());
+        assertThrows(IllegalArgumentException.class,
+                () -> IterCollect.<String> topK(-1, Comparator.naturalOrder()));
+    }
+
+    @Test
+    void testDirectCollectionTakesOwnership()
+    {
+        RichIterator<Integer> source = Iter.ints(INTS).boxed();
+        Vec<Integer> top = IterCollect.<Integer> topK(3,
+                Comparator.naturalOrder()).collect(source);
+        assertEquals(3, top.size());
+        assertThrows(IteratorOwnershipException.class, source::toList);
+        RichIterator<Integer> keyed = Iter.ints(INTS).boxed();
+        IterCollect.<Integer> bottomKByKey(3, x -> x).collect(keyed);
+        assertThrows(IteratorOwnershipException.class, keyed::toList);
+    }
+}
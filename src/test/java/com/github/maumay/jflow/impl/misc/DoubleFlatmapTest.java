@@ -0,0 +1,30 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.misc;
+
+import com.github.maumay.jflow.impl.AbstractDoubleIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+
+import java.util.List;
+import java.util.stream.DoubleStream;
+
+/**
+ * @author t
+ */
+public final class DoubleFlatmapTest extends
+        AbstractDoubleAdapterTest<AbstractDoubleIterator>
+{
+    @Override
+    protected List<Case<AbstractDoubleIterator>> getTestCases()
+    {
+        Adapter<AbstractDoubleIterator> adapter = iter -> iter
+                .flatMap(x -> x > 0 ? Iter.doubles(x, -x)
+                        : DoubleStream.of(x).iterator());
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0.0), adapter, list(0.0)),
+                new Case<>(list(1.0, 0.0), adapter, list(1.0, -1.0, 0.0)),
+                new Case<>(list(-1.0, 2.0), adapter, list(-1.0, 2.0, -2.0)));
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.misc;
+
+import com.github.maumay.jflow.impl.AbstractIntIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * @author t
+ */
+public final class IntFlatmapTest extends
+        AbstractIntAdapterTest<AbstractIntIterator>
+{
+    @Override
+    protected List<Case<AbstractIntIterator>> getTestCases()
+    {
+        Adapter<AbstractIntIterator> adapter = iter -> iter
+                .flatMap(n -> n % 2 == 0 ? Iter.until(n)
+                        : IntStream.range(0, n).iterator());
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0, 0), adapter, list()),
+                new Case<>(list(1, 0), adapter, list(0)),
+                new Case<>(list(0, 2), adapter, list(0, 1)),
+                new Case<>(list(3, 0, 2, 0), adapter, list(0, 1, 2, 0, 1)));
+    }
+}
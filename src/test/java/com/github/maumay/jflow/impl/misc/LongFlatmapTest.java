@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.misc;
+
+import com.github.maumay.jflow.impl.AbstractLongIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * @author t
+ */
+public final class LongFlatmapTest extends
+        AbstractLongAdapterTest<AbstractLongIterator>
+{
+    @Override
+    protected List<Case<AbstractLongIterator>> getTestCases()
+    {
+        Adapter<AbstractLongIterator> adapter = iter -> iter
+                .flatMap(n -> n % 2 == 0 ? Iter.until((int) n).mapToLong(x -> x)
+                        : LongStream.range(0, n).iterator());
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0L, 0L), adapter, list()),
+                new Case<>(list(1L, 0L), adapter, list(0L)),
+                new Case<>(list(0L, 2L), adapter, list(0L, 1L)),
+                new Case<>(list(3L, 0L, 2L, 0L), adapter,
+                        list(0L, 1L, 2L, 0L, 1L)));
+    }
+}
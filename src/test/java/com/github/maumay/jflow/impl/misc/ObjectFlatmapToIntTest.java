@@ -0,0 +1,36 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.misc;
+
+import com.github.maumay.jflow.impl.AbstractIntIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Inner iterators of even length are rich iterators which can be skipped in
+ * one step, odd ones are plain iterators which must be traversed.
+ *
+ * @author t
+ */
+public final class ObjectFlatmapToIntTest extends
+        AbstractObjectAdapterTest<String, AbstractIntIterator>
+{
+    @Override
+    protected List<Case<String, AbstractIntIterator>> getTestCases()
+    {
+        Adapter<String, AbstractIntIterator> adapter = iter -> iter
+                .flatMapToInt(s -> s.length() % 2 == 0
+                        ? Iter.until(s.length())
+                        : IntStream.range(0, s.length()).iterator());
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("", ""), adapter, list()),
+                new Case<>(list("a", ""), adapter, list(0)),
+                new Case<>(list("", "ab"), adapter, list(0, 1)),
+                new Case<>(list("abc", "", "ab", ""), adapter,
+                        list(0, 1, 2, 0, 1)));
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.prefetch;
+
+import com.github.maumay.jflow.impl.AbstractDoubleIterator;
+import com.github.maumay.jflow.impl.PrefetchAdapter;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+
+import java.util.List;
+
+/**
+ * Uses a buffer of two elements so the producer regularly waits for space.
+ *
+ * @author t
+ */
+public final class DoublePrefetchTest extends
+        AbstractDoubleAdapterTest<AbstractDoubleIterator>
+{
+    @Override
+    protected List<Case<AbstractDoubleIterator>> getTestCases()
+    {
+        Adapter<AbstractDoubleIterator> adapter = iter -> new PrefetchAdapter
+                .OfDouble(iter, 2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0.0), adapter, list(0.0)),
+                new Case<>(list(1.0, 2.0), adapter, list(1.0, 2.0)),
+                new Case<>(list(3.0, 1.0, 4.0, 1.0, 5.0), adapter,
+                        list(3.0, 1.0, 4.0, 1.0, 5.0)));
+    }
+}
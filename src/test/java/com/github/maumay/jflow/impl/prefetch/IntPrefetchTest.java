@@ -0,0 +1,30 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.prefetch;
+
+import com.github.maumay.jflow.impl.AbstractIntIterator;
+import com.github.maumay.jflow.impl.PrefetchAdapter;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+
+import java.util.List;
+
+/**
+ * Uses a buffer of two elements so the producer regularly waits for space.
+ *
+ * @author t
+ */
+public final class IntPrefetchTest extends
+        AbstractIntAdapterTest<AbstractIntIterator>
+{
+    @Override
+    protected List<Case<AbstractIntIterator>> getTestCases()
+    {
+        Adapter<AbstractIntIterator> adapter = iter -> new PrefetchAdapter
+                .OfInt(iter, 2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0), adapter, list(0)),
+                new Case<>(list(1, 2), adapter, list(1, 2)),
+                new Case<>(list(3, 1, 4, 1, 5), adapter, list(3, 1, 4, 1, 5)));
+    }
+}
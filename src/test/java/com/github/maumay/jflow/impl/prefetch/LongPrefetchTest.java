@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.prefetch;
+
+import com.github.maumay.jflow.impl.AbstractLongIterator;
+import com.github.maumay.jflow.impl.PrefetchAdapter;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+
+import java.util.List;
+
+/**
+ * Uses a buffer of two elements so the producer regularly waits for space.
+ *
+ * @author t
+ */
+public final class LongPrefetchTest extends
+        AbstractLongAdapterTest<AbstractLongIterator>
+{
+    @Override
+    protected List<Case<AbstractLongIterator>> getTestCases()
+    {
+        Adapter<AbstractLongIterator> adapter = iter -> new PrefetchAdapter
+                .OfLong(iter, 2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(0L), adapter, list(0L)),
+                new Case<>(list(1L, 2L), adapter, list(1L, 2L)),
+                new Case<>(list(3L, 1L, 4L, 1L, 5L), adapter,
+                        list(3L, 1L, 4L, 1L, 5L)));
+    }
+}
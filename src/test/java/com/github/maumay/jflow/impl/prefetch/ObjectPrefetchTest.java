@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.prefetch;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.impl.PrefetchAdapter;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.List;
+
+/**
+ * Uses a buffer of two elements so the producer regularly waits for space.
+ *
+ * @author t
+ */
+public final class ObjectPrefetchTest
+        extends AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        Adapter<String, AbstractRichIterator<String>> adapter;
+        adapter = iter -> new PrefetchAdapter.OfObject<>(iter, 2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("0"), adapter, list("0")),
+                new Case<>(list("0", "1"), adapter, list("0", "1")),
+                new Case<>(list("a", "b", "c", "d", "e"), adapter,
+                        list("a", "b", "c", "d", "e")));
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.prefetch;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.PrefetchIterator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author t
+ */
+class PrefetchTest
+{
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * An endless source counting the elements pulled from it which throws
+     * once a given number have been pulled.
+     */
+    private static final class CountingSource implements Iterator<Integer>
+    {
+        final AtomicInteger pulled = new AtomicInteger();
+        final int failAfter;
+
+        CountingSource(int failAfter)
+        {
+            this.failAfter = failAfter;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return true;
+        }
+
+        @Override
+        public Integer next()
+        {
+            int count = pulled.getAndIncrement();
+            if (count == failAfter) {
+                throw new IllegalStateException("Source failed");
+            }
+            return count;
+        }
+    }
+
+    private static Set<Thread> producers()
+    {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("jflow-prefetch-"))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @return The producer thread started by the first element requested
+     *         from the given iterator.
+     */
+    private static Thread startProducer(PrefetchIterator.OfObject<?> iterator)
+    {
+        Set<Thread> before = producers();
+        iterator.next();
+        Set<Thread> started = producers();
+        started.removeAll(before);
+        assertEquals(1, started.size());
+        return started.iterator().next();
+    }
+
+    @Test
+    void testLongTraversalIsInOrder()
+    {
+        int size = 100_000;
+        long[] values = Iter.until(size).mapToLong(x -> 3L * x).toArray();
+        assertArrayEquals(values, Iter.longs(values).prefetch(7).toArray());
+    }
+
+    @Test
+    void testExceptionReachesConsumerAfterEarlierElements()
+    {
+        CountingSource source = new CountingSource(5);
+        PrefetchIterator.OfObject<Integer> prefetched = Iter.wrap(source)
+                .prefetch(16);
+        List<Integer> traversed = new ArrayList<>();
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> prefetched.forEach(traversed::add));
+        assertEquals("Source failed", ex.getMessage());
+        assertEquals(Iter.until(5).boxed().toList(), traversed);
+    }
+
+    @Test
+    void testCloseStopsProducer() throws InterruptedException
+    {
+        CountingSource source = new CountingSource(-1);
+        Thread producer;
+        int consumed = 1;
+        try (PrefetchIterator.OfObject<Integer> prefetched = Iter.wrap(source)
+                .prefetch(4)) {
+            producer = startProducer(prefetched);
+            for (; consumed < 10; consumed++) {
+                assertEquals(consumed, (int) prefetched.next());
+            }
+            prefetched.close();
+            assertFalse(prefetched.hasNext());
+        }
+        producer.join(TIMEOUT_MILLIS);
+        assertFalse(producer.isAlive());
+        // The producer stops with at most a buffer (and one more element it
+        // may be holding) beyond what was consumed.
+        int pulled = source.pulled.get();
+        assertTrue(pulled <= consumed + 4 + 1, "pulled " + pulled);
+    }
+
+    @Test
+    void testCloseWakesWaitingConsumer() throws InterruptedException
+    {
+        CountDownLatch resume = new CountDownLatch(1);
+        Iterator<Integer> stalled = new Iterator<Integer>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                try {
+                    resume.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+
+            @Override
+            public Integer next()
+            {
+                throw new AssertionError();
+            }
+        };
+        PrefetchIterator.OfObject<Integer> prefetched = Iter.wrap(stalled)
+                .prefetch(4);
+        boolean[] traversed = { true };
+        Thread consumer = new Thread(() -> traversed[0] = prefetched.hasNext());
+        consumer.start();
+        while (consumer.getState() != Thread.State.WAITING) {
+            assertTrue(consumer.isAlive());
+            Thread.yield();
+        }
+        prefetched.close();
+        consumer.join(TIMEOUT_MILLIS);
+        assertFalse(consumer.isAlive());
+        assertFalse(traversed[0]);
+        resume.countDown();
+    }
+
+    @Test
+    void testAbandonedTraversalStopsProducer() throws InterruptedException
+    {
+        Thread producer = startProducer(Iter.wrap(new CountingSource(-1))
+                .prefetch(4));
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (producer.isAlive() && System.currentTimeMillis() < deadline) {
+            System.gc();
+            producer.join(100);
+        }
+        assertFalse(producer.isAlive());
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.sort;
+
+import com.github.maumay.jflow.iterator.ElementCodec;
+import com.github.maumay.jflow.iterator.ExternalSortIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.RichIterator;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Sorts inputs cut into more runs than can be merged at once, so runs are
+ * merged over several passes, and checks no temporary files are left behind
+ * whether the traversal finishes, is abandoned and closed or fails.
+ *
+ * @author t
+ */
+class ExternalSortTest
+{
+    private static final int SIZE = 10_000, BUDGET = 37;
+
+    private static final ElementCodec<Long> LONGS = new ElementCodec<Long>()
+    {
+        @Override
+        public void write(Long element, DataOutput out) throws IOException
+        {
+            out.writeLong(element);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException
+        {
+            return in.readLong();
+        }
+    };
+
+    private static Set<Path> runFiles() throws IOException
+    {
+        Path dir = Paths.get(System.getProperty("java.io.tmpdir"));
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString()
+                    .startsWith("jflow-sort-")).collect(Collectors.toSet());
+        }
+    }
+
+    @Test
+    void testLongsAgainstSort() throws IOException
+    {
+        Set<Path> before = runFiles();
+        long[] values = new Random(0x5eed).longs(SIZE).toArray();
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        long[] sorted = Iter.longs(values).sortedExternal(BUDGET).toArray();
+        assertEquals(Arrays.toString(expected), Arrays.toString(sorted));
+        assertEquals(before, runFiles());
+    }
+
+    @Test
+    void testObjectsAgainstStableSort() throws IOException
+    {
+        Set<Path> before = runFiles();
+        Random random = new Random(0xb0b);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            values.add((char) ('a' + random.nextInt(26)) + Integer.toString(i));
+        }
+        Comparator<String> order = Comparator.comparing(s -> s.charAt(0));
+        List<String> expected = new ArrayList<>(values);
+        expected.sort(order);
+        assertEquals(expected, Iter.over(values)
+                .sortedExternal(order, ElementCodec.strings(), BUDGET)
+                .toList());
+        assertEquals(before, runFiles());
+    }
+
+    @Test
+    void testClosingAbandonedTraversalDeletesRuns() throws IOException
+    {
+        Set<Path> before = runFiles();
+        long[] values = new Random(0x5eed).longs(SIZE).toArray();
+        try (ExternalSortIterator.OfLong sorted = Iter.longs(values)
+                .sortedExternal(BUDGET)) {
+            assertEquals(Arrays.stream(values).min().getAsLong(),
+                    sorted.nextLong());
+            assertNotEquals(before, runFiles());
+        }
+        assertEquals(before, runFiles());
+
+        ExternalSortIterator.OfObject<String> strings = Iter.until(SIZE)
+                .mapToObj(Integer::toString)
+                .sortedExternal(Comparator.naturalOrder(),
+                        ElementCodec.strings(), BUDGET);
+        assertEquals(Arrays.asList("0", "1"), strings.take(2).toList());
+        assertNotEquals(before, runFiles());
+        strings.close();
+        assertEquals(before, runFiles());
+        assertFalse(strings.hasNext());
+    }
+
+    @Test
+    void testFailedSortDeletesRuns() throws IOException
+    {
+        Set<Path> before = runFiles();
+        ElementCodec<String> failing = new ElementCodec<String>()
+        {
+            private int written = 0;
+
+            @Override
+            public void write(String element, DataOutput out)
+                    throws IOException
+            {
+                if (++written > SIZE / 2) {
+                    throw new IOException("Disk full");
+                }
+                ElementCodec.strings().write(element, out);
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException
+            {
+                return ElementCodec.strings().read(in);
+            }
+        };
+        RichIterator<String> sorted = Iter.until(SIZE)
+                .mapToObj(Integer::toString)
+                .sortedExternal(Comparator.naturalOrder(), failing, BUDGET);
+        assertThrows(UncheckedIOException.class, sorted::hasNext);
+        assertEquals(before, runFiles());
+
+        int[] compared = { 0 };
+        Comparator<Long> order = (a, b) -> {
+            if (++compared[0] > SIZE * 3) {
+                throw new IllegalStateException();
+            }
+            return Long.compare(a, b);
+        };
+        RichIterator<Long> longs = Iter.until(SIZE).mapToObj(i -> (long) i)
+                .sortedExternal(order, LONGS, BUDGET);
+        assertThrows(IllegalStateException.class, longs::toList);
+        assertEquals(before, runFiles());
+    }
+}
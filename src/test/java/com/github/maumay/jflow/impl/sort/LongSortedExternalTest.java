@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.sort;
+
+import com.github.maumay.jflow.impl.AbstractLongIterator;
+import com.github.maumay.jflow.impl.ExternalSortAdapter;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+
+import java.util.List;
+
+/**
+ * Uses a memory budget of two elements so longer sources are spilled to disk.
+ *
+ * @author t
+ */
+public final class LongSortedExternalTest extends
+        AbstractLongAdapterTest<AbstractLongIterator>
+{
+    @Override
+    protected List<Case<AbstractLongIterator>> getTestCases()
+    {
+        Adapter<AbstractLongIterator> adapter = iter -> new ExternalSortAdapter
+                .OfLong(iter, 2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(1L, 0L), adapter, list(0L, 1L)),
+                new Case<>(list(3L, -1L, 2L), adapter, list(-1L, 2L, 3L)),
+                new Case<>(list(5L, Long.MIN_VALUE, 5L, 0L, Long.MAX_VALUE),
+                        adapter,
+                        list(Long.MIN_VALUE, 0L, 5L, 5L, Long.MAX_VALUE)));
+    }
+}
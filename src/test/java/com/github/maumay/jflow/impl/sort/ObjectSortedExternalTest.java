@@ -0,0 +1,35 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.sort;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.impl.ExternalSortAdapter;
+import com.github.maumay.jflow.iterator.ElementCodec;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorts by length only, with a memory budget of two elements, so both the
+ * spilling and the stability of the sort are exercised.
+ *
+ * @author t
+ */
+public final class ObjectSortedExternalTest
+        extends AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        Comparator<String> order = Comparator.comparingInt(String::length);
+        Adapter<String, AbstractRichIterator<String>> adapter;
+        adapter = iter -> new ExternalSortAdapter.OfObject<>(iter, order,
+                ElementCodec.strings(), 2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("bb", "a"), adapter, list("a", "bb")),
+                new Case<>(list("ccc", "x", "bb", "y", "\u00e9"), adapter,
+                        list("x", "y", "\u00e9", "bb", "ccc")));
+    }
+}
@@ -23,6 +23,10 @@ public final class IntArraySourceTest extends
                 new Case<>(() -> new ArraySource.OfIntReversed(), list()),
                 new Case<>(() -> new ArraySource.OfInt(0, 1, 2), list(0, 1, 2)),
                 new Case<>(() -> new ArraySource.OfIntReversed(0, 1, 2),
-                        list(2, 1, 0)));
+                        list(2, 1, 0)),
+                new Case<>(() -> new ArraySource.OfInt(new int[] { 0, 1, 2, 3 },
+                        1, 3), list(1, 2)),
+                new Case<>(() -> new ArraySource.OfInt(new int[] { 0, 1 }, 1,
+                        1), list()));
     }
 }
@@ -24,6 +24,10 @@ public final class LongArraySourceTest extends
                         list(0L, 1L, 2L)),
                 new Case<>(() -> new ArraySource.OfLongReversed(), list()),
                 new Case<>(() -> new ArraySource.OfLongReversed(0L, 1L, 2L),
-                        list(2L, 1L, 0L)));
+                        list(2L, 1L, 0L)),
+                new Case<>(() -> new ArraySource.OfLong(
+                        new long[] { 0L, 1L, 2L, 3L }, 1, 3), list(1L, 2L)),
+                new Case<>(() -> new ArraySource.OfLong(new long[] { 0L, 1L },
+                        1, 1), list()));
     }
 }
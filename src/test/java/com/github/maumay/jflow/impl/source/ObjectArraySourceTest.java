@@ -25,6 +25,11 @@ public final class ObjectArraySourceTest extends
                 new Case<>(() -> new ArraySource.OfObjectReversed<>(), list()),
                 new Case<>(
                         () -> new ArraySource.OfObjectReversed<>(0.0, 1.0, 2.0),
-                        list(2.0, 1.0, 0.0)));
+                        list(2.0, 1.0, 0.0)),
+                new Case<>(() -> new ArraySource.OfObject<>(
+                        new Double[] { 0.0, 1.0, 2.0, 3.0 }, 1, 3),
+                        list(1.0, 2.0)),
+                new Case<>(() -> new ArraySource.OfObject<>(
+                        new Double[] { 0.0, 1.0 }, 1, 1), list()));
     }
 }
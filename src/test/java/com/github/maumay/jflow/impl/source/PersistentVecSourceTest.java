@@ -0,0 +1,46 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.source;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.test.AbstractSourceTest;
+import com.github.maumay.jflow.vec.PersistentVec;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class PersistentVecSourceTest extends
+        AbstractSourceTest<AbstractRichIterator<Integer>>
+{
+    @Override
+    protected List<Case<AbstractRichIterator<Integer>>> getTestCases()
+    {
+        // Large enough to span several leaves of the underlying tree.
+        PersistentVec<Integer> vec = Iter.until(100).boxed().toPersistentVec();
+        return list(
+                new Case<>(() -> cast(PersistentVec.<Integer>empty().iter()),
+                        list()),
+                new Case<>(() -> cast(PersistentVec.of(0, 1, 2).iter()),
+                        list(0, 1, 2)),
+                new Case<>(() -> cast(PersistentVec.of(0, 1, 2).iterRev()),
+                        list(2, 1, 0)),
+                new Case<>(() -> cast(vec.iter()),
+                        Iter.until(100).boxed().toList()),
+                new Case<>(() -> cast(vec.subVec(31, 70).iter()),
+                        Iter.until(39).boxed().map(x -> x + 31).toList()),
+                new Case<>(() -> cast(vec.iterRev()),
+                        Iter.until(100).boxed().map(x -> 99 - x).toList()));
+    }
+
+    private static AbstractRichIterator<Integer> cast(Object iterator)
+    {
+        @SuppressWarnings("unchecked")
+        AbstractRichIterator<Integer> result =
+                (AbstractRichIterator<Integer>) iterator;
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.window;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+import com.github.maumay.jflow.vec.DoubleVec;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class DoubleWindowsTest extends
+        AbstractDoubleAdapterTest<AbstractRichIterator<DoubleVec>>
+{
+    @Override
+    protected List<Case<AbstractRichIterator<DoubleVec>>> getTestCases()
+    {
+        Adapter<AbstractRichIterator<DoubleVec>> overlapping = iter -> iter
+                .windows(3, 1);
+        Adapter<AbstractRichIterator<DoubleVec>> gapped = iter -> iter
+                .windows(2, 3);
+        return list(new Case<>(list(), overlapping, list()),
+                new Case<>(list(1.0, 2.0), overlapping, list()),
+                new Case<>(list(1.0, 2.0, 3.0, 4.0, 5.0), overlapping,
+                        list(DoubleVec.of(1.0, 2.0, 3.0),
+                                DoubleVec.of(2.0, 3.0, 4.0),
+                                DoubleVec.of(3.0, 4.0, 5.0))),
+                new Case<>(list(), gapped, list()),
+                new Case<>(list(1.0, 2.0, 3.0, 4.0, 5.0), gapped,
+                        list(DoubleVec.of(1.0, 2.0),
+                                DoubleVec.of(4.0, 5.0))));
+    }
+}
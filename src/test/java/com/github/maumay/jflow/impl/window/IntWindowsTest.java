@@ -0,0 +1,36 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.window;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+import com.github.maumay.jflow.vec.IntVec;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class IntWindowsTest extends
+        AbstractIntAdapterTest<AbstractRichIterator<IntVec>>
+{
+    @Override
+    protected List<Case<AbstractRichIterator<IntVec>>> getTestCases()
+    {
+        Adapter<AbstractRichIterator<IntVec>> overlapping = iter -> iter
+                .windows(3, 1);
+        Adapter<AbstractRichIterator<IntVec>> gapped = iter -> iter
+                .windows(2, 3);
+        return list(new Case<>(list(), overlapping, list()),
+                new Case<>(list(1, 2), overlapping, list()),
+                new Case<>(list(1, 2, 3, 4, 5), overlapping,
+                        list(IntVec.of(1, 2, 3),
+                                IntVec.of(2, 3, 4),
+                                IntVec.of(3, 4, 5))),
+                new Case<>(list(), gapped, list()),
+                new Case<>(list(1, 2, 3, 4, 5), gapped,
+                        list(IntVec.of(1, 2),
+                                IntVec.of(4, 5))));
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.window;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+import com.github.maumay.jflow.vec.LongVec;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class LongWindowsTest extends
+        AbstractLongAdapterTest<AbstractRichIterator<LongVec>>
+{
+    @Override
+    protected List<Case<AbstractRichIterator<LongVec>>> getTestCases()
+    {
+        Adapter<AbstractRichIterator<LongVec>> overlapping = iter -> iter
+                .windows(3, 1);
+        Adapter<AbstractRichIterator<LongVec>> gapped = iter -> iter
+                .windows(2, 3);
+        return list(new Case<>(list(), overlapping, list()),
+                new Case<>(list(1L, 2L), overlapping, list()),
+                new Case<>(list(1L, 2L, 3L, 4L, 5L), overlapping,
+                        list(LongVec.of(1L, 2L, 3L),
+                                LongVec.of(2L, 3L, 4L),
+                                LongVec.of(3L, 4L, 5L))),
+                new Case<>(list(), gapped, list()),
+                new Case<>(list(1L, 2L, 3L, 4L, 5L), gapped,
+                        list(LongVec.of(1L, 2L),
+                                LongVec.of(4L, 5L))));
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.window;
+
+import com.github.maumay.jflow.iterator.DoubleIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.vec.DoubleVec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares each rolling aggregate with the same aggregate computed directly
+ * from the windows of a long random sequence, which also exercises the
+ * periodic recomputation of the sums and the buffer moves of the windows.
+ *
+ * @author t
+ */
+class RollingAggregatesTest
+{
+    private static final double[] DATA = new Random(0x5eed).doubles(2000)
+            .map(x -> 100 * x - 50).toArray();
+
+    private static void assertRollingAsExpected(int window,
+            Function<DoubleIterator, DoubleIterator> rolling,
+            ToDoubleFunction<DoubleVec> aggregate)
+    {
+        double[] expected = Iter.doubles(DATA).windows(window, 1)
+                .mapToDouble(aggregate).toArray();
+        double[] pulled = rolling.apply(Iter.doubles(DATA)).toArray();
+        assertArrayEquals(expected, pulled, 1e-9);
+
+        DoubleIterator pushed = rolling.apply(Iter.doubles(DATA));
+        assertEquals(expected[0], pushed.nextDouble(), 1e-9);
+        double[] rest = new double[expected.length - 1];
+        int[] count = { 0 };
+        pushed.forEach(x -> rest[count[0]++] = x);
+        for (int i = 0; i < rest.length; i++) {
+            assertEquals(expected[i + 1], rest[i], 1e-9);
+        }
+    }
+
+    private static double variance(DoubleVec window)
+    {
+        double mean = window.iter().sum() / window.size();
+        return window.iter().map(x -> (x - mean) * (x - mean)).sum()
+                / (window.size() - 1);
+    }
+
+    @Test
+    void testRollingAggregates()
+    {
+        for (int window : new int[] { 2, 3, 17, 300 }) {
+            assertRollingAsExpected(window, x -> x.rollingSum(window),
+                    w -> w.iter().sum());
+            assertRollingAsExpected(window, x -> x.rollingMean(window),
+                    w -> w.iter().sum() / window);
+            assertRollingAsExpected(window, x -> x.rollingVariance(window),
+                    RollingAggregatesTest::variance);
+            assertRollingAsExpected(window, x -> x.rollingMin(window),
+                    w -> w.iter().min());
+            assertRollingAsExpected(window, x -> x.rollingMax(window),
+                    w -> w.iter().max());
+        }
+    }
+
+    @Test
+    void testVarianceRequiresTwoElements()
+    {
+        assertThrows(IllegalArgumentException.class,
+                () -> Iter.doubles(DATA).rollingVariance(1));
+        assertThrows(IllegalArgumentException.class,
+                () -> Iter.doubles(DATA).rollingMin(0));
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.window;
+
+import com.github.maumay.jflow.impl.AbstractDoubleIterator;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class RollingMinTest extends
+        AbstractDoubleAdapterTest<AbstractDoubleIterator>
+{
+    @Override
+    protected List<Case<AbstractDoubleIterator>> getTestCases()
+    {
+        Adapter<AbstractDoubleIterator> adapter = iter -> iter.rollingMin(3);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(1.0, 2.0), adapter, list()),
+                new Case<>(list(3.0, 1.0, 2.0, 5.0, 4.0, 0.0), adapter,
+                        list(1.0, 1.0, 2.0, 0.0)));
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.window;
+
+import com.github.maumay.jflow.impl.AbstractDoubleIterator;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class RollingSumTest extends
+        AbstractDoubleAdapterTest<AbstractDoubleIterator>
+{
+    @Override
+    protected List<Case<AbstractDoubleIterator>> getTestCases()
+    {
+        Adapter<AbstractDoubleIterator> adapter = iter -> iter.rollingSum(2);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list(1.0), adapter, list()),
+                new Case<>(list(1.0, 2.0, 4.0, 8.0), adapter,
+                        list(3.0, 6.0, 12.0)));
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.window;
+
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.RichIterator;
+import com.github.maumay.jflow.vec.IntVec;
+import com.github.maumay.jflow.vec.LongVec;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * @author t
+ */
+class WindowBufferTest
+{
+    @Test
+    void testBufferAllocationFollowsSource()
+    {
+        // Allocating a full buffer up front would exhaust the heap here.
+        RichIterator<IntVec> exact = Iter.until(3).windows(1 << 28, 1);
+        assertFalse(exact.hasNext());
+        RichIterator<LongVec> whole = Iter.longs(1, 2, 3).windows(3, 1);
+        assertArrayEquals(new long[] { 1, 2, 3 },
+                whole.next().iter().toArray());
+        assertFalse(whole.hasNext());
+    }
+
+    @Test
+    void testEmittedWindowsSurviveBufferMoves()
+    {
+        // The buffer grows and then moves many times over this source.
+        int size = 5000, window = 300;
+        List<IntVec> windows = Iter.until(size).filter(x -> true)
+                .windows(window, 7).toList();
+        assertEquals((size - window) / 7 + 1, windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            int first = 7 * i;
+            assertArrayEquals(Iter.until(window).map(x -> x + first).toArray(),
+                    windows.get(i).iter().toArray());
+        }
+    }
+}
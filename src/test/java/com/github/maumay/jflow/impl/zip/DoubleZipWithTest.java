@@ -0,0 +1,36 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.zip;
+
+import com.github.maumay.jflow.impl.AbstractDoubleIterator;
+import com.github.maumay.jflow.test.AbstractDoubleAdapterTest;
+
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * @author t
+ */
+public final class DoubleZipWithTest extends
+        AbstractDoubleAdapterTest<AbstractDoubleIterator>
+{
+    @Override
+    protected List<Case<AbstractDoubleIterator>> getTestCases()
+    {
+        return list(new Case<>(list(), i -> i.zipWith(iter(list()), f()), list()),
+                new Case<>(list(), i -> i.zipWith(iter(list(1.0)), f()), list()),
+                new Case<>(list(1.0), i -> i.zipWith(iter(list()), f()), list()),
+                new Case<>(list(1.0), i -> i.zipWith(iter(list(2.0)), f()),
+                        list(12.0)),
+                new Case<>(list(1.0, 2.0), i -> i.zipWith(iter(list(2.0)), f()),
+                        list(12.0)),
+                new Case<>(list(1.0), i -> i.zipWith(iter(list(2.0, 3.0)), f()),
+                        list(12.0)));
+    }
+
+    private DoubleBinaryOperator f()
+    {
+        return (a, b) -> 10 * a + b;
+    }
+}
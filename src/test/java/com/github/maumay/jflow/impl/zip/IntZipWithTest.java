@@ -0,0 +1,36 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.zip;
+
+import com.github.maumay.jflow.impl.AbstractIntIterator;
+import com.github.maumay.jflow.test.AbstractIntAdapterTest;
+
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * @author t
+ */
+public final class IntZipWithTest extends
+        AbstractIntAdapterTest<AbstractIntIterator>
+{
+    @Override
+    protected List<Case<AbstractIntIterator>> getTestCases()
+    {
+        return list(new Case<>(list(), i -> i.zipWith(iter(list()), f()), list()),
+                new Case<>(list(), i -> i.zipWith(iter(list(1)), f()), list()),
+                new Case<>(list(1), i -> i.zipWith(iter(list()), f()), list()),
+                new Case<>(list(1), i -> i.zipWith(iter(list(2)), f()),
+                        list(12)),
+                new Case<>(list(1, 2), i -> i.zipWith(iter(list(2)), f()),
+                        list(12)),
+                new Case<>(list(1), i -> i.zipWith(iter(list(2, 3)), f()),
+                        list(12)));
+    }
+
+    private IntBinaryOperator f()
+    {
+        return (a, b) -> 10 * a + b;
+    }
+}
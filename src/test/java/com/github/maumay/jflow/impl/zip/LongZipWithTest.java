@@ -0,0 +1,36 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.zip;
+
+import com.github.maumay.jflow.impl.AbstractLongIterator;
+import com.github.maumay.jflow.test.AbstractLongAdapterTest;
+
+import java.util.List;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * @author t
+ */
+public final class LongZipWithTest extends
+        AbstractLongAdapterTest<AbstractLongIterator>
+{
+    @Override
+    protected List<Case<AbstractLongIterator>> getTestCases()
+    {
+        return list(new Case<>(list(), i -> i.zipWith(iter(list()), f()), list()),
+                new Case<>(list(), i -> i.zipWith(iter(list(1L)), f()), list()),
+                new Case<>(list(1L), i -> i.zipWith(iter(list()), f()), list()),
+                new Case<>(list(1L), i -> i.zipWith(iter(list(2L)), f()),
+                        list(12L)),
+                new Case<>(list(1L, 2L), i -> i.zipWith(iter(list(2L)), f()),
+                        list(12L)),
+                new Case<>(list(1L), i -> i.zipWith(iter(list(2L, 3L)), f()),
+                        list(12L)));
+    }
+
+    private LongBinaryOperator f()
+    {
+        return (a, b) -> 10 * a + b;
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.zip;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.iterator.Iter;
+import com.github.maumay.jflow.iterator.RichIterator;
+import com.github.maumay.jflow.test.AbstractObjectAdapterTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author t
+ */
+public final class ObjectEnumerateIntoTest extends
+        AbstractObjectAdapterTest<String, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, AbstractRichIterator<String>>> getTestCases()
+    {
+        Adapter<String, AbstractRichIterator<String>> adapter = iter -> iter
+                .enumerateInto((i, s) -> i + s);
+        return list(new Case<>(list(), adapter, list()),
+                new Case<>(list("a"), adapter, list("0a")),
+                new Case<>(list("a", "b", "c"), adapter,
+                        list("0a", "1b", "2c")));
+    }
+
+    @Test
+    void testForEachIndexed()
+    {
+        List<String> dest = new ArrayList<>();
+        RichIterator<String> source = Iter.args("a", "b", "c");
+        source.next();
+        source.forEachIndexed((i, s) -> dest.add(i + s));
+        assertEquals(list("0b", "1c"), dest);
+    }
+}
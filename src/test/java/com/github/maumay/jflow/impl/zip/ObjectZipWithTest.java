@@ -0,0 +1,29 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.impl.zip;
+
+import com.github.maumay.jflow.impl.AbstractRichIterator;
+import com.github.maumay.jflow.test.AbstractObjectBiAdapterTest;
+
+import java.util.List;
+
+/**
+ * @author t
+ */
+public final class ObjectZipWithTest extends
+        AbstractObjectBiAdapterTest<String, Integer, AbstractRichIterator<String>>
+{
+    @Override
+    protected List<Case<String, Integer, AbstractRichIterator<String>>> getTestCases()
+    {
+        Adapter<String, Integer, AbstractRichIterator<String>> adapter = (i1, i2) -> i1
+                .zipWith(i2, (s, n) -> s + n);
+        return list(new Case<>(list(), list(), adapter, list()),
+                new Case<>(list(), list(1), adapter, list()),
+                new Case<>(list("a"), list(), adapter, list()),
+                new Case<>(list("a"), list(1), adapter, list("a1")),
+                new Case<>(list("a", "b"), list(1), adapter, list("a1")),
+                new Case<>(list("a"), list(1, 2), adapter, list("a1")));
+    }
+}
@@ -37,6 +37,25 @@ public interface FiniteIteratorTest
                     iteratorProvider.iter());
             assertAlternatingNextAndForwardCallsAsExpected(expectedElements,
                     iteratorProvider.iter());
+            assertInternalIterationAsExpected(expectedElements,
+                    iteratorProvider.iter());
+            assertInternalIterationAfterNextAsExpected(expectedElements,
+                    iteratorProvider.iter());
+        }
+    }
+
+    default void forEachRemaining(AbstractIterator iterator, List<Object> dest)
+    {
+        if (iterator instanceof AbstractRichIterator<?>) {
+            ((AbstractRichIterator<?>) iterator).forEachRemainingImpl(dest::add);
+        } else if (iterator instanceof AbstractIntIterator) {
+            ((AbstractIntIterator) iterator).forEachRemainingImpl(dest::add);
+        } else if (iterator instanceof AbstractDoubleIterator) {
+            ((AbstractDoubleIterator) iterator).forEachRemainingImpl(dest::add);
+        } else if (iterator instanceof AbstractLongIterator) {
+            ((AbstractLongIterator) iterator).forEachRemainingImpl(dest::add);
+        } else {
+            throw new AssertionError();
         }
     }
 
@@ -218,4 +237,30 @@ public interface FiniteIteratorTest
         assertThrows(NoSuchElementException.class, iterator::forward);
         assertEquals(expectedOutcome, recoveredElements);
     }
+
+    default void assertInternalIterationAsExpected(List<?> expectedElements,
+            AbstractIterator iterator)
+    {
+        List<Object> recoveredElements = new ArrayList<>();
+        forEachRemaining(iterator, recoveredElements);
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, () -> next(iterator));
+        assertEquals(expectedElements, recoveredElements);
+    }
+
+    default void assertInternalIterationAfterNextAsExpected(
+            List<?> expectedElements,
+            AbstractIterator iterator)
+    {
+        // Checking for a next element first forces any caching adapters
+        // to hold an element before the internal iteration starts.
+        List<Object> recoveredElements = new ArrayList<>();
+        if (iterator.hasNext()) {
+            recoveredElements.add(next(iterator));
+        }
+        iterator.hasNext();
+        forEachRemaining(iterator, recoveredElements);
+        assertFalse(iterator.hasNext());
+        assertEquals(expectedElements, recoveredElements);
+    }
 }
@@ -0,0 +1,108 @@
+/**
+ *
+ */
+package com.github.maumay.jflow.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the open addressing primitive keyed maps against {@link HashMap}.
+ *
+ * @author t
+ */
+class IntKeyedMapsTest
+{
+    @Test
+    void testIntLongMap()
+    {
+        Random random = new Random(7);
+        IntLongMap map = new IntLongMap();
+        Map<Integer, Long> model = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            // A narrow key range so keys repeat, including zero and negatives.
+            int key = random.nextInt(4000) - 2000;
+            long delta = random.nextInt(100);
+            if (random.nextBoolean()) {
+                assertEquals(model.merge(key, delta, Long::sum).longValue(),
+                        map.addTo(key, delta));
+            } else {
+                model.put(key, delta);
+                map.put(key, delta);
+            }
+        }
+        assertEquals(model.size(), map.size());
+        for (int key = -2100; key < 2100; key++) {
+            assertEquals(model.containsKey(key), map.containsKey(key));
+            assertEquals(model.getOrDefault(key, -1L).longValue(),
+                    map.getOrDefault(key, -1L));
+        }
+        Map<Integer, Long> traversed = new HashMap<>();
+        map.forEach((k, v) -> assertEquals(null, traversed.put(k, v)));
+        assertEquals(model, traversed);
+        assertEquals(model.hashCode(), map.hashCode());
+        assertEquals(
+                model.keySet().stream().sorted().collect(Collectors.toList()),
+                map.keys().iter().boxed().toList());
+        assertThrows(NoSuchElementException.class, () -> map.get(5000));
+    }
+
+    @Test
+    void testIntObjMap()
+    {
+        Random random = new Random(11);
+        IntObjMap<String> map = new IntObjMap<>(3);
+        Map<Integer, String> model = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(4000) - 2000;
+            String value = Integer.toString(i);
+            if (random.nextBoolean()) {
+                assertEquals(model.computeIfAbsent(key, k -> value),
+                        map.computeIfAbsent(key, k -> value));
+            } else {
+                model.put(key, value);
+                map.put(key, value);
+            }
+        }
+        assertEquals(model.size(), map.size());
+        for (int key = -2100; key < 2100; key++) {
+            assertEquals(Optional.ofNullable(model.get(key)), map.getOp(key));
+        }
+        Map<Integer, String> traversed = new HashMap<>();
+        map.forEach((k, v) -> assertEquals(null, traversed.put(k, v)));
+        assertEquals(model, traversed);
+        assertEquals(model.hashCode(), map.hashCode());
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+        assertThrows(NoSuchElementException.class, () -> map.get(5000));
+    }
+
+    @Test
+    void testEquality()
+    {
+        IntLongMap a = new IntLongMap(), b = new IntLongMap(100);
+        assertTrue(a.isEmpty());
+        assertEquals(a, b);
+        a.put(0, 1);
+        assertNotEquals(a, b);
+        b.put(7, 1);
+        assertNotEquals(a, b);
+        assertNotEquals(b, a);
+        a.put(7, 1);
+        b.put(0, 1);
+        assertEquals(a, b);
+        assertEquals("{0=1, 7=1}", a.toString());
+        assertFalse(a.isEmpty());
+    }
+}